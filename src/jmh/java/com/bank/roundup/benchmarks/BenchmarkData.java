@@ -0,0 +1,55 @@
+package com.bank.roundup.benchmarks;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.util.RoundUpConstants;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic transaction data for the benchmarks, so runs on different days and machines see the same input
+ */
+final class BenchmarkData {
+
+    static final long SEED = 20250421L;
+    static final Instant START = Instant.parse("2025-04-21T00:00:00Z");
+    static final int DAYS = 28;
+
+    private static final DateTimeFormatter ISO_FORMATTER =
+            DateTimeFormatter.ofPattern(RoundUpConstants.ISO_DATE_TIME_FORMAT).withZone(ZoneOffset.UTC);
+
+    private BenchmarkData() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Transactions spread evenly over DAYS days from START, roughly 80% outgoing, amounts between 1p and 120.00
+     */
+    static List<Transaction> transactions(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        long windowMillis = DAYS * 86_400_000L;
+
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setFeedItemUid(new UUID(random.nextLong(), random.nextLong()).toString());
+            transaction.setDirection(random.nextInt(5) == 0 ? TransactionDirection.IN : TransactionDirection.OUT);
+            transaction.setTransactionTime(ISO_FORMATTER.format(START.plusMillis(random.nextLong(windowMillis))));
+
+            Transaction.Amount amount = new Transaction.Amount();
+            amount.setCurrency(RoundUpConstants.DEFAULT_CURRENCY_CODE);
+            amount.setMinorUnits(1 + random.nextInt(12_000));
+            transaction.setAmount(amount);
+
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,38 @@
+package com.bank.roundup.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of target/benchmarks.jar
+ *
+ * Accepts the usual JMH command line (a benchmark regex, -p size=1000 etc.) and always adds the GC profiler, so every
+ * benchmark reports ops/s alongside gc.alloc.rate.norm - the bytes allocated per op. Results are also written as JSON
+ * to jmh-result.json (override with -rff) so runs can be diffed to spot regressions.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse("jmh-result.json"))
+                .build();
+
+        new Runner(options).run();
+    }
+}
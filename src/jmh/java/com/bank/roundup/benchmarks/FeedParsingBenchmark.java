@@ -0,0 +1,68 @@
+package com.bank.roundup.benchmarks;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.MockDataService;
+import com.bank.roundup.service.TransactionFeedReader;
+import com.bank.roundup.service.TransactionService;
+import com.bank.roundup.util.JsonMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Parsing the transactions feed produced by MockDataService.generateMockTransactionsResponse - the streaming
+ * TransactionFeedReader against binding the whole feed through a JsonNode tree
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeedParsingBenchmark {
+
+    // MockDataService generates 2-5 transactions a day
+    @Param({"7", "90", "365"})
+    private int days;
+
+    private final ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
+    private final TransactionFeedReader feedReader = new TransactionFeedReader();
+    private String responseBody;
+    private Predicate<Transaction> filter;
+
+    @Setup
+    public void setUp() {
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        LocalDate endDate = startDate.plusDays(days - 1);
+        responseBody = MockDataService.generateMockTransactionsResponse(startDate, endDate);
+        filter = TransactionService.isOutgoingBetween(startDate, endDate);
+    }
+
+    @Benchmark
+    public List<Transaction> streamingFeedReader() throws IOException {
+        return feedReader.readFeedItems(responseBody, filter);
+    }
+
+    @Benchmark
+    public List<Transaction> treeBinding() throws IOException {
+        JsonNode feedItems = objectMapper.readTree(responseBody).get("feedItems");
+        return Arrays.asList(objectMapper.treeToValue(feedItems, Transaction[].class));
+    }
+}
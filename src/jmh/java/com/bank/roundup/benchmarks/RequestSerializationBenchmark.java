@@ -0,0 +1,67 @@
+package com.bank.roundup.benchmarks;
+
+import com.bank.roundup.model.CurrencyAndAmount;
+import com.bank.roundup.model.SavingsGoalRequestV2;
+import com.bank.roundup.model.TopUpRequestV2;
+import com.bank.roundup.service.SavingsGoalRequestWriter;
+import com.bank.roundup.util.JsonMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Currency;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the SavingsGoalService request bodies - through the ObjectMapper as the service used to, and with the
+ * templated SavingsGoalRequestWriter it uses now
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
+    private final Currency currency = Currency.getInstance("GBP");
+    private int roundUpAmountPence = 1;
+
+    @Benchmark
+    public String savingsGoalRequest() throws JsonProcessingException {
+        SavingsGoalRequestV2 request = new SavingsGoalRequestV2();
+        request.setName("Holiday Fund");
+        request.setCurrency("GBP");
+        return objectMapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public String topUpRequest() throws JsonProcessingException {
+        CurrencyAndAmount amount = new CurrencyAndAmount();
+        amount.setCurrency("GBP");
+        amount.setMinorUnits(roundUpAmountPence++ & 0xFFFF);
+
+        TopUpRequestV2 request = new TopUpRequestV2();
+        request.setAmount(amount);
+        return objectMapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public byte[] savingsGoalRequestWriter() {
+        return SavingsGoalRequestWriter.writeSavingsGoalRequest("Holiday Fund", currency);
+    }
+
+    @Benchmark
+    public byte[] topUpRequestWriter() {
+        return SavingsGoalRequestWriter.writeTopUpRequest(roundUpAmountPence++ & 0xFFFF, currency);
+    }
+}
@@ -0,0 +1,62 @@
+package com.bank.roundup.benchmarks;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionBatch;
+import com.bank.roundup.service.TransactionService;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Roundup over a list of transactions - the BigDecimal reference implementation against the long pence path and
+ * the columnar batch. The 10M case holds ~2.7GB of Transaction objects, hence the larger heap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RoundUpCalculationBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private final TransactionService transactionService = new TransactionService("benchmark");
+    private List<Transaction> transactions;
+    private TransactionBatch batch;
+
+    @Setup
+    public void setUp() {
+        transactions = BenchmarkData.transactions(size);
+        batch = TransactionBatch.fromTransactions(transactions);
+    }
+
+    @Benchmark
+    public BigDecimal calculateRoundUpAmount() {
+        return transactionService.calculateRoundUpAmount(transactions);
+    }
+
+    @Benchmark
+    public long calculateRoundUpPence() {
+        return RoundUpCalculator.totalRoundUpPence(transactions);
+    }
+
+    @Benchmark
+    public long batchTotalRoundUpPence() {
+        return batch.totalRoundUpPence();
+    }
+}
@@ -0,0 +1,73 @@
+package com.bank.roundup.benchmarks;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionBatch;
+import com.bank.roundup.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * The date and direction filter applied to the feed - a week out of the four generated - on transaction objects
+ * and on the columnar batch
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionFilterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Transaction> transactions;
+    private TransactionBatch batch;
+    private Predicate<Transaction> filter;
+    private long fromEpochMilli;
+    private long toEpochMilli;
+
+    @Setup
+    public void setUp() {
+        transactions = BenchmarkData.transactions(size);
+        batch = TransactionBatch.fromTransactions(transactions);
+
+        LocalDate startDate = BenchmarkData.START.atZone(ZoneOffset.UTC).toLocalDate().plusDays(7);
+        LocalDate endDate = startDate.plusDays(6);
+        filter = TransactionService.isOutgoingBetween(startDate, endDate);
+        fromEpochMilli = startDate.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        toEpochMilli = endDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    @Benchmark
+    public List<Transaction> filterTransactions() {
+        List<Transaction> filtered = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if (filter.test(transaction)) {
+                filtered.add(transaction);
+            }
+        }
+        return filtered;
+    }
+
+    @Benchmark
+    public TransactionBatch filterBatch() {
+        return batch.filter(TransactionBatch.DIRECTION_OUT, fromEpochMilli, toEpochMilli);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.roundup.benchmarks;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.util.IsoTimestampParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction time handling, per transaction - converting the stored time to a LocalDate, and parsing a timestamp
+ * with the fixed format parser against OffsetDateTime.parse
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionTimeBenchmark {
+
+    private static final int TRANSACTIONS = 1024;
+
+    private List<Transaction> transactions;
+    private String[] timestamps;
+
+    @Setup
+    public void setUp() {
+        transactions = BenchmarkData.transactions(TRANSACTIONS);
+        timestamps = new String[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            timestamps[i] = transactions.get(i).getTransactionTime();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSACTIONS)
+    public void convertStringTransactionTimeToLocalDate(Blackhole blackhole) {
+        for (Transaction transaction : transactions) {
+            blackhole.consume(transaction.convertStringTransactionTimeToLocalDate());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSACTIONS)
+    public void isoTimestampParser(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(IsoTimestampParser.toEpochMilli(timestamp));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSACTIONS)
+    public void offsetDateTimeParse(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(OffsetDateTime.parse(timestamp).toInstant().toEpochMilli());
+        }
+    }
+}
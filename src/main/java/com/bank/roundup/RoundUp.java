@@ -1,7 +1,10 @@
 package com.bank.roundup;
 
+import com.bank.roundup.engine.RoundUpEngine;
+import com.bank.roundup.engine.RoundUpJob;
+import com.bank.roundup.engine.RoundUpResult;
+import com.bank.roundup.engine.RoundUpServices;
 import com.bank.roundup.model.Account;
-import com.bank.roundup.model.Transaction;
 import com.bank.roundup.model.UserSelections;
 import com.bank.roundup.service.AccountServiceInterface;
 import com.bank.roundup.service.SavingsGoalServiceInterface;
@@ -9,27 +12,34 @@ import com.bank.roundup.service.TransactionServiceInterface;
 import com.bank.roundup.ui.CLI;
 import com.bank.roundup.util.RoundUpConstants;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Currency;
 import java.util.List;
-import java.util.UUID;
 
+/**
+ * CLI front end for a single roundup - gathers the user's selections and hands the work to the RoundUpEngine
+ */
 public class RoundUp {
 
     private final CLI cli;
     private final AccountServiceInterface accountService;
-    private final TransactionServiceInterface transactionService;
-    private final SavingsGoalServiceInterface savingsGoalService;
-
-    public RoundUp(CLI cli, 
+    private final String authToken;
+    private final RoundUpEngine engine;
+
+    /**
+     * The services must have been created with authToken - the CLI runs its one job for that token on the calling thread
+     */
+    public RoundUp(CLI cli,
+                   String authToken,
                    AccountServiceInterface accountService,
                    TransactionServiceInterface transactionService, 
                    SavingsGoalServiceInterface savingsGoalService) {
         this.cli = cli;
+        this.authToken = authToken;
         this.accountService = accountService;
-        this.transactionService = transactionService;
-        this.savingsGoalService = savingsGoalService;
+
+        RoundUpServices services = new RoundUpServices(accountService, transactionService, savingsGoalService);
+        this.engine = new RoundUpEngine(token -> services, Runnable::run, 1);
     }
 
     public void startRoundUp() throws Exception {
@@ -51,32 +61,28 @@ public class RoundUp {
 
         Account selectedAccount = cli.askForAccountSelection(userAccounts);
 
-        List<Transaction> transactions = transactionService.getTransactionsForTimePeriod(
-                selections.getStartDate(),
-                endDate,
-                selectedAccount
-        );
-
-        System.out.println("Quantity of transactions: " + transactions.size());
-
-        //  compute roundup
-        BigDecimal roundUpAmountPounds = transactionService.calculateRoundUpAmount(transactions);
-        int roundUpAmountPence = roundUpAmountPounds.multiply(RoundUpConstants.HUNDRED).intValue();
+        // defaults to GBP for now - in future could determine dynamically based on account region or transaction origin region
+        Currency defaultCurrency = Currency.getInstance(RoundUpConstants.DEFAULT_CURRENCY_CODE);
 
-        System.out.println("Amount to be saved from roundup: " + roundUpAmountPence + "p");
-
-        //  create a savings goal
         //  initially intended to get existing goal from API - could be implemented in the future
-        if (!selections.getIsUsingExistingGoal()) {
+        //  so for an existing goal the roundup is calculated but there is no goal to transfer it to
+        String newSavingsGoalName = selections.getIsUsingExistingGoal() ? null : selections.getSavingsGoalName();
+
+        RoundUpJob job = new RoundUpJob(authToken, selectedAccount, selections.getStartDate(), endDate,
+                newSavingsGoalName, null, defaultCurrency);
 
-            // defaults to GBP for now - in future could determine dynamically based on account region or transaction origin region
-            Currency defaultCurrency = Currency.getInstance(RoundUpConstants.DEFAULT_CURRENCY_CODE);
-            UUID savingsGoalUid = savingsGoalService.createSavingsGoal(selections.getSavingsGoalName(), defaultCurrency, selectedAccount);
+        //  the roundup is shown before the goal is created and the money moved
+        RoundUpResult result = engine.run(job, calculated -> {
+            System.out.println("Quantity of transactions: " + calculated.getTransactionCount());
+            System.out.println("Amount to be saved from roundup: " + calculated.getRoundUpAmountPence() + "p");
+        });
 
-            savingsGoalService.addSavedMoneyToSavingsGoal(roundUpAmountPence, defaultCurrency, savingsGoalUid, selectedAccount);
+        if (!result.isSuccessful()) {
+            throw result.getFailure();
+        }
 
-        } else {
+        if (selections.getIsUsingExistingGoal()) {
             cli.displayMessage(RoundUpConstants.FEATURE_COMING_SOON);
         }
     }
-}
\ No newline at end of file
+}
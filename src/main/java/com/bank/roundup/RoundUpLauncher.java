@@ -1,15 +1,44 @@
 package com.bank.roundup;
 
+import com.bank.roundup.engine.RoundUpEngine;
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.journal.TransferJournal;
+import com.bank.roundup.schedule.RoundUpScheduler;
 import com.bank.roundup.ui.CLI;
 import com.bank.roundup.service.AccountService;
 import com.bank.roundup.service.TransactionService;
 import com.bank.roundup.service.SavingsGoalService;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs the interactive demo, or with the arguments --schedule <stateFile> the scheduled roundups for every account
+ * enrolled in the state file until the process is stopped
+ *
+ * Scheduled transfers are journaled in a TransferJournal beside the state file, replayed on startup, so a run
+ * repeated after a crash skips the transfers that already completed.
+ *
+ * Scheduler defaults can be overridden with system properties: roundup.schedule.threads,
+ * roundup.schedule.maxInFlight, roundup.schedule.tickSeconds and roundup.journal.dir (plus the RoundUpScheduler ones)
+ */
 public class RoundUpLauncher {
 
     private static final String DEMO_TOKEN = "demo-auth-token-12345";
+    private static final String SCHEDULE_ARGUMENT = "--schedule";
 
     public static void main(String[] args) throws Exception {
+        if (args.length > 0 && SCHEDULE_ARGUMENT.equals(args[0])) {
+            if (args.length != 2) {
+                System.err.println("Usage: RoundUpLauncher " + SCHEDULE_ARGUMENT + " <stateFile>");
+                System.exit(2);
+            }
+            runScheduler(Paths.get(args[1]));
+            return;
+        }
+
         System.out.println("=== Banking RoundUp Service Demo ===");
         System.out.println("This is a demonstration of a transaction roundup savings service.");
         System.out.println("For demo purposes, mock data is used instead of real banking APIs.");
@@ -22,7 +51,7 @@ public class RoundUpLauncher {
         SavingsGoalService savingsGoalService = new SavingsGoalService(DEMO_TOKEN);
 
         // Create RoundUp with proper dependencies
-        RoundUp roundUp = new RoundUp(cli, accountService, transactionService, savingsGoalService);
+        RoundUp roundUp = new RoundUp(cli, DEMO_TOKEN, accountService, transactionService, savingsGoalService);
 
         try {
             roundUp.startRoundUp();
@@ -33,4 +62,38 @@ public class RoundUpLauncher {
             cli.close();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Starts the scheduler on the state file and blocks - a shutdown hook waits for runs in progress and saves the state
+     */
+    private static void runScheduler(Path stateFile) throws Exception {
+        TransferJournal journal = new TransferJournal(
+                Paths.get(System.getProperty("roundup.journal.dir", stateFile + ".journal")));
+        if (!journal.getInDoubtTransfers().isEmpty()) {
+            System.out.println(journal.getInDoubtTransfers().size() + " transfers were in doubt when the last run stopped");
+        }
+
+        RoundUpEngine engine = new RoundUpEngine(RoundUpServices.journaling(RoundUpServices.bankApiFactory(), journal),
+                Integer.getInteger("roundup.schedule.threads", 4),
+                Integer.getInteger("roundup.schedule.maxInFlight", 16));
+        RoundUpScheduler scheduler = new RoundUpScheduler(engine, stateFile);
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                scheduler.close();
+                engine.close();
+                journal.close();
+            } catch (Exception e) {
+                System.err.println("Error stopping the scheduler: " + e.getMessage());
+            } finally {
+                stopped.countDown();
+            }
+        }, "roundup-scheduler-shutdown"));
+
+        scheduler.start(Duration.ofSeconds(Long.getLong("roundup.schedule.tickSeconds", 60L)));
+        System.out.println("Running scheduled roundups for " + scheduler.getEnrollments().size()
+                + " enrolled accounts from " + stateFile);
+        stopped.await();
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.roundup.cache;
+
+/**
+ * Interface for the caches in front of the Bank API services
+ * Implementations must be thread safe. Null values are not cached.
+ */
+public interface CacheInterface<K, V> {
+
+    /**
+     * Returns the cached value, or null if there is none or it has expired
+     */
+    V get(K key);
+
+    /**
+     * Caches a value - a bounded implementation may decline to keep it, or evict another entry to make room
+     */
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    void invalidateAll();
+
+    long size();
+
+    CacheStats getStats();
+}
@@ -0,0 +1,61 @@
+package com.bank.roundup.cache;
+
+/**
+ * Snapshot of a cache's counters
+ */
+public class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long rejections;
+    private final long expirations;
+
+    public CacheStats(long hits, long misses, long evictions, long rejections, long expirations) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.rejections = rejections;
+        this.expirations = expirations;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Lookups that found nothing, including those that found an expired entry
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Entries dropped to make room for a new entry
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * New entries not admitted to a full cache because they were no more popular than the entry they would replace
+     */
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d hitRate=%.3f evictions=%d rejections=%d expirations=%d",
+                hits, misses, getHitRate(), evictions, rejections, expirations);
+    }
+}
@@ -0,0 +1,222 @@
+package com.bank.roundup.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache with a time to live and frequency aware eviction
+ *
+ * Entries expire ttl after they were written. When the cache is full, a new entry is only admitted if its key has been
+ * asked for more often than the least recently used entry (the victim) - frequencies come from a small count-min
+ * sketch that is halved periodically so old popularity fades. This keeps the tokens and accounts that are looked up
+ * every run from being flushed out by a burst of one-off keys, which plain LRU would do.
+ *
+ * All operations take one lock and are amortized O(1), which is ample for caching remote calls. A full cache only
+ * drops expired entries from its least recently used end, stopping at the first live one, so an expired entry that
+ * was used more recently stays until it is looked up or reaches that end.
+ */
+public class TtlCache<K, V> implements CacheInterface<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final FrequencySketch sketch;
+
+    // access ordered so the eldest entry is the least recently used
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+    private long expirations;
+
+    public TtlCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache reading time from the given nanosecond clock, so expiry can be tested without waiting
+     */
+    public TtlCache(int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1: " + maxSize);
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.sketch = new FrequencySketch(maxSize);
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true);
+    }
+
+    @Override
+    public synchronized V get(K key) {
+        sketch.increment(key);
+
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+
+        Entry<V> newEntry = new Entry<>(value, clock.getAsLong() + ttlNanos);
+        if (entries.containsKey(key)) {
+            entries.put(key, newEntry);
+            return;
+        }
+
+        if (entries.size() >= maxSize) {
+            removeExpiredEldest();
+        }
+        if (entries.size() >= maxSize) {
+            Map.Entry<K, Entry<V>> victim = entries.entrySet().iterator().next();
+            if (sketch.frequency(key) <= sketch.frequency(victim.getKey())) {
+                // the newcomer is no more popular than what it would displace, so it is the one dropped
+                rejections++;
+                return;
+            }
+            entries.remove(victim.getKey());
+            evictions++;
+        }
+
+        entries.put(key, newEntry);
+    }
+
+    @Override
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized long size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, rejections, expirations);
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return clock.getAsLong() - entry.expiresAtNanos >= 0;
+    }
+
+    /**
+     * Removes expired entries from the least recently used end up to the first live one - each entry is removed at
+     * most once, so this is amortized O(1) rather than a scan of the whole cache on every admission
+     */
+    private void removeExpiredEldest() {
+        for (Iterator<Entry<V>> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            if (!isExpired(iterator.next())) {
+                return;
+            }
+            iterator.remove();
+            expirations++;
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAtNanos;
+
+        Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * Count-min sketch of key frequencies - four rows of small saturating counters, halved every 10 * maxSize
+     * increments. Estimates never undercount, and overcount only on hash collisions.
+     */
+    private static class FrequencySketch {
+
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final int[][] counters;
+        private final int mask;
+        private final int resetThreshold;
+        private int additions;
+
+        FrequencySketch(int maxSize) {
+            int width = Integer.highestOneBit(Math.max(16, Math.min(maxSize, 1 << 20)) * 2 - 1);
+            this.counters = new int[DEPTH][width];
+            this.mask = width - 1;
+            this.resetThreshold = 10 * Math.max(maxSize, 16);
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean incremented = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                    incremented = true;
+                }
+            }
+
+            if (incremented && ++additions >= resetThreshold) {
+                halve();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, counters[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void halve() {
+            for (int[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x45D9F3B;
+            return h ^ (h >>> 16);
+        }
+    }
+}
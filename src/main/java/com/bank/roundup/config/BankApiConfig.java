@@ -1,8 +1,19 @@
 package com.bank.roundup.config;
 
+import com.bank.roundup.util.RoundUpConstants;
+
+/**
+ * Bank API endpoints
+ *
+ * The base URL and the mock data switch can be overridden with the system properties roundup.api.baseUrl and
+ * roundup.api.useMockData, so the services can be pointed at a local stand-in server (see BankApiStubServer)
+ * and the real network path exercised end to end. Both are read on each call so tests can switch them at runtime.
+ */
 public class BankApiConfig {
 
     public static final String BASE_URL = "https://api.demobank.com/v1/";
+    public static final String BASE_URL_PROPERTY = "roundup.api.baseUrl";
+    public static final String USE_MOCK_DATA_PROPERTY = "roundup.api.useMockData";
 
     public static final String TRANSACTIONS_URL = "accounts/{accountUid}/categories/{categoryUid}/transactions";
     public static final String ACCOUNTS_URL = "accounts";
@@ -12,4 +23,26 @@ public class BankApiConfig {
     private BankApiConfig() {
         // Utility class
     }
-}
\ No newline at end of file
+
+    /**
+     * The base URL requests are sent to, always ending in a slash so the endpoint paths can be appended
+     */
+    public static String getBaseUrl() {
+        return withTrailingSlash(System.getProperty(BASE_URL_PROPERTY, BASE_URL));
+    }
+
+    /**
+     * The base URL with a slash appended if it does not already end in one
+     */
+    public static String withTrailingSlash(String baseUrl) {
+        return baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    /**
+     * Whether the services answer from MockDataService instead of calling the API
+     */
+    public static boolean isMockDataEnabled() {
+        String useMockData = System.getProperty(USE_MOCK_DATA_PROPERTY);
+        return useMockData == null ? RoundUpConstants.USE_MOCK_DATA_DEFAULT : Boolean.parseBoolean(useMockData);
+    }
+}
@@ -0,0 +1,204 @@
+package com.bank.roundup.engine;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.service.TransactionServiceInterface;
+import com.bank.roundup.util.RoundUpCalculator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs roundup jobs for many customers concurrently, independent of the CLI
+ *
+ * Each job fetches the transactions for its window, calculates the roundup, creates the savings goal if needed and
+ * transfers the roundup. Jobs run on the supplied executor with at most maxInFlight jobs submitted at once - submitting
+ * beyond that blocks the caller, so a stream of hundreds of thousands of jobs never queues more than maxInFlight.
+ * A failing job never fails the run: every job produces a RoundUpResult, failed ones carrying their cause.
+ */
+public class RoundUpEngine implements AutoCloseable {
+
+    private final RoundUpServices.Factory servicesFactory;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Semaphore inFlight;
+
+    /**
+     * Creates an engine running jobs on an external executor, which the engine will not shut down
+     */
+    public RoundUpEngine(RoundUpServices.Factory servicesFactory, Executor executor, int maxInFlight) {
+        this(servicesFactory, executor, null, maxInFlight);
+    }
+
+    /**
+     * Creates an engine with its own fixed pool of worker threads, shut down by close()
+     */
+    public RoundUpEngine(RoundUpServices.Factory servicesFactory, int threads, int maxInFlight) {
+        this(servicesFactory, null, Executors.newFixedThreadPool(threads, workerThreadFactory()), maxInFlight);
+    }
+
+    private RoundUpEngine(RoundUpServices.Factory servicesFactory, Executor executor, ExecutorService ownedExecutor, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.servicesFactory = servicesFactory;
+        this.ownedExecutor = ownedExecutor;
+        this.executor = ownedExecutor != null ? ownedExecutor : executor;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Runs a single job on the calling thread
+     */
+    public RoundUpResult run(RoundUpJob job) {
+        return run(job, null);
+    }
+
+    /**
+     * Runs a single job on the calling thread, handing the calculated roundup to the listener before any goal is
+     * created or money transferred - the listener gets a NO_GOAL result with the transaction count and amount
+     */
+    public RoundUpResult run(RoundUpJob job, Consumer<RoundUpResult> calculatedListener) {
+        long startNanos = System.nanoTime();
+
+        try {
+            RoundUpServices services = servicesFactory.forToken(job.getAuthToken());
+            TransactionServiceInterface transactionService = services.getTransactionService();
+            SavingsGoalServiceInterface savingsGoalService = services.getSavingsGoalService();
+
+            List<Transaction> transactions = transactionService.getTransactionsForTimePeriod(
+                    job.getStartDate(), job.getEndDate(), job.getAccount());
+            long roundUpAmountPence = transactionService.calculateRoundUpPence(transactions);
+
+            if (calculatedListener != null || !job.hasGoal()) {
+                RoundUpResult calculated = RoundUpResult.noGoal(job, transactions.size(), roundUpAmountPence,
+                        System.nanoTime() - startNanos);
+                if (calculatedListener != null) {
+                    calculatedListener.accept(calculated);
+                }
+                if (!job.hasGoal()) {
+                    return calculated;
+                }
+            }
+
+            UUID savingsGoalUid = job.getSavingsGoalUid();
+            if (savingsGoalUid == null) {
+                savingsGoalUid = savingsGoalService.createSavingsGoal(job.getSavingsGoalName(), job.getCurrency(), job.getAccount());
+            }
+
+            savingsGoalService.addSavedMoneyToSavingsGoal(RoundUpCalculator.toTransferPence(roundUpAmountPence),
+                    job.getCurrency(), savingsGoalUid, job.getAccount(), job.getTransferUid());
+
+            return RoundUpResult.transferred(job, transactions.size(), roundUpAmountPence, savingsGoalUid, System.nanoTime() - startNanos);
+
+        } catch (Exception e) {
+            return RoundUpResult.failed(job, e, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Submits a job to the executor, blocking while maxInFlight jobs are already running
+     * The returned future always completes normally - failures are reported in the result
+     */
+    public CompletableFuture<RoundUpResult> submit(RoundUpJob job) throws InterruptedException {
+        inFlight.acquire();
+
+        try {
+            return CompletableFuture.supplyAsync(() -> run(job), executor)
+                    .handle((result, error) -> {
+                        inFlight.release();
+                        return error == null ? result : RoundUpResult.failed(job, new RuntimeException(error), 0L);
+                    });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            return CompletableFuture.completedFuture(RoundUpResult.failed(job, e, 0L));
+        }
+    }
+
+    /**
+     * Runs every job from the iterator, handing each result to the consumer as it completes
+     * Jobs are pulled lazily so the iterator can be backed by a stream of any size. The consumer is called from
+     * worker threads and must be thread safe. Returns once every job has completed.
+     *
+     * @return number of jobs run
+     */
+    public int runAll(Iterator<RoundUpJob> jobs, Consumer<RoundUpResult> resultConsumer) throws InterruptedException {
+        AtomicInteger outstanding = new AtomicInteger(1);
+        CompletableFuture<Void> allDone = new CompletableFuture<>();
+        int submitted = 0;
+
+        while (jobs.hasNext()) {
+            outstanding.incrementAndGet();
+            submit(jobs.next()).thenAccept(result -> {
+                try {
+                    resultConsumer.accept(result);
+                } finally {
+                    if (outstanding.decrementAndGet() == 0) {
+                        allDone.complete(null);
+                    }
+                }
+            });
+            submitted++;
+        }
+
+        if (outstanding.decrementAndGet() == 0) {
+            allDone.complete(null);
+        }
+        allDone.join();
+
+        return submitted;
+    }
+
+    /**
+     * Runs every job and returns the results in the same order as the jobs
+     */
+    public List<RoundUpResult> runAll(List<RoundUpJob> jobs) throws InterruptedException {
+        List<CompletableFuture<RoundUpResult>> futures = new ArrayList<>(jobs.size());
+        for (RoundUpJob job : jobs) {
+            futures.add(submit(job));
+        }
+
+        List<RoundUpResult> results = new ArrayList<>(jobs.size());
+        for (CompletableFuture<RoundUpResult> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Shuts down the engine's own worker pool, waiting for running jobs to finish
+     * Has no effect on an external executor. If interrupted while waiting it stops waiting and keeps the interrupt.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            try {
+                ownedExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "roundup-engine-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
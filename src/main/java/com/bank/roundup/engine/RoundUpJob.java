@@ -0,0 +1,79 @@
+package com.bank.roundup.engine;
+
+import com.bank.roundup.model.Account;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * A single roundup for one customer account over one date window
+ *
+ * The goal is either an existing savings goal (savingsGoalUid) or the name of a goal to create (savingsGoalName).
+ * When neither is set the roundup is calculated but nothing is transferred.
+ */
+public class RoundUpJob {
+
+    private final String authToken;
+    private final Account account;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final String savingsGoalName;
+    private final UUID savingsGoalUid;
+    private final Currency currency;
+
+    public RoundUpJob(String authToken, Account account, LocalDate startDate, LocalDate endDate,
+                      String savingsGoalName, UUID savingsGoalUid, Currency currency) {
+        this.authToken = authToken;
+        this.account = account;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.savingsGoalName = savingsGoalName;
+        this.savingsGoalUid = savingsGoalUid;
+        this.currency = currency;
+    }
+
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public String getSavingsGoalName() {
+        return savingsGoalName;
+    }
+
+    public UUID getSavingsGoalUid() {
+        return savingsGoalUid;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public boolean hasGoal() {
+        return savingsGoalUid != null || savingsGoalName != null;
+    }
+
+    /**
+     * Transfer uid derived from the account, goal and window, so running the same job again reuses the same uid
+     * and the Bank API applies the transfer once. The goal is identified by uid when set, else by name.
+     */
+    public UUID getTransferUid() {
+        UUID accountUid = account != null ? account.getAccountUid() : null;
+        String goal = savingsGoalUid != null ? savingsGoalUid.toString() : savingsGoalName;
+        String key = accountUid + "/" + goal + "/" + startDate + "/" + endDate;
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package com.bank.roundup.engine;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a single RoundUpJob - either completed (with or without a transfer) or failed with the cause
+ */
+public class RoundUpResult {
+
+    public enum Status {
+        TRANSFERRED,
+        NO_GOAL,
+        FAILED
+    }
+
+    private final RoundUpJob job;
+    private final Status status;
+    private final int transactionCount;
+    private final long roundUpAmountPence;
+    private final UUID savingsGoalUid;
+    private final Exception failure;
+    private final long durationNanos;
+
+    private RoundUpResult(RoundUpJob job, Status status, int transactionCount, long roundUpAmountPence,
+                          UUID savingsGoalUid, Exception failure, long durationNanos) {
+        this.job = job;
+        this.status = status;
+        this.transactionCount = transactionCount;
+        this.roundUpAmountPence = roundUpAmountPence;
+        this.savingsGoalUid = savingsGoalUid;
+        this.failure = failure;
+        this.durationNanos = durationNanos;
+    }
+
+    static RoundUpResult transferred(RoundUpJob job, int transactionCount, long roundUpAmountPence, UUID savingsGoalUid, long durationNanos) {
+        return new RoundUpResult(job, Status.TRANSFERRED, transactionCount, roundUpAmountPence, savingsGoalUid, null, durationNanos);
+    }
+
+    static RoundUpResult noGoal(RoundUpJob job, int transactionCount, long roundUpAmountPence, long durationNanos) {
+        return new RoundUpResult(job, Status.NO_GOAL, transactionCount, roundUpAmountPence, null, null, durationNanos);
+    }
+
+    static RoundUpResult failed(RoundUpJob job, Exception failure, long durationNanos) {
+        return new RoundUpResult(job, Status.FAILED, 0, 0L, null, failure, durationNanos);
+    }
+
+    public RoundUpJob getJob() {
+        return job;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccessful() {
+        return status != Status.FAILED;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public long getRoundUpAmountPence() {
+        return roundUpAmountPence;
+    }
+
+    public UUID getSavingsGoalUid() {
+        return savingsGoalUid;
+    }
+
+    public Exception getFailure() {
+        return failure;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+}
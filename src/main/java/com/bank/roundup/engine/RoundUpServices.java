@@ -0,0 +1,133 @@
+package com.bank.roundup.engine;
+
+import com.bank.roundup.cache.CacheInterface;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.journal.TransferJournal;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.service.AccountService;
+import com.bank.roundup.service.AccountServiceInterface;
+import com.bank.roundup.service.CachingAccountService;
+import com.bank.roundup.service.CachingSavingsGoalService;
+import com.bank.roundup.service.IncrementalTransactionService;
+import com.bank.roundup.service.JournalingSavingsGoalService;
+import com.bank.roundup.service.SavingsGoalService;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.service.TransactionFeedStore;
+import com.bank.roundup.service.TransactionService;
+import com.bank.roundup.service.TransactionServiceInterface;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The set of services a roundup needs, bound to one customer's auth token
+ */
+public class RoundUpServices {
+
+    /**
+     * Creates the services for an auth token - called once per job so implementations may cache per token
+     */
+    public interface Factory {
+        RoundUpServices forToken(String authToken);
+    }
+
+    private final AccountServiceInterface accountService;
+    private final TransactionServiceInterface transactionService;
+    private final SavingsGoalServiceInterface savingsGoalService;
+
+    public RoundUpServices(AccountServiceInterface accountService,
+                           TransactionServiceInterface transactionService,
+                           SavingsGoalServiceInterface savingsGoalService) {
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.savingsGoalService = savingsGoalService;
+    }
+
+    /**
+     * Default factory creating the Bank API backed services for each token
+     */
+    public static Factory bankApiFactory() {
+        return authToken -> new RoundUpServices(
+                new AccountService(authToken),
+                new TransactionService(authToken),
+                new SavingsGoalService(authToken));
+    }
+
+    /**
+     * Bank API backed services sent to the given base URL, or answered from mock data, whatever the system properties
+     */
+    public static Factory bankApiFactory(String baseUrl, boolean useMockData) {
+        BankHttpTransport transport = BankHttpTransport.getDefaultInstance();
+        return authToken -> new RoundUpServices(
+                new AccountService(authToken, transport, baseUrl, useMockData),
+                new TransactionService(authToken, transport, baseUrl, useMockData),
+                new SavingsGoalService(authToken, transport, baseUrl, useMockData));
+    }
+
+    /**
+     * Wraps another factory's services so accounts and savings goal lookups are cached across all tokens
+     * The caches are shared by every RoundUpServices the factory creates, so pass the same caches to share them further.
+     */
+    public static Factory caching(Factory servicesFactory, CacheInterface<String, List<Account>> accountCache,
+                                  CacheInterface<String, UUID> savingsGoalCache) {
+        return authToken -> {
+            RoundUpServices services = servicesFactory.forToken(authToken);
+            return new RoundUpServices(
+                    new CachingAccountService(authToken, services.getAccountService(), accountCache),
+                    services.getTransactionService(),
+                    new CachingSavingsGoalService(services.getSavingsGoalService(), savingsGoalCache));
+        };
+    }
+
+    /**
+     * Wraps another factory's transaction service so transactions are synced incrementally into the given store
+     * Share one store between runs so each run only fetches what is new since the last.
+     */
+    public static Factory incremental(Factory servicesFactory, TransactionFeedStore feedStore) {
+        return authToken -> {
+            RoundUpServices services = servicesFactory.forToken(authToken);
+            return new RoundUpServices(
+                    services.getAccountService(),
+                    new IncrementalTransactionService(services.getTransactionService(), feedStore),
+                    services.getSavingsGoalService());
+        };
+    }
+
+    /**
+     * Wraps another factory's savings goal service so every transfer is journaled and completed ones are skipped
+     */
+    public static Factory journaling(Factory servicesFactory, TransferJournal journal) {
+        return authToken -> {
+            RoundUpServices services = servicesFactory.forToken(authToken);
+            return new RoundUpServices(
+                    services.getAccountService(),
+                    services.getTransactionService(),
+                    new JournalingSavingsGoalService(services.getSavingsGoalService(), journal));
+        };
+    }
+
+    /**
+     * Wraps another factory's savings goal service so transfers to the same goal are combined by the dispatcher
+     */
+    public static Factory coalescing(Factory servicesFactory, TransferDispatcher dispatcher) {
+        return authToken -> {
+            RoundUpServices services = servicesFactory.forToken(authToken);
+            return new RoundUpServices(
+                    services.getAccountService(),
+                    services.getTransactionService(),
+                    dispatcher.forToken(authToken, services.getSavingsGoalService()));
+        };
+    }
+
+    public AccountServiceInterface getAccountService() {
+        return accountService;
+    }
+
+    public TransactionServiceInterface getTransactionService() {
+        return transactionService;
+    }
+
+    public SavingsGoalServiceInterface getSavingsGoalService() {
+        return savingsGoalService;
+    }
+}
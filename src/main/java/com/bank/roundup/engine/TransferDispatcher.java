@@ -0,0 +1,297 @@
+package com.bank.roundup.engine;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.util.AsyncSupport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces savings goal top-ups so each goal gets one combined transfer per batch instead of one per roundup
+ *
+ * Transfers to the same (auth token, account, goal, currency) are summed into an open batch, which is sent as a single
+ * PUT once it holds maxBatchSize transfers, once maxDelay has passed since its first transfer, or when flush() or
+ * close() is called at the end of a run. Jobs running concurrently against the same goal therefore share one call.
+ *
+ * Semantics:
+ * - every transfer belongs to exactly one batch, and its future (or blocking call) completes with that batch's PUT -
+ *   a transfer is only reported done once the money has moved, and a failed PUT fails every transfer in it
+ * - a failed batch is not re-queued; batches for other goals are independent, so a flush can partly fail
+ * - a batch of one transfer is sent under that transfer's own uid, so retrying it is idempotent as usual. A combined
+ *   batch is sent under a uid derived from the uids it happened to collect - a re-run that batches the same transfers
+ *   differently sends new uids, so only coalesce transfers whose re-runs are guarded some other way (such as by a
+ *   TransferJournal wrapped around the dispatcher, which skips transfers already completed)
+ * - a batch is flushed early rather than let its total overflow the API's int amount
+ * - transfers added after close() fail with a BankApiException rather than wait for a batch that is never sent
+ *
+ * Defaults can be overridden with system properties: roundup.dispatch.maxBatchSize and roundup.dispatch.maxDelayMs
+ */
+public class TransferDispatcher implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+    public static final long DEFAULT_MAX_DELAY_MS = 250L;
+
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final ScheduledExecutorService timer;
+
+    // guarded by this
+    private final Map<String, Batch> openBatches = new HashMap<>();
+    private final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+    private boolean closed;
+
+    private final AtomicLong transferCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    public TransferDispatcher() {
+        this(Integer.getInteger("roundup.dispatch.maxBatchSize", DEFAULT_MAX_BATCH_SIZE),
+                Duration.ofMillis(Long.getLong("roundup.dispatch.maxDelayMs", DEFAULT_MAX_DELAY_MS)));
+    }
+
+    public TransferDispatcher(int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1: " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "roundup-transfer-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Savings goal service for one token whose transfers go through this dispatcher - goal lookups and creation are passed through
+     */
+    public SavingsGoalServiceInterface forToken(String authToken, SavingsGoalServiceInterface delegate) {
+        return new CoalescingSavingsGoalService(authToken, delegate);
+    }
+
+    /**
+     * Sends every open batch now
+     *
+     * @return future completing when those batches and any already in flight have finished, successful or not
+     */
+    public CompletableFuture<Void> flush() {
+        List<Batch> batches;
+        synchronized (this) {
+            batches = new ArrayList<>(openBatches.values());
+            openBatches.clear();
+        }
+        for (Batch batch : batches) {
+            send(batch);
+        }
+
+        CompletableFuture<?>[] pending;
+        synchronized (this) {
+            pending = inFlight.toArray(new CompletableFuture<?>[0]);
+        }
+        return CompletableFuture.allOf(pending).handle((ignored, error) -> null);
+    }
+
+    /**
+     * Flushes every open batch, waits for all transfers to finish and stops the timer
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush().join();
+        timer.shutdownNow();
+    }
+
+    public long getTransferCount() {
+        return transferCount.get();
+    }
+
+    /**
+     * Combined transfers sent so far - compare with getTransferCount() for the coalescing ratio
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    private CompletableFuture<Void> add(String authToken, SavingsGoalServiceInterface delegate, int amountPence,
+                                        Currency currency, UUID savingsGoalUid, Account account, UUID transferUid) {
+        String key = authToken + "/" + account.getAccountUid() + "/" + savingsGoalUid + "/" + currency.getCurrencyCode();
+        Batch full = null;
+        Batch overflowing = null;
+        CompletableFuture<Void> result;
+
+        synchronized (this) {
+            if (closed) {
+                return AsyncSupport.failedFuture(new BankApiException("Transfer dispatcher is closed"));
+            }
+            Batch batch = openBatches.get(key);
+            if (batch != null && batch.totalPence + amountPence > Integer.MAX_VALUE) {
+                openBatches.remove(key);
+                overflowing = batch;
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch(key, delegate, currency, savingsGoalUid, account);
+                openBatches.put(key, batch);
+                scheduleFlush(batch);
+            }
+
+            batch.add(amountPence, transferUid);
+            result = batch.result.copy();
+            if (batch.transferUids.size() >= maxBatchSize) {
+                openBatches.remove(key);
+                full = batch;
+            }
+        }
+        transferCount.incrementAndGet();
+
+        if (overflowing != null) {
+            send(overflowing);
+        }
+        if (full != null) {
+            send(full);
+        }
+        return result;
+    }
+
+    private void scheduleFlush(Batch batch) {
+        timer.schedule(() -> {
+            synchronized (this) {
+                if (openBatches.get(batch.key) != batch) {
+                    return;
+                }
+                openBatches.remove(batch.key);
+            }
+            send(batch);
+        }, maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void send(Batch batch) {
+        synchronized (this) {
+            inFlight.add(batch.result);
+        }
+        batchCount.incrementAndGet();
+
+        batch.delegate.addSavedMoneyToSavingsGoalAsync((int) batch.totalPence, batch.currency, batch.savingsGoalUid,
+                batch.account, batch.transferUid()).whenComplete((ignored, error) -> {
+            if (error == null) {
+                batch.result.complete(null);
+            } else {
+                batch.result.completeExceptionally(AsyncSupport.toBankApiException(error));
+            }
+            synchronized (this) {
+                inFlight.remove(batch.result);
+            }
+        });
+    }
+
+    /**
+     * Transfers summed for one goal, sent together
+     */
+    private static class Batch {
+
+        private final String key;
+        private final SavingsGoalServiceInterface delegate;
+        private final Currency currency;
+        private final UUID savingsGoalUid;
+        private final Account account;
+        private final List<UUID> transferUids = new ArrayList<>();
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private long totalPence;
+
+        Batch(String key, SavingsGoalServiceInterface delegate, Currency currency, UUID savingsGoalUid, Account account) {
+            this.key = key;
+            this.delegate = delegate;
+            this.currency = currency;
+            this.savingsGoalUid = savingsGoalUid;
+            this.account = account;
+        }
+
+        void add(int amountPence, UUID transferUid) {
+            totalPence += amountPence;
+            transferUids.add(transferUid != null ? transferUid : UUID.randomUUID());
+        }
+
+        /**
+         * The batch's transfer uid - a single transfer keeps its own, otherwise one derived from all of them
+         */
+        UUID transferUid() {
+            if (transferUids.size() == 1) {
+                return transferUids.get(0);
+            }
+            List<UUID> sorted = new ArrayList<>(transferUids);
+            Collections.sort(sorted);
+            return UUID.nameUUIDFromBytes(sorted.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private class CoalescingSavingsGoalService implements SavingsGoalServiceInterface {
+
+        private final String authToken;
+        private final SavingsGoalServiceInterface delegate;
+
+        CoalescingSavingsGoalService(String authToken, SavingsGoalServiceInterface delegate) {
+            this.authToken = authToken;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public UUID findSavingsGoal(String savingsGoalName, Account account) throws JsonProcessingException, BankApiException {
+            return delegate.findSavingsGoal(savingsGoalName, account);
+        }
+
+        @Override
+        public CompletableFuture<UUID> findSavingsGoalAsync(String savingsGoalName, Account account) {
+            return delegate.findSavingsGoalAsync(savingsGoalName, account);
+        }
+
+        @Override
+        public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account)
+                throws JsonProcessingException, BankApiException {
+            return delegate.createSavingsGoal(savingsGoalName, currency, account);
+        }
+
+        @Override
+        public CompletableFuture<UUID> createSavingsGoalAsync(String savingsGoalName, Currency currency, Account account) {
+            return delegate.createSavingsGoalAsync(savingsGoalName, currency, account);
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account)
+                throws BankApiException {
+            AsyncSupport.join(add(authToken, delegate, roundUpAmountPence, currency, savingsGoalUid, account, null));
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account,
+                                               UUID transferUid) throws BankApiException {
+            AsyncSupport.join(add(authToken, delegate, roundUpAmountPence, currency, savingsGoalUid, account, transferUid));
+        }
+
+        @Override
+        public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) {
+            return add(authToken, delegate, roundUpAmountPence, currency, savingsGoalUid, account, null);
+        }
+
+        @Override
+        public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid,
+                                                                      Account account, UUID transferUid) {
+            return add(authToken, delegate, roundUpAmountPence, currency, savingsGoalUid, account, transferUid);
+        }
+    }
+}
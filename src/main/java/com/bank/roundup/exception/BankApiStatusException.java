@@ -0,0 +1,40 @@
+package com.bank.roundup.exception;
+
+import java.time.Duration;
+
+/**
+ * The Bank API answered with an error status - carries the status and any Retry-After so callers can decide to retry
+ */
+public class BankApiStatusException extends BankApiException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final String responseBody;
+    private final Duration retryAfter;
+
+    public BankApiStatusException(int statusCode, String responseBody, Duration retryAfter) {
+        super("API Error: " + statusCode + " - " + responseBody);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.retryAfter = retryAfter;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * The error body as received, for logging through LogBody - the message carries it unredacted
+     */
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * How long the API asked us to wait before retrying, or null if it did not say
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
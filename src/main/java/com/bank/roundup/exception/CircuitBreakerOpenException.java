@@ -0,0 +1,31 @@
+package com.bank.roundup.exception;
+
+import java.time.Duration;
+
+/**
+ * A request was refused without being sent because the endpoint's circuit breaker is open
+ */
+public class CircuitBreakerOpenException extends BankApiException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String endpoint;
+    private final Duration retryAfter;
+
+    public CircuitBreakerOpenException(String endpoint, Duration retryAfter) {
+        super("Circuit open for " + endpoint + " - failing fast, next probe in " + retryAfter.toMillis() + "ms");
+        this.endpoint = endpoint;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * How long until the breaker lets a probe request through - zero if probes are already in flight
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
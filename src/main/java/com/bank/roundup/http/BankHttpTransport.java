@@ -0,0 +1,175 @@
+package com.bank.roundup.http;
+
+import com.bank.roundup.metrics.RoundUpMetrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Shared HTTP transport for every Bank API service
+ *
+ * Wraps a single java.net.http.HttpClient so connections (and TLS sessions) are pooled and kept alive across calls and
+ * across customers, instead of opening a new HttpURLConnection per request. Offers both a blocking and a
+ * CompletableFuture based send. The transport also holds the RetryPolicy, CircuitBreaker, RateLimiter and
+ * ConcurrencyLimiter, so every service shares the same retry budgets, breakers and outbound limits.
+ *
+ * Requests advertise gzip and responses are kept as bytes - both sends hand back the body as a stream to be read as it
+ * arrives - and decodedBody undoes any gzip encoding, so a body can be parsed straight from the bytes without being
+ * decoded into a String first.
+ */
+public class BankHttpTransport {
+
+    private static final String USER_AGENT = "Bank RoundUp Demo";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private static final BankHttpTransport defaultInstance = createDefaultInstance();
+
+    private final HttpClient httpClient;
+    private final HttpTransportConfig config;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    public BankHttpTransport(HttpTransportConfig config) {
+        this(config, RetryPolicy.defaults());
+    }
+
+    public BankHttpTransport(HttpTransportConfig config, RetryPolicy retryPolicy) {
+        this(config, retryPolicy, CircuitBreaker.defaults(), RateLimiter.defaults(), ConcurrencyLimiter.defaults());
+    }
+
+    public BankHttpTransport(HttpTransportConfig config, RetryPolicy retryPolicy, RateLimiter rateLimiter,
+                             ConcurrencyLimiter concurrencyLimiter) {
+        this(config, retryPolicy, CircuitBreaker.defaults(), rateLimiter, concurrencyLimiter);
+    }
+
+    public BankHttpTransport(HttpTransportConfig config, RetryPolicy retryPolicy, CircuitBreaker circuitBreaker,
+                             RateLimiter rateLimiter, ConcurrencyLimiter concurrencyLimiter) {
+        this.config = config;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.httpClient = HttpClient.newBuilder()
+                .version(config.getVersion())
+                .connectTimeout(config.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Shared transport used by services that are not given one explicitly
+     */
+    public static BankHttpTransport getDefaultInstance() {
+        return defaultInstance;
+    }
+
+    private static BankHttpTransport createDefaultInstance() {
+        BankHttpTransport transport = new BankHttpTransport(HttpTransportConfig.defaults());
+        transport.registerMetrics(RoundUpMetrics.getDefaultInstance());
+        return transport;
+    }
+
+    /**
+     * Exposes the state of the retry policy, circuit breaker and limiters through the metrics, read when exported
+     */
+    public void registerMetrics(RoundUpMetrics metrics) {
+        metrics.registerCounter("retries_total", "Bank API requests retried", retryPolicy::getRetryCount);
+        metrics.registerCounter("retry_budget_exhausted_total", "Retries refused because the endpoint's budget was spent",
+                retryPolicy::getBudgetExhaustedCount);
+        metrics.registerCounter("circuit_breaker_opened_total", "Times a circuit breaker opened", circuitBreaker::getOpenedCount);
+        metrics.registerCounter("circuit_breaker_rejected_total", "Requests failed fast by an open circuit breaker",
+                circuitBreaker::getRejectedCount);
+        metrics.registerGauge("circuit_breakers_open", "Endpoints whose circuit breaker is not closed", () ->
+                circuitBreaker.getStates().values().stream().filter(state -> state != CircuitBreaker.State.CLOSED).count());
+        metrics.registerCounter("rate_limit_delayed_total", "Requests delayed by the rate limiter", rateLimiter::getDelayedCount);
+        metrics.registerGauge("concurrency_limit", "Current adaptive concurrency limit", concurrencyLimiter::getLimit);
+        metrics.registerGauge("concurrency_in_flight", "Requests holding a concurrency permit", concurrencyLimiter::getInFlight);
+        metrics.registerGauge("concurrency_waiting", "Requests waiting for a concurrency permit", concurrencyLimiter::getWaiting);
+        metrics.registerCounter("concurrency_overload_total", "Responses and failures counted as overload",
+                concurrencyLimiter::getOverloadCount);
+    }
+
+    /**
+     * Builds a JSON request with the common headers - a body is only sent for PUT and POST
+     */
+    public HttpRequest buildRequest(String method, String fullUrl, String authToken, String requestBody) {
+        return buildRequest(method, fullUrl, authToken, requestBody != null ? requestBody.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Builds a JSON request with a body that is already UTF-8 bytes
+     * The array is read each time the request is sent, including retries, so it must not be changed or reused after.
+     */
+    public HttpRequest buildRequest(String method, String fullUrl, String authToken, byte[] requestBody) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(fullUrl))
+                .timeout(config.getRequestTimeout())
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .header("Authorization", "Bearer " + authToken)
+                .header("User-Agent", USER_AGENT);
+
+        if (requestBody != null) {
+            builder.header("Content-Type", "application/json");
+            builder.method(method, HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Sends the request and returns once the headers have arrived - the body is streamed as it is read
+     * The body stream must be read to the end, or closed, for the connection to be reused.
+     */
+    public HttpResponse<InputStream> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Sends the request without blocking, completing once the headers have arrived - the body is streamed as it is read
+     * The body stream must be read to the end, or closed, for the connection to be reused.
+     */
+    public CompletableFuture<HttpResponse<InputStream>> sendAsync(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Wraps the raw body in a decompressing stream when the response is gzip encoded
+     */
+    public static InputStream decodedBody(HttpResponse<?> response, InputStream rawBody) throws IOException {
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.trim().equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzipped ? new GZIPInputStream(rawBody, GZIP_BUFFER_SIZE) : rawBody;
+    }
+
+    public HttpTransportConfig getConfig() {
+        return config;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+}
@@ -0,0 +1,303 @@
+package com.bank.roundup.http;
+
+import com.bank.roundup.exception.CircuitBreakerOpenException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint circuit breakers for Bank API requests
+ *
+ * Each endpoint keeps the outcomes of its last windowSize calls. A call fails if it gets no response or a 408 or 5xx
+ * status, and is slow if it takes longer than slowCallDuration. Once at least minimumCalls are in the window and the
+ * failure rate reaches failureRateThreshold, or the slow call rate reaches slowCallRateThreshold, the breaker opens.
+ *
+ * While OPEN every call fails at once with a CircuitBreakerOpenException, without touching the network. After
+ * openDuration the breaker goes HALF_OPEN and lets halfOpenProbes calls through: if all of them succeed it closes
+ * with a fresh window, and if any fails or is slow it opens again. Other 4xx responses, including 429, show the API
+ * is up and count as successes - throttling is left to the ConcurrencyLimiter.
+ *
+ * Defaults can be overridden with system properties: roundup.breaker.windowSize, roundup.breaker.minimumCalls,
+ * roundup.breaker.failureRateThreshold, roundup.breaker.slowCallMs, roundup.breaker.slowCallRateThreshold,
+ * roundup.breaker.openMs and roundup.breaker.halfOpenProbes
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    public static final int DEFAULT_WINDOW_SIZE = 50;
+    public static final int DEFAULT_MINIMUM_CALLS = 20;
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    public static final long DEFAULT_SLOW_CALL_MS = 5_000L;
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.8;
+    public static final long DEFAULT_OPEN_MS = 10_000L;
+    public static final int DEFAULT_HALF_OPEN_PROBES = 3;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final Map<String, EndpointCircuit> circuits = new ConcurrentHashMap<>();
+    private final AtomicLong openedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration slowCallDuration,
+                          double slowCallRateThreshold, Duration openDuration, int halfOpenProbes) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("need 1 <= minimumCalls <= windowSize and at least one half open probe");
+        }
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    public static CircuitBreaker defaults() {
+        return new CircuitBreaker(
+                Integer.getInteger("roundup.breaker.windowSize", DEFAULT_WINDOW_SIZE),
+                Integer.getInteger("roundup.breaker.minimumCalls", DEFAULT_MINIMUM_CALLS),
+                Double.parseDouble(System.getProperty("roundup.breaker.failureRateThreshold", String.valueOf(DEFAULT_FAILURE_RATE_THRESHOLD))),
+                Duration.ofMillis(Long.getLong("roundup.breaker.slowCallMs", DEFAULT_SLOW_CALL_MS)),
+                Double.parseDouble(System.getProperty("roundup.breaker.slowCallRateThreshold", String.valueOf(DEFAULT_SLOW_CALL_RATE_THRESHOLD))),
+                Duration.ofMillis(Long.getLong("roundup.breaker.openMs", DEFAULT_OPEN_MS)),
+                Integer.getInteger("roundup.breaker.halfOpenProbes", DEFAULT_HALF_OPEN_PROBES));
+    }
+
+    /**
+     * Breaker that never opens
+     */
+    public static CircuitBreaker disabled() {
+        return new CircuitBreaker(1, 1, Double.MAX_VALUE, Duration.ofDays(1), Double.MAX_VALUE, Duration.ZERO, 1);
+    }
+
+    /**
+     * Admits a call to the endpoint, or fails fast if its breaker is open or its half open probes are all in flight
+     * The call must be finished with onResponse, onFailure or cancel.
+     */
+    public Call acquire(String endpoint) throws CircuitBreakerOpenException {
+        return circuits.computeIfAbsent(endpoint, EndpointCircuit::new).acquire();
+    }
+
+    public State getState(String endpoint) {
+        EndpointCircuit circuit = circuits.get(endpoint);
+        return circuit == null ? State.CLOSED : circuit.state();
+    }
+
+    /**
+     * State of every endpoint called so far, sorted by endpoint
+     */
+    public Map<String, State> getStates() {
+        Map<String, State> states = new TreeMap<>();
+        circuits.forEach((endpoint, circuit) -> states.put(endpoint, circuit.state()));
+        return states;
+    }
+
+    /**
+     * Times any breaker has opened, including re-opening after a failed probe
+     */
+    public long getOpenedCount() {
+        return openedCount.get();
+    }
+
+    /**
+     * Calls failed fast without being sent
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Whether a call's failure says the endpoint is unhealthy - no response at all, or a 408 or 5xx status
+     */
+    static boolean isFailure(int statusCode) {
+        return statusCode == 408 || statusCode >= 500;
+    }
+
+    /**
+     * The breaker and rolling window for one endpoint
+     */
+    private class EndpointCircuit {
+
+        private static final byte SUCCESS = 1;
+        private static final byte FAILURE = 2;
+        private static final byte SLOW = 4;
+
+        private final String endpoint;
+
+        // guarded by this
+        private State state = State.CLOSED;
+        private final byte[] outcomes = new byte[windowSize];
+        private int next;
+        private int calls;
+        private int failures;
+        private int slowCalls;
+        private long openedAtNanos;
+        private int probesStarted;
+        private int probesSucceeded;
+        // bumped on every state change, so calls admitted before it are not counted after it
+        private long generation;
+
+        EndpointCircuit(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized Call acquire() throws CircuitBreakerOpenException {
+            if (state == State.OPEN) {
+                long openForNanos = openNanos - (System.nanoTime() - openedAtNanos);
+                if (openForNanos > 0) {
+                    rejectedCount.incrementAndGet();
+                    throw new CircuitBreakerOpenException(endpoint, Duration.ofNanos(openForNanos));
+                }
+                transition(State.HALF_OPEN);
+            }
+
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= halfOpenProbes) {
+                    rejectedCount.incrementAndGet();
+                    throw new CircuitBreakerOpenException(endpoint, Duration.ZERO);
+                }
+                probesStarted++;
+            }
+            return new Call(this, generation);
+        }
+
+        synchronized void record(long callGeneration, byte outcome) {
+            if (callGeneration != generation) {
+                return;
+            }
+
+            if (state == State.HALF_OPEN) {
+                if (outcome != SUCCESS) {
+                    open();
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+
+            byte evicted = outcomes[next];
+            if (evicted != 0) {
+                calls--;
+                failures -= (evicted & FAILURE) != 0 ? 1 : 0;
+                slowCalls -= (evicted & SLOW) != 0 ? 1 : 0;
+            }
+            outcomes[next] = outcome;
+            next = (next + 1) % windowSize;
+            calls++;
+            failures += (outcome & FAILURE) != 0 ? 1 : 0;
+            slowCalls += (outcome & SLOW) != 0 ? 1 : 0;
+
+            if (calls >= minimumCalls && (failures >= failureRateThreshold * calls || slowCalls >= slowCallRateThreshold * calls)) {
+                open();
+            }
+        }
+
+        /**
+         * Gives back a half open probe slot for a call that ended without an outcome
+         */
+        synchronized void abandon(long callGeneration) {
+            if (callGeneration == generation && state == State.HALF_OPEN) {
+                probesStarted--;
+            }
+        }
+
+        private void open() {
+            transition(State.OPEN);
+            openedAtNanos = System.nanoTime();
+            openedCount.incrementAndGet();
+        }
+
+        private void transition(State newState) {
+            state = newState;
+            generation++;
+            probesStarted = 0;
+            probesSucceeded = 0;
+            if (newState == State.CLOSED) {
+                Arrays.fill(outcomes, (byte) 0);
+                next = 0;
+                calls = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+        }
+    }
+
+    /**
+     * One admitted call - the first of onResponse, onFailure or cancel decides its outcome, later ones are ignored
+     */
+    public class Call {
+
+        private final EndpointCircuit circuit;
+        private final long generation;
+        private boolean finished;
+
+        private Call(EndpointCircuit circuit, long generation) {
+            this.circuit = circuit;
+            this.generation = generation;
+        }
+
+        public void onResponse(int statusCode, long latencyNanos) {
+            finish(isFailure(statusCode), latencyNanos);
+        }
+
+        /**
+         * A call that got no response - only IO failures (connection refused, reset, timeout) count against the endpoint
+         */
+        public void onFailure(Throwable failure, long latencyNanos) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    finish(true, latencyNanos);
+                    return;
+                }
+            }
+            cancel();
+        }
+
+        /**
+         * Ends the call without an outcome, e.g. when it was interrupted before it was sent
+         */
+        public void cancel() {
+            if (markFinished()) {
+                circuit.abandon(generation);
+            }
+        }
+
+        private void finish(boolean failed, long latencyNanos) {
+            if (markFinished()) {
+                byte outcome = failed ? EndpointCircuit.FAILURE : EndpointCircuit.SUCCESS;
+                if (latencyNanos > slowCallNanos) {
+                    outcome |= EndpointCircuit.SLOW;
+                }
+                circuit.record(generation, outcome);
+            }
+        }
+
+        private synchronized boolean markFinished() {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            return true;
+        }
+    }
+}
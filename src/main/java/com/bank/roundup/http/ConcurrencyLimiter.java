@@ -0,0 +1,253 @@
+package com.bank.roundup.http;
+
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive limit on concurrent Bank API requests (AIMD)
+ *
+ * Requests hold a permit while in flight and at most limit permits are out at once; the rest wait in arrival order.
+ * The limit grows by about one per limit's worth of healthy responses while it is being used (additive increase), and
+ * is cut by backoffRatio when the API signals overload - a 429, a 503, a timeout, or latency rising past
+ * latencyTolerance times the baseline (multiplicative decrease). At most one cut is made per baseline latency, so the
+ * responses from one burst only shrink the limit once.
+ *
+ * The limit is shared by every endpoint, but latency is tracked per endpoint, as the RateLimiter and CircuitBreaker
+ * track theirs - a large feed GET is only compared with earlier feed GETs, never with a tiny accounts GET. Each
+ * endpoint's baseline is the lowest smoothed latency seen, drifting slowly up so it follows a real change in the API.
+ *
+ * Defaults can be overridden with system properties: roundup.concurrency.initialLimit, roundup.concurrency.minLimit,
+ * roundup.concurrency.maxLimit, roundup.concurrency.backoffRatio and roundup.concurrency.latencyTolerance
+ */
+public class ConcurrencyLimiter {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 2;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.7;
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_DRIFT = 0.001;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    // guarded by this
+    private double limit;
+    private int inFlight;
+    private final Map<String, Latency> latencies = new HashMap<>();
+    private long lastDecreaseNanos;
+    private final Deque<Waiter> waiting = new ArrayDeque<>();
+
+    private final AtomicLong overloadCount = new AtomicLong();
+    private final AtomicLong decreaseCount = new AtomicLong();
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("need 1 <= minLimit <= initialLimit <= maxLimit: "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.lastDecreaseNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    }
+
+    public static ConcurrencyLimiter defaults() {
+        return new ConcurrencyLimiter(
+                Integer.getInteger("roundup.concurrency.initialLimit", DEFAULT_INITIAL_LIMIT),
+                Integer.getInteger("roundup.concurrency.minLimit", DEFAULT_MIN_LIMIT),
+                Integer.getInteger("roundup.concurrency.maxLimit", DEFAULT_MAX_LIMIT),
+                Double.parseDouble(System.getProperty("roundup.concurrency.backoffRatio", String.valueOf(DEFAULT_BACKOFF_RATIO))),
+                Double.parseDouble(System.getProperty("roundup.concurrency.latencyTolerance", String.valueOf(DEFAULT_LATENCY_TOLERANCE))));
+    }
+
+    /**
+     * Limiter with a fixed, effectively unbounded limit
+     */
+    public static ConcurrencyLimiter unlimited() {
+        return new ConcurrencyLimiter(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 1.0, Double.MAX_VALUE);
+    }
+
+    /**
+     * Waits for a permit for a request to the endpoint - release it with onResponse or onFailure once the request has finished
+     */
+    public Permit acquire(String endpoint) throws InterruptedException {
+        CompletableFuture<Permit> permit = acquireAsync(endpoint);
+        try {
+            return permit.get();
+        } catch (InterruptedException e) {
+            // if the permit was granted meanwhile, hand it back
+            if (!permit.cancel(false)) {
+                permit.join().releaseOnce(false, 0L);
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Future completing with a permit once one is free, without blocking
+     */
+    public CompletableFuture<Permit> acquireAsync(String endpoint) {
+        synchronized (this) {
+            if (waiting.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new Permit(endpoint));
+            }
+            CompletableFuture<Permit> permit = new CompletableFuture<>();
+            waiting.addLast(new Waiter(endpoint, permit));
+            return permit;
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getWaiting() {
+        return waiting.size();
+    }
+
+    /**
+     * Responses or failures counted as overload - 429, 503, timeouts and latency spikes
+     */
+    public long getOverloadCount() {
+        return overloadCount.get();
+    }
+
+    public long getDecreaseCount() {
+        return decreaseCount.get();
+    }
+
+    private void release(String endpoint, boolean overloaded, long latencyNanos) {
+        Waiter granted = null;
+
+        synchronized (this) {
+            inFlight--;
+            adjust(endpoint, overloaded, latencyNanos);
+
+            while (!waiting.isEmpty() && inFlight < (int) limit) {
+                Waiter next = waiting.pollFirst();
+                if (!next.permit.isCancelled()) {
+                    inFlight++;
+                    granted = next;
+                    break;
+                }
+            }
+        }
+
+        // completed outside the lock, as the waiter may run its request inline
+        if (granted != null && !granted.permit.complete(new Permit(granted.endpoint))) {
+            release(granted.endpoint, false, 0L);
+        }
+    }
+
+    // guarded by this
+    private void adjust(String endpoint, boolean overloaded, long latencyNanos) {
+        if (latencyNanos <= 0) {
+            return;
+        }
+
+        Latency latency = latencies.computeIfAbsent(endpoint, ignored -> new Latency());
+        latency.smoothedNanos = latency.smoothedNanos == 0 ? latencyNanos
+                : latency.smoothedNanos + SMOOTHING * (latencyNanos - latency.smoothedNanos);
+        latency.baselineNanos = latency.baselineNanos == 0 ? latency.smoothedNanos
+                : Math.min(latency.smoothedNanos, latency.baselineNanos + BASELINE_DRIFT * (latency.smoothedNanos - latency.baselineNanos));
+
+        if (overloaded || latency.smoothedNanos > latency.baselineNanos * latencyTolerance) {
+            overloadCount.incrementAndGet();
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= (long) latency.baselineNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+                decreaseCount.incrementAndGet();
+            }
+        } else if (inFlight + 1 >= limit / 2) {
+            // only grow a limit that is actually being used
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * One in-flight request's hold on the limiter - released exactly once
+     */
+    public class Permit {
+
+        private final String endpoint;
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        private Permit(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * Releases after a response, counting 429 and 503 as overload
+         */
+        public void onResponse(int statusCode) {
+            releaseOnce(statusCode == 429 || statusCode == 503, System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Releases after a request failed without a response - timeouts count as overload
+         */
+        public void onFailure(Throwable failure) {
+            boolean timedOut = false;
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                timedOut |= cause instanceof HttpTimeoutException;
+            }
+            releaseOnce(timedOut, timedOut ? System.nanoTime() - startNanos : 0L);
+        }
+
+        private void releaseOnce(boolean overloaded, long latencyNanos) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            ConcurrencyLimiter.this.release(endpoint, overloaded, latencyNanos);
+        }
+    }
+
+    /**
+     * One endpoint's smoothed and baseline latency
+     */
+    private static class Latency {
+
+        private double smoothedNanos;
+        private double baselineNanos;
+    }
+
+    /**
+     * A queued acquire and the endpoint its permit is for
+     */
+    private static class Waiter {
+
+        private final String endpoint;
+        private final CompletableFuture<Permit> permit;
+
+        Waiter(String endpoint, CompletableFuture<Permit> permit) {
+            this.endpoint = endpoint;
+            this.permit = permit;
+        }
+    }
+}
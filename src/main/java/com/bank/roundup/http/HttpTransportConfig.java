@@ -0,0 +1,49 @@
+package com.bank.roundup.http;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Tunables for the shared Bank API transport
+ *
+ * Defaults can be overridden with system properties so batch runs can be tuned without a rebuild:
+ * roundup.http.connectTimeoutMs, roundup.http.requestTimeoutMs and roundup.http.version (HTTP_2 or HTTP_1_1).
+ * Idle keep-alive connections are pooled by the JDK client - their lifetime is set with jdk.httpclient.keepalive.timeout.
+ */
+public class HttpTransportConfig {
+
+    public static final long DEFAULT_CONNECT_TIMEOUT_MS = 5_000L;
+    public static final long DEFAULT_REQUEST_TIMEOUT_MS = 30_000L;
+
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+    private final HttpClient.Version version;
+
+    public HttpTransportConfig(Duration connectTimeout, Duration requestTimeout, HttpClient.Version version) {
+        this.connectTimeout = connectTimeout;
+        this.requestTimeout = requestTimeout;
+        this.version = version;
+    }
+
+    /**
+     * Default config - HTTP/2 where the server supports it (falling back to HTTP/1.1 keep-alive otherwise)
+     */
+    public static HttpTransportConfig defaults() {
+        return new HttpTransportConfig(
+                Duration.ofMillis(Long.getLong("roundup.http.connectTimeoutMs", DEFAULT_CONNECT_TIMEOUT_MS)),
+                Duration.ofMillis(Long.getLong("roundup.http.requestTimeoutMs", DEFAULT_REQUEST_TIMEOUT_MS)),
+                HttpClient.Version.valueOf(System.getProperty("roundup.http.version", HttpClient.Version.HTTP_2.name())));
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public HttpClient.Version getVersion() {
+        return version;
+    }
+}
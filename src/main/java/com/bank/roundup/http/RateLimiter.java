@@ -0,0 +1,160 @@
+package com.bank.roundup.http;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client side token bucket rate limits for Bank API requests, per endpoint and per auth token
+ *
+ * Every attempt, retries included, takes a token from its endpoint's bucket and from its auth token's bucket. Buckets
+ * refill at their rate per second and hold at most their burst. Taking a token never fails: when a bucket is empty the
+ * token is borrowed against the next refill and the caller is told how long to wait, so waiting callers are spaced
+ * out at the rate in the order they arrived rather than all retrying at once.
+ *
+ * A rate of 0 or less disables that limit. Defaults can be overridden with system properties:
+ * roundup.rateLimit.endpointPerSecond, roundup.rateLimit.endpointBurst, roundup.rateLimit.tokenPerSecond and
+ * roundup.rateLimit.tokenBurst
+ */
+public class RateLimiter {
+
+    public static final double DEFAULT_ENDPOINT_PER_SECOND = 1_000.0;
+    public static final int DEFAULT_ENDPOINT_BURST = 200;
+    public static final double DEFAULT_TOKEN_PER_SECOND = 20.0;
+    public static final int DEFAULT_TOKEN_BURST = 20;
+
+    // idle token buckets are dropped once there are this many, so one-off tokens do not accumulate
+    private static final int MAX_TOKEN_BUCKETS = 10_000;
+
+    private final double endpointPerSecond;
+    private final int endpointBurst;
+    private final double tokenPerSecond;
+    private final int tokenBurst;
+
+    private final Map<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> tokenBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong delayedCount = new AtomicLong();
+    private final AtomicLong delayedNanos = new AtomicLong();
+
+    public RateLimiter(double endpointPerSecond, int endpointBurst, double tokenPerSecond, int tokenBurst) {
+        this.endpointPerSecond = endpointPerSecond;
+        this.endpointBurst = Math.max(1, endpointBurst);
+        this.tokenPerSecond = tokenPerSecond;
+        this.tokenBurst = Math.max(1, tokenBurst);
+    }
+
+    public static RateLimiter defaults() {
+        return new RateLimiter(
+                Double.parseDouble(System.getProperty("roundup.rateLimit.endpointPerSecond", String.valueOf(DEFAULT_ENDPOINT_PER_SECOND))),
+                Integer.getInteger("roundup.rateLimit.endpointBurst", DEFAULT_ENDPOINT_BURST),
+                Double.parseDouble(System.getProperty("roundup.rateLimit.tokenPerSecond", String.valueOf(DEFAULT_TOKEN_PER_SECOND))),
+                Integer.getInteger("roundup.rateLimit.tokenBurst", DEFAULT_TOKEN_BURST));
+    }
+
+    /**
+     * Limiter that never delays
+     */
+    public static RateLimiter unlimited() {
+        return new RateLimiter(0, 1, 0, 1);
+    }
+
+    /**
+     * Takes a token for the endpoint and one for the auth token
+     *
+     * @return how long the caller must wait before sending, zero if it can send now
+     */
+    public Duration reserve(String endpoint, String authToken) {
+        long now = System.nanoTime();
+        long waitNanos = 0L;
+
+        if (endpointPerSecond > 0) {
+            waitNanos = endpointBuckets.computeIfAbsent(endpoint, key -> new TokenBucket(endpointPerSecond, endpointBurst, now))
+                    .reserve(now);
+        }
+        if (tokenPerSecond > 0 && authToken != null) {
+            if (tokenBuckets.size() >= MAX_TOKEN_BUCKETS) {
+                tokenBuckets.values().removeIf(bucket -> bucket.isFull(now));
+            }
+            waitNanos = Math.max(waitNanos, tokenBuckets.computeIfAbsent(authToken, key -> new TokenBucket(tokenPerSecond, tokenBurst, now))
+                    .reserve(now));
+        }
+
+        if (waitNanos > 0) {
+            delayedCount.incrementAndGet();
+            delayedNanos.addAndGet(waitNanos);
+        }
+        return Duration.ofNanos(waitNanos);
+    }
+
+    public double getEndpointPerSecond() {
+        return endpointPerSecond;
+    }
+
+    public double getTokenPerSecond() {
+        return tokenPerSecond;
+    }
+
+    /**
+     * Requests that had to wait for a token
+     */
+    public long getDelayedCount() {
+        return delayedCount.get();
+    }
+
+    /**
+     * Total time requests were told to wait
+     */
+    public Duration getDelayedTime() {
+        return Duration.ofNanos(delayedNanos.get());
+    }
+
+    /**
+     * Tokens currently available to the endpoint - negative when callers are queued behind it
+     */
+    public double getAvailableTokens(String endpoint) {
+        TokenBucket bucket = endpointBuckets.get(endpoint);
+        return bucket == null ? endpointBurst : bucket.available(System.nanoTime());
+    }
+
+    /**
+     * Token bucket that can go into debt - the debt is the queue of callers waiting for a refill
+     */
+    private static class TokenBucket {
+
+        private final double perNano;
+        private final int burst;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double perSecond, int burst, long now) {
+            this.perNano = perSecond / 1e9;
+            this.burst = burst;
+            this.tokens = burst;
+            this.refilledAt = now;
+        }
+
+        synchronized long reserve(long now) {
+            refill(now);
+            tokens -= 1;
+            return tokens >= 0 ? 0L : (long) Math.ceil(-tokens / perNano);
+        }
+
+        synchronized double available(long now) {
+            refill(now);
+            return tokens;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= burst;
+        }
+
+        private void refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(burst, tokens + (now - refilledAt) * perNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.bank.roundup.http;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.bank.roundup.exception.BankApiStatusException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Decides whether and when a failed Bank API request is retried
+ *
+ * Connection failures, timeouts, 408, 429 and 5xx responses are transient and retried; other 4xx responses are not.
+ * A request that is not idempotent, such as creating a savings goal, may already have been applied when it fails, so it
+ * is only retried when the connection was never made.
+ * Retries wait a capped exponential backoff with full jitter (a random delay up to baseDelay * 2^(attempt - 1), at most
+ * maxDelay), or the response's Retry-After when that is longer. A Retry-After beyond maxDelay is not waited for.
+ *
+ * Each endpoint (method and path with uids replaced) has a retry budget: every request adds budgetRatio of a retry to
+ * it, up to budgetMaxRetries, and every retry spends one. When an endpoint degrades the budget runs dry and its
+ * failures are returned straight away, so retries add at most budgetRatio to its traffic instead of multiplying it.
+ *
+ * Defaults can be overridden with system properties: roundup.retry.maxAttempts, roundup.retry.baseDelayMs,
+ * roundup.retry.maxDelayMs, roundup.retry.budgetRatio and roundup.retry.budgetMaxRetries
+ */
+public class RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final long DEFAULT_BASE_DELAY_MS = 100L;
+    public static final long DEFAULT_MAX_DELAY_MS = 10_000L;
+    public static final double DEFAULT_BUDGET_RATIO = 0.1;
+    public static final int DEFAULT_BUDGET_MAX_RETRIES = 20;
+
+    private static final Pattern UUID_SEGMENT =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final double budgetRatio;
+    private final int budgetMaxRetries;
+
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong budgetExhaustedCount = new AtomicLong();
+
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, double budgetRatio, int budgetMaxRetries) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        if (budgetRatio < 0 || budgetMaxRetries < 0) {
+            throw new IllegalArgumentException("retry budget must not be negative");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.budgetRatio = budgetRatio;
+        this.budgetMaxRetries = budgetMaxRetries;
+    }
+
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(
+                Integer.getInteger("roundup.retry.maxAttempts", DEFAULT_MAX_ATTEMPTS),
+                Duration.ofMillis(Long.getLong("roundup.retry.baseDelayMs", DEFAULT_BASE_DELAY_MS)),
+                Duration.ofMillis(Long.getLong("roundup.retry.maxDelayMs", DEFAULT_MAX_DELAY_MS)),
+                Double.parseDouble(System.getProperty("roundup.retry.budgetRatio", String.valueOf(DEFAULT_BUDGET_RATIO))),
+                Integer.getInteger("roundup.retry.budgetMaxRetries", DEFAULT_BUDGET_MAX_RETRIES));
+    }
+
+    /**
+     * Policy that never retries
+     */
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, Duration.ZERO, Duration.ZERO, 0, 0);
+    }
+
+    /**
+     * Endpoint key for a request - the method and the path without its query, with uids replaced by {uid}
+     */
+    public static String endpointOf(String method, String urlPath) {
+        int queryStart = urlPath.indexOf('?');
+        String path = queryStart >= 0 ? urlPath.substring(0, queryStart) : urlPath;
+        return method + " " + UUID_SEGMENT.matcher(path).replaceAll("{uid}");
+    }
+
+    /**
+     * Credits the endpoint's retry budget for a new request - call once per request, not per attempt
+     */
+    public void recordRequest(String endpoint) {
+        budget(endpoint).deposit(budgetRatio);
+    }
+
+    /**
+     * Delay before the next attempt after a failed attempt (counting from 1), or null if the failure should be returned
+     */
+    public Duration nextDelay(String endpoint, int attempt, Throwable failure) {
+        return nextDelay(endpoint, attempt, failure, true);
+    }
+
+    /**
+     * As nextDelay, but a request that is not idempotent is only retried if it never reached the server
+     */
+    public Duration nextDelay(String endpoint, int attempt, Throwable failure, boolean idempotent) {
+        if (attempt >= maxAttempts || !(idempotent ? isRetryable(failure) : isUnsent(failure))) {
+            return null;
+        }
+
+        long capNanos = Math.min(maxDelay.toNanos(), baseDelay.toNanos() << Math.min(attempt - 1, 30));
+        long delayNanos = capNanos > 0 ? ThreadLocalRandom.current().nextLong(capNanos + 1) : 0L;
+
+        Duration retryAfter = failure instanceof BankApiStatusException ? ((BankApiStatusException) failure).getRetryAfter() : null;
+        if (retryAfter != null) {
+            if (retryAfter.compareTo(maxDelay) > 0) {
+                return null;
+            }
+            delayNanos = Math.max(delayNanos, retryAfter.toNanos());
+        }
+
+        if (!budget(endpoint).tryWithdraw()) {
+            budgetExhaustedCount.incrementAndGet();
+            return null;
+        }
+        retryCount.incrementAndGet();
+        return Duration.ofNanos(delayNanos);
+    }
+
+    /**
+     * Parses a Retry-After header, given either in seconds or as an HTTP date - null if absent or unreadable
+     */
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0L, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            // not seconds, so an HTTP date
+        }
+        try {
+            Duration untilDate = Duration.between(Instant.now(), ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return untilDate.isNegative() ? Duration.ZERO : untilDate;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Whether a failure is worth retrying - transport failures and 408, 429 and 5xx statuses
+     * A body that was received but could not be parsed will not parse any better on a retry.
+     */
+    public static boolean isRetryable(Throwable failure) {
+        if (failure instanceof BankApiStatusException) {
+            int statusCode = ((BankApiStatusException) failure).getStatusCode();
+            return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException) {
+                return false;
+            }
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a failure happened before the request could reach the server - the connection was refused or timed out
+     */
+    public static boolean isUnsent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Retryable failures returned without a retry because their endpoint's budget was spent
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhaustedCount.get();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    private RetryBudget budget(String endpoint) {
+        return budgets.computeIfAbsent(endpoint, key -> new RetryBudget(budgetMaxRetries));
+    }
+
+    /**
+     * Token bucket of retries, starting full
+     */
+    private static class RetryBudget {
+
+        private final int maxRetries;
+        private double available;
+
+        RetryBudget(int maxRetries) {
+            this.maxRetries = maxRetries;
+            this.available = maxRetries;
+        }
+
+        synchronized void deposit(double retries) {
+            available = Math.min(maxRetries, available + retries);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (available < 1) {
+                return false;
+            }
+            available--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.bank.roundup.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of savings goal transfers, keyed by transfer uid
+ *
+ * A transfer is recorded as INTENDED before it is sent and COMPLETED once the Bank API has accepted it. Records are
+ * written into a mapped segment file and made durable by a single flusher thread, which forces everything appended
+ * since its last flush in one go - so thousands of concurrent transfers share each fsync instead of paying for one
+ * each (group commit). The record futures complete once their record is on disk. If a force fails with anything
+ * other than an I/O error the journal is marked failed, and the waiting and all later records fail with it.
+ *
+ * Opening a journal replays its segments, so transfers completed by an earlier run are known before any work starts.
+ * A torn record at the end of the last segment (a crash mid write) fails its checksum and is ignored.
+ *
+ * Record layout, 40 bytes: type (1 byte), 3 reserved, CRC32 of the rest (4), transfer uid (16), amount in pence (8),
+ * epoch millis written (8). A type of 0 marks the unwritten end of a segment.
+ */
+public class TransferJournal implements AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private static final int RECORD_BYTES = 40;
+    private static final byte INTENDED = 1;
+    private static final byte COMPLETED = 2;
+    private static final String SEGMENT_PREFIX = "transfers-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentBytes;
+
+    // transfer uid -> latest record type
+    private final Map<UUID, Byte> states = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    private MappedByteBuffer segment;
+    private int segmentNumber;
+    private List<MappedByteBuffer> unflushedSegments = new ArrayList<>();
+    private List<CompletableFuture<Void>> waitingForFlush = new ArrayList<>();
+    private boolean closed;
+    // set if the flusher dies, after which every append fails
+    private Throwable failure;
+
+    private final Thread flusher;
+    private final AtomicLong recordCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+
+    public TransferJournal(Path directory) throws IOException {
+        this(directory, Integer.getInteger("roundup.journal.segmentBytes", DEFAULT_SEGMENT_BYTES));
+    }
+
+    /**
+     * Opens the journal in the directory, creating it if needed, and replays the existing segments
+     */
+    public TransferJournal(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("segmentBytes must hold at least one record: " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_BYTES;
+
+        replay();
+
+        this.flusher = new Thread(this::flushLoop, "roundup-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // ========== QUERIES ==========
+
+    public boolean isCompleted(UUID transferUid) {
+        Byte state = states.get(transferUid);
+        return state != null && state == COMPLETED;
+    }
+
+    /**
+     * Transfers recorded as intended but never completed - they may or may not have reached the Bank API
+     * Re-sending them with the same transfer uid is safe.
+     */
+    public Set<UUID> getInDoubtTransfers() {
+        Set<UUID> inDoubt = new HashSet<>();
+        states.forEach((transferUid, state) -> {
+            if (state == INTENDED) {
+                inDoubt.add(transferUid);
+            }
+        });
+        return inDoubt;
+    }
+
+    public long getRecordCount() {
+        return recordCount.get();
+    }
+
+    /**
+     * Number of forces to disk so far - far lower than getRecordCount() when many transfers run concurrently
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    // ========== RECORDING ==========
+
+    public CompletableFuture<Void> recordIntendedAsync(UUID transferUid, long amountPence) {
+        return append(INTENDED, transferUid, amountPence);
+    }
+
+    public CompletableFuture<Void> recordCompletedAsync(UUID transferUid, long amountPence) {
+        return append(COMPLETED, transferUid, amountPence);
+    }
+
+    /**
+     * Records a transfer as intended, returning once the record is durable
+     */
+    public void recordIntended(UUID transferUid, long amountPence) throws IOException {
+        await(recordIntendedAsync(transferUid, amountPence));
+    }
+
+    /**
+     * Records a transfer as completed, returning once the record is durable
+     */
+    public void recordCompleted(UUID transferUid, long amountPence) throws IOException {
+        await(recordCompletedAsync(transferUid, amountPence));
+    }
+
+    /**
+     * Flushes any outstanding records and stops the flusher
+     * Records appended after close fail with an IOException. If interrupted while waiting it stops waiting and keeps
+     * the interrupt.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== INTERNALS ==========
+
+    private CompletableFuture<Void> append(byte type, UUID transferUid, long amountPence) {
+        byte[] record = encode(type, transferUid, amountPence, System.currentTimeMillis());
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        synchronized (lock) {
+            if (closed) {
+                durable.completeExceptionally(new IOException("Transfer journal is closed"));
+                return durable;
+            }
+            if (failure != null) {
+                durable.completeExceptionally(new IOException("Transfer journal failed", failure));
+                return durable;
+            }
+
+            try {
+                if (segment == null || segment.remaining() < RECORD_BYTES) {
+                    openSegment(segmentNumber + 1);
+                }
+            } catch (IOException e) {
+                durable.completeExceptionally(e);
+                return durable;
+            }
+
+            // write everything but the type first, so a record is never visible before its content
+            int position = segment.position();
+            segment.position(position + 1);
+            segment.put(record, 1, RECORD_BYTES - 1);
+            segment.put(position, type);
+
+            if (unflushedSegments.isEmpty() || unflushedSegments.get(unflushedSegments.size() - 1) != segment) {
+                unflushedSegments.add(segment);
+            }
+            waitingForFlush.add(durable);
+            lock.notifyAll();
+        }
+
+        states.merge(transferUid, type, (previous, current) -> previous == COMPLETED ? previous : current);
+        recordCount.incrementAndGet();
+        return durable;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<MappedByteBuffer> toFlush;
+            List<CompletableFuture<Void>> batch;
+
+            synchronized (lock) {
+                while (waitingForFlush.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (waitingForFlush.isEmpty()) {
+                    return;
+                }
+
+                // everything appended while the previous force ran goes out in this one
+                toFlush = unflushedSegments;
+                batch = waitingForFlush;
+                unflushedSegments = new ArrayList<>();
+                waitingForFlush = new ArrayList<>();
+            }
+
+            try {
+                for (MappedByteBuffer buffer : toFlush) {
+                    buffer.force();
+                }
+                flushCount.incrementAndGet();
+                batch.forEach(future -> future.complete(null));
+            } catch (UncheckedIOException e) {
+                batch.forEach(future -> future.completeExceptionally(e.getCause()));
+            } catch (RuntimeException | Error e) {
+                // nothing can be made durable any more, so fail what is waiting and make later appends fail fast
+                List<CompletableFuture<Void>> queued;
+                synchronized (lock) {
+                    failure = e;
+                    queued = waitingForFlush;
+                    waitingForFlush = new ArrayList<>();
+                    unflushedSegments = new ArrayList<>();
+                }
+                batch.forEach(future -> future.completeExceptionally(e));
+                queued.forEach(future -> future.completeExceptionally(e));
+                return;
+            }
+        }
+    }
+
+    private void replay() throws IOException {
+        List<Path> segmentFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            files.forEach(segmentFiles::add);
+        }
+        segmentFiles.sort(null);
+
+        for (Path segmentFile : segmentFiles) {
+            int number = segmentNumber(segmentFile);
+            MappedByteBuffer buffer = mapExisting(segmentFile);
+            replaySegment(buffer);
+            segment = buffer;
+            segmentNumber = Math.max(segmentNumber, number);
+        }
+    }
+
+    /**
+     * Applies the segment's valid records and leaves its position at the first free slot
+     */
+    private void replaySegment(MappedByteBuffer buffer) {
+        byte[] record = new byte[RECORD_BYTES];
+        while (buffer.remaining() >= RECORD_BYTES) {
+            int position = buffer.position();
+            buffer.get(record);
+            if (record[0] != INTENDED && record[0] != COMPLETED || crc(record) != readInt(record, 4)) {
+                // torn or never written - the next append overwrites it
+                buffer.position(position);
+                return;
+            }
+
+            UUID transferUid = new UUID(readLong(record, 8), readLong(record, 16));
+            byte type = record[0];
+            states.merge(transferUid, type, (previous, current) -> previous == COMPLETED ? previous : current);
+            recordCount.incrementAndGet();
+        }
+    }
+
+    private void openSegment(int number) throws IOException {
+        segment = map(directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX)));
+        segmentNumber = number;
+    }
+
+    /**
+     * Maps a segment written by an earlier run at its size on disk, which segmentBytes may no longer match
+     */
+    private static MappedByteBuffer mapExisting(Path segmentFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+    }
+
+    private MappedByteBuffer map(Path segmentFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed, and new files are zero filled
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    private static int segmentNumber(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(byte type, UUID transferUid, long amountPence, long epochMilli) {
+        byte[] record = new byte[RECORD_BYTES];
+        record[0] = type;
+        writeLong(record, 8, transferUid.getMostSignificantBits());
+        writeLong(record, 16, transferUid.getLeastSignificantBits());
+        writeLong(record, 24, amountPence);
+        writeLong(record, 32, epochMilli);
+        writeInt(record, 4, crc(record));
+        return record;
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record[0]);
+        crc.update(record, 8, RECORD_BYTES - 8);
+        return (int) crc.getValue();
+    }
+
+    private static void await(CompletableFuture<Void> durable) throws IOException {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Transfer journal write failed", e.getCause());
+        }
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,219 @@
+package com.bank.roundup.loadtest;
+
+import com.bank.roundup.config.BankApiConfig;
+import com.bank.roundup.engine.RoundUpEngine;
+import com.bank.roundup.engine.RoundUpJob;
+import com.bank.roundup.engine.RoundUpResult;
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.logging.AsyncLogWriter;
+import com.bank.roundup.logging.LogLevel;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.AccountService;
+import com.bank.roundup.service.CachingAccountService;
+import com.bank.roundup.service.CachingSavingsGoalService;
+import com.bank.roundup.service.MockDataService;
+import com.bank.roundup.service.SavingsGoalService;
+import com.bank.roundup.service.TransactionFeedStore;
+import com.bank.roundup.service.TransactionService;
+import com.bank.roundup.stub.BankApiStubServer;
+import com.bank.roundup.stub.StubServerConfig;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test driver for the full roundup flow - accounts lookup, transaction fetch, roundup, goal creation and transfer
+ *
+ * Simulates config.getCustomers() customers, each identified by its own auth token and served in turn, on
+ * config.getConcurrency() workers started evenly over the ramp up. Each stage is timed through the service interfaces
+ * and reported with p50/p99/p999 latencies, alongside sustained runs per second over the measured window.
+ *
+ * IN_PROCESS mode runs against the MockDataService backed services; HTTP mode runs the real HTTP path against
+ * roundup.load.baseUrl, or a BankApiStubServer started for the run (tuned with the roundup.stub.* properties).
+ * The mode and base URL are bound into the services the run creates, so the roundup.api.* properties are left alone.
+ * The services log every call at INFO, so the log level is raised to WARN for the run unless roundup.load.quiet=false.
+ *
+ * Run with: java -Droundup.load.mode=HTTP -Droundup.load.concurrency=32 -cp ... com.bank.roundup.loadtest.LoadGenerator
+ */
+public class LoadGenerator {
+
+    private static final String SAVINGS_GOAL_NAME = "Load test goal";
+    private static final LocalDate END_DATE = LocalDate.of(2025, 4, 27);
+
+    private final LoadTestConfig config;
+    private final boolean quiet;
+
+    public LoadGenerator(LoadTestConfig config) {
+        this(config, Boolean.parseBoolean(System.getProperty("roundup.load.quiet", "true")));
+    }
+
+    public LoadGenerator(LoadTestConfig config, boolean quiet) {
+        this.config = config;
+        this.quiet = quiet;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestReport report = new LoadGenerator(LoadTestConfig.fromSystemProperties()).run();
+        report.print(System.out);
+    }
+
+    /**
+     * Runs the load test for ramp up plus duration and returns the measured results
+     */
+    public LoadTestReport run() throws InterruptedException, IOException {
+        AsyncLogWriter logWriter = AsyncLogWriter.getDefaultInstance();
+        LogLevel previousLevel = logWriter.getLevel();
+        BankApiStubServer stubServer = null;
+
+        try {
+            RoundUpServices.Factory servicesFactory;
+            if (config.getMode() == LoadTestConfig.Mode.HTTP) {
+                String baseUrl = config.getBaseUrl();
+                if (baseUrl == null) {
+                    stubServer = new BankApiStubServer(0, stubConfig());
+                    baseUrl = stubServer.getBaseUrl();
+                }
+                servicesFactory = RoundUpServices.bankApiFactory(baseUrl, false);
+            } else {
+                servicesFactory = inProcessServicesFactory();
+            }
+
+            if (config.isCaching()) {
+                servicesFactory = RoundUpServices.incremental(
+                        RoundUpServices.caching(servicesFactory, CachingAccountService.newCache(), CachingSavingsGoalService.newCache()),
+                        new TransactionFeedStore());
+            }
+
+            if (quiet && logWriter.isEnabled(LogLevel.INFO)) {
+                logWriter.setLevel(LogLevel.WARN);
+            }
+
+            return drive(servicesFactory);
+
+        } finally {
+            logWriter.setLevel(previousLevel);
+            if (stubServer != null) {
+                stubServer.close();
+            }
+        }
+    }
+
+    private LoadTestReport drive(RoundUpServices.Factory bankApiFactory) throws InterruptedException {
+        LoadTestReport report = new LoadTestReport(config);
+        RoundUpServices.Factory servicesFactory = TimedServices.wrap(bankApiFactory, report);
+        RoundUpEngine engine = new RoundUpEngine(servicesFactory, Runnable::run, 1);
+
+        long startNanos = System.nanoTime();
+        long measureStartNanos = startNanos + config.getRampUp().toNanos();
+        long endNanos = measureStartNanos + config.getDuration().toNanos();
+        AtomicLong nextCustomer = new AtomicLong();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "roundup-load-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int worker = 0; worker < config.getConcurrency(); worker++) {
+            long workerStartNanos = startNanos + config.getRampUp().toNanos() * worker / config.getConcurrency();
+            workers.execute(() -> {
+                parkUntil(workerStartNanos);
+                while (System.nanoTime() < endNanos && !Thread.currentThread().isInterrupted()) {
+                    int customer = (int) (nextCustomer.getAndIncrement() % config.getCustomers());
+                    runOnce(customer, servicesFactory, engine, report);
+                }
+            });
+        }
+
+        parkUntil(measureStartNanos);
+        report.startMeasuring();
+        parkUntil(endNanos);
+        report.stopMeasuring(System.nanoTime() - measureStartNanos);
+
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        return report;
+    }
+
+    private void runOnce(int customer, RoundUpServices.Factory servicesFactory, RoundUpEngine engine, LoadTestReport report) {
+        String authToken = "load-test-customer-" + customer;
+        long startNanos = System.nanoTime();
+
+        try {
+            List<Account> accounts = servicesFactory.forToken(authToken).getAccountService().getAccountsForUser();
+            Account account = accounts.get(customer % accounts.size());
+            Currency currency = account.getCurrency() != null ? account.getCurrency() : Currency.getInstance("GBP");
+
+            RoundUpJob job = new RoundUpJob(authToken, account, END_DATE.minusDays(config.getWindowDays() - 1L), END_DATE,
+                    SAVINGS_GOAL_NAME, null, currency);
+            RoundUpResult result = engine.run(job);
+
+            if (!result.isSuccessful()) {
+                report.recordFailure(LoadTestReport.Stage.RUN);
+            }
+        } catch (Exception e) {
+            report.recordFailure(LoadTestReport.Stage.RUN);
+        } finally {
+            report.record(LoadTestReport.Stage.RUN, System.nanoTime() - startNanos);
+        }
+    }
+
+    private RoundUpServices.Factory inProcessServicesFactory() {
+        String baseUrl = BankApiConfig.getBaseUrl();
+        if (config.getTransactionsPerDay() == 0) {
+            return RoundUpServices.bankApiFactory(baseUrl, true);
+        }
+
+        // the mock path of TransactionService has no volume setting, so generate the configured volume directly
+        int transactionsPerDay = config.getTransactionsPerDay();
+        BankHttpTransport transport = BankHttpTransport.getDefaultInstance();
+        return authToken -> new RoundUpServices(
+                new AccountService(authToken, transport, baseUrl, true),
+                new TransactionService(authToken, transport, baseUrl, true) {
+                    @Override
+                    public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) {
+                        return MockDataService.generateMockTransactions(startDate, endDate, account, transactionsPerDay);
+                    }
+
+                    // the incremental sync fetches by instant
+                    @Override
+                    public CompletableFuture<List<Transaction>> getTransactionsBetweenAsync(Instant from, Instant to, Account account) {
+                        List<Transaction> transactions = getTransactionsForTimePeriod(from.atZone(ZoneOffset.UTC).toLocalDate(),
+                                to.minusMillis(1).atZone(ZoneOffset.UTC).toLocalDate(), account);
+                        transactions.removeIf(transaction -> transaction.getTransactionEpochMilli() < from.toEpochMilli()
+                                || transaction.getTransactionEpochMilli() >= to.toEpochMilli());
+                        return CompletableFuture.completedFuture(transactions);
+                    }
+                },
+                new SavingsGoalService(authToken, transport, baseUrl, true));
+    }
+
+    private StubServerConfig stubConfig() {
+        StubServerConfig defaults = StubServerConfig.defaults();
+        return new StubServerConfig(defaults.getLatencyMs(), defaults.getLatencyJitterMs(), defaults.getErrorRate(),
+                defaults.getErrorStatus(), config.getTransactionsPerDay(),
+                Math.max(defaults.getWorkerThreads(), config.getConcurrency()));
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+}
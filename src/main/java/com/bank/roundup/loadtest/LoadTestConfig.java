@@ -0,0 +1,126 @@
+package com.bank.roundup.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Settings for a LoadGenerator run
+ *
+ * Defaults can be overridden with system properties: roundup.load.mode (IN_PROCESS or HTTP), roundup.load.customers,
+ * roundup.load.transactionsPerDay, roundup.load.windowDays, roundup.load.concurrency, roundup.load.rampUpSeconds,
+ * roundup.load.durationSeconds, roundup.load.baseUrl (HTTP mode only - when unset a local stub server is started) and
+ * roundup.load.caching. A transactionsPerDay of 0 keeps MockDataService's own 2-5 per day. With caching the services
+ * run behind the account and goal lookup caches and an incremental feed store, as a batch deployment would, so
+ * repeat customers mostly measure cache hits rather than API calls.
+ */
+public class LoadTestConfig {
+
+    public enum Mode {
+        // services answer from MockDataService in this JVM
+        IN_PROCESS,
+        // services call the Bank API over HTTP, normally a BankApiStubServer
+        HTTP
+    }
+
+    public static final int DEFAULT_CUSTOMERS = 1_000;
+    public static final int DEFAULT_TRANSACTIONS_PER_DAY = 0;
+    public static final int DEFAULT_WINDOW_DAYS = 7;
+    public static final int DEFAULT_CONCURRENCY = 16;
+    public static final long DEFAULT_RAMP_UP_SECONDS = 5L;
+    public static final long DEFAULT_DURATION_SECONDS = 30L;
+    public static final boolean DEFAULT_CACHING = false;
+
+    private final Mode mode;
+    private final int customers;
+    private final int transactionsPerDay;
+    private final int windowDays;
+    private final int concurrency;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final String baseUrl;
+    private final boolean caching;
+
+    public LoadTestConfig(Mode mode, int customers, int transactionsPerDay, int windowDays, int concurrency,
+                          Duration rampUp, Duration duration, String baseUrl) {
+        this(mode, customers, transactionsPerDay, windowDays, concurrency, rampUp, duration, baseUrl, DEFAULT_CACHING);
+    }
+
+    public LoadTestConfig(Mode mode, int customers, int transactionsPerDay, int windowDays, int concurrency,
+                          Duration rampUp, Duration duration, String baseUrl, boolean caching) {
+        if (customers < 1 || windowDays < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("customers, windowDays and concurrency must be at least 1");
+        }
+        if (transactionsPerDay < 0) {
+            throw new IllegalArgumentException("transactionsPerDay must not be negative: " + transactionsPerDay);
+        }
+        if (rampUp.isNegative() || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("rampUp must not be negative and duration must be positive");
+        }
+        this.mode = mode;
+        this.customers = customers;
+        this.transactionsPerDay = transactionsPerDay;
+        this.windowDays = windowDays;
+        this.concurrency = concurrency;
+        this.rampUp = rampUp;
+        this.duration = duration;
+        this.baseUrl = baseUrl;
+        this.caching = caching;
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Mode.valueOf(System.getProperty("roundup.load.mode", Mode.IN_PROCESS.name())),
+                Integer.getInteger("roundup.load.customers", DEFAULT_CUSTOMERS),
+                Integer.getInteger("roundup.load.transactionsPerDay", DEFAULT_TRANSACTIONS_PER_DAY),
+                Integer.getInteger("roundup.load.windowDays", DEFAULT_WINDOW_DAYS),
+                Integer.getInteger("roundup.load.concurrency", DEFAULT_CONCURRENCY),
+                Duration.ofSeconds(Long.getLong("roundup.load.rampUpSeconds", DEFAULT_RAMP_UP_SECONDS)),
+                Duration.ofSeconds(Long.getLong("roundup.load.durationSeconds", DEFAULT_DURATION_SECONDS)),
+                System.getProperty("roundup.load.baseUrl"),
+                Boolean.parseBoolean(System.getProperty("roundup.load.caching", String.valueOf(DEFAULT_CACHING))));
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getTransactionsPerDay() {
+        return transactionsPerDay;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Time over which the workers are started one by one - runs completing during ramp up are not measured
+     */
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    /**
+     * Measured time after ramp up
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Whether the services are wrapped in the account and goal lookup caches and an incremental feed store
+     */
+    public boolean isCaching() {
+        return caching;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bank.roundup.loadtest;
+
+import com.bank.roundup.metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Results of a LoadGenerator run - latency per stage and sustained runs per second over the measured window
+ * Recordings made outside the measured window (during ramp up and wind down) are dropped.
+ */
+public class LoadTestReport {
+
+    public enum Stage {
+        ACCOUNTS,
+        TRANSACTIONS,
+        ROUNDUP,
+        CREATE_GOAL,
+        TRANSFER,
+        // the whole flow, accounts lookup to transfer
+        RUN
+    }
+
+    private final LoadTestConfig config;
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+    private final Map<Stage, AtomicLong> failures = new EnumMap<>(Stage.class);
+    private volatile boolean measuring;
+    private long measuredNanos;
+
+    LoadTestReport(LoadTestConfig config) {
+        this.config = config;
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+            failures.put(stage, new AtomicLong());
+        }
+    }
+
+    void startMeasuring() {
+        measuring = true;
+    }
+
+    void stopMeasuring(long measuredNanos) {
+        measuring = false;
+        this.measuredNanos = measuredNanos;
+    }
+
+    void record(Stage stage, long nanos) {
+        if (measuring) {
+            histograms.get(stage).record(nanos);
+        }
+    }
+
+    void recordFailure(Stage stage) {
+        if (measuring) {
+            failures.get(stage).incrementAndGet();
+        }
+    }
+
+    public LatencyHistogram getHistogram(Stage stage) {
+        return histograms.get(stage);
+    }
+
+    public long getFailures(Stage stage) {
+        return failures.get(stage).get();
+    }
+
+    /**
+     * Completed runs, successful or not, in the measured window
+     */
+    public long getRuns() {
+        return histograms.get(Stage.RUN).getCount();
+    }
+
+    public double getRunsPerSecond() {
+        return measuredNanos == 0 ? 0.0 : getRuns() / (measuredNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public void print(PrintStream out) {
+        out.println("Load test: mode=" + config.getMode() + " customers=" + config.getCustomers()
+                + " concurrency=" + config.getConcurrency() + " windowDays=" + config.getWindowDays()
+                + " transactionsPerDay=" + (config.getTransactionsPerDay() == 0 ? "2-5" : config.getTransactionsPerDay()));
+        out.println(String.format("Measured %.1fs: %d runs, %.1f runs/s, %d failed",
+                measuredNanos / 1e9, getRuns(), getRunsPerSecond(), getFailures(Stage.RUN)));
+        for (Stage stage : Stage.values()) {
+            out.println(String.format("  %-12s %s failures=%d", stage, histograms.get(stage).summary(), getFailures(stage)));
+        }
+    }
+}
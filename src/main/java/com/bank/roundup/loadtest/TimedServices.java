@@ -0,0 +1,159 @@
+package com.bank.roundup.loadtest;
+
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.AccountServiceInterface;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.service.TransactionServiceInterface;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Decorators timing each service call into a LoadTestReport stage, so the engine's flow is measured without changing it
+ */
+final class TimedServices {
+
+    private TimedServices() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    static RoundUpServices.Factory wrap(RoundUpServices.Factory servicesFactory, LoadTestReport report) {
+        return authToken -> {
+            RoundUpServices services = servicesFactory.forToken(authToken);
+            return new RoundUpServices(
+                    new TimedAccountService(services.getAccountService(), report),
+                    new TimedTransactionService(services.getTransactionService(), report),
+                    new TimedSavingsGoalService(services.getSavingsGoalService(), report));
+        };
+    }
+
+    private static class TimedAccountService implements AccountServiceInterface {
+
+        private final AccountServiceInterface delegate;
+        private final LoadTestReport report;
+
+        TimedAccountService(AccountServiceInterface delegate, LoadTestReport report) {
+            this.delegate = delegate;
+            this.report = report;
+        }
+
+        @Override
+        public List<Account> getAccountsForUser() throws BankApiException, JsonProcessingException {
+            long startNanos = System.nanoTime();
+            try {
+                return delegate.getAccountsForUser();
+            } catch (BankApiException | JsonProcessingException | RuntimeException e) {
+                report.recordFailure(LoadTestReport.Stage.ACCOUNTS);
+                throw e;
+            } finally {
+                report.record(LoadTestReport.Stage.ACCOUNTS, System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private static class TimedTransactionService implements TransactionServiceInterface {
+
+        private final TransactionServiceInterface delegate;
+        private final LoadTestReport report;
+
+        TimedTransactionService(TransactionServiceInterface delegate, LoadTestReport report) {
+            this.delegate = delegate;
+            this.report = report;
+        }
+
+        @Override
+        public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account)
+                throws BankApiException, JsonProcessingException {
+            long startNanos = System.nanoTime();
+            try {
+                return delegate.getTransactionsForTimePeriod(startDate, endDate, account);
+            } catch (BankApiException | JsonProcessingException | RuntimeException e) {
+                report.recordFailure(LoadTestReport.Stage.TRANSACTIONS);
+                throw e;
+            } finally {
+                report.record(LoadTestReport.Stage.TRANSACTIONS, System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public long calculateRoundUpPence(List<Transaction> transactions) {
+            long startNanos = System.nanoTime();
+            try {
+                return delegate.calculateRoundUpPence(transactions);
+            } finally {
+                report.record(LoadTestReport.Stage.ROUNDUP, System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
+            return delegate.calculateRoundUpAmount(transactions);
+        }
+    }
+
+    private static class TimedSavingsGoalService implements SavingsGoalServiceInterface {
+
+        private final SavingsGoalServiceInterface delegate;
+        private final LoadTestReport report;
+
+        TimedSavingsGoalService(SavingsGoalServiceInterface delegate, LoadTestReport report) {
+            this.delegate = delegate;
+            this.report = report;
+        }
+
+        @Override
+        public UUID findSavingsGoal(String savingsGoalName, Account account) throws JsonProcessingException, BankApiException {
+            return delegate.findSavingsGoal(savingsGoalName, account);
+        }
+
+        @Override
+        public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account)
+                throws JsonProcessingException, BankApiException {
+            long startNanos = System.nanoTime();
+            try {
+                return delegate.createSavingsGoal(savingsGoalName, currency, account);
+            } catch (BankApiException | JsonProcessingException | RuntimeException e) {
+                report.recordFailure(LoadTestReport.Stage.CREATE_GOAL);
+                throw e;
+            } finally {
+                report.record(LoadTestReport.Stage.CREATE_GOAL, System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account)
+                throws BankApiException {
+            long startNanos = System.nanoTime();
+            try {
+                delegate.addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account);
+            } catch (BankApiException | RuntimeException e) {
+                report.recordFailure(LoadTestReport.Stage.TRANSFER);
+                throw e;
+            } finally {
+                report.record(LoadTestReport.Stage.TRANSFER, System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account,
+                                               UUID transferUid) throws BankApiException {
+            long startNanos = System.nanoTime();
+            try {
+                delegate.addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account, transferUid);
+            } catch (BankApiException | RuntimeException e) {
+                report.recordFailure(LoadTestReport.Stage.TRANSFER);
+                throw e;
+            } finally {
+                report.record(LoadTestReport.Stage.TRANSFER, System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
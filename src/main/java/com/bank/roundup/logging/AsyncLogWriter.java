@@ -0,0 +1,258 @@
+package com.bank.roundup.logging;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes log lines on a single background thread from a bounded queue
+ *
+ * Callers never format or write - they queue the level, message and arguments and return. When the queue is full the
+ * line is dropped rather than blocking the request path, and the number dropped is reported in the next line written,
+ * as is the number of lines the Writer failed to take.
+ * Output goes through one buffered Writer which is flushed whenever the queue runs empty, so a burst of lines costs
+ * one write to the console rather than one per line. The default instance writes UTF-8 to stdout and drains its
+ * queue before the JVM exits.
+ *
+ * Defaults can be overridden with system properties: roundup.log.level and roundup.log.queueSize
+ */
+public class AsyncLogWriter implements AutoCloseable {
+
+    public static final LogLevel DEFAULT_LEVEL = LogLevel.INFO;
+    public static final int DEFAULT_QUEUE_SIZE = 8192;
+
+    private static final long FLUSH_TIMEOUT_MS = 5_000L;
+
+    private static final AsyncLogWriter defaultInstance = createDefaultInstance();
+
+    private final BlockingQueue<Entry> queue;
+    private final Writer out;
+    private final Thread writerThread;
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private volatile int minimumLevel;
+    private volatile boolean closed;
+
+    // only touched by the writer thread
+    private long droppedReported;
+    private long failedReported;
+
+    public AsyncLogWriter(Writer out, LogLevel level, int queueSize) {
+        this.out = out;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.minimumLevel = level.ordinal();
+        this.writerThread = new Thread(this::drain, "roundup-logger");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static AsyncLogWriter getDefaultInstance() {
+        return defaultInstance;
+    }
+
+    private static AsyncLogWriter createDefaultInstance() {
+        LogLevel level = LogLevel.valueOf(System.getProperty("roundup.log.level", DEFAULT_LEVEL.name()).toUpperCase());
+        AsyncLogWriter writer = new AsyncLogWriter(new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), level,
+                Integer.getInteger("roundup.log.queueSize", DEFAULT_QUEUE_SIZE));
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::flush, "roundup-logger-shutdown"));
+        return writer;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= minimumLevel;
+    }
+
+    public LogLevel getLevel() {
+        return LogLevel.values()[minimumLevel];
+    }
+
+    public void setLevel(LogLevel level) {
+        this.minimumLevel = level.ordinal();
+    }
+
+    /**
+     * Lines dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Lines that could not be written, e.g. because the Writer threw
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * Queues a line without blocking - dropped if the queue is full or the writer is closed
+     */
+    void submit(LogLevel level, String loggerName, String format, Object[] args, Throwable failure) {
+        Entry entry = new Entry(System.currentTimeMillis(), level, loggerName, Thread.currentThread().getName(), format, args, failure);
+        if (closed || !queue.offer(entry)) {
+            droppedCount.increment();
+        }
+    }
+
+    /**
+     * Waits until every line queued before the call has been written, for at most a few seconds
+     */
+    public void flush() {
+        if (!writerThread.isAlive()) {
+            return;
+        }
+        CountDownLatch written = new CountDownLatch(1);
+        try {
+            if (queue.offer(new Entry(written), FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                written.await(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes what is already queued, then stops the writer thread - later lines are dropped
+     */
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        writerThread.interrupt();
+    }
+
+    private void drain() {
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            Entry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                write(entry, line);
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            } catch (IOException | RuntimeException e) {
+                // a log line must never take the writer thread down
+                failedCount.increment();
+            }
+        }
+    }
+
+    private void write(Entry entry, StringBuilder line) throws IOException {
+        if (entry.flushed != null) {
+            out.flush();
+            entry.flushed.countDown();
+            return;
+        }
+
+        long dropped = droppedCount.sum();
+        if (dropped > droppedReported) {
+            out.write(Instant.now() + " WARN  [roundup-logger] AsyncLogWriter - " + (dropped - droppedReported)
+                    + " log lines dropped, queue full\n");
+            droppedReported = dropped;
+        }
+        long failed = failedCount.sum();
+        if (failed > failedReported) {
+            out.write(Instant.now() + " WARN  [roundup-logger] AsyncLogWriter - " + (failed - failedReported)
+                    + " log lines failed to write\n");
+            failedReported = failed;
+        }
+
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(entry.timestampMillis)).append(' ');
+        line.append(entry.level.name());
+        for (int pad = entry.level.name().length(); pad < 5; pad++) {
+            line.append(' ');
+        }
+        line.append(" [").append(entry.threadName).append("] ").append(entry.loggerName).append(" - ");
+        appendFormatted(line, entry.format, entry.args);
+        line.append('\n');
+        if (entry.failure != null) {
+            StringWriter stackTrace = new StringWriter();
+            entry.failure.printStackTrace(new PrintWriter(stackTrace));
+            line.append(stackTrace);
+        }
+
+        out.append(line);
+        writtenCount.increment();
+    }
+
+    /**
+     * Replaces each "{}" in the format with the next argument - extra arguments are ignored, missing ones left as "{}"
+     */
+    static void appendFormatted(StringBuilder line, String format, Object[] args) {
+        if (args == null || args.length == 0) {
+            line.append(format);
+            return;
+        }
+
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = format.indexOf("{}", start)) >= 0) {
+            line.append(format, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        line.append(format, start, format.length());
+    }
+
+    /**
+     * A queued line, or a flush marker when flushed is set
+     */
+    private static final class Entry {
+
+        private final long timestampMillis;
+        private final LogLevel level;
+        private final String loggerName;
+        private final String threadName;
+        private final String format;
+        private final Object[] args;
+        private final Throwable failure;
+        private final CountDownLatch flushed;
+
+        Entry(long timestampMillis, LogLevel level, String loggerName, String threadName, String format, Object[] args,
+              Throwable failure) {
+            this.timestampMillis = timestampMillis;
+            this.level = level;
+            this.loggerName = loggerName;
+            this.threadName = threadName;
+            this.format = format;
+            this.args = args;
+            this.failure = failure;
+            this.flushed = null;
+        }
+
+        Entry(CountDownLatch flushed) {
+            this.timestampMillis = 0L;
+            this.level = LogLevel.OFF;
+            this.loggerName = null;
+            this.threadName = null;
+            this.format = null;
+            this.args = null;
+            this.failure = null;
+            this.flushed = flushed;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.bank.roundup.logging;
+
+/**
+ * Request or response body passed as a log argument, made safe to log only when the line is written
+ *
+ * Bodies carry account details, names and amounts, so by default (REDACTED) every JSON string and number value is
+ * masked, leaving just the field names and structure, and a body that is not JSON is replaced by its length. The result
+ * is then cut to maxBodyChars. TRUNCATED keeps the values but still cuts the body, FULL writes it unchanged and NONE
+ * writes only its length. The work happens in toString, on the log writer's thread, and only for lines that are
+ * enabled.
+ *
+ * Defaults can be overridden with system properties: roundup.log.bodies and roundup.log.maxBodyChars
+ */
+public final class LogBody {
+
+    public enum Mode {
+        NONE,
+        REDACTED,
+        TRUNCATED,
+        FULL
+    }
+
+    public static final Mode DEFAULT_MODE = Mode.REDACTED;
+    public static final int DEFAULT_MAX_BODY_CHARS = 512;
+
+    private static final String MASK = "***";
+
+    private static final Mode defaultMode =
+            Mode.valueOf(System.getProperty("roundup.log.bodies", DEFAULT_MODE.name()).toUpperCase());
+    private static final int defaultMaxBodyChars = Integer.getInteger("roundup.log.maxBodyChars", DEFAULT_MAX_BODY_CHARS);
+
+    private final String body;
+    private final Mode mode;
+    private final int maxBodyChars;
+
+    public LogBody(String body, Mode mode, int maxBodyChars) {
+        this.body = body;
+        this.mode = mode;
+        this.maxBodyChars = maxBodyChars;
+    }
+
+    public static LogBody of(String body) {
+        return new LogBody(body, defaultMode, defaultMaxBodyChars);
+    }
+
+    @Override
+    public String toString() {
+        if (body == null) {
+            return "<no body>";
+        }
+        switch (mode) {
+            case FULL:
+                return body;
+            case TRUNCATED:
+                return truncate(body);
+            case REDACTED:
+                return looksLikeJson(body) ? truncate(redactJson(body, maxBodyChars)) : "<" + body.length() + " chars redacted>";
+            default:
+                return "<" + body.length() + " chars>";
+        }
+    }
+
+    /**
+     * Cuts the text to maxBodyChars, noting the length of the original body
+     */
+    private String truncate(String text) {
+        if (text.length() <= maxBodyChars) {
+            return text;
+        }
+        return text.substring(0, maxBodyChars) + "...(" + body.length() + " chars)";
+    }
+
+    private static boolean looksLikeJson(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '{' || c == '[';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Masks every string and number value, keeping field names, true, false and null
+     * A string is a field name if the next non whitespace character is a colon. Stops once the output passes limit
+     * characters, so a multi-megabyte feed costs no more to log than its first few hundred characters.
+     */
+    static String redactJson(String json, int limit) {
+        StringBuilder redacted = new StringBuilder(Math.min(json.length(), limit + 16));
+        int length = json.length();
+        int i = 0;
+
+        while (i < length && redacted.length() <= limit) {
+            char c = json.charAt(i);
+
+            if (c == '"') {
+                int end = i + 1;
+                while (end < length && json.charAt(end) != '"') {
+                    end += json.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 1, length);
+
+                int next = end;
+                while (next < length && Character.isWhitespace(json.charAt(next))) {
+                    next++;
+                }
+                if (next < length && json.charAt(next) == ':') {
+                    redacted.append(json, i, end);
+                } else {
+                    redacted.append('"').append(MASK).append('"');
+                }
+                i = end;
+
+            } else if (c == '-' || (c >= '0' && c <= '9')) {
+                while (i < length && "+-.eE0123456789".indexOf(json.charAt(i)) >= 0) {
+                    i++;
+                }
+                redacted.append(MASK);
+
+            } else {
+                redacted.append(c);
+                i++;
+            }
+        }
+
+        return redacted.toString();
+    }
+}
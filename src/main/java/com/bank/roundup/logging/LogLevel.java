@@ -0,0 +1,13 @@
+package com.bank.roundup.logging;
+
+/**
+ * Log levels in increasing severity - a logger set to a level writes that level and everything above it
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF
+}
@@ -0,0 +1,138 @@
+package com.bank.roundup.logging;
+
+/**
+ * Leveled logging facade for the service classes
+ *
+ * The calling thread only checks the level and queues the message with its arguments - "{}" placeholders are filled
+ * in, and the line written, by the AsyncLogWriter's background thread. The fixed arity overloads avoid allocating a
+ * varargs array when the level is off, so a disabled debug line costs one volatile read. Arguments are formatted
+ * later on another thread, so they must be immutable or safe to read concurrently. Wrap response and request bodies
+ * in LogBody so they are truncated or redacted before they are written.
+ */
+public final class RoundUpLogger {
+
+    private final String name;
+    private final AsyncLogWriter writer;
+
+    public RoundUpLogger(String name, AsyncLogWriter writer) {
+        this.name = name;
+        this.writer = writer;
+    }
+
+    /**
+     * Logger named after the class, writing through the shared AsyncLogWriter
+     */
+    public static RoundUpLogger getLogger(Class<?> type) {
+        return new RoundUpLogger(type.getSimpleName(), AsyncLogWriter.getDefaultInstance());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return writer.isEnabled(level);
+    }
+
+    public boolean isDebugEnabled() {
+        return writer.isEnabled(LogLevel.DEBUG);
+    }
+
+    // ========== DEBUG ==========
+
+    public void debug(String message) {
+        if (writer.isEnabled(LogLevel.DEBUG)) {
+            writer.submit(LogLevel.DEBUG, name, message, null, null);
+        }
+    }
+
+    public void debug(String format, Object arg) {
+        if (writer.isEnabled(LogLevel.DEBUG)) {
+            writer.submit(LogLevel.DEBUG, name, format, new Object[] {arg}, null);
+        }
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        if (writer.isEnabled(LogLevel.DEBUG)) {
+            writer.submit(LogLevel.DEBUG, name, format, new Object[] {arg1, arg2}, null);
+        }
+    }
+
+    public void debug(String format, Object arg1, Object arg2, Object arg3) {
+        if (writer.isEnabled(LogLevel.DEBUG)) {
+            writer.submit(LogLevel.DEBUG, name, format, new Object[] {arg1, arg2, arg3}, null);
+        }
+    }
+
+    // ========== INFO ==========
+
+    public void info(String message) {
+        if (writer.isEnabled(LogLevel.INFO)) {
+            writer.submit(LogLevel.INFO, name, message, null, null);
+        }
+    }
+
+    public void info(String format, Object arg) {
+        if (writer.isEnabled(LogLevel.INFO)) {
+            writer.submit(LogLevel.INFO, name, format, new Object[] {arg}, null);
+        }
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        if (writer.isEnabled(LogLevel.INFO)) {
+            writer.submit(LogLevel.INFO, name, format, new Object[] {arg1, arg2}, null);
+        }
+    }
+
+    public void info(String format, Object arg1, Object arg2, Object arg3) {
+        if (writer.isEnabled(LogLevel.INFO)) {
+            writer.submit(LogLevel.INFO, name, format, new Object[] {arg1, arg2, arg3}, null);
+        }
+    }
+
+    // ========== WARN ==========
+
+    public void warn(String message) {
+        if (writer.isEnabled(LogLevel.WARN)) {
+            writer.submit(LogLevel.WARN, name, message, null, null);
+        }
+    }
+
+    public void warn(String format, Object arg) {
+        if (writer.isEnabled(LogLevel.WARN)) {
+            writer.submit(LogLevel.WARN, name, format, new Object[] {arg}, null);
+        }
+    }
+
+    public void warn(String format, Object... args) {
+        if (writer.isEnabled(LogLevel.WARN)) {
+            writer.submit(LogLevel.WARN, name, format, args, null);
+        }
+    }
+
+    public void warn(String message, Throwable failure) {
+        if (writer.isEnabled(LogLevel.WARN)) {
+            writer.submit(LogLevel.WARN, name, message, null, failure);
+        }
+    }
+
+    // ========== ERROR ==========
+
+    public void error(String message) {
+        if (writer.isEnabled(LogLevel.ERROR)) {
+            writer.submit(LogLevel.ERROR, name, message, null, null);
+        }
+    }
+
+    public void error(String format, Object... args) {
+        if (writer.isEnabled(LogLevel.ERROR)) {
+            writer.submit(LogLevel.ERROR, name, format, args, null);
+        }
+    }
+
+    public void error(String message, Throwable failure) {
+        if (writer.isEnabled(LogLevel.ERROR)) {
+            writer.submit(LogLevel.ERROR, name, message, null, failure);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.bank.roundup.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/**
+ * Writes RoundUpMetrics in the Prometheus text exposition format (version 0.0.4)
+ *
+ * Stage latencies are summaries in seconds with p50, p90, p99 and p999 quantiles, stage failures and responses per
+ * endpoint and status code are counters, and registered samples keep their own type. The text can be served as a
+ * scrape target, read from the MXBean's PrometheusText attribute or dumped to a file for the node exporter's
+ * textfile collector.
+ */
+public final class PrometheusExporter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "roundup_";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private PrometheusExporter() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static String format(RoundUpMetrics metrics) {
+        StringBuilder text = new StringBuilder(4096);
+        try {
+            write(metrics, text);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Dumps the metrics to the file, replacing it atomically so a reader never sees a partial dump
+     */
+    public static void writeTo(RoundUpMetrics metrics, Path file) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            write(metrics, writer);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void write(RoundUpMetrics metrics, Appendable out) throws IOException {
+        String latency = PREFIX + "stage_latency_seconds";
+        header(out, latency, "Latency of each stage of a roundup run", "summary");
+        for (RoundUpMetrics.Stage stage : RoundUpMetrics.Stage.values()) {
+            LatencyHistogram histogram = metrics.getLatency(stage);
+            String stageLabel = "stage=\"" + stage.getLabel() + "\"";
+            for (double quantile : QUANTILES) {
+                sample(out, latency, stageLabel + ",quantile=\"" + quantile + "\"",
+                        histogram.getPercentileNanos(quantile * 100.0) / NANOS_PER_SECOND);
+            }
+            sample(out, latency + "_sum", stageLabel, histogram.getTotalNanos() / NANOS_PER_SECOND);
+            sample(out, latency + "_count", stageLabel, histogram.getCount());
+        }
+
+        String failures = PREFIX + "stage_failures_total";
+        header(out, failures, "Stage calls that failed", "counter");
+        for (RoundUpMetrics.Stage stage : RoundUpMetrics.Stage.values()) {
+            sample(out, failures, "stage=\"" + stage.getLabel() + "\"", metrics.getFailureCount(stage));
+        }
+
+        String responses = PREFIX + "http_responses_total";
+        header(out, responses, "Bank API responses by endpoint and status code, code 0 for no response", "counter");
+        for (Map.Entry<String, Map<Integer, Long>> endpoint : metrics.getResponseCountsByEndpoint().entrySet()) {
+            String endpointLabel = "endpoint=\"" + escape(endpoint.getKey()) + "\"";
+            for (Map.Entry<Integer, Long> status : endpoint.getValue().entrySet()) {
+                sample(out, responses, endpointLabel + ",code=\"" + status.getKey() + "\"", status.getValue());
+            }
+        }
+
+        for (RoundUpMetrics.Sample registered : metrics.getSamples().values()) {
+            String name = PREFIX + registered.getName();
+            header(out, name, registered.getHelp(), registered.isCounter() ? "counter" : "gauge");
+            sample(out, name, null, registered.read());
+        }
+    }
+
+    private static void header(Appendable out, String name, String help, String type) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(Appendable out, String name, String labels, double value) throws IOException {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value));
+        out.append('\n');
+    }
+
+    static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,293 @@
+package com.bank.roundup.metrics;
+
+import com.bank.roundup.logging.RoundUpLogger;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process wide metrics for roundup runs - latency histograms per stage, per-endpoint status code counters and
+ * sampled gauges and counters such as the transport's limiter state
+ *
+ * Recording is lock free and does not allocate once an endpoint has been seen: a stage latency is one LatencyHistogram
+ * record, and a response is one increment in the endpoint's array of status code counters, so it is cheap enough to
+ * leave on in production. Everything is exported through PrometheusExporter and, for the default instance, as the
+ * JMX MXBean com.bank.roundup:type=RoundUpMetrics.
+ */
+public class RoundUpMetrics implements RoundUpMetricsInterface {
+
+    public static final String OBJECT_NAME = "com.bank.roundup:type=RoundUpMetrics";
+
+    /**
+     * Stages of a roundup run that are timed
+     */
+    public enum Stage {
+        ACCOUNTS_FETCH("accounts_fetch"),
+        FEED_FETCH("feed_fetch"),
+        JSON_PARSE("json_parse"),
+        FILTER("filter"),
+        CALCULATE_ROUNDUP("calculate_roundup"),
+        GOAL_CREATION("goal_creation"),
+        TRANSFER("transfer");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Call timed by time() - lets the checked exception of the timed call through
+     */
+    @FunctionalInterface
+    public interface TimedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    // index 0 counts requests that got no response
+    private static final int NO_RESPONSE = 0;
+    private static final int STATUS_CODE_LIMIT = 600;
+
+    private static final RoundUpMetrics defaultInstance = createDefaultInstance();
+
+    private final Map<Stage, LatencyHistogram> stageLatencies = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> stageFailures = new EnumMap<>(Stage.class);
+    private final Map<String, AtomicLongArray> responseCounts = new ConcurrentHashMap<>();
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+
+    public RoundUpMetrics() {
+        for (Stage stage : Stage.values()) {
+            stageLatencies.put(stage, new LatencyHistogram());
+            stageFailures.put(stage, new LongAdder());
+        }
+    }
+
+    /**
+     * Metrics shared by every service that is not given its own, registered with the platform MBean server
+     */
+    public static RoundUpMetrics getDefaultInstance() {
+        return defaultInstance;
+    }
+
+    private static RoundUpMetrics createDefaultInstance() {
+        RoundUpMetrics metrics = new RoundUpMetrics();
+        try {
+            metrics.registerMBean(ManagementFactory.getPlatformMBeanServer(), new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // metrics are still recorded and can be exported as text
+            RoundUpLogger.getLogger(RoundUpMetrics.class).warn("Could not register metrics MBean: {}", e.getMessage());
+        }
+        return metrics;
+    }
+
+    /**
+     * Registers these metrics as an MXBean, replacing any already registered under the name
+     */
+    public void registerMBean(MBeanServer server, ObjectName name) throws JMException {
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(this, name);
+    }
+
+    // ========== Recording ==========
+
+    public void record(Stage stage, long nanos) {
+        stageLatencies.get(stage).record(nanos);
+    }
+
+    public void recordFailure(Stage stage) {
+        stageFailures.get(stage).increment();
+    }
+
+    /**
+     * Runs the call and records its latency under the stage, counting a failure if it throws
+     */
+    public <T, E extends Exception> T time(Stage stage, TimedCall<T, E> call) throws E {
+        long startNanos = System.nanoTime();
+        try {
+            return call.call();
+        } catch (Exception | Error e) {
+            recordFailure(stage);
+            throw e;
+        } finally {
+            record(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Starts the call and records its latency under the stage when the future completes, counting a failure if it
+     * completes exceptionally
+     */
+    public <T> CompletableFuture<T> timeAsync(Stage stage, Supplier<CompletableFuture<T>> call) {
+        long startNanos = System.nanoTime();
+        return call.get().whenComplete((result, error) -> {
+            if (error != null) {
+                recordFailure(stage);
+            }
+            record(stage, System.nanoTime() - startNanos);
+        });
+    }
+
+    /**
+     * Counts a response from the endpoint - endpoints are the "METHOD path" strings from RetryPolicy.endpointOf
+     */
+    public void recordResponse(String endpoint, int statusCode) {
+        int index = statusCode > NO_RESPONSE && statusCode < STATUS_CODE_LIMIT ? statusCode : NO_RESPONSE;
+        countsFor(endpoint).incrementAndGet(index);
+    }
+
+    /**
+     * Counts a request to the endpoint that failed without a response
+     */
+    public void recordNoResponse(String endpoint) {
+        countsFor(endpoint).incrementAndGet(NO_RESPONSE);
+    }
+
+    private AtomicLongArray countsFor(String endpoint) {
+        AtomicLongArray counts = responseCounts.get(endpoint);
+        return counts != null ? counts : responseCounts.computeIfAbsent(endpoint, key -> new AtomicLongArray(STATUS_CODE_LIMIT));
+    }
+
+    /**
+     * Registers a value that is read when the metrics are exported and can go up or down, e.g. a limit or queue length
+     * Registering under a name already in use replaces it.
+     */
+    public void registerGauge(String name, String help, LongSupplier value) {
+        samples.put(name, new Sample(name, help, false, value));
+    }
+
+    /**
+     * Registers an ever increasing count kept elsewhere, read when the metrics are exported
+     */
+    public void registerCounter(String name, String help, LongSupplier value) {
+        samples.put(name, new Sample(name, help, true, value));
+    }
+
+    // ========== Reading ==========
+
+    public LatencyHistogram getLatency(Stage stage) {
+        return stageLatencies.get(stage);
+    }
+
+    public long getFailureCount(Stage stage) {
+        return stageFailures.get(stage).sum();
+    }
+
+    public long getResponseCount(String endpoint, int statusCode) {
+        AtomicLongArray counts = responseCounts.get(endpoint);
+        return counts == null || statusCode < NO_RESPONSE || statusCode >= STATUS_CODE_LIMIT ? 0L : counts.get(statusCode);
+    }
+
+    /**
+     * Non zero response counts per endpoint and status code, sorted - status code 0 counts requests with no response
+     */
+    public Map<String, Map<Integer, Long>> getResponseCountsByEndpoint() {
+        Map<String, Map<Integer, Long>> snapshot = new TreeMap<>();
+        responseCounts.forEach((endpoint, counts) -> {
+            Map<Integer, Long> byStatus = new TreeMap<>();
+            for (int statusCode = 0; statusCode < STATUS_CODE_LIMIT; statusCode++) {
+                long count = counts.get(statusCode);
+                if (count > 0) {
+                    byStatus.put(statusCode, count);
+                }
+            }
+            snapshot.put(endpoint, byStatus);
+        });
+        return snapshot;
+    }
+
+    /**
+     * Registered gauges and counters, sorted by name
+     */
+    Map<String, Sample> getSamples() {
+        return Collections.unmodifiableMap(new TreeMap<>(samples));
+    }
+
+    // ========== MXBean ==========
+
+    @Override
+    public Map<String, String> getStageSummaries() {
+        Map<String, String> summaries = new TreeMap<>();
+        stageLatencies.forEach((stage, histogram) -> summaries.put(stage.getLabel(), histogram.summary()));
+        return summaries;
+    }
+
+    @Override
+    public Map<String, Long> getStageFailures() {
+        Map<String, Long> failures = new TreeMap<>();
+        stageFailures.forEach((stage, count) -> failures.put(stage.getLabel(), count.sum()));
+        return failures;
+    }
+
+    @Override
+    public Map<String, Long> getResponseCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        getResponseCountsByEndpoint().forEach((endpoint, byStatus) ->
+                byStatus.forEach((statusCode, count) -> counts.put(endpoint + " " + statusCode, count)));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getSampledValues() {
+        Map<String, Long> values = new TreeMap<>();
+        samples.forEach((name, sample) -> values.put(name, sample.read()));
+        return values;
+    }
+
+    @Override
+    public String getPrometheusText() {
+        return PrometheusExporter.format(this);
+    }
+
+    /**
+     * A gauge or counter read on export
+     */
+    static final class Sample {
+
+        private final String name;
+        private final String help;
+        private final boolean counter;
+        private final LongSupplier value;
+
+        Sample(String name, String help, boolean counter, LongSupplier value) {
+            this.name = name;
+            this.help = help;
+            this.counter = counter;
+            this.value = value;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getHelp() {
+            return help;
+        }
+
+        boolean isCounter() {
+            return counter;
+        }
+
+        long read() {
+            return value.getAsLong();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.bank.roundup.metrics;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+/**
+ * JMX view of RoundUpMetrics - every attribute is a sorted snapshot taken when it is read
+ */
+@MXBean
+public interface RoundUpMetricsInterface {
+
+    /**
+     * Latency summary per stage - count, mean, p50, p99, p999 and max in milliseconds
+     */
+    Map<String, String> getStageSummaries();
+
+    Map<String, Long> getStageFailures();
+
+    /**
+     * Response count per "METHOD path status" - status 0 counts requests that got no response
+     */
+    Map<String, Long> getResponseCounts();
+
+    /**
+     * Current value of each registered gauge and counter
+     */
+    Map<String, Long> getSampledValues();
+
+    /**
+     * All metrics in the Prometheus text exposition format
+     */
+    String getPrometheusText();
+}
@@ -1,6 +1,8 @@
 package com.bank.roundup.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.bank.roundup.util.IsoTimestampParser;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -14,12 +16,19 @@ import java.time.OffsetDateTime;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Transaction {
 
+    // sentinel for the epoch fields when there is no transaction time
+    public static final long NO_TIME = Long.MIN_VALUE;
+
     private String feedItemUid;
 
     private TransactionDirection direction;
     private String transactionTime;
     private Amount amount;
 
+    // parsed once when the transaction time is set so filters can compare primitives instead of re-parsing the string
+    private long transactionEpochMilli = NO_TIME;
+    private long transactionEpochDay = NO_TIME;
+
     public static class Amount {
 
         private String currency;
@@ -69,6 +78,30 @@ public class Transaction {
 
     public void setTransactionTime(String transactionTime) {
         this.transactionTime = transactionTime;
+
+        if (transactionTime == null) {
+            this.transactionEpochMilli = NO_TIME;
+            this.transactionEpochDay = NO_TIME;
+        } else {
+            this.transactionEpochMilli = IsoTimestampParser.toEpochMilli(transactionTime);
+            this.transactionEpochDay = IsoTimestampParser.toLocalEpochDay(transactionTime, transactionEpochMilli);
+        }
+    }
+
+    /**
+     * Transaction time as epoch millis, or NO_TIME if the transaction has no time
+     */
+    @JsonIgnore
+    public long getTransactionEpochMilli() {
+        return transactionEpochMilli;
+    }
+
+    /**
+     * Epoch day of the transaction date in the offset it was recorded in, or NO_TIME if the transaction has no time
+     */
+    @JsonIgnore
+    public long getTransactionEpochDay() {
+        return transactionEpochDay;
     }
 
     public Amount getAmount() {
@@ -92,6 +125,9 @@ public class Transaction {
     }
 
     public LocalDate convertStringTransactionTimeToLocalDate() {
-        return convertStringTransactionTimeToDateTime().toLocalDate();
+        if (transactionTime == null) {
+            return convertStringTransactionTimeToDateTime().toLocalDate();
+        }
+        return LocalDate.ofEpochDay(transactionEpochDay);
     }
 }
\ No newline at end of file
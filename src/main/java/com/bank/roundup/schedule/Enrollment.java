@@ -0,0 +1,106 @@
+package com.bank.roundup.schedule;
+
+import com.bank.roundup.model.Account;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * An account enrolled for scheduled roundups, with its goal and where its schedule has got to
+ *
+ * nextWindowStart is the first day not yet rounded up, nextFireAt the cadence fire time the next run belongs to and
+ * nextRunAt when that run is actually due - the fire time plus the account's offset in the spread window, or a retry
+ * time after a failure. After a failure nextFireAt stays on the failed run's fire time and attemptedWindowEnd holds the
+ * last day it covered, so the retry rounds up the same window - and so sends the same transfer uid - however late it
+ * runs. Plain getters and setters so the scheduler can persist it as JSON.
+ */
+public class Enrollment {
+
+    private String authToken;
+    private Account account;
+    private UUID savingsGoalUid;
+    private String savingsGoalName;
+    private Currency currency;
+    private LocalDate nextWindowStart;
+    private Instant nextFireAt;
+    private Instant nextRunAt;
+    private LocalDate attemptedWindowEnd;
+
+    public Enrollment() {
+
+    }
+
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    public void setAuthToken(String authToken) {
+        this.authToken = authToken;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public void setAccount(Account account) {
+        this.account = account;
+    }
+
+    public UUID getSavingsGoalUid() {
+        return savingsGoalUid;
+    }
+
+    public void setSavingsGoalUid(UUID savingsGoalUid) {
+        this.savingsGoalUid = savingsGoalUid;
+    }
+
+    public String getSavingsGoalName() {
+        return savingsGoalName;
+    }
+
+    public void setSavingsGoalName(String savingsGoalName) {
+        this.savingsGoalName = savingsGoalName;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    public LocalDate getNextWindowStart() {
+        return nextWindowStart;
+    }
+
+    public void setNextWindowStart(LocalDate nextWindowStart) {
+        this.nextWindowStart = nextWindowStart;
+    }
+
+    public Instant getNextFireAt() {
+        return nextFireAt;
+    }
+
+    public void setNextFireAt(Instant nextFireAt) {
+        this.nextFireAt = nextFireAt;
+    }
+
+    public Instant getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(Instant nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDate getAttemptedWindowEnd() {
+        return attemptedWindowEnd;
+    }
+
+    public void setAttemptedWindowEnd(LocalDate attemptedWindowEnd) {
+        this.attemptedWindowEnd = attemptedWindowEnd;
+    }
+}
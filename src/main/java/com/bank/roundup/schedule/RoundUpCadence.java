@@ -0,0 +1,105 @@
+package com.bank.roundup.schedule;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * When scheduled roundups fire - a cron-like set of days of the week and a time of day in a time zone
+ *
+ * Written as "{days} {HH:mm}", where days is * for every day or a comma separated list such as MON or MON,THU.
+ * "MON 02:00" is the default weekly cadence, matching the DEFAULT_DATE_RANGE_DAYS window of the CLI.
+ */
+public class RoundUpCadence {
+
+    public static final String DEFAULT_EXPRESSION = "MON 02:00";
+
+    private final Set<DayOfWeek> days;
+    private final LocalTime time;
+    private final ZoneId zone;
+
+    public RoundUpCadence(Set<DayOfWeek> days, LocalTime time, ZoneId zone) {
+        if (days.isEmpty()) {
+            throw new IllegalArgumentException("A cadence needs at least one day");
+        }
+        this.days = EnumSet.copyOf(days);
+        this.time = time;
+        this.zone = zone;
+    }
+
+    public static RoundUpCadence weekly(DayOfWeek day, LocalTime time, ZoneId zone) {
+        return new RoundUpCadence(EnumSet.of(day), time, zone);
+    }
+
+    /**
+     * Parses "{days} {HH:mm}", e.g. "MON 02:00", "MON,THU 06:30" or "* 03:00"
+     */
+    public static RoundUpCadence parse(String expression, ZoneId zone) {
+        String[] parts = expression.trim().split("\\s+");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cadence, expected \"{days} {HH:mm}\": " + expression);
+        }
+
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if ("*".equals(parts[0])) {
+            days = EnumSet.allOf(DayOfWeek.class);
+        } else {
+            for (String day : parts[0].split(",")) {
+                days.add(parseDay(day, expression));
+            }
+        }
+
+        return new RoundUpCadence(days, LocalTime.parse(parts[1]), zone);
+    }
+
+    /**
+     * The first fire time strictly after the given instant
+     */
+    public Instant nextFireAfter(Instant after) {
+        LocalDate date = after.atZone(zone).toLocalDate();
+
+        // a week and a day covers every candidate, including today's time having passed
+        for (int i = 0; i <= 7; i++) {
+            LocalDate candidate = date.plusDays(i);
+            if (days.contains(candidate.getDayOfWeek())) {
+                Instant fire = ZonedDateTime.of(candidate, time, zone).toInstant();
+                if (fire.isAfter(after)) {
+                    return fire;
+                }
+            }
+        }
+        throw new IllegalStateException("No fire time within a week of " + after);
+    }
+
+    /**
+     * The calendar date of a fire time - a run fired on it covers the days up to the one before
+     */
+    public LocalDate dateOf(Instant fire) {
+        return fire.atZone(zone).toLocalDate();
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    private static DayOfWeek parseDay(String day, String expression) {
+        String prefix = day.trim().toUpperCase(Locale.ROOT);
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (prefix.length() >= 3 && dayOfWeek.name().startsWith(prefix)) {
+                return dayOfWeek;
+            }
+        }
+        throw new IllegalArgumentException("Invalid day '" + day + "' in cadence: " + expression);
+    }
+
+    @Override
+    public String toString() {
+        return days + " " + time + " " + zone;
+    }
+}
@@ -0,0 +1,417 @@
+package com.bank.roundup.schedule;
+
+import com.bank.roundup.engine.RoundUpEngine;
+import com.bank.roundup.engine.RoundUpJob;
+import com.bank.roundup.engine.RoundUpResult;
+import com.bank.roundup.logging.RoundUpLogger;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.util.JsonMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs recurring roundups for every enrolled account, so nobody has to start the launcher by hand each week
+ *
+ * Each enrollment is due at its cadence fire time plus a fixed offset within the spread window, derived from its
+ * account uid - so a whole population fires across the window rather than all at once, and an account keeps the same
+ * slot from week to week and across restarts. Runs go through the RoundUpEngine, whose maxInFlight bounds how many
+ * hit the Bank API at once. A run covers the days from the end of the last successful run up to the day before its
+ * fire date, so a late or failed run is caught up by the next one rather than skipped. Failed runs are retried after
+ * retryDelay with the same window, kept on the Enrollment, even if further fire times pass before the retry succeeds.
+ *
+ * Enrollments and their next run times are saved to the state file after each tick (atomically, via a temp file
+ * created readable by the owner only) and loaded when the scheduler is created. A run that completed just before a crash may be run again after the restart;
+ * its transfer uid depends only on the account, goal and window, so the Bank API applies the transfer once.
+ * The state file holds the enrolled auth tokens and must be kept private.
+ *
+ * Defaults can be overridden with system properties: roundup.schedule.cadence, roundup.schedule.zone,
+ * roundup.schedule.spreadMinutes and roundup.schedule.retryMinutes
+ */
+public class RoundUpScheduler implements AutoCloseable {
+
+    public static final long DEFAULT_SPREAD_MINUTES = 360L;
+    public static final long DEFAULT_RETRY_MINUTES = 60L;
+
+    private static final RoundUpLogger LOGGER = RoundUpLogger.getLogger(RoundUpScheduler.class);
+
+    private final RoundUpEngine engine;
+    private final RoundUpCadence cadence;
+    private final Duration spread;
+    private final Duration retryDelay;
+    private final Path stateFile;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
+
+    // guarded by this
+    private final Map<UUID, Enrollment> enrollments = new LinkedHashMap<>();
+    private final Set<UUID> running = new HashSet<>();
+    private final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+    private boolean dirty;
+
+    // held for a whole save, so saves never share the temp file and an older snapshot never replaces a newer one
+    private final Object saveLock = new Object();
+
+    private ScheduledExecutorService timer;
+
+    public RoundUpScheduler(RoundUpEngine engine, Path stateFile) throws IOException {
+        this(engine,
+                RoundUpCadence.parse(System.getProperty("roundup.schedule.cadence", RoundUpCadence.DEFAULT_EXPRESSION),
+                        ZoneId.of(System.getProperty("roundup.schedule.zone", ZoneId.systemDefault().getId()))),
+                Duration.ofMinutes(Long.getLong("roundup.schedule.spreadMinutes", DEFAULT_SPREAD_MINUTES)),
+                Duration.ofMinutes(Long.getLong("roundup.schedule.retryMinutes", DEFAULT_RETRY_MINUTES)),
+                stateFile, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the scheduler and loads any enrollments saved in the state file - call start() to begin running them
+     */
+    public RoundUpScheduler(RoundUpEngine engine, RoundUpCadence cadence, Duration spread, Duration retryDelay,
+                            Path stateFile, Clock clock) throws IOException {
+        this.engine = engine;
+        this.cadence = cadence;
+        this.spread = spread;
+        this.retryDelay = retryDelay;
+        this.stateFile = stateFile;
+        this.clock = clock;
+
+        load();
+    }
+
+    // ========== REGISTRY ==========
+
+    /**
+     * Enrolls an account, replacing any existing enrollment for it, and saves the state
+     * The first run rounds up from firstWindowStart. Either savingsGoalUid or savingsGoalName should be set.
+     */
+    public void enroll(String authToken, Account account, UUID savingsGoalUid, String savingsGoalName,
+                       Currency currency, LocalDate firstWindowStart) throws IOException {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setAuthToken(authToken);
+        enrollment.setAccount(account);
+        enrollment.setSavingsGoalUid(savingsGoalUid);
+        enrollment.setSavingsGoalName(savingsGoalName);
+        enrollment.setCurrency(currency);
+        enrollment.setNextWindowStart(firstWindowStart);
+        enrollment.setNextFireAt(cadence.nextFireAfter(clock.instant()));
+        enrollment.setNextRunAt(runTimeFor(account.getAccountUid(), enrollment.getNextFireAt()));
+
+        synchronized (this) {
+            enrollments.put(account.getAccountUid(), enrollment);
+            dirty = true;
+        }
+        save();
+    }
+
+    /**
+     * Removes an account's enrollment and saves the state - a run already in progress still completes
+     */
+    public boolean unenroll(UUID accountUid) throws IOException {
+        boolean removed;
+        synchronized (this) {
+            removed = enrollments.remove(accountUid) != null;
+            dirty |= removed;
+        }
+        save();
+        return removed;
+    }
+
+    /**
+     * Snapshot of the enrollments - changing the copies has no effect on the schedule
+     */
+    public synchronized List<Enrollment> getEnrollments() {
+        List<Enrollment> copies = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments.values()) {
+            copies.add(objectMapper.convertValue(enrollment, Enrollment.class));
+        }
+        return copies;
+    }
+
+    // ========== RUNNING ==========
+
+    /**
+     * Runs due enrollments every tickInterval on a background thread until close()
+     */
+    public synchronized void start(Duration tickInterval) {
+        if (timer != null) {
+            throw new IllegalStateException("Scheduler already started");
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "roundup-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::tick, 0L, tickInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Submits a run for every enrollment that is due and not already running
+     * Blocks while the engine has maxInFlight runs in progress.
+     *
+     * @return future completing once the submitted runs have finished and been rescheduled
+     */
+    public CompletableFuture<Void> runDue() throws InterruptedException {
+        Instant now = clock.instant();
+        List<Enrollment> due = new ArrayList<>();
+
+        synchronized (this) {
+            for (Enrollment enrollment : enrollments.values()) {
+                UUID accountUid = enrollment.getAccount().getAccountUid();
+                if (!enrollment.getNextRunAt().isAfter(now) && running.add(accountUid)) {
+                    due.add(enrollment);
+                }
+            }
+        }
+
+        List<CompletableFuture<Void>> runs = new ArrayList<>(due.size());
+        for (Enrollment enrollment : due) {
+            runs.add(run(enrollment));
+        }
+        return CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Saves the state if anything changed since the last save
+     */
+    public void save() throws IOException {
+        synchronized (saveLock) {
+            List<Enrollment> snapshot;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                snapshot = getEnrollments();
+                dirty = false;
+            }
+
+            Path temp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+            try {
+                createPrivateFile(temp);
+                objectMapper.writeValue(temp.toFile(), snapshot);
+                Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stops the timer, waits for runs in progress and saves the state
+     * If interrupted while waiting it keeps the interrupt and saves what has finished so far. A failed save is thrown as
+     * an UncheckedIOException.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService stopping;
+        CompletableFuture<?>[] pending;
+        synchronized (this) {
+            stopping = timer;
+            timer = null;
+        }
+        try {
+            if (stopping != null) {
+                stopping.shutdown();
+                stopping.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            synchronized (this) {
+                pending = inFlight.toArray(new CompletableFuture<?>[0]);
+            }
+            CompletableFuture.allOf(pending).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // a run that failed outright left its enrollment unchanged, so it is retried from the saved state
+        }
+
+        try {
+            save();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void tick() {
+        try {
+            runDue();
+            save();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            // the schedule is kept in memory and saved again on the next tick
+            LOGGER.warn("Scheduled roundups failed, retrying next tick", e);
+        }
+    }
+
+    private CompletableFuture<Void> run(Enrollment enrollment) throws InterruptedException {
+        Instant fire;
+        LocalDate endDate;
+        if (enrollment.getAttemptedWindowEnd() != null) {
+            // a retry covers exactly the failed window, so its transfer uid is unchanged
+            fire = enrollment.getNextFireAt();
+            endDate = enrollment.getAttemptedWindowEnd();
+        } else {
+            fire = latestPassedFire(enrollment.getNextFireAt());
+            endDate = cadence.dateOf(fire).minusDays(1);
+        }
+        LocalDate startDate = enrollment.getNextWindowStart();
+
+        if (endDate.isBefore(startDate)) {
+            // nothing to round up yet, e.g. enrolled on a fire day
+            complete(enrollment, fire, endDate, null);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        RoundUpJob job = new RoundUpJob(enrollment.getAuthToken(), enrollment.getAccount(), startDate, endDate,
+                enrollment.getSavingsGoalName(), enrollment.getSavingsGoalUid(), enrollment.getCurrency());
+
+        CompletableFuture<Void> completion = engine.submit(job).thenAccept(result -> complete(enrollment, fire, endDate, result));
+        synchronized (this) {
+            inFlight.add(completion);
+        }
+        completion.whenComplete((ignored, error) -> {
+            synchronized (this) {
+                inFlight.remove(completion);
+            }
+        });
+        return completion;
+    }
+
+    /**
+     * Moves the enrollment on to its next window after a successful run (or one with nothing to run, result null),
+     * or sets a retry time after a failed one
+     */
+    private synchronized void complete(Enrollment enrollment, Instant fire, LocalDate windowEnd, RoundUpResult result) {
+        UUID accountUid = enrollment.getAccount().getAccountUid();
+        running.remove(accountUid);
+        if (enrollments.get(accountUid) != enrollment) {
+            // unenrolled or replaced while running
+            return;
+        }
+
+        if (result != null && !result.isSuccessful()) {
+            enrollment.setNextFireAt(fire);
+            enrollment.setAttemptedWindowEnd(windowEnd);
+            enrollment.setNextRunAt(clock.instant().plus(retryDelay));
+            dirty = true;
+            return;
+        }
+
+        enrollment.setAttemptedWindowEnd(null);
+        if (result != null && enrollment.getSavingsGoalUid() == null && result.getSavingsGoalUid() != null) {
+            // later runs top up the goal the first run created rather than create another
+            enrollment.setSavingsGoalUid(result.getSavingsGoalUid());
+        }
+        if (!windowEnd.isBefore(enrollment.getNextWindowStart())) {
+            enrollment.setNextWindowStart(windowEnd.plusDays(1));
+        }
+        enrollment.setNextFireAt(cadence.nextFireAfter(fire));
+        enrollment.setNextRunAt(runTimeFor(accountUid, enrollment.getNextFireAt()));
+        dirty = true;
+    }
+
+    /**
+     * The latest fire time that has passed, starting from the one the run is due for - after downtime this skips
+     * forward so the missed weeks are caught up in one run rather than one run each
+     */
+    private Instant latestPassedFire(Instant fire) {
+        Instant now = clock.instant();
+        Instant next = cadence.nextFireAfter(fire);
+        while (!next.isAfter(now)) {
+            fire = next;
+            next = cadence.nextFireAfter(next);
+        }
+        return fire;
+    }
+
+    /**
+     * The fire time plus the account's slot in the spread window - or, if that has already passed (after downtime),
+     * the same slot measured from now so a backlog is spread out too
+     */
+    private Instant runTimeFor(UUID accountUid, Instant fire) {
+        Duration offset = spreadOffset(accountUid);
+        Instant runAt = fire.plus(offset);
+        Instant now = clock.instant();
+        return runAt.isBefore(now) ? now.plus(offset) : runAt;
+    }
+
+    private Duration spreadOffset(UUID accountUid) {
+        long spreadMillis = spread.toMillis();
+        if (spreadMillis <= 0) {
+            return Duration.ZERO;
+        }
+        // mix the uid bits so sequential or patterned uids still land across the whole window
+        long hash = (accountUid.getMostSignificantBits() ^ accountUid.getLeastSignificantBits()) * 0x9E3779B97F4A7C15L;
+        return Duration.ofMillis(Math.floorMod(hash ^ (hash >>> 32), spreadMillis));
+    }
+
+    /**
+     * Creates an empty file only the owner can read or write, replacing any left over from a failed save
+     */
+    private static void createPrivateFile(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            return;
+        }
+        File created = Files.createFile(file).toFile();
+        if (!(created.setReadable(false, false) && created.setReadable(true, true)
+                && created.setWritable(false, false) && created.setWritable(true, true))) {
+            throw new IOException("Could not restrict the permissions of " + file);
+        }
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(stateFile)) {
+            return;
+        }
+
+        List<Enrollment> saved = objectMapper.readValue(stateFile.toFile(), new TypeReference<List<Enrollment>>() { });
+        for (Enrollment enrollment : saved) {
+            if (enrollment == null || enrollment.getAccount() == null || enrollment.getAccount().getAccountUid() == null
+                    || enrollment.getNextWindowStart() == null || enrollment.getNextFireAt() == null
+                    || enrollment.getNextRunAt() == null) {
+                throw new IOException("Invalid enrollment in " + stateFile + ": account uid, nextWindowStart, "
+                        + "nextFireAt and nextRunAt are required");
+            }
+        }
+
+        synchronized (this) {
+            for (Enrollment enrollment : saved) {
+                UUID accountUid = enrollment.getAccount().getAccountUid();
+                // runs missed while stopped are spread out from now rather than all due at once
+                if (enrollment.getNextRunAt().isBefore(clock.instant())) {
+                    enrollment.setNextRunAt(runTimeFor(accountUid, enrollment.getNextFireAt()));
+                }
+                enrollments.put(accountUid, enrollment);
+            }
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.bank.roundup.service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.bank.roundup.config.BankApiConfig;
 import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.logging.RoundUpLogger;
+import com.bank.roundup.metrics.RoundUpMetrics;
 import com.bank.roundup.model.Account;
 import com.bank.roundup.util.JsonMapper;
 
@@ -20,32 +26,60 @@ import com.bank.roundup.util.JsonMapper;
  */
 public class AccountService extends BankAbstractApiService implements AccountServiceInterface {
 
-    private static final boolean USE_MOCK_DATA = true;
+    private static final RoundUpLogger LOGGER = RoundUpLogger.getLogger(AccountService.class);
 
     public AccountService(String authToken) {
         super(authToken);
     }
 
+    public AccountService(String authToken, BankHttpTransport transport) {
+        super(authToken, transport);
+    }
+
+    public AccountService(String authToken, BankHttpTransport transport, String baseUrl, boolean useMockData) {
+        super(authToken, transport, baseUrl, useMockData);
+    }
+
     public List<Account> getAccountsForUser() throws BankApiException, JsonProcessingException {
         
-        if (USE_MOCK_DATA) {
+        if (useMockData()) {
             // Use mock data for demonstration
-            System.out.println("Using mock data for accounts");
+            LOGGER.debug("Using mock data for accounts");
             return MockDataService.generateMockAccounts();
         }
         
         // Original API call implementation (kept for reference)
-        String responseBody = sendGetRequest(BankApiConfig.ACCOUNTS_URL);
+        long startNanos = System.nanoTime();
+        try {
+            return sendGetRequest(BankApiConfig.ACCOUNTS_URL, this::parseAccounts);
+        } catch (BankApiException | JsonProcessingException | RuntimeException e) {
+            metrics.recordFailure(RoundUpMetrics.Stage.ACCOUNTS_FETCH);
+            throw e;
+        } finally {
+            metrics.record(RoundUpMetrics.Stage.ACCOUNTS_FETCH, System.nanoTime() - startNanos);
+        }
+    }
 
+    @Override
+    public CompletableFuture<List<Account>> getAccountsForUserAsync() {
+
+        if (useMockData()) {
+            LOGGER.debug("Using mock data for accounts");
+            return CompletableFuture.completedFuture(MockDataService.generateMockAccounts());
+        }
+
+        return metrics.timeAsync(RoundUpMetrics.Stage.ACCOUNTS_FETCH,
+                () -> sendGetRequestAsync(BankApiConfig.ACCOUNTS_URL, this::parseAccounts));
+    }
+
+    private List<Account> parseAccounts(InputStream responseBody) throws IOException {
         // get instance of object mapper
         ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
 
         JsonNode rootNode = objectMapper.readTree(responseBody);
         JsonNode accountsNode = rootNode.get("accounts");
-        
-        // convert the accounts array to a List<Account>
-        List<Account> accounts = Arrays.asList(objectMapper.readValue(accountsNode.toString(), Account[].class));
 
-        return accounts;
+        // convert the accounts array to a List<Account> straight from the tree rather than re-serializing it
+        return Arrays.asList(objectMapper.treeToValue(accountsNode, Account[].class));
     }
 }
\ No newline at end of file
@@ -3,8 +3,10 @@ package com.bank.roundup.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.bank.roundup.model.Account;
 import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.util.AsyncSupport;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * AccountServiceInterface for business logic involving bank accounts - currently, just getting the accounts
@@ -24,5 +26,14 @@ public interface AccountServiceInterface {
      */
     List<Account> getAccountsForUser() throws BankApiException, JsonProcessingException;
 
+    /**
+     * Non blocking version of getAccountsForUser
+     * Defaults to running the blocking call on the async adapter pool so existing implementations keep working
+     *
+     * @return future of the user accounts, failing with a BankApiException
+     */
+    default CompletableFuture<List<Account>> getAccountsForUserAsync() {
+        return AsyncSupport.supplyAsync(this::getAccountsForUser);
+    }
 
 }
\ No newline at end of file
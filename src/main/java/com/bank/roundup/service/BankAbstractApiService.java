@@ -1,21 +1,101 @@
 package com.bank.roundup.service;
 
 import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.exception.BankApiStatusException;
+import com.bank.roundup.exception.CircuitBreakerOpenException;
 import com.bank.roundup.config.BankApiConfig;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.http.CircuitBreaker;
+import com.bank.roundup.http.ConcurrencyLimiter;
+import com.bank.roundup.http.RetryPolicy;
+import com.bank.roundup.logging.LogBody;
+import com.bank.roundup.logging.RoundUpLogger;
+import com.bank.roundup.metrics.RoundUpMetrics;
+import com.bank.roundup.util.AsyncSupport;
+import com.fasterxml.jackson.core.JsonProcessingException;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for the Bank API services - all requests go through one shared, pooled BankHttpTransport
+ * Transient failures are retried under the transport's RetryPolicy before they reach the caller. Every attempt waits for
+ * the transport's RateLimiter (per endpoint and auth token), must then be admitted by the endpoint's CircuitBreaker -
+ * failing fast while it is open - and holds a ConcurrencyLimiter permit while it is sent. Waiting on the rate limiter
+ * first means a long wait never holds one of the breaker's half open probe slots. Each attempt's
+ * status code, or its lack of a response, is counted per endpoint in the RoundUpMetrics.
+ * Requests and responses are logged at DEBUG, with error bodies redacted and truncated through LogBody. Response bodies
+ * are read as bytes in UTF-8 - callers that parse them pass a ResponseReader and get the decoded stream, so a large
+ * feed goes straight into Jackson without being held as a String.
+ */
 public abstract class BankAbstractApiService {
 
+    private static final RoundUpLogger LOGGER = RoundUpLogger.getLogger(BankAbstractApiService.class);
+
+    private static final int MAX_ERROR_BODY_BYTES = 64 * 1024;
+
+    private static final ResponseReader<String> STRING_READER = body -> new String(body.readAllBytes(), StandardCharsets.UTF_8);
+
+    /**
+     * Reads a successful response from its decoded body stream
+     */
+    @FunctionalInterface
+    protected interface ResponseReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
     protected final String authToken;
+    protected final BankHttpTransport transport;
+    protected final RoundUpMetrics metrics;
+
+    // null when read from BankApiConfig on each call
+    private final String baseUrl;
+    private final Boolean mockData;
 
     public BankAbstractApiService(String authToken) {
+        this(authToken, BankHttpTransport.getDefaultInstance());
+    }
+
+    public BankAbstractApiService(String authToken, BankHttpTransport transport) {
+        this(authToken, transport, null, null);
+    }
+
+    /**
+     * Service bound to its own base URL and mock data switch rather than the process wide BankApiConfig properties
+     */
+    public BankAbstractApiService(String authToken, BankHttpTransport transport, String baseUrl, boolean useMockData) {
+        this(authToken, transport, BankApiConfig.withTrailingSlash(baseUrl), Boolean.valueOf(useMockData));
+    }
+
+    private BankAbstractApiService(String authToken, BankHttpTransport transport, String baseUrl, Boolean mockData) {
         this.authToken = authToken;
+        this.transport = transport;
+        this.metrics = RoundUpMetrics.getDefaultInstance();
+        this.baseUrl = baseUrl;
+        this.mockData = mockData;
     }
 
     /**
      * Creates a full URL from the provided path
      */
     protected String buildFullUrl(String urlPath) {
-        return BankApiConfig.BASE_URL + urlPath;
+        return (baseUrl != null ? baseUrl : BankApiConfig.getBaseUrl()) + urlPath;
+    }
+
+    /**
+     * Whether to answer from mock data rather than the API - see BankApiConfig.isMockDataEnabled
+     */
+    protected boolean useMockData() {
+        return mockData != null ? mockData : BankApiConfig.isMockDataEnabled();
     }
 
     /**
@@ -25,70 +105,323 @@ public abstract class BankAbstractApiService {
      * For demonstration purposes, this implementation uses mock data.
      */
     protected String sendGetRequest(String urlPath) throws BankApiException {
+        return send("GET", urlPath, null, true, STRING_READER);
+    }
+
+    /**
+     * Sends a Get request and streams the decoded response body straight into the reader, so a large body is never
+     * held as a String. A body the reader cannot parse fails with the reader's JsonProcessingException, and is not retried.
+     */
+    protected <T> T sendGetRequest(String urlPath, ResponseReader<T> reader) throws BankApiException, JsonProcessingException {
         try {
-            String fullUrl = buildFullUrl(urlPath);
+            return send("GET", urlPath, null, true, reader);
+        } catch (BankApiException e) {
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw (JsonProcessingException) e.getCause();
+            }
+            throw e;
+        }
+    }
 
-            java.net.HttpURLConnection connection = createConnection(fullUrl, "GET");
+    /**
+     * Sends a Put request with a JSON body to the Bank API
+     */
+    protected String sendPutRequest(String urlPath, String requestBody) throws BankApiException {
+        return sendPutRequest(urlPath, requestBody.getBytes(StandardCharsets.UTF_8));
+    }
 
-            connection.connect();
+    /**
+     * Sends a Put request with a JSON body already written as UTF-8 bytes - the array must not be reused afterwards
+     */
+    protected String sendPutRequest(String urlPath, byte[] requestBody) throws BankApiException {
+        return sendPutRequest(urlPath, requestBody, true);
+    }
 
-            return readResponse(connection);
+    /**
+     * Sends a Put request that may or may not be safe to repeat - one that is not idempotent, such as creating a
+     * resource, is only retried if the connection was never made
+     */
+    protected String sendPutRequest(String urlPath, byte[] requestBody, boolean idempotent) throws BankApiException {
+        return send("PUT", urlPath, requestBody, idempotent, STRING_READER);
+    }
 
-        } catch (Exception e) {
-            throw new BankApiException("Error: " + e.getMessage());
-        }
+    /**
+     * Non blocking version of sendGetRequest - failures complete the future with a BankApiException
+     */
+    protected CompletableFuture<String> sendGetRequestAsync(String urlPath) {
+        return sendAsync("GET", urlPath, null, true, STRING_READER);
+    }
+
+    /**
+     * Non blocking version of sendGetRequest with a reader - the reader is handed the body once all of it has arrived
+     */
+    protected <T> CompletableFuture<T> sendGetRequestAsync(String urlPath, ResponseReader<T> reader) {
+        return sendAsync("GET", urlPath, null, true, reader);
+    }
+
+    /**
+     * Non blocking version of sendPutRequest - failures complete the future with a BankApiException
+     */
+    protected CompletableFuture<String> sendPutRequestAsync(String urlPath, String requestBody) {
+        return sendPutRequestAsync(urlPath, requestBody.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Sets up a connection with common headers
+     * Non blocking version of sendPutRequest with a body already written as UTF-8 bytes
      */
-    protected java.net.HttpURLConnection createConnection(String fullUrl, String method) throws java.io.IOException {
-        System.out.println("Making " + method + " request to: " + fullUrl);
+    protected CompletableFuture<String> sendPutRequestAsync(String urlPath, byte[] requestBody) {
+        return sendPutRequestAsync(urlPath, requestBody, true);
+    }
 
-        java.net.URL url = new java.net.URL(fullUrl);
-        java.net.HttpURLConnection connection = (java.net.HttpURLConnection) url.openConnection();
+    /**
+     * Non blocking version of sendPutRequest for a request that may not be idempotent
+     */
+    protected CompletableFuture<String> sendPutRequestAsync(String urlPath, byte[] requestBody, boolean idempotent) {
+        return sendAsync("PUT", urlPath, requestBody, idempotent, STRING_READER);
+    }
 
-        connection.setRequestMethod(method);
+    /**
+     * Sends a request, retrying transient failures as the transport's RetryPolicy allows
+     */
+    private <T> T send(String method, String urlPath, byte[] requestBody, boolean idempotent, ResponseReader<T> reader)
+            throws BankApiException {
+        HttpRequest request = createRequest(method, urlPath, requestBody);
+        RetryPolicy retryPolicy = transport.getRetryPolicy();
+        String endpoint = RetryPolicy.endpointOf(method, urlPath);
+        retryPolicy.recordRequest(endpoint);
 
-        connection.setRequestProperty("Accept", "application/json");
-        connection.setRequestProperty("Authorization", "Bearer " + authToken);
-        connection.setRequestProperty("User-Agent", "Bank RoundUp Demo");
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return sendOnce(method, endpoint, request, reader);
+            } catch (BankApiException e) {
+                Duration delay = retryPolicy.nextDelay(endpoint, attempt, e, idempotent);
+                if (delay == null) {
+                    throw e;
+                }
+                logRetry(endpoint, attempt, delay, e);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new BankApiException("Interrupted during " + method + " request", interrupted);
+                }
+            }
+        }
+    }
 
-        if (method.equals("PUT") || method.equals("POST")) {
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setDoOutput(true);
+    /**
+     * Sends one attempt - the permit is held, and the latency measured, until the body has been read
+     */
+    private <T> T sendOnce(String method, String endpoint, HttpRequest request, ResponseReader<T> reader) throws BankApiException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(transport.getRateLimiter().reserve(endpoint, authToken).toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BankApiException("Interrupted during " + method + " request", e);
         }
 
-        return connection;
+        CircuitBreaker.Call call = transport.getCircuitBreaker().acquire(endpoint);
+        try {
+            ConcurrencyLimiter.Permit permit = transport.getConcurrencyLimiter().acquire(endpoint);
+            long startNanos = System.nanoTime();
+
+            HttpResponse<InputStream> response = null;
+            try {
+                response = transport.send(request);
+                T result = readResponse(response, response.body(), reader);
+                onResponse(endpoint, response.statusCode(), permit, call, startNanos);
+                return result;
+            } catch (BankApiStatusException e) {
+                onResponse(endpoint, e.getStatusCode(), permit, call, startNanos);
+                throw e;
+            } catch (JsonProcessingException e) {
+                onResponse(endpoint, response.statusCode(), permit, call, startNanos);
+                throw new BankApiException("Failed to read response from " + endpoint, e);
+            } catch (IOException | InterruptedException e) {
+                onFailure(endpoint, e, permit, call, startNanos);
+                throw e;
+            } catch (RuntimeException | Error e) {
+                // e.g. the reader rejecting what it parsed - the permit must still be given back
+                if (response != null) {
+                    onResponse(endpoint, response.statusCode(), permit, call, startNanos);
+                } else {
+                    onFailure(endpoint, e, permit, call, startNanos);
+                }
+                throw e;
+            }
+
+        } catch (IOException e) {
+            throw new BankApiException("Error: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BankApiException("Interrupted during " + method + " request", e);
+        } finally {
+            // no effect once the call has an outcome
+            call.cancel();
+        }
+    }
+
+    private <T> CompletableFuture<T> sendAsync(String method, String urlPath, byte[] requestBody, boolean idempotent,
+                                               ResponseReader<T> reader) {
+        HttpRequest request = createRequest(method, urlPath, requestBody);
+        String endpoint = RetryPolicy.endpointOf(method, urlPath);
+        transport.getRetryPolicy().recordRequest(endpoint);
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        sendAsyncAttempt(request, endpoint, idempotent, reader, 1, result);
+        return result;
     }
 
     /**
-     * Reads the response from a connection
+     * Sends one attempt and completes the result, or schedules the next attempt after the backoff without blocking
      */
-    protected String readResponse(java.net.HttpURLConnection connection) throws java.io.IOException, BankApiException {
-        int responseCode = connection.getResponseCode();
-        System.out.println("Response code: " + responseCode);
+    private <T> void sendAsyncAttempt(HttpRequest request, String endpoint, boolean idempotent, ResponseReader<T> reader,
+                                      int attempt, CompletableFuture<T> result) {
+        sendAsyncOnce(request, endpoint, reader).whenComplete((body, error) -> {
+            if (error == null) {
+                result.complete(body);
+                return;
+            }
 
-        java.io.InputStream inputStream =
-                (responseCode >= 400) ? connection.getErrorStream() : connection.getInputStream();
+            BankApiException failure = AsyncSupport.toBankApiException(error);
+            Duration delay = transport.getRetryPolicy().nextDelay(endpoint, attempt, failure, idempotent);
+            if (delay == null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            logRetry(endpoint, attempt, delay, failure);
+            CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS)
+                    .execute(() -> sendAsyncAttempt(request, endpoint, idempotent, reader, attempt + 1, result));
+        });
+    }
 
-        java.io.BufferedReader reader = new java.io.BufferedReader(
-                new java.io.InputStreamReader(inputStream));
+    /**
+     * Sends one attempt once the rate limiter, the circuit breaker and a concurrency permit allow, without blocking a
+     * thread while waiting. The breaker is only asked once the rate limiter's wait is over.
+     * The body is streamed into the reader on the completion stage, never collected as a String or a byte array.
+     */
+    private <T> CompletableFuture<T> sendAsyncOnce(HttpRequest request, String endpoint, ResponseReader<T> reader) {
+        long waitNanos = transport.getRateLimiter().reserve(endpoint, authToken).toNanos();
+        CompletableFuture<Void> rateLimited = waitNanos > 0
+                ? CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS))
+                : CompletableFuture.completedFuture(null);
 
-        StringBuilder responseBuilder = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            responseBuilder.append(line);
-        }
-        reader.close();
+        return rateLimited.thenCompose(ignored -> {
+            CircuitBreaker.Call call;
+            try {
+                call = transport.getCircuitBreaker().acquire(endpoint);
+            } catch (CircuitBreakerOpenException e) {
+                return CompletableFuture.<T>failedFuture(e);
+            }
+            return sendAsyncAdmitted(request, endpoint, reader, call);
+        });
+    }
+
+    /**
+     * Sends an attempt the circuit breaker has admitted once a concurrency permit is free
+     */
+    private <T> CompletableFuture<T> sendAsyncAdmitted(HttpRequest request, String endpoint, ResponseReader<T> reader,
+                                                       CircuitBreaker.Call call) {
+        return transport.getConcurrencyLimiter().acquireAsync(endpoint)
+                .thenCompose(permit -> {
+                    long startNanos = System.nanoTime();
+                    return transport.sendAsync(request).handle((response, error) -> {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                            onFailure(endpoint, cause, permit, call, startNanos);
+                            throw new CompletionException(new BankApiException("Error: " + cause.getMessage(), cause));
+                        }
+                        try {
+                            T result = readResponse(response, response.body(), reader);
+                            onResponse(endpoint, response.statusCode(), permit, call, startNanos);
+                            return result;
+                        } catch (BankApiStatusException e) {
+                            onResponse(endpoint, e.getStatusCode(), permit, call, startNanos);
+                            throw new CompletionException(e);
+                        } catch (JsonProcessingException e) {
+                            onResponse(endpoint, response.statusCode(), permit, call, startNanos);
+                            throw new CompletionException(new BankApiException("Failed to read response from " + endpoint, e));
+                        } catch (IOException e) {
+                            onFailure(endpoint, e, permit, call, startNanos);
+                            throw new CompletionException(new BankApiException("Error: " + e.getMessage(), e));
+                        } catch (BankApiException e) {
+                            onResponse(endpoint, response.statusCode(), permit, call, startNanos);
+                            throw new CompletionException(e);
+                        } catch (RuntimeException | Error e) {
+                            // e.g. the reader rejecting what it parsed - the permit must still be given back
+                            onResponse(endpoint, response.statusCode(), permit, call, startNanos);
+                            throw e;
+                        }
+                    });
+                })
+                .whenComplete((body, error) -> call.cancel());
+    }
+
+    private void onResponse(String endpoint, int statusCode, ConcurrencyLimiter.Permit permit, CircuitBreaker.Call call,
+                            long startNanos) {
+        permit.onResponse(statusCode);
+        metrics.recordResponse(endpoint, statusCode);
+        call.onResponse(statusCode, System.nanoTime() - startNanos);
+    }
 
-        String responseBody = responseBuilder.toString();
-        System.out.println("Response body: " + responseBody);
+    private void onFailure(String endpoint, Throwable failure, ConcurrencyLimiter.Permit permit, CircuitBreaker.Call call,
+                           long startNanos) {
+        permit.onFailure(failure);
+        call.onFailure(failure, System.nanoTime() - startNanos);
+        metrics.recordNoResponse(endpoint);
+    }
 
-        if (responseCode == 200 || responseCode == 201) {
-            return responseBody;
+    /**
+     * Logs the status and a redacted body for an error response - the exception message holds the raw body
+     */
+    private static void logRetry(String endpoint, int attempt, Duration delay, BankApiException failure) {
+        if (failure instanceof BankApiStatusException) {
+            BankApiStatusException statusFailure = (BankApiStatusException) failure;
+            LOGGER.warn("Retrying {} in {}ms after attempt {} failed with status {}: {}", endpoint, delay.toMillis(), attempt,
+                    statusFailure.getStatusCode(), LogBody.of(statusFailure.getResponseBody()));
         } else {
-            throw new BankApiException("API Error: " + responseCode + " - " + responseBody);
+            LOGGER.warn("Retrying {} in {}ms after attempt {} failed: {}", endpoint, delay.toMillis(), attempt, failure.getMessage());
+        }
+    }
+
+    /**
+     * Sets up a request with common headers
+     */
+    private HttpRequest createRequest(String method, String urlPath, byte[] requestBody) {
+        String fullUrl = buildFullUrl(urlPath);
+        LOGGER.debug("Making {} request to: {}", method, fullUrl);
+
+        return transport.buildRequest(method, fullUrl, authToken, requestBody);
+    }
+
+    /**
+     * Reads the response body, failing with a BankApiStatusException on any status other than 200 or 201
+     * A successful body is decoded (gunzipped if need be) and streamed into the reader, and whatever the reader leaves
+     * is drained so the connection can be reused. Only the first 64KB of an error body is kept for the exception.
+     */
+    protected <T> T readResponse(HttpResponse<?> response, InputStream rawBody, ResponseReader<T> reader)
+            throws BankApiException, IOException {
+        int responseCode = response.statusCode();
+
+        try (InputStream body = BankHttpTransport.decodedBody(response, rawBody)) {
+            if (responseCode == 200 || responseCode == 201) {
+                LOGGER.debug("Response code: {} for {}", responseCode, response.uri());
+                // the reader's parser closes the stream it is given, which would drop the connection before it is drained
+                T result = reader.read(new FilterInputStream(body) {
+                    @Override
+                    public void close() {
+                    }
+                });
+                body.transferTo(OutputStream.nullOutputStream());
+                return result;
+            }
+
+            String responseBody = new String(body.readNBytes(MAX_ERROR_BODY_BYTES), StandardCharsets.UTF_8);
+            body.transferTo(OutputStream.nullOutputStream());
+            LOGGER.debug("Response code: {} for {} body: {}", responseCode, response.uri(), LogBody.of(responseBody));
+
+            Duration retryAfter = RetryPolicy.parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null));
+            throw new BankApiStatusException(responseCode, responseBody, retryAfter);
         }
     }
-}
\ No newline at end of file
+}
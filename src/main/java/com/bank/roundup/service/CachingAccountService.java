@@ -0,0 +1,77 @@
+package com.bank.roundup.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.bank.roundup.cache.CacheInterface;
+import com.bank.roundup.cache.TtlCache;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+
+/**
+ * Caches a customer's accounts in front of another AccountServiceInterface, keyed by auth token
+ *
+ * A customer's accounts almost never change, so batch runs that list them for every job can share one cache across
+ * all the per-token service instances. Cached lists are unmodifiable.
+ */
+public class CachingAccountService implements AccountServiceInterface {
+
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    public static final int DEFAULT_MAX_SIZE = 100_000;
+
+    private final String authToken;
+    private final AccountServiceInterface delegate;
+    private final CacheInterface<String, List<Account>> cache;
+
+    public CachingAccountService(String authToken, AccountServiceInterface delegate, CacheInterface<String, List<Account>> cache) {
+        this.authToken = authToken;
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Creates an account cache sized by roundup.cache.accounts.maxSize and roundup.cache.accounts.ttlSeconds
+     */
+    public static CacheInterface<String, List<Account>> newCache() {
+        return new TtlCache<>(
+                Integer.getInteger("roundup.cache.accounts.maxSize", DEFAULT_MAX_SIZE),
+                Duration.ofSeconds(Long.getLong("roundup.cache.accounts.ttlSeconds", DEFAULT_TTL.getSeconds())));
+    }
+
+    @Override
+    public List<Account> getAccountsForUser() throws BankApiException, JsonProcessingException {
+        List<Account> accounts = cache.get(authToken);
+        if (accounts != null) {
+            return accounts;
+        }
+
+        accounts = Collections.unmodifiableList(new ArrayList<>(delegate.getAccountsForUser()));
+        cache.put(authToken, accounts);
+        return accounts;
+    }
+
+    @Override
+    public CompletableFuture<List<Account>> getAccountsForUserAsync() {
+        List<Account> accounts = cache.get(authToken);
+        if (accounts != null) {
+            return CompletableFuture.completedFuture(accounts);
+        }
+
+        return delegate.getAccountsForUserAsync().thenApply(loaded -> {
+            List<Account> unmodifiable = Collections.unmodifiableList(new ArrayList<>(loaded));
+            cache.put(authToken, unmodifiable);
+            return unmodifiable;
+        });
+    }
+
+    /**
+     * Drops this customer's cached accounts, e.g. after an account is opened or closed
+     */
+    public void invalidate() {
+        cache.invalidate(authToken);
+    }
+}
@@ -0,0 +1,150 @@
+package com.bank.roundup.service;
+
+import java.time.Duration;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.bank.roundup.cache.CacheInterface;
+import com.bank.roundup.cache.TtlCache;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.util.AsyncSupport;
+
+/**
+ * Caches savings goal lookups in front of another SavingsGoalServiceInterface, keyed by account uid and goal name
+ *
+ * A goal found for the account is cached, so repeated lookups of the same goal do not list the account's goals each
+ * time. Concurrent misses for the same goal share one lookup rather than each calling the API.
+ * Goals that are not found are not cached, as one may be created at any time. Creating a goal is not idempotent, so
+ * creates and transfers always go to the delegate.
+ */
+public class CachingSavingsGoalService implements SavingsGoalServiceInterface {
+
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+    public static final int DEFAULT_MAX_SIZE = 100_000;
+
+    private final SavingsGoalServiceInterface delegate;
+    private final CacheInterface<String, UUID> cache;
+    // lookups in progress by cache key - removed once their result is in the cache
+    private final ConcurrentMap<String, CompletableFuture<UUID>> lookups = new ConcurrentHashMap<>();
+
+    public CachingSavingsGoalService(SavingsGoalServiceInterface delegate, CacheInterface<String, UUID> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Creates a savings goal cache sized by roundup.cache.savingsGoals.maxSize and roundup.cache.savingsGoals.ttlSeconds
+     */
+    public static CacheInterface<String, UUID> newCache() {
+        return new TtlCache<>(
+                Integer.getInteger("roundup.cache.savingsGoals.maxSize", DEFAULT_MAX_SIZE),
+                Duration.ofSeconds(Long.getLong("roundup.cache.savingsGoals.ttlSeconds", DEFAULT_TTL.getSeconds())));
+    }
+
+    @Override
+    public UUID findSavingsGoal(String savingsGoalName, Account account) throws JsonProcessingException, BankApiException {
+        String key = cacheKey(account, savingsGoalName);
+        UUID savingsGoalUid = cache.get(key);
+        if (savingsGoalUid != null) {
+            return savingsGoalUid;
+        }
+
+        CompletableFuture<UUID> lookup = new CompletableFuture<>();
+        CompletableFuture<UUID> running = lookups.putIfAbsent(key, lookup);
+        if (running != null) {
+            return AsyncSupport.join(running);
+        }
+
+        try {
+            savingsGoalUid = delegate.findSavingsGoal(savingsGoalName, account);
+            if (savingsGoalUid != null) {
+                cache.put(key, savingsGoalUid);
+            }
+            lookup.complete(savingsGoalUid);
+            return savingsGoalUid;
+        } catch (JsonProcessingException | BankApiException | RuntimeException e) {
+            lookup.completeExceptionally(AsyncSupport.toBankApiException(e));
+            throw e;
+        } finally {
+            lookups.remove(key, lookup);
+        }
+    }
+
+    @Override
+    public CompletableFuture<UUID> findSavingsGoalAsync(String savingsGoalName, Account account) {
+        String key = cacheKey(account, savingsGoalName);
+        UUID savingsGoalUid = cache.get(key);
+        if (savingsGoalUid != null) {
+            return CompletableFuture.completedFuture(savingsGoalUid);
+        }
+
+        CompletableFuture<UUID> lookup = new CompletableFuture<>();
+        CompletableFuture<UUID> running = lookups.putIfAbsent(key, lookup);
+        if (running != null) {
+            return running.copy();
+        }
+
+        delegate.findSavingsGoalAsync(savingsGoalName, account).whenComplete((found, error) -> {
+            if (error == null && found != null) {
+                cache.put(key, found);
+            }
+            lookups.remove(key, lookup);
+            if (error == null) {
+                lookup.complete(found);
+            } else {
+                lookup.completeExceptionally(AsyncSupport.toBankApiException(error));
+            }
+        });
+        return lookup.copy();
+    }
+
+    @Override
+    public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account)
+            throws JsonProcessingException, BankApiException {
+        return delegate.createSavingsGoal(savingsGoalName, currency, account);
+    }
+
+    @Override
+    public CompletableFuture<UUID> createSavingsGoalAsync(String savingsGoalName, Currency currency, Account account) {
+        return delegate.createSavingsGoalAsync(savingsGoalName, currency, account);
+    }
+
+    @Override
+    public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account)
+            throws BankApiException {
+        delegate.addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account);
+    }
+
+    @Override
+    public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) {
+        return delegate.addSavedMoneyToSavingsGoalAsync(roundUpAmountPence, currency, savingsGoalUid, account);
+    }
+
+    @Override
+    public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account,
+                                           UUID transferUid) throws BankApiException {
+        delegate.addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account, transferUid);
+    }
+
+    @Override
+    public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid,
+                                                                  Account account, UUID transferUid) {
+        return delegate.addSavedMoneyToSavingsGoalAsync(roundUpAmountPence, currency, savingsGoalUid, account, transferUid);
+    }
+
+    /**
+     * Drops the cached uid for a goal, e.g. after it has been deleted
+     */
+    public void invalidate(Account account, String savingsGoalName) {
+        cache.invalidate(cacheKey(account, savingsGoalName));
+    }
+
+    private static String cacheKey(Account account, String savingsGoalName) {
+        return account.getAccountUid() + "/" + savingsGoalName;
+    }
+}
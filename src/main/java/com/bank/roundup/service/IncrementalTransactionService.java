@@ -0,0 +1,121 @@
+package com.bank.roundup.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.util.AsyncSupport;
+
+/**
+ * Transaction service that syncs each account's feed incrementally into a TransactionFeedStore
+ *
+ * The first request for an account fetches its window from the delegate. Later requests only fetch what lies outside
+ * the range already synced - the items newer than the feed's watermark, plus any backfill before its start - and
+ * answer the window from the store, so overlapping runs no longer download and parse the same items again.
+ *
+ * The watermark never moves past the current time, and each sync re-reads an overlap before the watermark so items
+ * that are posted late with an earlier transaction time are still picked up. Repeats are dropped by feedItemUid.
+ * The overlap can be set with the roundup.sync.overlapMinutes system property. Two first syncs of the same feed may race
+ * and fetch windows with a gap between them; the store only widens its range for the one that keeps it contiguous, and
+ * the gap is fetched by a later request.
+ */
+public class IncrementalTransactionService implements TransactionServiceInterface {
+
+    public static final Duration DEFAULT_OVERLAP = Duration.ofMinutes(10);
+
+    private final TransactionServiceInterface delegate;
+    private final TransactionFeedStore store;
+    private final Duration overlap;
+    private final Clock clock;
+
+    public IncrementalTransactionService(TransactionServiceInterface delegate, TransactionFeedStore store) {
+        this(delegate, store, Duration.ofMinutes(Long.getLong("roundup.sync.overlapMinutes", DEFAULT_OVERLAP.toMinutes())),
+                Clock.systemUTC());
+    }
+
+    public IncrementalTransactionService(TransactionServiceInterface delegate, TransactionFeedStore store,
+                                         Duration overlap, Clock clock) {
+        if (overlap.isNegative()) {
+            throw new IllegalArgumentException("overlap must not be negative: " + overlap);
+        }
+        this.delegate = delegate;
+        this.store = store;
+        this.overlap = overlap;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) throws BankApiException {
+        return AsyncSupport.join(getTransactionsForTimePeriodAsync(startDate, endDate, account));
+    }
+
+    @Override
+    public CompletableFuture<List<Transaction>> getTransactionsForTimePeriodAsync(LocalDate startDate, LocalDate endDate, Account account) {
+        Instant from = startDate.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = endDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return getTransactionsBetweenAsync(from, to, account);
+    }
+
+    /**
+     * Syncs whatever part of [from, to) the store does not have yet, then answers the window from the store
+     */
+    @Override
+    public CompletableFuture<List<Transaction>> getTransactionsBetweenAsync(Instant from, Instant to, Account account) {
+        TransactionFeedStore.Feed feed = store.feed(account);
+        Instant syncedFrom = feed.getSyncedFrom();
+        Instant watermark = feed.getWatermark();
+
+        CompletableFuture<Void> sync;
+        if (syncedFrom == null) {
+            sync = sync(feed, from, to, account);
+        } else {
+            // extending from the synced range rather than fetching just the window keeps the range contiguous
+            CompletableFuture<Void> backfill = from.isBefore(syncedFrom)
+                    ? sync(feed, from, syncedFrom, account)
+                    : CompletableFuture.completedFuture(null);
+            CompletableFuture<Void> newItems = to.isAfter(watermark)
+                    ? sync(feed, max(syncedFrom, watermark.minus(overlap)), to, account)
+                    : CompletableFuture.completedFuture(null);
+            sync = CompletableFuture.allOf(backfill, newItems);
+        }
+
+        return sync.thenApply(ignored -> feed.between(from, to));
+    }
+
+    private CompletableFuture<Void> sync(TransactionFeedStore.Feed feed, Instant from, Instant to, Account account) {
+        // nothing after now exists yet, so never claim it as synced
+        Instant syncedTo = min(to, clock.instant());
+        return delegate.getTransactionsBetweenAsync(from, to, account)
+                .thenAccept(transactions -> feed.addSynced(from, max(from, syncedTo), transactions));
+    }
+
+    @Override
+    public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
+        return delegate.calculateRoundUpAmount(transactions);
+    }
+
+    @Override
+    public long calculateRoundUpPence(List<Transaction> transactions) {
+        return delegate.calculateRoundUpPence(transactions);
+    }
+
+    public TransactionFeedStore getStore() {
+        return store;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
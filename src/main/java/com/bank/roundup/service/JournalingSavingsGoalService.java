@@ -0,0 +1,100 @@
+package com.bank.roundup.service;
+
+import java.io.IOException;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.journal.TransferJournal;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.util.AsyncSupport;
+
+/**
+ * Records every transfer in a TransferJournal around another SavingsGoalServiceInterface
+ *
+ * A transfer whose uid the journal already holds as completed - in this run or, after replay, an earlier one - is
+ * skipped. Otherwise it is journaled as intended, sent with its uid and journaled as completed, so a crash between the
+ * two leaves it in doubt and the re-run sends the same uid again, which the Bank API applies only once.
+ * Transfers without a uid of their own get a random one and are not protected across runs.
+ */
+public class JournalingSavingsGoalService implements SavingsGoalServiceInterface {
+
+    private final SavingsGoalServiceInterface delegate;
+    private final TransferJournal journal;
+
+    public JournalingSavingsGoalService(SavingsGoalServiceInterface delegate, TransferJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public UUID findSavingsGoal(String savingsGoalName, Account account) throws JsonProcessingException, BankApiException {
+        return delegate.findSavingsGoal(savingsGoalName, account);
+    }
+
+    @Override
+    public CompletableFuture<UUID> findSavingsGoalAsync(String savingsGoalName, Account account) {
+        return delegate.findSavingsGoalAsync(savingsGoalName, account);
+    }
+
+    @Override
+    public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account)
+            throws JsonProcessingException, BankApiException {
+        return delegate.createSavingsGoal(savingsGoalName, currency, account);
+    }
+
+    @Override
+    public CompletableFuture<UUID> createSavingsGoalAsync(String savingsGoalName, Currency currency, Account account) {
+        return delegate.createSavingsGoalAsync(savingsGoalName, currency, account);
+    }
+
+    @Override
+    public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account)
+            throws BankApiException {
+        addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account, UUID.randomUUID());
+    }
+
+    @Override
+    public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account,
+                                           UUID transferUid) throws BankApiException {
+        if (journal.isCompleted(transferUid)) {
+            return;
+        }
+
+        try {
+            journal.recordIntended(transferUid, roundUpAmountPence);
+            delegate.addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account, transferUid);
+            journal.recordCompleted(transferUid, roundUpAmountPence);
+        } catch (IOException e) {
+            throw new BankApiException("Transfer journal write failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) {
+        return addSavedMoneyToSavingsGoalAsync(roundUpAmountPence, currency, savingsGoalUid, account, UUID.randomUUID());
+    }
+
+    @Override
+    public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid,
+                                                                  Account account, UUID transferUid) {
+        if (journal.isCompleted(transferUid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return journal.recordIntendedAsync(transferUid, roundUpAmountPence)
+                .thenCompose(intended -> delegate.addSavedMoneyToSavingsGoalAsync(
+                        roundUpAmountPence, currency, savingsGoalUid, account, transferUid))
+                .thenCompose(sent -> journal.recordCompletedAsync(transferUid, roundUpAmountPence))
+                .handle((completed, error) -> {
+                    // a journal write fails with an IOException, which async callers must see as a BankApiException
+                    if (error != null) {
+                        throw new CompletionException(AsyncSupport.toBankApiException(error));
+                    }
+                    return null;
+                });
+    }
+}
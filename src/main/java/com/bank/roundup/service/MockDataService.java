@@ -3,21 +3,24 @@ package com.bank.roundup.service;
 import com.bank.roundup.model.Account;
 import com.bank.roundup.model.AccountType;
 import com.bank.roundup.model.Transaction;
-import com.bank.roundup.model.TransactionDirection;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
  * Mock data service that generates realistic banking data for demonstration purposes.
  * This replaces actual API calls with in-memory generated data to showcase the roundup functionality.
+ * Transactions come from a seeded MockTransactionGenerator, so they are reproducible and safe to generate from any thread.
  */
 public class MockDataService {
 
-    private static final Random random = new Random();
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+    // set roundup.mock.seed to reproduce a run's data - otherwise each JVM gets its own
+    private static final long SEED = Long.getLong("roundup.mock.seed", new SplittableRandom().nextLong());
+    private static final MockTransactionGenerator DEFAULT_GENERATOR = new MockTransactionGenerator(SEED);
 
     private static final String[] MERCHANT_NAMES = {
             "Coffee Shop Ltd", "Grocery Store", "Gas Station", "Online Shopping",
@@ -65,77 +68,47 @@ public class MockDataService {
      * Generates mock transactions for a given date range
      */
     public static List<Transaction> generateMockTransactions(LocalDate startDate, LocalDate endDate, Account account) {
-        List<Transaction> transactions = new ArrayList<>();
-        
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            // Generate 2-5 transactions per day
-            int transactionsPerDay = 2 + random.nextInt(4);
-            
-            for (int i = 0; i < transactionsPerDay; i++) {
-                Transaction transaction = createMockTransaction(currentDate, i);
-                transactions.add(transaction);
-            }
-            
-            currentDate = currentDate.plusDays(1);
-        }
-        
-        return transactions;
+        return toList(DEFAULT_GENERATOR.iterator(startDate, endDate, account));
     }
 
-    private static Transaction createMockTransaction(LocalDate date, int sequenceInDay) {
-        Transaction transaction = new Transaction();
-        
-        transaction.setFeedItemUid(UUID.randomUUID().toString());
-        transaction.setDirection(TransactionDirection.OUT);
-        
-        // Generate transaction time within the day
-        int hour = 8 + (sequenceInDay * 3) % 16; // Spread throughout day
-        int minute = random.nextInt(60);
-        int second = random.nextInt(60);
-        
-        String transactionTime = date.atTime(hour, minute, second)
-                .atZone(ZoneOffset.UTC)
-                .format(ISO_FORMATTER);
-        transaction.setTransactionTime(transactionTime);
-        
-        // Generate realistic transaction amounts (in pence)
-        Transaction.Amount amount = new Transaction.Amount();
-        amount.setCurrency("GBP");
-        
-        // Generate amounts between £1.50 and £45.99 with realistic distribution
-        int minorUnits = generateRealisticAmount();
-        amount.setMinorUnits(minorUnits);
-        
-        transaction.setAmount(amount);
-        
-        return transaction;
+    /**
+     * Generates mock transactions with a fixed number per day, so callers can control the size of a response
+     */
+    public static List<Transaction> generateMockTransactions(LocalDate startDate, LocalDate endDate, Account account, int transactionsPerDay) {
+        return toList(generator(transactionsPerDay).iterator(startDate, endDate, account));
     }
 
-    private static int generateRealisticAmount() {
-        // Create realistic spending patterns
-        double randomValue = random.nextDouble();
-        
-        if (randomValue < 0.3) {
-            // Small purchases £1.50 - £8.99
-            return 150 + random.nextInt(750);
-        } else if (randomValue < 0.6) {
-            // Medium purchases £9.00 - £25.99
-            return 900 + random.nextInt(1700);
-        } else if (randomValue < 0.85) {
-            // Larger purchases £26.00 - £45.99
-            return 2600 + random.nextInt(2000);
-        } else {
-            // Occasional big purchases £46.00 - £120.00
-            return 4600 + random.nextInt(7400);
-        }
+    /**
+     * The generator behind the mock transactions, seeded with roundup.mock.seed when set
+     */
+    public static MockTransactionGenerator generator() {
+        return DEFAULT_GENERATOR;
+    }
+
+    /**
+     * A generator with the same seed producing a fixed number of transactions per day (2-5 when 0)
+     */
+    public static MockTransactionGenerator generator(int transactionsPerDay) {
+        return transactionsPerDay == 0 ? DEFAULT_GENERATOR : new MockTransactionGenerator(SEED, transactionsPerDay);
+    }
+
+    private static List<Transaction> toList(Iterator<Transaction> transactions) {
+        List<Transaction> list = new ArrayList<>();
+        transactions.forEachRemaining(list::add);
+        return list;
     }
 
     /**
      * Generates a mock savings goal creation response
      */
     public static String generateMockSavingsGoalResponse(String goalName) {
-        UUID savingsGoalUid = UUID.randomUUID();
+        return generateMockSavingsGoalResponse(UUID.randomUUID(), goalName);
+    }
+
+    /**
+     * Generates a mock savings goal response for a goal with the given uid
+     */
+    public static String generateMockSavingsGoalResponse(UUID savingsGoalUid, String goalName) {
         return String.format(
             "{\"savingsGoalUid\":\"%s\",\"name\":\"%s\",\"currency\":\"GBP\",\"status\":\"ACTIVE\"}",
             savingsGoalUid.toString(),
@@ -168,29 +141,16 @@ public class MockDataService {
 
     /**
      * Generates a mock transactions response in the expected JSON format
+     * For large ranges write the feed straight to a stream with generator().writeFeed instead
      */
     public static String generateMockTransactionsResponse(LocalDate startDate, LocalDate endDate) {
-        StringBuilder jsonBuilder = new StringBuilder();
-        jsonBuilder.append("{\"feedItems\":[");
-        
-        List<Transaction> transactions = generateMockTransactions(startDate, endDate, null);
-        
-        for (int i = 0; i < transactions.size(); i++) {
-            Transaction tx = transactions.get(i);
-            if (i > 0) jsonBuilder.append(",");
-            
-            jsonBuilder.append("{")
-                    .append("\"feedItemUid\":\"").append(tx.getFeedItemUid()).append("\",")
-                    .append("\"direction\":\"").append(tx.getDirection()).append("\",")
-                    .append("\"transactionTime\":\"").append(tx.getTransactionTime()).append("\",")
-                    .append("\"amount\":{")
-                    .append("\"currency\":\"").append(tx.getAmount().getCurrency()).append("\",")
-                    .append("\"minorUnits\":").append(tx.getAmount().getMinorUnits())
-                    .append("}")
-                    .append("}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            DEFAULT_GENERATOR.writeFeed(out, startDate, endDate, null, transaction -> true);
+        } catch (IOException e) {
+            // writing to memory cannot fail
+            throw new UncheckedIOException(e);
         }
-        
-        jsonBuilder.append("]}");
-        return jsonBuilder.toString();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
     }
-} 
\ No newline at end of file
+}
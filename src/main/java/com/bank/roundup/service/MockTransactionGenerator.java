@@ -0,0 +1,297 @@
+package com.bank.roundup.service;
+
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.AccountType;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.util.JsonMapper;
+import com.bank.roundup.util.RoundUpConstants;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.SplittableRandom;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Seeded, lazily streaming generator of mock accounts and transactions
+ *
+ * Every (account, day) pair gets its own SplittableRandom derived from the seed, the account uid and the day, so the
+ * same seed always produces the same transactions for that account and day - whichever thread asks, in whatever order,
+ * and however the range is split. Nothing is shared between threads and nothing is materialised: transactions are
+ * produced one at a time through an Iterator, a splittable Spliterator or straight into a JSON feed, so datasets of
+ * millions of accounts and billions of transactions stream in constant memory.
+ */
+public class MockTransactionGenerator {
+
+    private static final DateTimeFormatter ISO_FORMATTER =
+            DateTimeFormatter.ofPattern(RoundUpConstants.ISO_DATE_TIME_FORMAT).withZone(ZoneOffset.UTC);
+
+    private final long seed;
+    private final int transactionsPerDay;
+
+    /**
+     * Creates a generator producing MockDataService's usual 2-5 transactions per day
+     */
+    public MockTransactionGenerator(long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * Creates a generator producing a fixed number of transactions per day, or 2-5 when transactionsPerDay is 0
+     */
+    public MockTransactionGenerator(long seed, int transactionsPerDay) {
+        if (transactionsPerDay < 0) {
+            throw new IllegalArgumentException("transactionsPerDay must not be negative: " + transactionsPerDay);
+        }
+        this.seed = seed;
+        this.transactionsPerDay = transactionsPerDay;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // ========== ACCOUNTS ==========
+
+    /**
+     * Synthetic account number accountIndex - the same index and seed always give the same uids
+     */
+    public Account account(long accountIndex) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(accountIndex)));
+
+        Account account = new Account();
+        account.setAccountUid(randomUuid(random));
+        account.setDefaultCategory(randomUuid(random));
+        account.setAccountType(AccountType.PRIMARY);
+        account.setName("Synthetic Account " + accountIndex);
+        account.setCurrency(Currency.getInstance(RoundUpConstants.DEFAULT_CURRENCY_CODE));
+        return account;
+    }
+
+    // ========== TRANSACTIONS ==========
+
+    /**
+     * Lazily generates the transactions for the dates between startDate and endDate inclusive
+     * A null account is allowed and generates the same data as any other null account.
+     */
+    public Iterator<Transaction> iterator(LocalDate startDate, LocalDate endDate, Account account) {
+        return Spliterators.iterator(spliterator(startDate, endDate, account));
+    }
+
+    /**
+     * Spliterator over the transactions for the dates between startDate and endDate inclusive, splitting by day
+     */
+    public Spliterator<Transaction> spliterator(LocalDate startDate, LocalDate endDate, Account account) {
+        return new DaySpliterator(accountKey(account), startDate.toEpochDay(), endDate.toEpochDay() + 1);
+    }
+
+    public Stream<Transaction> stream(LocalDate startDate, LocalDate endDate, Account account, boolean parallel) {
+        return StreamSupport.stream(spliterator(startDate, endDate, account), parallel);
+    }
+
+    // ========== JSON FEED ==========
+
+    /**
+     * Writes the transactions matching the filter as a {"feedItems":[...]} response straight to the stream
+     * The stream is flushed but not closed.
+     *
+     * @return number of feed items written
+     */
+    public int writeFeed(OutputStream out, LocalDate startDate, LocalDate endDate, Account account,
+                         Predicate<Transaction> filter) throws IOException {
+        try (JsonGenerator generator = JsonMapper.getObjectMapperInstance().getFactory()
+                .createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            return writeFeed(generator, iterator(startDate, endDate, account), filter);
+        }
+    }
+
+    /**
+     * Writes the transactions matching the filter as a {"feedItems":[...]} response to the generator
+     */
+    public static int writeFeed(JsonGenerator generator, Iterator<Transaction> transactions, Predicate<Transaction> filter) throws IOException {
+        int written = 0;
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("feedItems");
+        while (transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+            if (filter.test(transaction)) {
+                writeFeedItem(generator, transaction);
+                written++;
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+
+        return written;
+    }
+
+    private static void writeFeedItem(JsonGenerator generator, Transaction transaction) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("feedItemUid", transaction.getFeedItemUid());
+        generator.writeStringField("direction", transaction.getDirection().name());
+        generator.writeStringField("transactionTime", transaction.getTransactionTime());
+        generator.writeObjectFieldStart("amount");
+        generator.writeStringField("currency", transaction.getAmount().getCurrency());
+        generator.writeNumberField("minorUnits", transaction.getAmount().getMinorUnits());
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    // ========== INTERNALS ==========
+
+    private Transaction createTransaction(LocalDate date, int sequenceInDay, SplittableRandom random) {
+        Transaction transaction = new Transaction();
+
+        transaction.setFeedItemUid(randomUuid(random).toString());
+        transaction.setDirection(TransactionDirection.OUT);
+
+        // spread throughout the day
+        int hour = 8 + (sequenceInDay * 3) % 16;
+        int minute = random.nextInt(60);
+        int second = random.nextInt(60);
+        transaction.setTransactionTime(ISO_FORMATTER.format(date.atTime(hour, minute, second).toInstant(ZoneOffset.UTC)));
+
+        Transaction.Amount amount = new Transaction.Amount();
+        amount.setCurrency(RoundUpConstants.DEFAULT_CURRENCY_CODE);
+        amount.setMinorUnits(generateRealisticAmount(random));
+        transaction.setAmount(amount);
+
+        return transaction;
+    }
+
+    private static int generateRealisticAmount(SplittableRandom random) {
+        double randomValue = random.nextDouble();
+
+        if (randomValue < RoundUpConstants.SMALL_PURCHASE_PROBABILITY) {
+            return random.nextInt(RoundUpConstants.MIN_SMALL_PURCHASE, RoundUpConstants.MAX_SMALL_PURCHASE + 1);
+        } else if (randomValue < RoundUpConstants.MEDIUM_PURCHASE_PROBABILITY) {
+            return random.nextInt(RoundUpConstants.MIN_MEDIUM_PURCHASE, RoundUpConstants.MAX_MEDIUM_PURCHASE + 1);
+        } else if (randomValue < RoundUpConstants.LARGE_PURCHASE_PROBABILITY) {
+            return random.nextInt(RoundUpConstants.MIN_LARGE_PURCHASE, RoundUpConstants.MAX_LARGE_PURCHASE + 1);
+        } else {
+            return random.nextInt(RoundUpConstants.MIN_BIG_PURCHASE, RoundUpConstants.MAX_BIG_PURCHASE + 1);
+        }
+    }
+
+    private int transactionsOnDay(SplittableRandom random) {
+        if (transactionsPerDay > 0) {
+            return transactionsPerDay;
+        }
+        return RoundUpConstants.MIN_TRANSACTIONS_PER_DAY + random.nextInt(RoundUpConstants.MAX_ADDITIONAL_TRANSACTIONS_PER_DAY);
+    }
+
+    private static long accountKey(Account account) {
+        if (account == null || account.getAccountUid() == null) {
+            return 0L;
+        }
+        UUID accountUid = account.getAccountUid();
+        return mix(accountUid.getMostSignificantBits()) ^ accountUid.getLeastSignificantBits();
+    }
+
+    private static UUID randomUuid(SplittableRandom random) {
+        // version 4 / IETF variant bits so the uids look like UUID.randomUUID() output
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(most, least);
+    }
+
+    /**
+     * SplitMix64 finaliser - spreads close inputs (consecutive days, account indexes) into unrelated seeds
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Generates day by day, each day from its own random, and splits off the not yet started half of its days
+     */
+    private class DaySpliterator implements Spliterator<Transaction> {
+
+        private final long accountKey;
+        private long nextDay;
+        private final long endDayExclusive;
+
+        // state of the day in progress
+        private LocalDate currentDate;
+        private SplittableRandom currentRandom;
+        private int currentCount;
+        private int currentSequence;
+
+        DaySpliterator(long accountKey, long startDay, long endDayExclusive) {
+            this.accountKey = accountKey;
+            this.nextDay = startDay;
+            this.endDayExclusive = endDayExclusive;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Transaction> action) {
+            while (currentDate == null || currentSequence == currentCount) {
+                if (nextDay >= endDayExclusive) {
+                    return false;
+                }
+                startDay(nextDay++);
+            }
+
+            action.accept(createTransaction(currentDate, currentSequence++, currentRandom));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Transaction> trySplit() {
+            long remainingDays = endDayExclusive - nextDay;
+            if (remainingDays < 2) {
+                return null;
+            }
+
+            long splitDay = nextDay + remainingDays / 2;
+            DaySpliterator prefix = new DaySpliterator(accountKey, nextDay, splitDay);
+            // hand the day in progress to the prefix so encounter order is kept
+            prefix.currentDate = currentDate;
+            prefix.currentRandom = currentRandom;
+            prefix.currentCount = currentCount;
+            prefix.currentSequence = currentSequence;
+
+            currentDate = null;
+            nextDay = splitDay;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long perDay = transactionsPerDay > 0 ? transactionsPerDay : 4;
+            long inProgress = currentDate == null ? 0 : currentCount - currentSequence;
+            return (endDayExclusive - nextDay) * perDay + inProgress;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+        private void startDay(long epochDay) {
+            currentDate = LocalDate.ofEpochDay(epochDay);
+            currentRandom = new SplittableRandom(mix(seed ^ accountKey ^ mix(epochDay)));
+            currentCount = transactionsOnDay(currentRandom);
+            currentSequence = 0;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.roundup.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Writes the SavingsGoalService PUT bodies straight to UTF-8 bytes from a fixed template
+ *
+ * The bodies are byte for byte what the ObjectMapper writes for TopUpRequestV2 and SavingsGoalRequestV2, but no
+ * request objects or JSON String are built: the fixed parts are copied from cached byte arrays and only the currency
+ * code, the amount digits and the escaped goal name are written in. A top-up body costs a single exact-size array of
+ * around 50 bytes. The array is handed to the HttpClient, which keeps reading it until the request and any retries
+ * are done, so each request gets its own rather than sharing a reused buffer.
+ */
+public final class SavingsGoalRequestWriter {
+
+    private static final byte[] TOP_UP_PREFIX = ascii("{\"amount\":{\"currency\":\"");
+    private static final byte[] TOP_UP_MINOR_UNITS = ascii("\",\"minorUnits\":");
+    private static final byte[] TOP_UP_SUFFIX = ascii("}}");
+
+    private static final byte[] GOAL_PREFIX = ascii("{\"name\":");
+    private static final byte[] GOAL_CURRENCY = ascii(",\"currency\":\"");
+    private static final byte[] GOAL_SUFFIX = ascii("\",\"target\":null,\"base62EncodedPhoto\":null}");
+    private static final byte[] NULL = ascii("null");
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private SavingsGoalRequestWriter() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Body of a top-up PUT - {"amount":{"currency":"GBP","minorUnits":123}}
+     */
+    public static byte[] writeTopUpRequest(int minorUnits, Currency currency) {
+        String currencyCode = currency.getCurrencyCode();
+        long amount = minorUnits;
+        int digits = digitCount(amount);
+
+        byte[] body = new byte[TOP_UP_PREFIX.length + currencyCode.length() + TOP_UP_MINOR_UNITS.length + digits
+                + TOP_UP_SUFFIX.length];
+        int position = copy(TOP_UP_PREFIX, body, 0);
+        position = writeCurrencyCode(currencyCode, body, position);
+        position = copy(TOP_UP_MINOR_UNITS, body, position);
+        position = writeDigits(amount, digits, body, position);
+        copy(TOP_UP_SUFFIX, body, position);
+        return body;
+    }
+
+    /**
+     * Body of a goal creation PUT - the name is JSON escaped, target and photo are written as null
+     */
+    public static byte[] writeSavingsGoalRequest(String savingsGoalName, Currency currency) {
+        String currencyCode = currency.getCurrencyCode();
+        byte[] name = savingsGoalName != null ? quoteName(savingsGoalName) : null;
+        int nameLength = name != null ? name.length + 2 : NULL.length;
+
+        byte[] body = new byte[GOAL_PREFIX.length + nameLength + GOAL_CURRENCY.length + currencyCode.length()
+                + GOAL_SUFFIX.length];
+        int position = copy(GOAL_PREFIX, body, 0);
+        if (name != null) {
+            body[position++] = '"';
+            position = copy(name, body, position);
+            body[position++] = '"';
+        } else {
+            position = copy(NULL, body, position);
+        }
+        position = copy(GOAL_CURRENCY, body, position);
+        position = writeCurrencyCode(currencyCode, body, position);
+        copy(GOAL_SUFFIX, body, position);
+        return body;
+    }
+
+    /**
+     * JSON escapes the name as UTF-8 the way the ObjectMapper does, which also writes surrogate chars as hex escapes
+     */
+    private static byte[] quoteName(String savingsGoalName) {
+        char[] quoted = JsonStringEncoder.getInstance().quoteAsString(savingsGoalName);
+        StringBuilder escaped = new StringBuilder(quoted.length);
+        for (char c : quoted) {
+            if (Character.isSurrogate(c)) {
+                escaped.append("\\u").append(HEX_DIGITS[c >> 12]).append(HEX_DIGITS[(c >> 8) & 0xF])
+                        .append(HEX_DIGITS[(c >> 4) & 0xF]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ISO 4217 codes are three upper case ASCII letters, so need no escaping
+    private static int writeCurrencyCode(String currencyCode, byte[] body, int position) {
+        for (int i = 0; i < currencyCode.length(); i++) {
+            body[position++] = (byte) currencyCode.charAt(i);
+        }
+        return position;
+    }
+
+    private static int digitCount(long value) {
+        int count = value < 0 ? 2 : 1;
+        for (long remaining = Math.abs(value) / 10; remaining > 0; remaining /= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the decimal digits of the value, with a leading minus sign if negative, filling exactly length bytes
+     */
+    private static int writeDigits(long value, int length, byte[] body, int position) {
+        int end = position + length;
+        long remaining = Math.abs(value);
+        int index = end;
+        do {
+            body[--index] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (value < 0) {
+            body[--index] = '-';
+        }
+        return end;
+    }
+
+    private static int copy(byte[] source, byte[] body, int position) {
+        System.arraycopy(source, 0, body, position, source.length);
+        return position + source.length;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,79 +1,151 @@
 package com.bank.roundup.service;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.ProtocolException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.Currency;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.bank.roundup.config.BankApiConfig;
 import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.logging.RoundUpLogger;
+import com.bank.roundup.metrics.RoundUpMetrics;
 import com.bank.roundup.model.Account;
-import com.bank.roundup.model.CurrencyAndAmount;
-import com.bank.roundup.model.SavingsGoalRequestV2;
-import com.bank.roundup.model.TopUpRequestV2;
 import com.bank.roundup.util.JsonMapper;
 
 /**
  * SavingsGoalService for business logic involving savings goals -- currently used to create a savings goal and also to add funds to a savings goal
  * 
  * For demonstration purposes, this service uses mock data instead of real API calls.
- * In production environment would refactor the put method into the abstract class and reuse the existing methods in the abstract superclass
+ * Goals are looked up by name from the account's goal list, so a run can top up an existing goal rather than create one
+ * PUT requests go through the shared transport in the abstract superclass
+ * Request bodies are written straight to bytes by SavingsGoalRequestWriter rather than through the ObjectMapper
+ * Creating a goal is not idempotent, so it is only retried if the request never reached the API; transfers carry a
+ * transferUid and are retried as usual
  * Extends the abstract service class to reduce code repetition across each service and make adding new services easier
  */
 public class SavingsGoalService extends BankAbstractApiService implements SavingsGoalServiceInterface {
 
-    private static final boolean USE_MOCK_DATA = true;
-    private static final String JSON_PROCESSING_ERROR = "json writing from savings goal failed";
+    private static final RoundUpLogger LOGGER = RoundUpLogger.getLogger(SavingsGoalService.class);
 
     public SavingsGoalService(String authToken) {
         super(authToken);
     }
 
+    public SavingsGoalService(String authToken, BankHttpTransport transport) {
+        super(authToken, transport);
+    }
+
+    public SavingsGoalService(String authToken, BankHttpTransport transport, String baseUrl, boolean useMockData) {
+        super(authToken, transport, baseUrl, useMockData);
+    }
+
+    @Override
+    public UUID findSavingsGoal(String savingsGoalName, Account account) throws JsonProcessingException, BankApiException {
+
+        if (useMockData()) {
+            // the mock data has no saved goals, so every goal is created
+            return null;
+        }
+
+        return sendGetRequest(buildSavingsGoalUrl(account), body -> findSavingsGoalUid(body, savingsGoalName));
+    }
+
+    @Override
+    public CompletableFuture<UUID> findSavingsGoalAsync(String savingsGoalName, Account account) {
+
+        if (useMockData()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return sendGetRequestAsync(buildSavingsGoalUrl(account), body -> findSavingsGoalUid(body, savingsGoalName));
+    }
+
     public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account) 
             throws JsonProcessingException, BankApiException {
 
-        if (USE_MOCK_DATA) {
+        if (useMockData()) {
             return handleMockSavingsGoalCreation(savingsGoalName);
         }
 
         String createSavingsGoalUrl = buildSavingsGoalUrl(account);
-        SavingsGoalRequestV2 request = createSavingsGoalRequest(savingsGoalName, currency);
-        String requestBody = serializeToJson(request);
-        String responseBody = sendPutRequest(createSavingsGoalUrl, requestBody);
+        byte[] requestBody = SavingsGoalRequestWriter.writeSavingsGoalRequest(savingsGoalName, currency);
+        String responseBody = metrics.time(RoundUpMetrics.Stage.GOAL_CREATION, () -> sendPutRequest(createSavingsGoalUrl, requestBody, false));
 
         return extractSavingsGoalUidFromResponse(responseBody);
     }
 
     public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) 
             throws BankApiException {
+        addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account, UUID.randomUUID());
+    }
 
-        if (USE_MOCK_DATA) {
+    @Override
+    public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account,
+                                           UUID transferUid) throws BankApiException {
+
+        if (useMockData()) {
             handleMockMoneyTransfer(roundUpAmountPence, savingsGoalUid);
             return;
         }
 
-        String addMoneyUrl = buildAddMoneyUrl(account, savingsGoalUid);
-        TopUpRequestV2 request = createTopUpRequest(roundUpAmountPence, currency);
-        String requestBody = serializeToJson(request);
-        sendPutRequest(addMoneyUrl, requestBody);
+        String addMoneyUrl = buildAddMoneyUrl(account, savingsGoalUid, transferUid);
+        byte[] requestBody = SavingsGoalRequestWriter.writeTopUpRequest(roundUpAmountPence, currency);
+        metrics.time(RoundUpMetrics.Stage.TRANSFER, () -> sendPutRequest(addMoneyUrl, requestBody));
+    }
+
+    @Override
+    public CompletableFuture<UUID> createSavingsGoalAsync(String savingsGoalName, Currency currency, Account account) {
+
+        if (useMockData()) {
+            return CompletableFuture.completedFuture(handleMockSavingsGoalCreation(savingsGoalName));
+        }
+
+        byte[] requestBody = SavingsGoalRequestWriter.writeSavingsGoalRequest(savingsGoalName, currency);
+        return metrics.timeAsync(RoundUpMetrics.Stage.GOAL_CREATION,
+                () -> sendPutRequestAsync(buildSavingsGoalUrl(account), requestBody, false)).thenApply(responseBody -> {
+            try {
+                return extractSavingsGoalUidFromResponse(responseBody);
+            } catch (BankApiException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) {
+        return addSavedMoneyToSavingsGoalAsync(roundUpAmountPence, currency, savingsGoalUid, account, UUID.randomUUID());
+    }
+
+    @Override
+    public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid,
+                                                                  Account account, UUID transferUid) {
+
+        if (useMockData()) {
+            handleMockMoneyTransfer(roundUpAmountPence, savingsGoalUid);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        byte[] requestBody = SavingsGoalRequestWriter.writeTopUpRequest(roundUpAmountPence, currency);
+        return metrics.timeAsync(RoundUpMetrics.Stage.TRANSFER,
+                () -> sendPutRequestAsync(buildAddMoneyUrl(account, savingsGoalUid, transferUid), requestBody)).thenApply(responseBody -> null);
     }
 
     // Helper methods for mock data handling
     private UUID handleMockSavingsGoalCreation(String savingsGoalName) {
-        System.out.println("Creating mock savings goal: " + savingsGoalName);
         UUID mockSavingsGoalUid = UUID.randomUUID();
-        System.out.println("Created savings goal with ID: " + mockSavingsGoalUid);
+        LOGGER.info("Created mock savings goal {} with ID: {}", savingsGoalName, mockSavingsGoalUid);
         return mockSavingsGoalUid;
     }
 
     private void handleMockMoneyTransfer(int roundUpAmountPence, UUID savingsGoalUid) {
-        double roundUpAmountPounds = roundUpAmountPence / 100.0;
-        System.out.println("Adding £" + String.format("%.2f", roundUpAmountPounds) + " to savings goal: " + savingsGoalUid);
-        System.out.println("Transfer completed successfully!");
+        LOGGER.info("Added £{} to savings goal: {}", BigDecimal.valueOf(roundUpAmountPence, 2), savingsGoalUid);
     }
 
     // Helper methods for URL construction
@@ -81,43 +153,22 @@ public class SavingsGoalService extends BankAbstractApiService implements Saving
         return BankApiConfig.SAVINGS_GOALS_URL.replace("{accountUid}", account.getAccountUid().toString());
     }
 
-    private String buildAddMoneyUrl(Account account, UUID savingsGoalUid) {
+    private String buildAddMoneyUrl(Account account, UUID savingsGoalUid, UUID transferUid) {
         return BankApiConfig.ADD_MONEY_TO_SAVINGS_GOAL_URL
                 .replace("{accountUid}", account.getAccountUid().toString())
                 .replace("{savingsGoalUid}", savingsGoalUid.toString())
-                .replace("{transferUid}", UUID.randomUUID().toString());
-    }
-
-    // Helper methods for request object creation
-    private SavingsGoalRequestV2 createSavingsGoalRequest(String savingsGoalName, Currency currency) {
-        SavingsGoalRequestV2 request = new SavingsGoalRequestV2();
-        request.setName(savingsGoalName);
-        request.setCurrency(currency.getCurrencyCode());
-        return request;
-    }
-
-    private TopUpRequestV2 createTopUpRequest(int roundUpAmountPence, Currency currency) {
-        TopUpRequestV2 request = new TopUpRequestV2();
-        CurrencyAndAmount amount = createCurrencyAndAmount(roundUpAmountPence, currency);
-        request.setAmount(amount);
-        return request;
-    }
-
-    private CurrencyAndAmount createCurrencyAndAmount(int roundUpAmountPence, Currency currency) {
-        CurrencyAndAmount amount = new CurrencyAndAmount();
-        amount.setCurrency(currency.getCurrencyCode());
-        amount.setMinorUnits(roundUpAmountPence);
-        return amount;
+                .replace("{transferUid}", transferUid.toString());
     }
 
     // Helper methods for JSON processing
-    private String serializeToJson(Object object) throws BankApiException {
-        try {
-        ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
-            return objectMapper.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
-            throw new BankApiException(JSON_PROCESSING_ERROR);
+    private UUID findSavingsGoalUid(InputStream responseBody, String savingsGoalName) throws IOException {
+        JsonNode savingsGoals = JsonMapper.getObjectMapperInstance().readTree(responseBody).path("savingsGoalList");
+        for (JsonNode savingsGoal : savingsGoals) {
+            if (savingsGoalName.equals(savingsGoal.path("name").asText(null))) {
+                return UUID.fromString(savingsGoal.get("savingsGoalUid").asText());
+            }
         }
+        return null;
     }
 
     private UUID extractSavingsGoalUidFromResponse(String responseBody) throws BankApiException {
@@ -130,74 +181,4 @@ public class SavingsGoalService extends BankAbstractApiService implements Saving
             throw new BankApiException("Failed to parse response JSON");
         }
     }
-
-    protected String sendPutRequest(String urlPath, String requestBody) throws BankApiException {
-        try {
-            String fullUrl = BankApiConfig.BASE_URL + urlPath;
-
-            java.net.URL url = new java.net.URL(fullUrl);
-            java.net.HttpURLConnection connection = (java.net.HttpURLConnection) url.openConnection();
-
-            setupConnection(connection);
-            writeRequestBody(connection, requestBody);
-            
-            return handleResponse(connection);
-
-        } catch (ProtocolException e) {
-            throw new RuntimeException(e);
-        } catch (MalformedURLException e) {
-            throw new RuntimeException(e);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void setupConnection(java.net.HttpURLConnection connection) throws ProtocolException {
-            connection.setRequestMethod("PUT");
-            connection.setDoOutput(true);
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setRequestProperty("Authorization", "Bearer " + authToken);
-            connection.setRequestProperty("User-Agent", "Fintech RoundUp Demo");
-    }
-
-    private void writeRequestBody(java.net.HttpURLConnection connection, String requestBody) throws IOException {
-            if (requestBody != null) {
-                java.io.OutputStream os = connection.getOutputStream();
-                os.write(requestBody.getBytes("UTF-8"));
-                os.close();
-        }
-            }
-
-    private String handleResponse(java.net.HttpURLConnection connection) throws IOException, BankApiException {
-            connection.connect();
-            int responseCode = connection.getResponseCode();
-            System.out.println("Response code: " + responseCode);
-
-            java.io.InputStream inputStream =
-                    (responseCode >= 400) ? connection.getErrorStream() : connection.getInputStream();
-
-        String responseBody = readResponseBody(inputStream);
-        System.out.println("Response body: " + responseBody);
-
-        if (responseCode == 200 || responseCode == 201) {
-            return responseBody;
-        } else {
-            throw new BankApiException("API Error: " + responseCode + " - " + responseBody);
-        }
-    }
-
-    private String readResponseBody(java.io.InputStream inputStream) throws IOException {
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.InputStreamReader(inputStream));
-
-            StringBuilder responseBuilder = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                responseBuilder.append(line);
-            }
-            reader.close();
-
-        return responseBuilder.toString();
-    }
-}
\ No newline at end of file
+}
@@ -3,19 +3,48 @@ package com.bank.roundup.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.bank.roundup.exception.BankApiException;
 import com.bank.roundup.model.Account;
+import com.bank.roundup.util.AsyncSupport;
 
 import java.util.Currency;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * SavingsGoalServiceInterface for business logic involving savings goals -- currently used to create a savings goal and also to add funds to a savings goal
  * 
  * For demonstration purposes, implementations may use mock data instead of real API calls.
- * In production environment would refactor the put method into the abstract class and reuse the existing methods in the abstract superclass
+ * Implementations backed by the Bank API send their PUT requests through the shared transport
  * Defines the contract for savings goal services to reduce code repetition and make adding new implementations easier
  */
 public interface SavingsGoalServiceInterface {
     
+    /**
+     * Looks up the account's savings goal with the given name
+     * Unlike goal creation this call is idempotent, so it is safe to cache. Defaults to failing, as lookups are
+     * not supported, so existing implementations keep working.
+     *
+     * @param savingsGoalName Name of the savings goal
+     * @param account Account the savings goal belongs to
+     * @return UUID of the savings goal, or null if the account has none with that name
+     * @throws JsonProcessingException if there's an error processing the response
+     * @throws BankApiException if there's an API communication error, or lookups are not supported
+     */
+    default UUID findSavingsGoal(String savingsGoalName, Account account) throws JsonProcessingException, BankApiException {
+        throw new BankApiException("Savings goal lookup is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Non blocking version of findSavingsGoal
+     * Defaults to running the blocking call on the async adapter pool so existing implementations keep working
+     *
+     * @param savingsGoalName Name of the savings goal
+     * @param account Account the savings goal belongs to
+     * @return future of the UUID of the savings goal, or of null if there is none, failing with a BankApiException
+     */
+    default CompletableFuture<UUID> findSavingsGoalAsync(String savingsGoalName, Account account) {
+        return AsyncSupport.supplyAsync(() -> findSavingsGoal(savingsGoalName, account));
+    }
+
     /**
      * Creates a new savings goal for the specified account
      * 
@@ -28,6 +57,19 @@ public interface SavingsGoalServiceInterface {
      */
     UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account) 
             throws JsonProcessingException, BankApiException;
+
+    /**
+     * Non blocking version of createSavingsGoal
+     * Defaults to running the blocking call on the async adapter pool so existing implementations keep working
+     *
+     * @param savingsGoalName Name of the savings goal
+     * @param currency Currency for the savings goal
+     * @param account Account to create the savings goal for
+     * @return future of the UUID of the created savings goal, failing with a BankApiException
+     */
+    default CompletableFuture<UUID> createSavingsGoalAsync(String savingsGoalName, Currency currency, Account account) {
+        return AsyncSupport.supplyAsync(() -> createSavingsGoal(savingsGoalName, currency, account));
+    }
     
     /**
      * Adds saved money to an existing savings goal
@@ -40,4 +82,57 @@ public interface SavingsGoalServiceInterface {
      */
     void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) 
             throws BankApiException;
+
+    /**
+     * Non blocking version of addSavedMoneyToSavingsGoal
+     * Defaults to running the blocking call on the async adapter pool so existing implementations keep working
+     *
+     * @param roundUpAmountPence Amount to add in pence
+     * @param currency Currency of the amount
+     * @param savingsGoalUid UUID of the savings goal
+     * @param account Account associated with the savings goal
+     * @return future completing when the transfer is accepted, failing with a BankApiException
+     */
+    default CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) {
+        return AsyncSupport.supplyAsync(() -> {
+            addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account);
+            return null;
+        });
+    }
+
+    /**
+     * Adds saved money to an existing savings goal under a caller supplied transfer uid
+     * The Bank API applies a transfer uid once, so a retried or re-run transfer with the same uid does not move money
+     * twice. Defaults to addSavedMoneyToSavingsGoal without the uid so existing implementations keep working.
+     *
+     * @param roundUpAmountPence Amount to add in pence
+     * @param currency Currency of the amount
+     * @param savingsGoalUid UUID of the savings goal
+     * @param account Account associated with the savings goal
+     * @param transferUid Idempotency key of the transfer
+     * @throws BankApiException if there's an API communication error
+     */
+    default void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account,
+                                            UUID transferUid) throws BankApiException {
+        addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account);
+    }
+
+    /**
+     * Non blocking version of addSavedMoneyToSavingsGoal with a transfer uid
+     * Defaults to running the blocking uid variant on the async adapter pool, so the uid is kept wherever that is implemented
+     *
+     * @param roundUpAmountPence Amount to add in pence
+     * @param currency Currency of the amount
+     * @param savingsGoalUid UUID of the savings goal
+     * @param account Account associated with the savings goal
+     * @param transferUid Idempotency key of the transfer
+     * @return future completing when the transfer is accepted, failing with a BankApiException
+     */
+    default CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid,
+                                                                   Account account, UUID transferUid) {
+        return AsyncSupport.supplyAsync(() -> {
+            addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account, transferUid);
+            return null;
+        });
+    }
 }
@@ -0,0 +1,230 @@
+package com.bank.roundup.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.util.AsyncSupport;
+
+/**
+ * Fetches a long transaction window as a set of smaller shards instead of one large request
+ *
+ * The window is split into shards of shardSize (a day or an hour, say) which are fetched concurrently through
+ * TransactionServiceInterface.getTransactionsBetweenAsync, with at most maxParallelism requests in flight. Shards are
+ * started as earlier ones complete so no thread waits on a permit. The merged result is ordered by transaction time,
+ * and items returned by more than one shard (the API's upper timestamp bound is inclusive) are kept once by feedItemUid.
+ *
+ * Defaults can be overridden with system properties: roundup.sharding.shardSizeMinutes and roundup.sharding.parallelism
+ */
+public class ShardedTransactionFetcher {
+
+    public static final Duration DEFAULT_SHARD_SIZE = Duration.ofDays(1);
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private static final Comparator<Transaction> BY_TIME = Comparator.comparingLong(Transaction::getTransactionEpochMilli);
+
+    private final TransactionServiceInterface transactionService;
+    private final Duration shardSize;
+    private final int maxParallelism;
+
+    public ShardedTransactionFetcher(TransactionServiceInterface transactionService) {
+        this(transactionService,
+                Duration.ofMinutes(Long.getLong("roundup.sharding.shardSizeMinutes", DEFAULT_SHARD_SIZE.toMinutes())),
+                Integer.getInteger("roundup.sharding.parallelism", DEFAULT_PARALLELISM));
+    }
+
+    public ShardedTransactionFetcher(TransactionServiceInterface transactionService, Duration shardSize, int maxParallelism) {
+        if (shardSize.isNegative() || shardSize.isZero()) {
+            throw new IllegalArgumentException("shardSize must be positive: " + shardSize);
+        }
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("maxParallelism must be at least 1: " + maxParallelism);
+        }
+        this.transactionService = transactionService;
+        this.shardSize = shardSize;
+        this.maxParallelism = maxParallelism;
+    }
+
+    /**
+     * Fetches the outgoing transactions between two dates inclusive, blocking until every shard has been merged
+     */
+    public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) throws BankApiException {
+        return AsyncSupport.join(getTransactionsForTimePeriodAsync(startDate, endDate, account));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsForTimePeriodAsync(LocalDate startDate, LocalDate endDate, Account account) {
+        Instant from = startDate.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = endDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return getTransactionsBetweenAsync(from, to, account);
+    }
+
+    /**
+     * Fetches the outgoing transactions in [from, to) shard by shard
+     * The future fails with the first shard failure, once the shards already in flight have finished
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsBetweenAsync(Instant from, Instant to, Account account) {
+        List<Instant[]> shards = splitIntoShards(from, to, shardSize);
+        List<List<Transaction>> shardResults = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            shardResults.add(null);
+        }
+
+        CompletableFuture<List<Transaction>> merged = new CompletableFuture<>();
+        if (shards.isEmpty()) {
+            merged.complete(new ArrayList<>());
+            return merged;
+        }
+
+        ShardRun run = new ShardRun(shards, shardResults, account, merged);
+        for (int i = 0, initial = Math.min(maxParallelism, shards.size()); i < initial; i++) {
+            run.requestStart();
+        }
+        return merged;
+    }
+
+    /**
+     * Splits [from, to) into consecutive half open ranges of shardSize, the last one cut short at to
+     */
+    static List<Instant[]> splitIntoShards(Instant from, Instant to, Duration shardSize) {
+        List<Instant[]> shards = new ArrayList<>();
+        Instant shardStart = from;
+        while (shardStart.isBefore(to)) {
+            Instant shardEnd = shardStart.plus(shardSize);
+            if (shardEnd.isAfter(to)) {
+                shardEnd = to;
+            }
+            shards.add(new Instant[] {shardStart, shardEnd});
+            shardStart = shardEnd;
+        }
+        return shards;
+    }
+
+    /**
+     * Concatenates the shard results in shard order, dropping repeated feedItemUids, then orders them by time
+     * The sort is stable so items sharing a timestamp keep the order the API returned them in
+     */
+    static List<Transaction> merge(List<List<Transaction>> shardResults) {
+        int total = 0;
+        for (List<Transaction> shardResult : shardResults) {
+            total += shardResult.size();
+        }
+
+        List<Transaction> merged = new ArrayList<>(total);
+        Set<String> seenFeedItemUids = new HashSet<>(total * 2);
+        for (List<Transaction> shardResult : shardResults) {
+            for (Transaction transaction : shardResult) {
+                String feedItemUid = transaction.getFeedItemUid();
+                if (feedItemUid == null || seenFeedItemUids.add(feedItemUid)) {
+                    merged.add(transaction);
+                }
+            }
+        }
+
+        merged.sort(BY_TIME);
+        return merged;
+    }
+
+    public Duration getShardSize() {
+        return shardSize;
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    /**
+     * State for one sharded fetch - each completing shard starts the next unstarted one
+     * Starts are drained in a loop rather than recursively, so fetches that complete synchronously (mock data, cached
+     * shards) do not grow the stack with the number of shards.
+     */
+    private class ShardRun {
+
+        private final List<Instant[]> shards;
+        private final List<List<Transaction>> shardResults;
+        private final Account account;
+        private final CompletableFuture<List<Transaction>> merged;
+        private final AtomicInteger nextShard = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final AtomicInteger pendingStarts = new AtomicInteger();
+        private volatile Throwable failure;
+
+        ShardRun(List<Instant[]> shards, List<List<Transaction>> shardResults, Account account, CompletableFuture<List<Transaction>> merged) {
+            this.shards = shards;
+            this.shardResults = shardResults;
+            this.account = account;
+            this.merged = merged;
+            this.remaining = new AtomicInteger(shards.size());
+        }
+
+        void requestStart() {
+            if (pendingStarts.getAndIncrement() != 0) {
+                // the thread already draining will pick this start up
+                return;
+            }
+            do {
+                startNext();
+            } while (pendingStarts.decrementAndGet() != 0);
+        }
+
+        private void startNext() {
+            int shard = nextShard.getAndIncrement();
+            if (shard >= shards.size()) {
+                return;
+            }
+
+            // once a shard has failed the rest are skipped rather than fetched
+            if (failure != null) {
+                finishShard();
+                requestStart();
+                return;
+            }
+
+            Instant[] range = shards.get(shard);
+            CompletableFuture<List<Transaction>> fetch;
+            try {
+                fetch = transactionService.getTransactionsBetweenAsync(range[0], range[1], account);
+            } catch (RuntimeException e) {
+                fetch = AsyncSupport.failedFuture(e);
+            }
+
+            fetch.whenComplete((transactions, error) -> {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    // each shard writes its own slot, published to the merging thread by the remaining counter
+                    synchronized (shardResults) {
+                        shardResults.set(shard, transactions);
+                    }
+                }
+                finishShard();
+                requestStart();
+            });
+        }
+
+        private void finishShard() {
+            if (remaining.decrementAndGet() != 0) {
+                return;
+            }
+
+            if (failure != null) {
+                merged.completeExceptionally(AsyncSupport.toBankApiException(failure));
+                return;
+            }
+
+            synchronized (shardResults) {
+                merged.complete(merge(shardResults));
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.bank.roundup.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.bank.roundup.metrics.RoundUpMetrics;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.util.JsonMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Single pass streaming reader for the transactions feed response ({"feedItems":[...]})
+ *
+ * Walks the response token by token and binds one feed item at a time, so the filter is applied as items arrive
+ * and only the items that pass it are kept. Other top level fields are skipped without being bound.
+ * Items can be collected into a list, handed to a callback or pulled through an iterator.
+ *
+ * Each eager read records its time under the JSON_PARSE and FILTER metrics stages - as the two are interleaved, the
+ * time spent in the filter is summed per read and the rest of the read is counted as parsing.
+ */
+public class TransactionFeedReader {
+
+    private static final String FEED_ITEMS_FIELD = "feedItems";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader transactionReader;
+    private final RoundUpMetrics metrics;
+
+    public TransactionFeedReader() {
+        this(JsonMapper.getObjectMapperInstance());
+    }
+
+    public TransactionFeedReader(ObjectMapper objectMapper) {
+        this(objectMapper, RoundUpMetrics.getDefaultInstance());
+    }
+
+    public TransactionFeedReader(ObjectMapper objectMapper, RoundUpMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.transactionReader = objectMapper.readerFor(Transaction.class);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reads the feed items that pass the filter into a list
+     */
+    public List<Transaction> readFeedItems(String responseBody, Predicate<Transaction> filter) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(responseBody)) {
+            readFeedItems(parser, filter, transactions::add);
+        }
+        return transactions;
+    }
+
+    /**
+     * Reads the feed items that pass the filter from a stream of the response bytes into a list
+     */
+    public List<Transaction> readFeedItems(InputStream responseStream, Predicate<Transaction> filter) throws IOException {
+        List<Transaction> transactions = new ArrayList<>();
+        readFeedItems(responseStream, filter, transactions::add);
+        return transactions;
+    }
+
+    /**
+     * Reads the feed items that pass the filter from a stream and hands each one to the consumer without building a list
+     *
+     * @return number of items handed to the consumer
+     */
+    public int readFeedItems(InputStream responseStream, Predicate<Transaction> filter, Consumer<Transaction> consumer) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(responseStream)) {
+            return readFeedItems(parser, filter, consumer);
+        }
+    }
+
+    /**
+     * Reads the feed items that pass the filter from an existing parser and hands each one to the consumer
+     *
+     * @return number of items handed to the consumer
+     */
+    public int readFeedItems(JsonParser parser, Predicate<Transaction> filter, Consumer<Transaction> consumer) throws IOException {
+        int accepted = 0;
+        long startNanos = System.nanoTime();
+        long filterNanos = 0L;
+
+        try {
+            if (!moveToFeedItems(parser)) {
+                return accepted;
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Transaction transaction = transactionReader.readValue(parser);
+                long filterStartNanos = System.nanoTime();
+                boolean passed = filter.test(transaction);
+                filterNanos += System.nanoTime() - filterStartNanos;
+                if (passed) {
+                    consumer.accept(transaction);
+                    accepted++;
+                }
+            }
+
+            return accepted;
+        } catch (IOException | RuntimeException e) {
+            metrics.recordFailure(RoundUpMetrics.Stage.JSON_PARSE);
+            throw e;
+        } finally {
+            metrics.record(RoundUpMetrics.Stage.FILTER, filterNanos);
+            metrics.record(RoundUpMetrics.Stage.JSON_PARSE, System.nanoTime() - startNanos - filterNanos);
+        }
+    }
+
+    /**
+     * Returns a lazy iterator over the feed items that pass the filter - items are only parsed as the iterator is advanced
+     * The iterator owns the parser and must be closed if it is not read to the end
+     */
+    public FeedItemIterator iterateFeedItems(InputStream responseStream, Predicate<Transaction> filter) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(responseStream);
+        try {
+            boolean hasFeedItems = moveToFeedItems(parser);
+            if (!hasFeedItems) {
+                parser.close();
+            }
+            return new FeedItemIterator(parser, hasFeedItems, filter);
+        } catch (IOException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Advances the parser to the start of the feedItems array, skipping any other fields
+     *
+     * @return true if the parser is positioned on the START_ARRAY of feedItems
+     */
+    private boolean moveToFeedItems(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected transactions feed to be a JSON object");
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+
+            if (FEED_ITEMS_FIELD.equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+
+        return false;
+    }
+
+    /**
+     * Pull based view over the feed items - IOExceptions from the underlying parser are rethrown as UncheckedIOException
+     */
+    public class FeedItemIterator implements Iterator<Transaction>, Closeable {
+
+        private final JsonParser parser;
+        private final Predicate<Transaction> filter;
+        private Transaction next;
+        private boolean finished;
+
+        private FeedItemIterator(JsonParser parser, boolean hasFeedItems, Predicate<Transaction> filter) {
+            this.parser = parser;
+            this.filter = filter;
+            this.finished = !hasFeedItems;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !finished) {
+                try {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        close();
+                        break;
+                    }
+                    Transaction transaction = transactionReader.readValue(parser);
+                    if (filter.test(transaction)) {
+                        next = transaction;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Transaction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Transaction transaction = next;
+            next = null;
+            return transaction;
+        }
+
+        @Override
+        public void close() throws IOException {
+            finished = true;
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.bank.roundup.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+
+/**
+ * Local copy of the transaction feed, one per (accountUid, categoryUid), with the time range it has been synced for
+ *
+ * Each feed holds its items ordered by transaction time and remembers the contiguous range [syncedFrom, watermark)
+ * that has been fetched from the API, so any window inside that range can be answered without another request.
+ * Items are kept once by feedItemUid. The store is in memory and safe to share between services and threads.
+ */
+public class TransactionFeedStore {
+
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+
+    /**
+     * The feed for the account's default category, created empty on first use
+     */
+    public Feed feed(Account account) {
+        return feeds.computeIfAbsent(feedKey(account.getAccountUid(), account.getDefaultCategory()), key -> new Feed());
+    }
+
+    public int feedCount() {
+        return feeds.size();
+    }
+
+    public void clear() {
+        feeds.clear();
+    }
+
+    private static String feedKey(UUID accountUid, UUID categoryUid) {
+        return accountUid + "/" + categoryUid;
+    }
+
+    /**
+     * One account category's synced items - all methods lock the feed, so readers see a range and its items together
+     */
+    public static class Feed {
+
+        private final NavigableMap<Long, List<Transaction>> itemsByTime = new TreeMap<>();
+        private final Set<String> feedItemUids = new HashSet<>();
+        private int size;
+        private Instant syncedFrom;
+        private Instant watermark;
+
+        /**
+         * Start of the synced range, or null if nothing has been synced yet
+         */
+        public synchronized Instant getSyncedFrom() {
+            return syncedFrom;
+        }
+
+        /**
+         * End of the synced range, exclusive - items at or after it have not been fetched yet
+         */
+        public synchronized Instant getWatermark() {
+            return watermark;
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+
+        /**
+         * Adds items fetched for [from, to) and widens the synced range to include it, if the range touches or overlaps
+         * the current one. A range that does not - e.g. from two first syncs of different windows racing - would leave
+         * a gap marked as synced, so its items are kept but the synced range is left as it is.
+         *
+         * @return true if the synced range now includes [from, to)
+         */
+        public synchronized boolean addSynced(Instant from, Instant to, List<Transaction> transactions) {
+            for (Transaction transaction : transactions) {
+                long transactionEpochMilli = transaction.getTransactionEpochMilli();
+                if (transactionEpochMilli == Transaction.NO_TIME) {
+                    continue;
+                }
+                if (transaction.getFeedItemUid() != null && !feedItemUids.add(transaction.getFeedItemUid())) {
+                    continue;
+                }
+                itemsByTime.computeIfAbsent(transactionEpochMilli, time -> new ArrayList<>(1)).add(transaction);
+                size++;
+            }
+
+            if (syncedFrom == null) {
+                syncedFrom = from;
+                watermark = to;
+                return true;
+            }
+            if (from.isAfter(watermark) || to.isBefore(syncedFrom)) {
+                return false;
+            }
+            if (from.isBefore(syncedFrom)) {
+                syncedFrom = from;
+            }
+            if (to.isAfter(watermark)) {
+                watermark = to;
+            }
+            return true;
+        }
+
+        /**
+         * The stored items in [from, to), ordered by transaction time
+         */
+        public synchronized List<Transaction> between(Instant from, Instant to) {
+            List<Transaction> inRange = new ArrayList<>();
+            for (List<Transaction> atTime : itemsByTime.subMap(from.toEpochMilli(), true, to.toEpochMilli(), false).values()) {
+                inRange.addAll(atTime);
+            }
+            return inRange;
+        }
+    }
+}
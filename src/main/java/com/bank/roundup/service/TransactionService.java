@@ -1,23 +1,27 @@
 package com.bank.roundup.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.bank.roundup.model.Account;
 import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionBatch;
 import com.bank.roundup.config.BankApiConfig;
 import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.logging.RoundUpLogger;
+import com.bank.roundup.metrics.RoundUpMetrics;
 import com.bank.roundup.model.TransactionDirection;
-import com.bank.roundup.util.JsonMapper;
+import com.bank.roundup.util.RoundUpCalculator;
+import com.bank.roundup.util.RoundUpConstants;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 /**
  * TransactionService for business logic involving transactions -- used to retrieve transactions and calculate roundup amounts
@@ -27,67 +31,178 @@ import java.util.stream.Collectors;
  */
 public class TransactionService extends BankAbstractApiService implements TransactionServiceInterface {
 
-    private static final boolean USE_MOCK_DATA = true;
+    private static final RoundUpLogger LOGGER = RoundUpLogger.getLogger(TransactionService.class);
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern(RoundUpConstants.ISO_DATE_TIME_FORMAT).withZone(ZoneOffset.UTC);
+
+    private final TransactionFeedReader feedReader = new TransactionFeedReader();
 
     public TransactionService(String authToken) {
         super(authToken);
     }
 
+    public TransactionService(String authToken, BankHttpTransport transport) {
+        super(authToken, transport);
+    }
+
+    public TransactionService(String authToken, BankHttpTransport transport, String baseUrl, boolean useMockData) {
+        super(authToken, transport, baseUrl, useMockData);
+    }
+
     public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate,
                                                           LocalDate endDate,
                                                           Account account
     ) throws BankApiException, JsonProcessingException {
 
-        if (USE_MOCK_DATA) {
+        if (useMockData()) {
             // Use mock data for demonstration
-            System.out.println("Using mock data for transactions from " + startDate + " to " + endDate);
+            LOGGER.debug("Using mock data for transactions from {} to {}", startDate, endDate);
             return MockDataService.generateMockTransactions(startDate, endDate, account);
         }
 
         // Original API call implementation (kept for reference)
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        // stream the response bytes straight into the filter rather than building the body as a String and parsing that
+        Predicate<Transaction> filter = isOutgoingBetween(startDate, endDate);
+        return fetchFeed(buildTransactionsUrl(startDate, endDate, account), body -> feedReader.readFeedItems(body, filter));
+    }
 
-        String transactionsUrl = BankApiConfig.TRANSACTIONS_URL;
+    @Override
+    public CompletableFuture<List<Transaction>> getTransactionsForTimePeriodAsync(LocalDate startDate,
+                                                                                  LocalDate endDate,
+                                                                                  Account account) {
 
-        transactionsUrl = transactionsUrl.replace("{accountUid}", account.getAccountUid().toString());
-        transactionsUrl = transactionsUrl.replace("{categoryUid}", account.getDefaultCategory().toString());
+        if (useMockData()) {
+            LOGGER.debug("Using mock data for transactions from {} to {}", startDate, endDate);
+            return CompletableFuture.completedFuture(MockDataService.generateMockTransactions(startDate, endDate, account));
+        }
 
-        String minimumTimeStamp = startDate.atStartOfDay().atZone(ZoneOffset.UTC).format(formatter);
-        String maximumTimeStamp = endDate.atTime(23, 59, 59,999_999_999).atZone(ZoneOffset.UTC).format(formatter);
+        Predicate<Transaction> filter = isOutgoingBetween(startDate, endDate);
+        return fetchFeedAsync(buildTransactionsUrl(startDate, endDate, account), body -> feedReader.readFeedItems(body, filter));
+    }
 
-        transactionsUrl = transactionsUrl + "?minTransactionTimestamp=" + minimumTimeStamp + "&maxTransactionTimestamp=" + maximumTimeStamp;
+    /**
+     * Reads the filtered feed items straight into a columnar batch without building an intermediate List
+     */
+    @Override
+    public TransactionBatch getTransactionBatchForTimePeriod(LocalDate startDate,
+                                                             LocalDate endDate,
+                                                             Account account
+    ) throws BankApiException, JsonProcessingException {
 
-        String responseBody = sendGetRequest(transactionsUrl);
+        if (useMockData()) {
+            return TransactionBatch.fromTransactions(getTransactionsForTimePeriod(startDate, endDate, account));
+        }
 
-        // parse response body to list of transactions
-        ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
+        Predicate<Transaction> filter = isOutgoingBetween(startDate, endDate);
+        return fetchFeed(buildTransactionsUrl(startDate, endDate, account), body -> {
+            TransactionBatch batch = new TransactionBatch();
+            feedReader.readFeedItems(body, filter, batch::add);
+            return batch;
+        });
+    }
 
-        JsonNode rootNode = objectMapper.readTree(responseBody);
-        JsonNode transactionsNode = rootNode.get("feedItems");
+    /**
+     * Fetches the outgoing transactions in [from, to) - the API's maximum timestamp is inclusive so it is sent as to - 1ms
+     */
+    @Override
+    public CompletableFuture<List<Transaction>> getTransactionsBetweenAsync(Instant from, Instant to, Account account) {
+
+        if (useMockData()) {
+            LocalDate startDate = from.atZone(ZoneOffset.UTC).toLocalDate();
+            LocalDate endDate = to.minusMillis(1).atZone(ZoneOffset.UTC).toLocalDate();
+            List<Transaction> transactions = MockDataService.generateMockTransactions(startDate, endDate, account);
+            transactions.removeIf(isOutgoingBetween(from, to).negate());
+            return CompletableFuture.completedFuture(transactions);
+        }
 
-        // Convert the transactions array to a List<Transactions>
-        List<Transaction> transactions = Arrays.asList(objectMapper.readValue(transactionsNode.toString(), Transaction[].class));
+        String transactionsUrl = buildTransactionsUrl(account, from, to.minusMillis(1));
 
-        // filter by date
-        return transactions.stream()
-                .filter(transaction -> {
-                    LocalDate transactionDate = transaction.convertStringTransactionTimeToLocalDate();
+        Predicate<Transaction> filter = isOutgoingBetween(from, to);
+        return fetchFeedAsync(transactionsUrl, body -> feedReader.readFeedItems(body, filter));
+    }
 
-                    boolean inDateRange = transactionDate.isEqual(startDate) || transaction.convertStringTransactionTimeToLocalDate().isAfter(startDate)
-                            && transaction.convertStringTransactionTimeToLocalDate().isEqual(endDate) || transaction.convertStringTransactionTimeToLocalDate().isBefore(endDate);
+    /**
+     * Fetches the feed and streams it into the reader - the time recorded for the fetch includes reading the body
+     */
+    private <T> T fetchFeed(String transactionsUrl, ResponseReader<T> reader) throws BankApiException, JsonProcessingException {
+        long startNanos = System.nanoTime();
+        try {
+            return sendGetRequest(transactionsUrl, reader);
+        } catch (BankApiException | JsonProcessingException | RuntimeException e) {
+            metrics.recordFailure(RoundUpMetrics.Stage.FEED_FETCH);
+            throw e;
+        } finally {
+            metrics.record(RoundUpMetrics.Stage.FEED_FETCH, System.nanoTime() - startNanos);
+        }
+    }
 
-                    boolean isOutgoing = transaction.getDirection() == TransactionDirection.OUT;
+    private <T> CompletableFuture<T> fetchFeedAsync(String transactionsUrl, ResponseReader<T> reader) {
+        return metrics.timeAsync(RoundUpMetrics.Stage.FEED_FETCH, () -> sendGetRequestAsync(transactionsUrl, reader));
+    }
 
-                    return inDateRange && isOutgoing;
+    private String buildTransactionsUrl(LocalDate startDate, LocalDate endDate, Account account) {
+        Instant minimumTime = startDate.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant maximumTime = endDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusMillis(1);
 
-                }
+        return buildTransactionsUrl(account, minimumTime, maximumTime);
+    }
 
-                )
+    private String buildTransactionsUrl(Account account, Instant minimumTime, Instant maximumTime) {
+        String transactionsUrl = BankApiConfig.TRANSACTIONS_URL;
 
-                .collect(Collectors.toList());
+        transactionsUrl = transactionsUrl.replace("{accountUid}", account.getAccountUid().toString());
+        transactionsUrl = transactionsUrl.replace("{categoryUid}", account.getDefaultCategory().toString());
+
+        String minimumTimeStamp = TIMESTAMP_FORMATTER.format(minimumTime);
+        String maximumTimeStamp = TIMESTAMP_FORMATTER.format(maximumTime);
+
+        return transactionsUrl + "?minTransactionTimestamp=" + minimumTimeStamp + "&maxTransactionTimestamp=" + maximumTimeStamp;
+    }
+
+    /**
+     * Filter for outgoing transactions whose date falls within the inclusive date range
+     * Uses the epoch day parsed when the transaction was deserialized so each check is two integer comparisons
+     */
+    public static Predicate<Transaction> isOutgoingBetween(LocalDate startDate, LocalDate endDate) {
+        long startEpochDay = startDate.toEpochDay();
+        long endEpochDay = endDate.toEpochDay();
+
+        return transaction -> {
+            long transactionEpochDay = transaction.getTransactionEpochDay();
+            return transaction.getDirection() == TransactionDirection.OUT
+                    && transactionEpochDay >= startEpochDay
+                    && transactionEpochDay <= endEpochDay;
+        };
+    }
+
+    /**
+     * Filter for outgoing transactions whose time falls within [from, to)
+     */
+    public static Predicate<Transaction> isOutgoingBetween(Instant from, Instant to) {
+        long fromEpochMilli = from.toEpochMilli();
+        long toEpochMilli = to.toEpochMilli();
+
+        return transaction -> {
+            long transactionEpochMilli = transaction.getTransactionEpochMilli();
+            return transaction.getDirection() == TransactionDirection.OUT
+                    && transactionEpochMilli != Transaction.NO_TIME
+                    && transactionEpochMilli >= fromEpochMilli
+                    && transactionEpochMilli < toEpochMilli;
+        };
+    }
 
+    public long calculateRoundUpPence(List<Transaction> transactions) {
+        long startNanos = System.nanoTime();
+        long roundUpPence = RoundUpCalculator.totalRoundUpPence(transactions);
+        metrics.record(RoundUpMetrics.Stage.CALCULATE_ROUNDUP, System.nanoTime() - startNanos);
+        return roundUpPence;
     }
 
+    /**
+     * BigDecimal implementation of the roundup - no longer used on the hot path but kept as the reference oracle
+     * that the primitive RoundUpCalculator is tested against
+     */
     public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
 
         BigDecimal totalRoundUpAmount = BigDecimal.ZERO;
@@ -4,10 +4,16 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.bank.roundup.exception.BankApiException;
 import com.bank.roundup.model.Account;
 import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionBatch;
+import com.bank.roundup.util.AsyncSupport;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * TransactionServiceInterface for business logic involving transactions -- used to retrieve transactions and calculate roundup amounts
@@ -29,6 +35,46 @@ public interface TransactionServiceInterface {
      */
     List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) 
             throws BankApiException, JsonProcessingException;
+
+    /**
+     * Non blocking version of getTransactionsForTimePeriod
+     * Defaults to running the blocking call on the async adapter pool so existing implementations keep working
+     *
+     * @param startDate Start date for transaction search
+     * @param endDate End date for transaction search
+     * @param account The account to search transactions for
+     * @return future of the transactions matching the criteria, failing with a BankApiException
+     */
+    default CompletableFuture<List<Transaction>> getTransactionsForTimePeriodAsync(LocalDate startDate, LocalDate endDate, Account account) {
+        return AsyncSupport.supplyAsync(() -> getTransactionsForTimePeriod(startDate, endDate, account));
+    }
+
+    /**
+     * Gets the outgoing transactions whose time falls within [from, to) - used to fetch a window in shards
+     * Defaults to fetching the whole days covering the range and filtering them, so existing implementations keep working
+     *
+     * @param from Start of the range, inclusive
+     * @param to End of the range, exclusive
+     * @param account The account to search transactions for
+     * @return future of the transactions in the range, failing with a BankApiException
+     */
+    default CompletableFuture<List<Transaction>> getTransactionsBetweenAsync(Instant from, Instant to, Account account) {
+        LocalDate startDate = from.atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate endDate = to.minusMillis(1).atZone(ZoneOffset.UTC).toLocalDate();
+        long fromEpochMilli = from.toEpochMilli();
+        long toEpochMilli = to.toEpochMilli();
+
+        return getTransactionsForTimePeriodAsync(startDate, endDate, account).thenApply(transactions -> {
+            List<Transaction> inRange = new ArrayList<>();
+            for (Transaction transaction : transactions) {
+                long transactionEpochMilli = transaction.getTransactionEpochMilli();
+                if (transactionEpochMilli != Transaction.NO_TIME && transactionEpochMilli >= fromEpochMilli && transactionEpochMilli < toEpochMilli) {
+                    inRange.add(transaction);
+                }
+            }
+            return inRange;
+        });
+    }
     
     /**
      * Calculates the total roundup amount for a list of transactions
@@ -37,4 +83,38 @@ public interface TransactionServiceInterface {
      * @return Total roundup amount in pounds
      */
     BigDecimal calculateRoundUpAmount(List<Transaction> transactions);
-}
\ No newline at end of file
+
+    /**
+     * Calculates the total roundup amount for a list of transactions without allocating per transaction
+     *
+     * @param transactions List of transactions to calculate roundup for
+     * @return Total roundup amount in pence
+     */
+    long calculateRoundUpPence(List<Transaction> transactions);
+
+    /**
+     * Gets transactions for a specific time period and account in columnar form
+     * Defaults to adapting the List returned by getTransactionsForTimePeriod so existing implementations keep working
+     *
+     * @param startDate Start date for transaction search
+     * @param endDate End date for transaction search
+     * @param account The account to search transactions for
+     * @return Batch of transactions matching the criteria
+     * @throws BankApiException if there's an API communication error
+     * @throws JsonProcessingException if there's an error parsing the response
+     */
+    default TransactionBatch getTransactionBatchForTimePeriod(LocalDate startDate, LocalDate endDate, Account account)
+            throws BankApiException, JsonProcessingException {
+        return TransactionBatch.fromTransactions(getTransactionsForTimePeriod(startDate, endDate, account));
+    }
+
+    /**
+     * Calculates the total roundup amount for a batch of transactions
+     *
+     * @param batch Batch of transactions to calculate roundup for
+     * @return Total roundup amount in pence
+     */
+    default long calculateRoundUpPence(TransactionBatch batch) {
+        return batch.totalRoundUpPence();
+    }
+}
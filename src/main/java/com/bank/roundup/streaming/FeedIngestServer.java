@@ -0,0 +1,132 @@
+package com.bank.roundup.streaming;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feeds events into a StreamingRoundUp over the network, on the loopback interface
+ *
+ * - HTTP webhook: POST /feed-items with one event, an array of events or NDJSON - answers 202 with the count read
+ * - socket feed: a plain TCP connection carrying NDJSON events until the sender closes it
+ *
+ * Each request or connection is read on its own worker thread, all feeding the same lock free accumulators.
+ * A webhook body that fails part way answers 400 with the events before the failure already accepted, so the sender can
+ * retry the whole body - StreamingRoundUp drops the events it has already seen by feedItemUid.
+ */
+public class FeedIngestServer implements AutoCloseable {
+
+    public static final String WEBHOOK_PATH = "/feed-items";
+
+    private final StreamingRoundUp streamingRoundUp;
+    private final HttpServer webhookServer;
+    private final ServerSocket feedSocket;
+    private final ExecutorService workers;
+
+    /**
+     * Creates and starts the server - a port of 0 picks a free port, and a socket port below 0 disables the socket feed
+     */
+    public FeedIngestServer(StreamingRoundUp streamingRoundUp, int webhookPort, int socketPort, int workerThreads) throws IOException {
+        this.streamingRoundUp = streamingRoundUp;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "roundup-ingest-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.webhookServer = HttpServer.create(new InetSocketAddress("127.0.0.1", webhookPort), 0);
+        webhookServer.createContext(WEBHOOK_PATH, this::handleWebhook);
+        webhookServer.setExecutor(workers);
+        webhookServer.start();
+
+        if (socketPort >= 0) {
+            this.feedSocket = new ServerSocket(socketPort, 0, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::acceptLoop, "roundup-ingest-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        } else {
+            this.feedSocket = null;
+        }
+    }
+
+    public String getWebhookUrl() {
+        return "http://127.0.0.1:" + webhookServer.getAddress().getPort() + WEBHOOK_PATH;
+    }
+
+    /**
+     * @return the socket feed port, or -1 if it is disabled
+     */
+    public int getSocketPort() {
+        return feedSocket == null ? -1 : feedSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        webhookServer.stop(0);
+        if (feedSocket != null) {
+            feedSocket.close();
+        }
+        workers.shutdownNow();
+    }
+
+    private void handleWebhook(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "{\"error\":\"POST feed item events\"}");
+                return;
+            }
+
+            int read;
+            try (InputStream body = exchange.getRequestBody()) {
+                read = streamingRoundUp.ingest(body);
+            } catch (IOException | IllegalArgumentException e) {
+                respond(exchange, 400, "{\"error\":\"invalid feed item event\"}");
+                return;
+            }
+            respond(exchange, 202, "{\"accepted\":" + read + "}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!feedSocket.isClosed()) {
+            try {
+                Socket connection = feedSocket.accept();
+                workers.execute(() -> readFeed(connection));
+            } catch (IOException e) {
+                // socket closed
+                return;
+            }
+        }
+    }
+
+    private void readFeed(Socket connection) {
+        try (Socket socket = connection; InputStream in = socket.getInputStream()) {
+            streamingRoundUp.ingest(in);
+        } catch (IOException | IllegalArgumentException e) {
+            // a bad or broken feed only ends its own connection
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.bank.roundup.streaming;
+
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.util.JsonMapper;
+import com.bank.roundup.util.RoundUpCalculator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event driven roundups - feed items are rounded up as they arrive and the running totals are moved to savings goals
+ *
+ * Each registered account has a striped counter of pending roundup pence. The hot path (accept) is a map lookup, one
+ * atomic swap in the dedupe table and an atomic add to the calling thread's stripe, with no locks or allocation, so many
+ * ingest threads can feed it at once. The stripe's own total is a cheap hint: the whole total is only summed once
+ * the stripe alone holds its share of flushThresholdPence. An account is flushed to its savings goal when its pending
+ * total reaches flushThresholdPence, and every account with anything pending is flushed each flushInterval and on close.
+ *
+ * A flush takes the pending total and sends it under a transfer uid derived from the account, goal, a random epoch
+ * picked when the account is first registered and the flush number, so uids never repeat across restarts. If the
+ * transfer fails, that same amount and uid are sent again on the next flush before anything newer, so a transfer that
+ * did reach the API is not applied twice. Only one flush runs per account at a time. Registering an account again
+ * keeps its pending total and any unsent transfer, which still goes to the goal it was started for.
+ *
+ * Events are JSON objects {"accountUid": "...", "feedItem": {...}}, one after another (NDJSON) or in an array.
+ * Only outgoing feed items are rounded up. Events for accounts that are not registered are counted and dropped, and
+ * events accepted after close are rejected. Senders deliver at least once, so an event whose feedItemUid was seen
+ * recently is counted as a duplicate and dropped - a webhook body that is retried after failing halfway is not rounded
+ * up twice. Dedupe is best effort: 64 bit hashes of the uids are kept in a fixed table of dedupeWindow slots (rounded
+ * up to a power of two), and a uid is forgotten once a later one lands in its slot. After n more uids it is still
+ * remembered with probability about e^(-n / slots), so a retry that follows within a small fraction of the window is
+ * almost always caught.
+ */
+public class StreamingRoundUp implements AutoCloseable {
+
+    public static final long DEFAULT_FLUSH_THRESHOLD_PENCE = 1_000L;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMinutes(1);
+    public static final int DEFAULT_DEDUPE_WINDOW = 100_000;
+
+    private final RoundUpServices.Factory servicesFactory;
+    private final long flushThresholdPence;
+    private final Map<UUID, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    // hashes of recent feedItemUids, one per slot, 0 for an empty slot - null if dedupe is off
+    private final AtomicLongArray recentFeedItemHashes;
+    private volatile boolean closed;
+
+    private final ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
+    private final ObjectReader feedItemReader = objectMapper.readerFor(Transaction.class);
+
+    private final ExecutorService flushers;
+    private final ScheduledExecutorService timer;
+
+    private final LongAdder acceptedEvents = new LongAdder();
+    private final LongAdder unknownAccountEvents = new LongAdder();
+    private final LongAdder duplicateEvents = new LongAdder();
+    private final LongAdder transferredPence = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    public StreamingRoundUp(RoundUpServices.Factory servicesFactory) {
+        this(servicesFactory,
+                Long.getLong("roundup.streaming.flushThresholdPence", DEFAULT_FLUSH_THRESHOLD_PENCE),
+                Duration.ofMillis(Long.getLong("roundup.streaming.flushIntervalMs", DEFAULT_FLUSH_INTERVAL.toMillis())),
+                Integer.getInteger("roundup.streaming.flushThreads", 4),
+                Integer.getInteger("roundup.streaming.dedupeWindow", DEFAULT_DEDUPE_WINDOW));
+    }
+
+    public StreamingRoundUp(RoundUpServices.Factory servicesFactory, long flushThresholdPence, Duration flushInterval, int flushThreads) {
+        this(servicesFactory, flushThresholdPence, flushInterval, flushThreads, DEFAULT_DEDUPE_WINDOW);
+    }
+
+    public StreamingRoundUp(RoundUpServices.Factory servicesFactory, long flushThresholdPence, Duration flushInterval, int flushThreads,
+                            int dedupeWindow) {
+        if (flushThresholdPence < 1) {
+            throw new IllegalArgumentException("flushThresholdPence must be at least 1: " + flushThresholdPence);
+        }
+        this.servicesFactory = servicesFactory;
+        this.flushThresholdPence = flushThresholdPence;
+        this.recentFeedItemHashes = dedupeWindow <= 0 ? null
+                : new AtomicLongArray(Integer.highestOneBit(Math.min(dedupeWindow, 1 << 30) * 2 - 1));
+        this.flushers = Executors.newFixedThreadPool(flushThreads, threadFactory("roundup-streaming-flush-"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(threadFactory("roundup-streaming-timer-"));
+
+        long intervalNanos = flushInterval.toNanos();
+        timer.scheduleWithFixedDelay(this::flushAllAsync, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts rounding up the account's feed items into the savings goal, using the services for the auth token
+     */
+    public void register(String authToken, Account account, UUID savingsGoalUid) {
+        subscriptions.compute(account.getAccountUid(), (accountUid, existing) -> {
+            if (existing == null) {
+                return new Subscription(authToken, account, savingsGoalUid);
+            }
+            existing.update(authToken, savingsGoalUid);
+            return existing;
+        });
+    }
+
+    // ========== INGEST ==========
+
+    /**
+     * Adds one feed item's roundup to its account - lock free and safe to call from any number of threads
+     * A feed item already seen is dropped.
+     *
+     * @return false if the account is not registered
+     * @throws IllegalStateException if called after close
+     */
+    public boolean accept(UUID accountUid, Transaction feedItem) {
+        if (closed) {
+            throw new IllegalStateException("Streaming roundup is closed");
+        }
+        Subscription subscription = subscriptions.get(accountUid);
+        if (subscription == null) {
+            unknownAccountEvents.increment();
+            return false;
+        }
+        if (!markSeen(feedItem.getFeedItemUid())) {
+            duplicateEvents.increment();
+            return true;
+        }
+        acceptedEvents.increment();
+
+        if (feedItem.getDirection() != TransactionDirection.OUT || feedItem.getAmount() == null
+                || feedItem.getAmount().getMinorUnits() == null) {
+            return true;
+        }
+        int roundUpPence = RoundUpCalculator.roundUpPence(feedItem.getAmount().getMinorUnits());
+        if (roundUpPence == 0) {
+            return true;
+        }
+
+        long stripeTotal = subscription.pendingPence.add(roundUpPence);
+        if (stripeTotal >= subscription.pendingPence.shareOf(flushThresholdPence)
+                && subscription.pendingPence.sum() >= flushThresholdPence && subscription.flushQueued.compareAndSet(false, true)) {
+            flushers.execute(() -> {
+                subscription.flushQueued.set(false);
+                flush(subscription);
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Records the feedItemUid's hash in its slot, replacing whichever uid was there
+     *
+     * @return false if it was already seen - items without a uid are always new
+     */
+    private boolean markSeen(String feedItemUid) {
+        if (feedItemUid == null || recentFeedItemHashes == null) {
+            return true;
+        }
+        long hash = hash64(feedItemUid);
+        int slot = (int) hash & (recentFeedItemHashes.length() - 1);
+        return recentFeedItemHashes.getAndSet(slot, hash) != hash;
+    }
+
+    /**
+     * FNV-1a over the chars with a final mix, never 0 so an empty slot matches nothing
+     */
+    private static long hash64(String text) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Reads events from the stream until it ends, accepting each one
+     *
+     * @return number of events read
+     */
+    public int ingest(InputStream events) throws IOException {
+        int read = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(events)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_ARRAY || token == JsonToken.END_ARRAY) {
+                    continue;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a feed item event object but found " + token);
+                }
+                readEvent(parser);
+                read++;
+            }
+        }
+
+        return read;
+    }
+
+    public int ingest(String events) throws IOException {
+        return ingest(new ByteArrayInputStream(events.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void readEvent(JsonParser parser) throws IOException {
+        UUID accountUid = null;
+        Transaction feedItem = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            if ("accountUid".equals(fieldName)) {
+                accountUid = UUID.fromString(parser.getText());
+            } else if ("feedItem".equals(fieldName)) {
+                feedItem = feedItemReader.readValue(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (accountUid == null || feedItem == null) {
+            throw new IOException("Feed item event needs an accountUid and a feedItem");
+        }
+        accept(accountUid, feedItem);
+    }
+
+    // ========== FLUSHING ==========
+
+    /**
+     * Flushes every account with a pending or unsent amount, waiting for the transfers to finish
+     */
+    public void flushAll() {
+        for (Subscription subscription : subscriptions.values()) {
+            flush(subscription);
+        }
+    }
+
+    private void flushAllAsync() {
+        for (Subscription subscription : subscriptions.values()) {
+            if (subscription.hasWork() && subscription.flushQueued.compareAndSet(false, true)) {
+                flushers.execute(() -> {
+                    subscription.flushQueued.set(false);
+                    flush(subscription);
+                });
+            }
+        }
+    }
+
+    private void flush(Subscription subscription) {
+        if (!subscription.flushing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            if (subscription.unsentTransferUid == null) {
+                // draining each stripe with an atomic swap keeps any adds racing with the flush
+                long pending = subscription.pendingPence.drain();
+                if (pending <= 0) {
+                    return;
+                }
+                int amount = (int) Math.min(pending, Integer.MAX_VALUE);
+                if (amount < pending) {
+                    subscription.pendingPence.add(pending - amount);
+                }
+                subscription.unsentPence = amount;
+                subscription.unsentSavingsGoalUid = subscription.savingsGoalUid;
+                subscription.unsentTransferUid = subscription.nextTransferUid(subscription.unsentSavingsGoalUid);
+            }
+
+            servicesFactory.forToken(subscription.authToken).getSavingsGoalService().addSavedMoneyToSavingsGoal(
+                    subscription.unsentPence, subscription.account.getCurrency(), subscription.unsentSavingsGoalUid,
+                    subscription.account, subscription.unsentTransferUid);
+
+            transferredPence.add(subscription.unsentPence);
+            subscription.unsentPence = 0;
+            subscription.unsentSavingsGoalUid = null;
+            subscription.unsentTransferUid = null;
+
+        } catch (Exception e) {
+            // keep the unsent transfer for the next flush
+            failedFlushes.increment();
+        } finally {
+            subscription.flushing.set(false);
+        }
+    }
+
+    /**
+     * Rejects further events, stops the timer, flushes every account once more and stops the flush threads
+     * If interrupted while waiting for the flush threads it keeps the interrupt and skips the final flush.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        timer.shutdownNow();
+        flushers.shutdown();
+        try {
+            flushers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        flushAll();
+    }
+
+    // ========== STATS ==========
+
+    public long getAcceptedEvents() {
+        return acceptedEvents.sum();
+    }
+
+    public long getUnknownAccountEvents() {
+        return unknownAccountEvents.sum();
+    }
+
+    public long getDuplicateEvents() {
+        return duplicateEvents.sum();
+    }
+
+    public long getTransferredPence() {
+        return transferredPence.sum();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    /**
+     * Roundup pence accumulated for the account and not yet transferred
+     */
+    public long getPendingPence(UUID accountUid) {
+        Subscription subscription = subscriptions.get(accountUid);
+        return subscription == null ? 0L : subscription.pendingPence.sum() + subscription.unsentPence;
+    }
+
+    private static ThreadFactory threadFactory(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One account's running total and the transfer in progress, if any
+     * The unsent fields are only touched by the thread holding flushing.
+     */
+    private static class Subscription {
+
+        private final Account account;
+        private final UUID epoch = UUID.randomUUID();
+        private final PendingPence pendingPence = new PendingPence();
+        private final AtomicBoolean flushQueued = new AtomicBoolean();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+
+        private volatile String authToken;
+        private volatile UUID savingsGoalUid;
+        private volatile int unsentPence;
+        private UUID unsentSavingsGoalUid;
+        private UUID unsentTransferUid;
+        private long flushNumber;
+
+        Subscription(String authToken, Account account, UUID savingsGoalUid) {
+            this.authToken = authToken;
+            this.account = account;
+            this.savingsGoalUid = savingsGoalUid;
+        }
+
+        void update(String authToken, UUID savingsGoalUid) {
+            this.authToken = authToken;
+            this.savingsGoalUid = savingsGoalUid;
+        }
+
+        boolean hasWork() {
+            return unsentPence > 0 || pendingPence.sum() > 0;
+        }
+
+        UUID nextTransferUid(UUID goalUid) {
+            String key = account.getAccountUid() + "/" + goalUid + "/streaming/" + epoch + "/" + flushNumber++;
+            return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Striped counter of an account's pending pence - like a LongAdder, but an add returns its stripe's total as a
+     * cheap hint of the whole, and draining swaps each stripe to zero so no racing add is lost
+     *
+     * Stripes are picked by thread id and padded to their own cache line. They are only created once two threads
+     * have raced on the single base counter, so the many accounts fed from one thread at a time stay small.
+     */
+    private static class PendingPence {
+
+        private static final int STRIPES = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1), 16);
+        // 8 longs, one 64 byte cache line, between stripes
+        private static final int PADDING = 8;
+
+        private final AtomicLong base = new AtomicLong();
+        private volatile AtomicLongArray stripes;
+
+        /**
+         * Adds the pence and returns the total of the stripe it went to
+         */
+        long add(long pence) {
+            AtomicLongArray current = stripes;
+            if (current == null) {
+                long total = base.get();
+                if (base.compareAndSet(total, total + pence)) {
+                    return total + pence;
+                }
+                current = inflate();
+            }
+            return current.addAndGet(stripeIndex(), pence);
+        }
+
+        /**
+         * The part of the total a single stripe holds when the adds are spread evenly - reaching it is worth a sum()
+         */
+        long shareOf(long total) {
+            return stripes == null ? total : Math.max(total / STRIPES, 1);
+        }
+
+        long sum() {
+            long sum = base.get();
+            AtomicLongArray current = stripes;
+            if (current != null) {
+                for (int i = 0; i < STRIPES; i++) {
+                    sum += current.get(i * PADDING);
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * Takes the whole total, leaving zero behind
+         */
+        long drain() {
+            long drained = base.getAndSet(0);
+            AtomicLongArray current = stripes;
+            if (current != null) {
+                for (int i = 0; i < STRIPES; i++) {
+                    drained += current.getAndSet(i * PADDING, 0);
+                }
+            }
+            return drained;
+        }
+
+        private synchronized AtomicLongArray inflate() {
+            if (stripes == null) {
+                stripes = new AtomicLongArray(STRIPES * PADDING);
+            }
+            return stripes;
+        }
+
+        private static int stripeIndex() {
+            return (int) (Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+        }
+    }
+}
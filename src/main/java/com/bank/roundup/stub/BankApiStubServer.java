@@ -0,0 +1,287 @@
+package com.bank.roundup.stub;
+
+import com.bank.roundup.config.BankApiConfig;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.service.MockDataService;
+import com.bank.roundup.util.IsoTimestampParser;
+import com.bank.roundup.util.JsonMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the Bank API, so the real HTTP path of the services can be exercised and load tested on one machine
+ *
+ * Serves the endpoints in BankApiConfig with payloads from MockDataService, after an optional artificial latency,
+ * and fails a configurable fraction of requests with an error status. Transaction feeds are generated and written one
+ * item at a time, so very large feeds are served in constant memory. Savings goals created on the server are kept in
+ * memory so the goal list finds them. Point the services at it with
+ * -Droundup.api.baseUrl=http://127.0.0.1:{port}/ -Droundup.api.useMockData=false
+ *
+ * Run standalone with: java -cp target/classes:{jackson jars} com.bank.roundup.stub.BankApiStubServer [port]
+ */
+public class BankApiStubServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final StubServerConfig config;
+    private final ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong injectedErrorCount = new AtomicLong();
+    // goal name to uid by account uid, for the goals created on this server
+    private final Map<String, Map<String, UUID>> savingsGoals = new ConcurrentHashMap<>();
+
+    /**
+     * Creates and starts a server on the loopback interface - a port of 0 picks a free port
+     */
+    public BankApiStubServer(int port, StubServerConfig config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.workers = Executors.newFixedThreadPool(config.getWorkerThreads(), workerThreadFactory());
+
+        server.createContext("/", this::handle);
+        server.setExecutor(workers);
+        server.start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        BankApiStubServer stubServer = new BankApiStubServer(port, StubServerConfig.defaults());
+
+        System.out.println("Bank API stub listening on " + stubServer.getBaseUrl());
+        System.out.println("Run the services with -D" + BankApiConfig.BASE_URL_PROPERTY + "=" + stubServer.getBaseUrl()
+                + " -D" + BankApiConfig.USE_MOCK_DATA_PROPERTY + "=false");
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrorCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requestCount.incrementAndGet();
+            simulateLatency();
+
+            if (shouldInjectError()) {
+                injectedErrorCount.incrementAndGet();
+                respond(exchange, config.getErrorStatus(), "{\"error\":\"injected failure\"}");
+                return;
+            }
+
+            route(exchange);
+        } catch (JsonProcessingException | DateTimeException | IllegalArgumentException e) {
+            // a malformed body, timestamp or uid is the client's fault
+            respondWithError(exchange, 400, e);
+        } catch (RuntimeException e) {
+            respondWithError(exchange, 500, e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring(1).split("/");
+
+        // accounts
+        if (path.length == 1 && "accounts".equals(path[0]) && "GET".equals(method)) {
+            writeAccounts(exchange);
+        // accounts/{accountUid}/categories/{categoryUid}/transactions
+        } else if (path.length == 5 && "accounts".equals(path[0]) && "categories".equals(path[2])
+                && "transactions".equals(path[4]) && "GET".equals(method)) {
+            writeTransactions(exchange, path[1]);
+        // accounts/{accountUid}/savings-goals
+        } else if (path.length == 3 && "accounts".equals(path[0]) && "savings-goals".equals(path[2]) && "GET".equals(method)) {
+            writeSavingsGoals(exchange, path[1]);
+        } else if (path.length == 3 && "accounts".equals(path[0]) && "savings-goals".equals(path[2]) && "PUT".equals(method)) {
+            writeSavingsGoal(exchange, path[1]);
+        // accounts/{accountUid}/savings-goals/{savingsGoalUid}/transfer/{transferUid}
+        } else if (path.length == 6 && "accounts".equals(path[0]) && "savings-goals".equals(path[2])
+                && "transfer".equals(path[4]) && "PUT".equals(method)) {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 200, MockDataService.generateMockTopUpResponse(UUID.fromString(path[5])));
+        } else {
+            respond(exchange, 404, "{\"error\":\"no such endpoint: " + method + " " + quote(exchange.getRequestURI().getPath()) + "\"}");
+        }
+    }
+
+    private void writeAccounts(HttpExchange exchange) throws IOException {
+        List<Account> accounts = MockDataService.generateMockAccounts();
+        byte[] body = objectMapper.writeValueAsBytes(Collections.singletonMap("accounts", accounts));
+        respond(exchange, 200, body);
+    }
+
+    private void writeTransactions(HttpExchange exchange, String accountUid) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String minimumTimestamp = query.get("minTransactionTimestamp");
+        String maximumTimestamp = query.get("maxTransactionTimestamp");
+        if (minimumTimestamp == null || maximumTimestamp == null) {
+            respond(exchange, 400, "{\"error\":\"minTransactionTimestamp and maxTransactionTimestamp are required\"}");
+            return;
+        }
+
+        long minimumEpochMilli = IsoTimestampParser.toEpochMilli(minimumTimestamp);
+        long maximumEpochMilli = IsoTimestampParser.toEpochMilli(maximumTimestamp);
+        LocalDate startDate = Instant.ofEpochMilli(minimumEpochMilli).atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate endDate = Instant.ofEpochMilli(maximumEpochMilli).atZone(ZoneOffset.UTC).toLocalDate();
+
+        Account account = new Account();
+        account.setAccountUid(UUID.fromString(accountUid));
+
+        // stream the feed straight into the chunked response body, generating one item at a time, gzipped if accepted
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (gzip) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = gzip ? new GZIPOutputStream(exchange.getResponseBody(), 8192) : exchange.getResponseBody()) {
+            MockDataService.generator(config.getTransactionsPerDay()).writeFeed(body, startDate, endDate, account, transaction -> {
+                long epochMilli = transaction.getTransactionEpochMilli();
+                return epochMilli >= minimumEpochMilli && epochMilli <= maximumEpochMilli;
+            });
+        }
+    }
+
+    private void writeSavingsGoals(HttpExchange exchange, String accountUid) throws IOException {
+        List<Map<String, String>> goals = new ArrayList<>();
+        savingsGoals.getOrDefault(accountUid, Collections.emptyMap()).forEach((name, savingsGoalUid) -> {
+            Map<String, String> goal = new LinkedHashMap<>();
+            goal.put("savingsGoalUid", savingsGoalUid.toString());
+            goal.put("name", name);
+            goals.add(goal);
+        });
+        respond(exchange, 200, objectMapper.writeValueAsBytes(Collections.singletonMap("savingsGoalList", goals)));
+    }
+
+    private void writeSavingsGoal(HttpExchange exchange, String accountUid) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        JsonNode name = request == null ? null : request.get("name");
+        if (name == null) {
+            respond(exchange, 400, "{\"error\":\"name is required\"}");
+            return;
+        }
+
+        // remembered so a later lookup by name finds it - the first goal of a name is the one listed
+        UUID savingsGoalUid = UUID.randomUUID();
+        savingsGoals.computeIfAbsent(accountUid, account -> new ConcurrentHashMap<>()).putIfAbsent(name.asText(), savingsGoalUid);
+        respond(exchange, 200, MockDataService.generateMockSavingsGoalResponse(savingsGoalUid, quote(name.asText())));
+    }
+
+    private void simulateLatency() {
+        long latencyMs = config.getLatencyMs();
+        if (config.getLatencyJitterMs() > 0) {
+            latencyMs += ThreadLocalRandom.current().nextLong(config.getLatencyJitterMs() + 1);
+        }
+        if (latencyMs == 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean shouldInjectError() {
+        return config.getErrorRate() > 0.0 && ThreadLocalRandom.current().nextDouble() < config.getErrorRate();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static String quote(String text) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(text));
+    }
+
+    /**
+     * Responds with the error unless headers were already sent - once the streamed feed has sent its 200 a status can
+     * no longer be changed, so closing the exchange leaves the client with a truncated body instead
+     */
+    private static void respondWithError(HttpExchange exchange, int status, Exception e) throws IOException {
+        if (exchange.getResponseCode() == -1) {
+            respond(exchange, status, "{\"error\":\"" + quote(String.valueOf(e.getMessage())) + "\"}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bank-api-stub-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
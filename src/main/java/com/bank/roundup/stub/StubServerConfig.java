@@ -0,0 +1,78 @@
+package com.bank.roundup.stub;
+
+/**
+ * Behaviour of the stand-in Bank API server
+ *
+ * Defaults can be overridden with system properties: roundup.stub.latencyMs, roundup.stub.latencyJitterMs,
+ * roundup.stub.errorRate, roundup.stub.errorStatus, roundup.stub.transactionsPerDay and roundup.stub.workerThreads.
+ * A transactionsPerDay of 0 keeps MockDataService's own 2-5 per day.
+ */
+public class StubServerConfig {
+
+    public static final long DEFAULT_LATENCY_MS = 0L;
+    public static final long DEFAULT_LATENCY_JITTER_MS = 0L;
+    public static final double DEFAULT_ERROR_RATE = 0.0;
+    public static final int DEFAULT_ERROR_STATUS = 503;
+    public static final int DEFAULT_TRANSACTIONS_PER_DAY = 0;
+    public static final int DEFAULT_WORKER_THREADS = 64;
+
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+    private final int errorStatus;
+    private final int transactionsPerDay;
+    private final int workerThreads;
+
+    public StubServerConfig(long latencyMs, long latencyJitterMs, double errorRate, int errorStatus,
+                            int transactionsPerDay, int workerThreads) {
+        if (latencyMs < 0 || latencyJitterMs < 0) {
+            throw new IllegalArgumentException("latency must not be negative");
+        }
+        if (errorRate < 0.0 || errorRate > 1.0) {
+            throw new IllegalArgumentException("errorRate must be between 0 and 1: " + errorRate);
+        }
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("workerThreads must be at least 1: " + workerThreads);
+        }
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        this.transactionsPerDay = transactionsPerDay;
+        this.workerThreads = workerThreads;
+    }
+
+    public static StubServerConfig defaults() {
+        return new StubServerConfig(
+                Long.getLong("roundup.stub.latencyMs", DEFAULT_LATENCY_MS),
+                Long.getLong("roundup.stub.latencyJitterMs", DEFAULT_LATENCY_JITTER_MS),
+                Double.parseDouble(System.getProperty("roundup.stub.errorRate", String.valueOf(DEFAULT_ERROR_RATE))),
+                Integer.getInteger("roundup.stub.errorStatus", DEFAULT_ERROR_STATUS),
+                Integer.getInteger("roundup.stub.transactionsPerDay", DEFAULT_TRANSACTIONS_PER_DAY),
+                Integer.getInteger("roundup.stub.workerThreads", DEFAULT_WORKER_THREADS));
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public long getLatencyJitterMs() {
+        return latencyJitterMs;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public int getTransactionsPerDay() {
+        return transactionsPerDay;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+}
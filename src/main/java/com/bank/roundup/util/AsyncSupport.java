@@ -0,0 +1,97 @@
+package com.bank.roundup.util;
+
+import com.bank.roundup.exception.BankApiException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helpers for the asynchronous service variants
+ *
+ * Every async service method completes exceptionally with a CompletionException whose cause is a BankApiException,
+ * whatever actually went wrong, so callers only ever need to handle one failure type.
+ * Blocking implementations are adapted onto a small dedicated pool (roundup.async.adapterThreads, default 16)
+ * rather than the common fork join pool, which must not be blocked on I/O.
+ */
+public final class AsyncSupport {
+
+    private static final int ADAPTER_THREADS = Integer.getInteger("roundup.async.adapterThreads", 16);
+
+    private static final ExecutorService adapterExecutor = Executors.newFixedThreadPool(ADAPTER_THREADS, adapterThreadFactory());
+
+    /**
+     * A blocking service call, allowed to throw the checked exceptions of the service interfaces
+     */
+    @FunctionalInterface
+    public interface BlockingCall<T> {
+        T call() throws Exception;
+    }
+
+    private AsyncSupport() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Runs a blocking call on the adapter pool
+     */
+    public static <T> CompletableFuture<T> supplyAsync(BlockingCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                throw new CompletionException(toBankApiException(e));
+            }
+        }, adapterExecutor);
+    }
+
+    /**
+     * Returns an already failed future carrying the failure as a CompletionException around a BankApiException,
+     * the same as a failure in any other async service method
+     */
+    public static <T> CompletableFuture<T> failedFuture(Throwable failure) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(new CompletionException(toBankApiException(failure)));
+        return future;
+    }
+
+    /**
+     * Unwraps CompletionException and ExecutionException and converts the cause to a BankApiException
+     */
+    public static BankApiException toBankApiException(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof BankApiException) {
+            return (BankApiException) cause;
+        }
+        return new BankApiException("Error: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Waits for a future from an async service method, rethrowing any failure as a BankApiException
+     */
+    public static <T> T join(CompletableFuture<T> future) throws BankApiException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw toBankApiException(e);
+        }
+    }
+
+    private static ThreadFactory adapterThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "roundup-async-adapter-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
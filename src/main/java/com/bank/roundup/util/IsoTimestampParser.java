@@ -0,0 +1,123 @@
+package com.bank.roundup.util;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Fast parser for the fixed width UTC timestamps used by the Bank API (RoundUpConstants.ISO_DATE_TIME_FORMAT),
+ * e.g. 2025-04-24T22:39:09.687Z
+ *
+ * Timestamps in that exact shape are decoded digit by digit without allocating. Anything else - other offsets,
+ * missing or longer fractions - falls back to OffsetDateTime.parse so any valid ISO-8601 offset date time is accepted.
+ */
+public final class IsoTimestampParser {
+
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // length of yyyy-MM-dd'T'HH:mm:ss.SSS'Z'
+    private static final int FIXED_FORMAT_LENGTH = 24;
+
+    // days from 0000-03-01 to 1970-01-01 in the proleptic Gregorian calendar
+    private static final long DAYS_0000_TO_1970 = 719_468L;
+
+    private IsoTimestampParser() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Parses an ISO-8601 offset date time into epoch millis
+     *
+     * @throws java.time.format.DateTimeParseException if the text is not a valid offset date time
+     */
+    public static long toEpochMilli(String text) {
+        long epochMilli = parseFixedFormat(text);
+        if (epochMilli != Long.MIN_VALUE) {
+            return epochMilli;
+        }
+        return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Returns the epoch day of the date as written in the timestamp, i.e. in the timestamp's own offset, which is what
+     * OffsetDateTime.toLocalDate() gives. For UTC timestamps this is derived from the already parsed epoch millis.
+     */
+    public static long toLocalEpochDay(String text, long epochMilli) {
+        if (text.charAt(text.length() - 1) == 'Z') {
+            return Math.floorDiv(epochMilli, MILLIS_PER_DAY);
+        }
+        return OffsetDateTime.parse(text).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * Decodes the fixed width UTC format
+     *
+     * @return epoch millis, or Long.MIN_VALUE if the text is not in the fixed format or holds an out of range field
+     */
+    static long parseFixedFormat(String text) {
+        if (text.length() != FIXED_FORMAT_LENGTH
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(19) != '.'
+                || text.charAt(23) != 'Z') {
+            return Long.MIN_VALUE;
+        }
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        int millis = digits(text, 20, 3);
+
+        if ((year | month | day | hour | minute | second | millis) < 0
+                || year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        long epochDay = epochDay(year, month, day);
+        return epochDay * MILLIS_PER_DAY + hour * 3_600_000L + minute * 60_000L + second * 1_000L + millis;
+    }
+
+    /**
+     * Reads count ASCII digits starting at offset, returning -1 if any character is not a digit
+     */
+    private static int digits(String text, int offset, int count) {
+        int value = 0;
+        for (int i = offset, end = offset + count; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leapYear = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leapYear ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Civil date to epoch day, counting years from March so the leap day falls at the end of the year
+     */
+    private static long epochDay(int year, int month, int day) {
+        int marchYear = month <= 2 ? year - 1 : year;
+        int era = marchYear / 400;
+        int yearOfEra = marchYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - DAYS_0000_TO_1970;
+    }
+}
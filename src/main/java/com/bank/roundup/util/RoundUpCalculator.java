@@ -0,0 +1,65 @@
+package com.bank.roundup.util;
+
+import com.bank.roundup.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Primitive roundup kernel working directly in minor units (pence)
+ *
+ * Replaces the per-transaction BigDecimal arithmetic with integer maths so no objects are allocated per transaction.
+ * The BigDecimal implementation in TransactionService.calculateRoundUpAmount is kept as the reference oracle for this class
+ */
+public final class RoundUpCalculator {
+
+    private RoundUpCalculator() {
+        // Utility class - prevent instantiation
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Calculates the roundup for a single amount, i.e. the pence needed to reach the next whole pound
+     * floorMod keeps negative amounts consistent with the CEILING rounding used by the BigDecimal implementation
+     */
+    public static int roundUpPence(int minorUnits) {
+        return (RoundUpConstants.PENCE_PER_POUND - Math.floorMod(minorUnits, RoundUpConstants.PENCE_PER_POUND))
+                % RoundUpConstants.PENCE_PER_POUND;
+    }
+
+    /**
+     * Calculates the total roundup in pence for a list of transactions
+     * Each roundup is at most 99p so a long total cannot overflow for any list that fits in memory
+     */
+    public static long totalRoundUpPence(List<Transaction> transactions) {
+        long totalRoundUpPence = 0L;
+
+        for (Transaction transaction : transactions) {
+            totalRoundUpPence += roundUpPence(transaction.getAmount().getMinorUnits());
+        }
+
+        return totalRoundUpPence;
+    }
+
+    /**
+     * Calculates the total roundup in pence over the first size entries of a minor units column
+     */
+    public static long totalRoundUpPence(int[] minorUnits, int size) {
+        long totalRoundUpPence = 0L;
+
+        for (int i = 0; i < size; i++) {
+            totalRoundUpPence += roundUpPence(minorUnits[i]);
+        }
+
+        return totalRoundUpPence;
+    }
+
+    /**
+     * Narrows a pence total to the int used by the savings goal API, failing rather than silently truncating
+     */
+    public static int toTransferPence(long totalRoundUpPence) {
+        if (totalRoundUpPence < 0 || totalRoundUpPence > Integer.MAX_VALUE) {
+            throw new ArithmeticException("Roundup total out of range for a single transfer: " + totalRoundUpPence + "p");
+        }
+        return (int) totalRoundUpPence;
+    }
+}
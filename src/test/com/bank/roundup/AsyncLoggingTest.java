@@ -0,0 +1,144 @@
+package com.bank.roundup;
+
+import com.bank.roundup.logging.AsyncLogWriter;
+import com.bank.roundup.logging.LogBody;
+import com.bank.roundup.logging.LogLevel;
+import com.bank.roundup.logging.RoundUpLogger;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncLoggingTest {
+
+    @Test
+    public void shouldWriteEnabledLinesOnTheWriterThread() {
+        StringWriter out = new StringWriter();
+        try (AsyncLogWriter writer = new AsyncLogWriter(out, LogLevel.INFO, 16)) {
+            RoundUpLogger logger = new RoundUpLogger("TestService", writer);
+
+            logger.debug("Making {} request to: {}", "GET", "http://bank/accounts");
+            logger.info("Fetched {} accounts in {}ms", 3, 12);
+            logger.warn("Retrying {} after attempt {} failed: {}", "GET accounts", 1, "timeout");
+            logger.info("Missing {} and {}", "one");
+            writer.flush();
+
+            String[] lines = out.toString().split("\n");
+            assertEquals(3, lines.length);
+            assertTrue(lines[0], lines[0].endsWith(" INFO  [" + Thread.currentThread().getName() + "] TestService - Fetched 3 accounts in 12ms"));
+            assertTrue(lines[1], lines[1].endsWith("WARN  [" + Thread.currentThread().getName() + "] TestService - Retrying GET accounts after attempt 1 failed: timeout"));
+            assertTrue(lines[2], lines[2].endsWith("Missing one and {}"));
+            assertFalse(logger.isDebugEnabled());
+            assertEquals(3, writer.getWrittenCount());
+        }
+    }
+
+    @Test
+    public void shouldDropLinesRatherThanBlockWhenTheQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StringWriter lines = new StringWriter();
+        Writer slowOut = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lines.write(buffer, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (AsyncLogWriter writer = new AsyncLogWriter(slowOut, LogLevel.DEBUG, 2)) {
+            RoundUpLogger logger = new RoundUpLogger("TestService", writer);
+
+            logger.info("first");
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                logger.info("line {}", i);
+            }
+            assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(1));
+            assertEquals(8, writer.getDroppedCount());
+
+            release.countDown();
+            writer.flush();
+            assertTrue(lines.toString(), lines.toString().contains("8 log lines dropped, queue full"));
+            assertTrue(lines.toString().contains("line 1\n"));
+            assertFalse(lines.toString().contains("line 2\n"));
+        }
+    }
+
+    @Test
+    public void shouldCountWriteFailuresApartFromDroppedLines() {
+        StringWriter lines = new StringWriter();
+        Writer failingOnce = new Writer() {
+            private boolean failed;
+
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                if (!failed) {
+                    failed = true;
+                    throw new IOException("disk full");
+                }
+                lines.write(buffer, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (AsyncLogWriter writer = new AsyncLogWriter(failingOnce, LogLevel.INFO, 16)) {
+            RoundUpLogger logger = new RoundUpLogger("TestService", writer);
+
+            logger.info("lost");
+            writer.flush();
+            logger.info("kept");
+            writer.flush();
+
+            assertEquals(1, writer.getFailedCount());
+            assertEquals(0, writer.getDroppedCount());
+            assertTrue(lines.toString(), lines.toString().contains("1 log lines failed to write"));
+            assertFalse(lines.toString().contains("queue full"));
+            assertTrue(lines.toString().contains("kept\n"));
+        }
+    }
+
+    @Test
+    public void shouldRedactAndTruncateBodies() {
+        String body = "{\"accountUid\": \"bbccbb8f-3ab9-4c1a-8f43-1d3ee7d2f4b1\", \"amount\": {\"currency\": \"GBP\", \"minorUnits\": -1234},"
+                + " \"settled\": true, \"note\": \"say \\\"hi\\\"\", \"tags\": [\"a\", 2.5e3], \"spending\": null}";
+
+        assertEquals("{\"accountUid\": \"***\", \"amount\": {\"currency\": \"***\", \"minorUnits\": ***},"
+                + " \"settled\": true, \"note\": \"***\", \"tags\": [\"***\", ***], \"spending\": null}",
+                new LogBody(body, LogBody.Mode.REDACTED, 1000).toString());
+        assertEquals("{\"accountUid\": \"***\"...(" + body.length() + " chars)",
+                new LogBody(body, LogBody.Mode.REDACTED, 20).toString());
+        assertEquals(body.substring(0, 10) + "...(" + body.length() + " chars)", new LogBody(body, LogBody.Mode.TRUNCATED, 10).toString());
+        assertEquals(body, new LogBody(body, LogBody.Mode.FULL, 10).toString());
+        assertEquals("<21 chars redacted>", new LogBody("Service Unavailable 1", LogBody.Mode.REDACTED, 1000).toString());
+        assertEquals("<21 chars>", new LogBody("Service Unavailable 1", LogBody.Mode.NONE, 1000).toString());
+    }
+}
@@ -0,0 +1,102 @@
+package com.bank.roundup;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.service.AccountServiceInterface;
+import com.bank.roundup.service.SavingsGoalService;
+import com.bank.roundup.service.TransactionService;
+import com.bank.roundup.util.AsyncSupport;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncServiceAdaptersTest {
+
+    private static final String TEST_TOKEN = "API token";
+
+    @Test
+    public void defaultAdapterShouldCompleteWithBlockingResult() throws BankApiException {
+        Account account = new Account();
+        AccountServiceInterface blockingService = () -> Collections.singletonList(account);
+
+        List<Account> accounts = AsyncSupport.join(blockingService.getAccountsForUserAsync());
+
+        assertEquals(1, accounts.size());
+        assertSame(account, accounts.get(0));
+    }
+
+    @Test
+    public void defaultAdapterShouldWrapCheckedExceptionsInBankApiException() {
+        AccountServiceInterface failingService = () -> {
+            throw new JsonParseException(null, "bad json");
+        };
+
+        try {
+            failingService.getAccountsForUserAsync().join();
+            fail("expected CompletionException");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof BankApiException);
+            assertTrue(e.getCause().getCause() instanceof JsonParseException);
+        }
+    }
+
+    @Test
+    public void defaultAdapterShouldPassBankApiExceptionThrough() {
+        BankApiException failure = new BankApiException("API Error: 500");
+        AccountServiceInterface failingService = () -> {
+            throw failure;
+        };
+
+        try {
+            AsyncSupport.join(failingService.getAccountsForUserAsync());
+            fail("expected BankApiException");
+        } catch (BankApiException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void failedFutureShouldFailLikeTheAdapters() {
+        IllegalStateException failure = new IllegalStateException("closed");
+
+        Throwable error = AsyncSupport.<Void>failedFuture(failure).handle((ignored, thrown) -> thrown).join();
+        assertTrue(error instanceof CompletionException);
+        assertTrue(error.getCause() instanceof BankApiException);
+        assertSame(failure, error.getCause().getCause());
+
+        try {
+            AsyncSupport.join(AsyncSupport.failedFuture(failure));
+            fail("expected BankApiException");
+        } catch (BankApiException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void servicesShouldCompleteAsyncCallsWithMockData() throws BankApiException {
+        Account account = new Account();
+        account.setAccountUid(UUID.randomUUID());
+        Currency gbp = Currency.getInstance("GBP");
+
+        assertFalse(AsyncSupport.join(new TransactionService(TEST_TOKEN)
+                .getTransactionsForTimePeriodAsync(LocalDate.now().minusDays(1), LocalDate.now(), account)).isEmpty());
+
+        SavingsGoalService savingsGoalService = new SavingsGoalService(TEST_TOKEN);
+        UUID savingsGoalUid = AsyncSupport.join(savingsGoalService.createSavingsGoalAsync("Holiday", gbp, account));
+        assertNotNull(savingsGoalUid);
+        AsyncSupport.join(savingsGoalService.addSavedMoneyToSavingsGoalAsync(65, gbp, savingsGoalUid, account));
+    }
+}
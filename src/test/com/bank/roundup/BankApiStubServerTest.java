@@ -0,0 +1,134 @@
+package com.bank.roundup;
+
+import com.bank.roundup.config.BankApiConfig;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.http.RetryPolicy;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.service.AccountService;
+import com.bank.roundup.service.SavingsGoalService;
+import com.bank.roundup.service.TransactionService;
+import com.bank.roundup.stub.BankApiStubServer;
+import com.bank.roundup.stub.StubServerConfig;
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BankApiStubServerTest {
+
+    private static final String TEST_TOKEN = "API token";
+    private static final LocalDate START = LocalDate.of(2025, 4, 21);
+    private static final LocalDate END = LocalDate.of(2025, 4, 27);
+
+    private BankApiStubServer stubServer;
+
+    @After
+    public void tearDown() {
+        System.clearProperty(BankApiConfig.BASE_URL_PROPERTY);
+        System.clearProperty(BankApiConfig.USE_MOCK_DATA_PROPERTY);
+        if (stubServer != null) {
+            stubServer.close();
+        }
+    }
+
+    @Test
+    public void shouldServeTheFullRoundUpFlowOverHttp() throws Exception {
+        startStub(new StubServerConfig(0, 0, 0.0, 503, 10, 4));
+
+        List<Account> accounts = new AccountService(TEST_TOKEN).getAccountsForUser();
+        assertEquals(3, accounts.size());
+        Account account = accounts.get(0);
+        assertEquals(Currency.getInstance("GBP"), account.getCurrency());
+
+        List<Transaction> transactions = new TransactionService(TEST_TOKEN).getTransactionsForTimePeriod(START, END, account);
+        assertEquals(7 * 10, transactions.size());
+        for (Transaction transaction : transactions) {
+            assertEquals(TransactionDirection.OUT, transaction.getDirection());
+            assertTrue(transaction.getTransactionEpochDay() >= START.toEpochDay());
+            assertTrue(transaction.getTransactionEpochDay() <= END.toEpochDay());
+        }
+
+        SavingsGoalService savingsGoalService = new SavingsGoalService(TEST_TOKEN);
+        UUID savingsGoalUid = savingsGoalService.createSavingsGoal("Holiday \"fund\"", account.getCurrency(), account);
+        assertNotNull(savingsGoalUid);
+        savingsGoalService.addSavedMoneyToSavingsGoal(123, account.getCurrency(), savingsGoalUid, account);
+
+        assertEquals(4, stubServer.getRequestCount());
+    }
+
+    @Test
+    public void shouldServeOnlyTheRequestedTimeRange() throws Exception {
+        startStub(new StubServerConfig(0, 0, 0.0, 503, 24, 4));
+        Account account = new AccountService(TEST_TOKEN).getAccountsForUser().get(0);
+
+        Instant from = Instant.parse("2025-04-21T12:00:00Z");
+        Instant to = Instant.parse("2025-04-21T18:00:00Z");
+        List<Transaction> transactions = new TransactionService(TEST_TOKEN).getTransactionsBetweenAsync(from, to, account).join();
+
+        assertTrue(transactions.size() > 0);
+        for (Transaction transaction : transactions) {
+            assertTrue(transaction.getTransactionEpochMilli() >= from.toEpochMilli());
+            assertTrue(transaction.getTransactionEpochMilli() < to.toEpochMilli());
+        }
+    }
+
+    @Test
+    public void shouldRejectMalformedRequestsWithBadRequest() throws Exception {
+        startStub(new StubServerConfig(0, 0, 0.0, 503, 10, 4));
+        HttpClient client = HttpClient.newHttpClient();
+        String accountUrl = stubServer.getBaseUrl() + "accounts/" + UUID.randomUUID();
+
+        HttpResponse<String> badBody = client.send(HttpRequest.newBuilder(URI.create(accountUrl + "/savings-goals"))
+                .PUT(HttpRequest.BodyPublishers.ofString("{not json")).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, badBody.statusCode());
+
+        HttpResponse<String> badTimestamp = client.send(HttpRequest.newBuilder(URI.create(accountUrl
+                + "/categories/" + UUID.randomUUID() + "/transactions?minTransactionTimestamp=yesterday"
+                + "&maxTransactionTimestamp=today")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, badTimestamp.statusCode());
+
+        HttpResponse<String> badUid = client.send(HttpRequest.newBuilder(URI.create(stubServer.getBaseUrl()
+                + "accounts/not-a-uid/categories/" + UUID.randomUUID() + "/transactions?minTransactionTimestamp="
+                + "2025-04-21T00:00:00.000Z&maxTransactionTimestamp=2025-04-22T00:00:00.000Z")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, badUid.statusCode());
+    }
+
+    @Test
+    public void shouldInjectConfiguredErrorsAndLatency() throws Exception {
+        startStub(new StubServerConfig(50, 0, 1.0, 503, 0, 4));
+
+        long startNanos = System.nanoTime();
+        try {
+            new AccountService(TEST_TOKEN).getAccountsForUser();
+            fail("expected BankApiException");
+        } catch (BankApiException e) {
+            assertTrue(e.getMessage().startsWith("API Error: 503"));
+        }
+
+        assertTrue(System.nanoTime() - startNanos >= 50_000_000L);
+        // 503 is transient, so the shared transport retried it up to its default attempts
+        assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS, stubServer.getInjectedErrorCount());
+    }
+
+    private void startStub(StubServerConfig config) throws Exception {
+        stubServer = new BankApiStubServer(0, config);
+        System.setProperty(BankApiConfig.BASE_URL_PROPERTY, stubServer.getBaseUrl());
+        System.setProperty(BankApiConfig.USE_MOCK_DATA_PROPERTY, "false");
+    }
+}
@@ -0,0 +1,137 @@
+package com.bank.roundup;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.http.HttpTransportConfig;
+import com.bank.roundup.service.BankAbstractApiService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BankHttpTransportTest {
+
+    private HttpServer server;
+    private TestableApiService service;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile String lastPutBody;
+
+    static class TestableApiService extends BankAbstractApiService {
+
+        private final String baseUrl;
+
+        TestableApiService(String authToken, BankHttpTransport transport, String baseUrl) {
+            super(authToken, transport);
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        protected String buildFullUrl(String urlPath) {
+            return baseUrl + urlPath;
+        }
+
+        String get(String urlPath) throws BankApiException {
+            return sendGetRequest(urlPath);
+        }
+
+        String put(String urlPath, String body) throws BankApiException {
+            return sendPutRequest(urlPath, body);
+        }
+
+        String create(String urlPath, String body) throws BankApiException {
+            return sendPutRequest(urlPath, body.getBytes(StandardCharsets.UTF_8), false);
+        }
+
+        String getAsync(String urlPath) {
+            return sendGetRequestAsync(urlPath).join();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/accounts", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            respond(exchange, 200, "{\"auth\":\"" + auth + "\"}");
+        });
+        server.createContext("/goal", exchange -> {
+            lastPutBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            respond(exchange, 201, "{\"savingsGoalUid\":\"ok\"}");
+        });
+        server.createContext("/missing", exchange -> respond(exchange, 404, "{\"error\":\"not found\"}"));
+        server.start();
+
+        HttpTransportConfig config = new HttpTransportConfig(Duration.ofSeconds(2), Duration.ofSeconds(5), HttpClient.Version.HTTP_1_1);
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        service = new TestableApiService("token-1", new BankHttpTransport(config), baseUrl);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldSendGetWithAuthHeader() throws BankApiException {
+        assertEquals("{\"auth\":\"Bearer token-1\"}", service.get("accounts"));
+    }
+
+    @Test
+    public void shouldSendPutBody() throws BankApiException {
+        assertEquals("{\"savingsGoalUid\":\"ok\"}", service.put("goal", "{\"name\":\"Holiday\"}"));
+        assertEquals("{\"name\":\"Holiday\"}", lastPutBody);
+    }
+
+    @Test
+    public void shouldReuseKeepAliveConnectionAcrossCalls() throws BankApiException {
+        for (int i = 0; i < 20; i++) {
+            service.get("accounts");
+        }
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void shouldRaiseBankApiExceptionForErrorStatus() {
+        try {
+            service.get("missing");
+            fail("expected BankApiException");
+        } catch (BankApiException e) {
+            assertTrue(e.getMessage().startsWith("API Error: 404"));
+        }
+    }
+
+    @Test
+    public void shouldCompleteAsyncWithBankApiException() {
+        try {
+            service.getAsync("missing");
+            fail("expected CompletionException");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof BankApiException);
+        }
+        assertEquals("{\"auth\":\"Bearer token-1\"}", service.getAsync("accounts"));
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.bank.roundup;
+
+import com.bank.roundup.exception.CircuitBreakerOpenException;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.http.CircuitBreaker;
+import com.bank.roundup.http.ConcurrencyLimiter;
+import com.bank.roundup.http.HttpTransportConfig;
+import com.bank.roundup.http.RateLimiter;
+import com.bank.roundup.http.RetryPolicy;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerTest {
+
+    private static final String ENDPOINT = "GET accounts";
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+
+    @Test
+    public void shouldOpenOnFailuresAndCloseAfterSuccessfulProbes() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofSeconds(1), 1.0, Duration.ofMillis(50), 2);
+
+        breaker.acquire(ENDPOINT).onResponse(200, FAST);
+        breaker.acquire(ENDPOINT).onResponse(404, FAST);
+        breaker.acquire(ENDPOINT).onResponse(503, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+        breaker.acquire(ENDPOINT).onFailure(new ConnectException("refused"), FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+
+        assertRejected(breaker);
+        Thread.sleep(60);
+
+        // two probes are let through, a third is refused while they are in flight
+        CircuitBreaker.Call first = breaker.acquire(ENDPOINT);
+        CircuitBreaker.Call second = breaker.acquire(ENDPOINT);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ENDPOINT));
+        assertRejected(breaker);
+
+        first.onResponse(200, FAST);
+        second.onResponse(201, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+        assertEquals(1, breaker.getOpenedCount());
+        assertEquals(2, breaker.getRejectedCount());
+    }
+
+    @Test
+    public void shouldOpenOnSlowCallsAndReopenWhenAProbeFails() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(5, 3, 1.0, Duration.ofMillis(100), 0.6, Duration.ofMillis(20), 1);
+        long slow = Duration.ofMillis(200).toNanos();
+
+        breaker.acquire(ENDPOINT).onResponse(200, slow);
+        breaker.acquire(ENDPOINT).onResponse(200, FAST);
+        breaker.acquire(ENDPOINT).onResponse(200, slow);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+
+        Thread.sleep(30);
+        breaker.acquire(ENDPOINT).onResponse(500, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+        assertEquals(2, breaker.getOpenedCount());
+
+        // a probe that ends without an outcome gives its slot back
+        Thread.sleep(30);
+        breaker.acquire(ENDPOINT).cancel();
+        breaker.acquire(ENDPOINT).onResponse(200, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    public void shouldFailFastWithoutCallingTheApiWhileOpen() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/accounts", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "{\"error\":\"down\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(503, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        try {
+            CircuitBreaker breaker = new CircuitBreaker(10, 3, 0.5, Duration.ofSeconds(5), 1.0, Duration.ofMinutes(1), 1);
+            HttpTransportConfig config = new HttpTransportConfig(Duration.ofSeconds(2), Duration.ofSeconds(5), HttpClient.Version.HTTP_1_1);
+            BankHttpTransport transport = new BankHttpTransport(config, new RetryPolicy(5, Duration.ZERO, Duration.ZERO, 1.0, 10),
+                    breaker, RateLimiter.unlimited(), ConcurrencyLimiter.unlimited());
+            BankHttpTransportTest.TestableApiService service = new BankHttpTransportTest.TestableApiService(
+                    "token-1", transport, "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+            // the third 503 opens the breaker, and the remaining retries fail fast
+            try {
+                service.get("accounts");
+                fail("expected CircuitBreakerOpenException");
+            } catch (CircuitBreakerOpenException e) {
+                assertEquals(ENDPOINT, e.getEndpoint());
+            }
+            try {
+                service.getAsync("accounts");
+                fail("expected CircuitBreakerOpenException");
+            } catch (Exception e) {
+                assertTrue(e.getCause() instanceof CircuitBreakerOpenException);
+            }
+
+            assertEquals(3, requests.get());
+            assertEquals(CircuitBreaker.State.OPEN, transport.getCircuitBreaker().getStates().get(ENDPOINT));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void assertRejected(CircuitBreaker breaker) {
+        try {
+            breaker.acquire(ENDPOINT);
+            fail("expected CircuitBreakerOpenException");
+        } catch (CircuitBreakerOpenException e) {
+            assertTrue(e.getMessage().startsWith("Circuit open for " + ENDPOINT));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.bank.roundup;
+
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.service.IncrementalTransactionService;
+import com.bank.roundup.service.TransactionFeedStore;
+import com.bank.roundup.service.TransactionServiceInterface;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalTransactionServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-05-01T12:00:00Z");
+    private static final Duration OVERLAP = Duration.ofMinutes(10);
+
+    private final Account account = account();
+    private final FakeFeed feed = new FakeFeed();
+    private final TransactionFeedStore store = new TransactionFeedStore();
+    private final IncrementalTransactionService service =
+            new IncrementalTransactionService(feed, store, OVERLAP, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    public void shouldOnlyFetchItemsNewerThanTheWatermark() throws Exception {
+        List<Transaction> firstWeek = service.getTransactionsForTimePeriod(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 7), account);
+        List<Transaction> overlapping = service.getTransactionsForTimePeriod(LocalDate.of(2025, 4, 4), LocalDate.of(2025, 4, 10), account);
+
+        assertEquals(7 * 24, firstWeek.size());
+        assertEquals(uids(feed.between(day(4), day(11))), uids(overlapping));
+        assertEquals(2, feed.requests.size());
+        assertEquals(day(8).minus(OVERLAP), feed.requests.get(1)[0]);
+        assertEquals(day(11), feed.requests.get(1)[1]);
+        assertEquals(day(11), store.feed(account).getWatermark());
+    }
+
+    @Test
+    public void shouldAnswerWindowsInsideTheSyncedRangeWithoutFetching() throws Exception {
+        service.getTransactionsForTimePeriod(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30), account);
+        List<Transaction> inside = service.getTransactionsForTimePeriod(LocalDate.of(2025, 4, 10), LocalDate.of(2025, 4, 12), account);
+        List<Transaction> backfilled = service.getTransactionsForTimePeriod(LocalDate.of(2025, 3, 30), LocalDate.of(2025, 4, 2), account);
+
+        assertEquals(3 * 24, inside.size());
+        assertEquals(uids(feed.between(Instant.parse("2025-03-30T00:00:00Z"), day(3))), uids(backfilled));
+        assertEquals(2, feed.requests.size());
+        assertEquals(Instant.parse("2025-03-30T00:00:00Z"), feed.requests.get(1)[0]);
+        assertEquals(day(1), feed.requests.get(1)[1]);
+    }
+
+    @Test
+    public void shouldNotMoveTheWatermarkPastNowAndPickUpLatePostedItems() throws Exception {
+        Instant from = NOW.minus(Duration.ofDays(1));
+        Instant to = NOW.plus(Duration.ofDays(1));
+        service.getTransactionsBetweenAsync(from, to, account).get();
+        assertEquals(NOW, store.feed(account).getWatermark());
+
+        // posted after the first sync with a time just before it
+        feed.late.add(FakeFeed.transaction(NOW.minus(Duration.ofMinutes(5))));
+        List<Transaction> again = service.getTransactionsBetweenAsync(from, to, account).get();
+
+        assertEquals(25, again.size());
+        assertTrue(uids(again).contains(feed.late.get(0).getFeedItemUid()));
+        assertEquals(NOW.minus(OVERLAP), feed.requests.get(1)[0]);
+    }
+
+    @Test
+    public void shouldNotMarkTheGapBetweenRacingFirstSyncsAsSynced() throws Exception {
+        feed.deferred = true;
+        CompletableFuture<List<Transaction>> firstWeek = service.getTransactionsBetweenAsync(day(1), day(8), account);
+        CompletableFuture<List<Transaction>> lateApril = service.getTransactionsBetweenAsync(day(20), day(26), account);
+        feed.completeDeferred();
+
+        assertEquals(7 * 24, firstWeek.get().size());
+        assertEquals(6 * 24, lateApril.get().size());
+        assertEquals(day(8), store.feed(account).getWatermark());
+
+        feed.deferred = false;
+        List<Transaction> gap = service.getTransactionsBetweenAsync(day(10), day(12), account).get();
+        assertEquals(uids(feed.between(day(10), day(12))), uids(gap));
+        assertEquals(day(8).minus(OVERLAP), feed.requests.get(2)[0]);
+    }
+
+    private static Instant day(int dayOfApril) {
+        return LocalDate.of(2025, 4, 1).plusDays(dayOfApril - 1L).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static List<String> uids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getFeedItemUid).collect(Collectors.toList());
+    }
+
+    private static Account account() {
+        Account account = new Account();
+        account.setAccountUid(UUID.randomUUID());
+        account.setDefaultCategory(UUID.randomUUID());
+        return account;
+    }
+
+    /**
+     * One item on every hour up to NOW, plus any late posted items, recording the ranges requested
+     */
+    private static class FakeFeed implements TransactionServiceInterface {
+
+        private final List<Instant[]> requests = new ArrayList<>();
+        private final List<Transaction> late = new ArrayList<>();
+        private final List<Runnable> pending = new ArrayList<>();
+        private boolean deferred;
+
+        @Override
+        public CompletableFuture<List<Transaction>> getTransactionsBetweenAsync(Instant from, Instant to, Account account) {
+            requests.add(new Instant[] {from, to});
+            if (!deferred) {
+                return CompletableFuture.completedFuture(between(from, to));
+            }
+            CompletableFuture<List<Transaction>> response = new CompletableFuture<>();
+            pending.add(() -> response.complete(between(from, to)));
+            return response;
+        }
+
+        /**
+         * Completes the deferred requests in the order they were made
+         */
+        void completeDeferred() {
+            pending.forEach(Runnable::run);
+            pending.clear();
+        }
+
+        List<Transaction> between(Instant from, Instant to) {
+            List<Transaction> transactions = new ArrayList<>();
+            Instant end = to.isAfter(NOW) ? NOW : to;
+            Instant firstHour = from.truncatedTo(ChronoUnit.HOURS);
+            if (firstHour.isBefore(from)) {
+                firstHour = firstHour.plus(Duration.ofHours(1));
+            }
+            for (Instant time = firstHour; time.isBefore(end); time = time.plus(Duration.ofHours(1))) {
+                transactions.add(transaction(time));
+            }
+            for (Transaction transaction : late) {
+                long time = transaction.getTransactionEpochMilli();
+                if (time >= from.toEpochMilli() && time < to.toEpochMilli()) {
+                    transactions.add(transaction);
+                }
+            }
+            return transactions;
+        }
+
+        static Transaction transaction(Instant time) {
+            Transaction transaction = new Transaction();
+            transaction.setFeedItemUid(UUID.nameUUIDFromBytes(time.toString().getBytes()).toString());
+            transaction.setDirection(TransactionDirection.OUT);
+            transaction.setTransactionTime(time.toString());
+            Transaction.Amount amount = new Transaction.Amount();
+            amount.setCurrency("GBP");
+            amount.setMinorUnits(250);
+            transaction.setAmount(amount);
+            return transaction;
+        }
+
+        @Override
+        public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) {
+            throw new UnsupportedOperationException("whole window fetch should not be used");
+        }
+
+        @Override
+        public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
+            return BigDecimal.ZERO;
+        }
+
+        @Override
+        public long calculateRoundUpPence(List<Transaction> transactions) {
+            return RoundUpCalculator.totalRoundUpPence(transactions);
+        }
+    }
+}
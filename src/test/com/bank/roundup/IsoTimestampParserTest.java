@@ -0,0 +1,77 @@
+package com.bank.roundup;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.util.IsoTimestampParser;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+public class IsoTimestampParserTest {
+
+    private static final DateTimeFormatter FIXED_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    @Test
+    public void fixedFormatAgreesWithOffsetDateTimeForRandomInstants() {
+        SplittableRandom random = new SplittableRandom(42L);
+        long min = Instant.parse("0001-01-01T00:00:00Z").toEpochMilli();
+        long max = Instant.parse("9999-12-31T23:59:59.999Z").toEpochMilli();
+
+        for (int i = 0; i < 200_000; i++) {
+            long epochMilli = random.nextLong(min, max);
+            String text = FIXED_FORMAT.format(Instant.ofEpochMilli(epochMilli));
+
+            assertEquals(text, OffsetDateTime.parse(text).toInstant().toEpochMilli(), IsoTimestampParser.toEpochMilli(text));
+            assertEquals(text, Math.floorDiv(epochMilli, IsoTimestampParser.MILLIS_PER_DAY),
+                    IsoTimestampParser.toLocalEpochDay(text, epochMilli));
+        }
+    }
+
+    @Test
+    public void shouldHandleLeapDaysAndMonthEnds() {
+        assertEquals(Instant.parse("2024-02-29T23:59:59.999Z").toEpochMilli(), IsoTimestampParser.toEpochMilli("2024-02-29T23:59:59.999Z"));
+        assertEquals(Instant.parse("2000-03-01T00:00:00.000Z").toEpochMilli(), IsoTimestampParser.toEpochMilli("2000-03-01T00:00:00.000Z"));
+        assertEquals(Instant.parse("1969-12-31T23:59:59.999Z").toEpochMilli(), IsoTimestampParser.toEpochMilli("1969-12-31T23:59:59.999Z"));
+    }
+
+    @Test
+    public void shouldFallBackForOtherIsoShapes() {
+        String withOffset = "2025-04-24T23:30:00.000+02:00";
+        long epochMilli = IsoTimestampParser.toEpochMilli(withOffset);
+
+        assertEquals(OffsetDateTime.parse(withOffset).toInstant().toEpochMilli(), epochMilli);
+        assertEquals(LocalDate.of(2025, 4, 24).toEpochDay(), IsoTimestampParser.toLocalEpochDay(withOffset, epochMilli));
+        assertEquals(Instant.parse("2025-04-24T22:39:09Z").toEpochMilli(), IsoTimestampParser.toEpochMilli("2025-04-24T22:39:09Z"));
+        assertEquals(Instant.parse("2025-04-24T22:39:09.123456Z").toEpochMilli(), IsoTimestampParser.toEpochMilli("2025-04-24T22:39:09.123456Z"));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void shouldRejectOutOfRangeFieldsInFixedFormat() {
+        IsoTimestampParser.toEpochMilli("2025-02-30T10:00:00.000Z");
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void shouldRejectNonDigitsInFixedFormat() {
+        IsoTimestampParser.toEpochMilli("2025-0A-10T10:00:00.000Z");
+    }
+
+    @Test
+    public void transactionShouldCarryParsedEpochValues() {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionTime("2025-04-24T22:39:09.687Z");
+
+        assertEquals(Instant.parse("2025-04-24T22:39:09.687Z").toEpochMilli(), transaction.getTransactionEpochMilli());
+        assertEquals(LocalDate.of(2025, 4, 24), transaction.convertStringTransactionTimeToLocalDate());
+
+        transaction.setTransactionTime(null);
+        assertEquals(Transaction.NO_TIME, transaction.getTransactionEpochDay());
+    }
+}
@@ -0,0 +1,73 @@
+package com.bank.roundup;
+
+import com.bank.roundup.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldReportPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(42L);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // 10us to 1s, spread over several powers of two
+            values[i] = 10_000L + (long) (Math.pow(random.nextDouble(), 4) * 1_000_000_000L);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[] {50.0, 90.0, 99.0, 99.9, 100.0}) {
+            long exact = values[(int) Math.ceil(percentile / 100.0 * values.length) - 1];
+            long reported = histogram.getPercentileNanos(percentile);
+            assertTrue("p" + percentile + " under-reported: " + reported + " < " + exact, reported >= exact);
+            assertTrue("p" + percentile + " too far out: " + reported + " vs " + exact, reported <= exact + exact / 64 + 1);
+        }
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMaxNanos());
+    }
+
+    @Test
+    public void shouldBeExactForSmallValuesAndEmptyHistograms() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getPercentileNanos(99.0));
+
+        IntStream.rangeClosed(1, 100).forEach(histogram::record);
+        assertEquals(50L, histogram.getPercentileNanos(50.0));
+        assertEquals(99L, histogram.getPercentileNanos(99.0));
+        assertEquals(50.5, histogram.getMeanNanos(), 0.0001);
+    }
+
+    @Test
+    public void shouldCountConcurrentRecordings() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i * 1_000L);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(Long.MAX_VALUE, histogramWithMax().getPercentileNanos(100.0));
+    }
+
+    private static LatencyHistogram histogramWithMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        return histogram;
+    }
+}
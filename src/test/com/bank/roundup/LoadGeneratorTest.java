@@ -0,0 +1,70 @@
+package com.bank.roundup;
+
+import com.bank.roundup.config.BankApiConfig;
+import com.bank.roundup.loadtest.LoadGenerator;
+import com.bank.roundup.loadtest.LoadTestConfig;
+import com.bank.roundup.loadtest.LoadTestReport;
+import com.bank.roundup.logging.AsyncLogWriter;
+import com.bank.roundup.logging.LogLevel;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LoadGeneratorTest {
+
+    @Test
+    public void shouldMeasureEveryStageInProcess() throws Exception {
+        LoadTestConfig config = new LoadTestConfig(LoadTestConfig.Mode.IN_PROCESS, 50, 20, 7, 4,
+                Duration.ofMillis(200), Duration.ofSeconds(3), null);
+
+        LogLevel level = AsyncLogWriter.getDefaultInstance().getLevel();
+        LoadTestReport report = new LoadGenerator(config, true).run();
+
+        assertEquals(level, AsyncLogWriter.getDefaultInstance().getLevel());
+        assertTrue(report.getRuns() > 0);
+        assertTrue(report.getRunsPerSecond() > 0.0);
+        assertEquals(0, report.getFailures(LoadTestReport.Stage.RUN));
+        for (LoadTestReport.Stage stage : LoadTestReport.Stage.values()) {
+            assertTrue(stage + " not recorded", report.getHistogram(stage).getCount() > 0);
+        }
+        assertNull(System.getProperty(BankApiConfig.USE_MOCK_DATA_PROPERTY));
+    }
+
+    @Test
+    public void shouldDriveTheHttpPathAgainstALocalStub() throws Exception {
+        LoadTestConfig config = new LoadTestConfig(LoadTestConfig.Mode.HTTP, 10, 5, 7, 2,
+                Duration.ZERO, Duration.ofSeconds(3), null);
+
+        // the run must use its own stub rather than the process wide settings
+        String unreachableBaseUrl = "http://127.0.0.1:1/";
+        System.setProperty(BankApiConfig.BASE_URL_PROPERTY, unreachableBaseUrl);
+        LoadTestReport report;
+        try {
+            report = new LoadGenerator(config, true).run();
+            assertEquals(unreachableBaseUrl, System.getProperty(BankApiConfig.BASE_URL_PROPERTY));
+        } finally {
+            System.clearProperty(BankApiConfig.BASE_URL_PROPERTY);
+        }
+
+        assertTrue(report.getRuns() > 0);
+        assertEquals(0, report.getFailures(LoadTestReport.Stage.RUN));
+        assertTrue(report.getHistogram(LoadTestReport.Stage.TRANSFER).getCount() > 0);
+        assertNull(System.getProperty(BankApiConfig.USE_MOCK_DATA_PROPERTY));
+    }
+
+    @Test
+    public void shouldDriveTheCachedServicesAgainstALocalStub() throws Exception {
+        LoadTestConfig config = new LoadTestConfig(LoadTestConfig.Mode.HTTP, 10, 5, 7, 2,
+                Duration.ZERO, Duration.ofSeconds(3), null, true);
+
+        LoadTestReport report = new LoadGenerator(config, true).run();
+
+        assertTrue(report.getRuns() > 0);
+        assertEquals(0, report.getFailures(LoadTestReport.Stage.RUN));
+        assertTrue(report.getHistogram(LoadTestReport.Stage.TRANSFER).getCount() > 0);
+    }
+}
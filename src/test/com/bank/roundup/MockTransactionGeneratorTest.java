@@ -0,0 +1,125 @@
+package com.bank.roundup;
+
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.MockTransactionGenerator;
+import com.bank.roundup.service.TransactionFeedReader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MockTransactionGeneratorTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 3, 31);
+
+    private final MockTransactionGenerator generator = new MockTransactionGenerator(42L);
+
+    @Test
+    public void shouldGenerateTheSameDataForTheSameSeed() {
+        Account account = generator.account(7);
+
+        List<String> first = keys(generator.stream(START, END, account, false).collect(Collectors.toList()));
+        List<String> second = keys(new MockTransactionGenerator(42L).stream(START, END, generator.account(7), false)
+                .collect(Collectors.toList()));
+        List<String> otherSeed = keys(new MockTransactionGenerator(43L).stream(START, END, account, false)
+                .collect(Collectors.toList()));
+
+        assertEquals(first, second);
+        assertNotEquals(first, otherSeed);
+        assertNotEquals(generator.account(7).getAccountUid(), generator.account(8).getAccountUid());
+    }
+
+    @Test
+    public void shouldGenerateAnyDayIndependentlyOfTheRangeAroundIt() {
+        Account account = generator.account(1);
+        LocalDate day = LocalDate.of(2025, 2, 14);
+
+        List<String> wholeRange = keys(generator.stream(START, END, account, false)
+                .filter(transaction -> transaction.convertStringTransactionTimeToLocalDate().equals(day))
+                .collect(Collectors.toList()));
+        List<String> singleDay = keys(generator.stream(day, day, account, false).collect(Collectors.toList()));
+
+        assertFalse(singleDay.isEmpty());
+        assertEquals(singleDay, wholeRange);
+    }
+
+    @Test
+    public void shouldKeepEncounterOrderInParallelStreams() {
+        Account account = generator.account(3);
+
+        List<String> sequential = keys(generator.stream(START, END, account, false).collect(Collectors.toList()));
+        List<String> parallel = keys(generator.stream(START, END, account, true).collect(Collectors.toList()));
+
+        assertEquals(sequential, parallel);
+        long days = END.toEpochDay() - START.toEpochDay() + 1;
+        assertTrue(sequential.size() >= days * 2 && sequential.size() <= days * 5);
+    }
+
+    @Test
+    public void shouldProduceTheSameDataFromManyThreads() throws Exception {
+        Account account = generator.account(11);
+        List<String> expected = keys(generator.stream(START, END, account, false).collect(Collectors.toList()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<List<String>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> {
+                    List<Transaction> transactions = new ArrayList<>();
+                    generator.iterator(START, END, account).forEachRemaining(transactions::add);
+                    return keys(transactions);
+                });
+            }
+            for (Future<List<String>> result : executor.invokeAll(tasks)) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldStreamAFeedTheFeedReaderCanParse() throws IOException {
+        MockTransactionGenerator fixedVolume = new MockTransactionGenerator(42L, 50);
+        Account account = fixedVolume.account(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int written = fixedVolume.writeFeed(out, START, END, account, transaction -> true);
+
+        List<Transaction> parsed = new ArrayList<>();
+        new TransactionFeedReader().readFeedItems(new ByteArrayInputStream(out.toByteArray()), transaction -> true, parsed::add);
+
+        long days = END.toEpochDay() - START.toEpochDay() + 1;
+        assertEquals(days * 50, written);
+        Iterator<Transaction> expected = fixedVolume.iterator(START, END, account);
+        for (Transaction transaction : parsed) {
+            assertEquals(key(expected.next()), key(transaction));
+        }
+        assertFalse(expected.hasNext());
+    }
+
+    private static List<String> keys(List<Transaction> transactions) {
+        return transactions.stream().map(MockTransactionGeneratorTest::key).collect(Collectors.toList());
+    }
+
+    private static String key(Transaction transaction) {
+        return transaction.getFeedItemUid() + "|" + transaction.getTransactionTime() + "|" + transaction.getAmount().getMinorUnits();
+    }
+}
@@ -0,0 +1,141 @@
+package com.bank.roundup;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.http.ConcurrencyLimiter;
+import com.bank.roundup.http.HttpTransportConfig;
+import com.bank.roundup.http.RateLimiter;
+import com.bank.roundup.http.RetryPolicy;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OutboundLimitsTest {
+
+    @Test
+    public void shouldSpaceRequestsOnceATokensBurstIsUsed() {
+        RateLimiter limiter = new RateLimiter(0, 1, 10.0, 2);
+
+        assertEquals(Duration.ZERO, limiter.reserve("GET accounts", "token-1"));
+        assertEquals(Duration.ZERO, limiter.reserve("GET accounts", "token-1"));
+        Duration third = limiter.reserve("GET accounts", "token-1");
+        Duration fourth = limiter.reserve("GET accounts", "token-1");
+
+        // 10 per second, so each queued request waits about 100ms longer than the one before
+        assertTrue("third: " + third, third.toMillis() > 80 && third.toMillis() <= 100);
+        assertTrue("fourth: " + fourth, fourth.minus(third).toMillis() > 80);
+        assertEquals(Duration.ZERO, limiter.reserve("GET accounts", "token-2"));
+        assertEquals(2, limiter.getDelayedCount());
+    }
+
+    @Test
+    public void shouldQueueBeyondTheLimitAndAdjustItToResponses() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10, 0.5, Double.MAX_VALUE);
+
+        ConcurrencyLimiter.Permit first = limiter.acquire("GET accounts");
+        ConcurrencyLimiter.Permit second = limiter.acquire("GET accounts");
+        CompletableFuture<ConcurrencyLimiter.Permit> third = limiter.acquireAsync("GET accounts");
+        assertFalse(third.isDone());
+        assertEquals(1, limiter.getWaiting());
+
+        Thread.sleep(2);
+        first.onResponse(200);
+        // releasing twice has no effect
+        first.onResponse(200);
+        assertTrue(third.isDone());
+        assertEquals(2, limiter.getInFlight());
+
+        // a 429 halves the limit, but the permits already out are not revoked
+        Thread.sleep(2);
+        second.onResponse(429);
+        assertEquals(1, limiter.getLimit());
+        assertEquals(1, limiter.getOverloadCount());
+
+        // healthy responses at the limit grow it again
+        third.join().onResponse(200);
+        for (int i = 0; i < 10; i++) {
+            ConcurrencyLimiter.Permit permit = limiter.acquire("GET accounts");
+            Thread.sleep(1);
+            permit.onResponse(200);
+        }
+        assertTrue("limit: " + limiter.getLimit(), limiter.getLimit() >= 2);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void shouldCompareEachEndpointsLatencyWithItsOwnBaseline() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 10, 0.5, 2.0);
+
+        // feed GETs are routinely ten times slower than accounts GETs, which is not overload
+        for (int i = 0; i < 5; i++) {
+            ConcurrencyLimiter.Permit accounts = limiter.acquire("GET accounts");
+            Thread.sleep(5);
+            accounts.onResponse(200);
+            ConcurrencyLimiter.Permit feed = limiter.acquire("GET feed");
+            Thread.sleep(50);
+            feed.onResponse(200);
+        }
+        assertEquals(0, limiter.getOverloadCount());
+        assertEquals(10, limiter.getLimit());
+
+        // but a feed GET slowing down against earlier feed GETs is
+        for (int i = 0; i < 5; i++) {
+            ConcurrencyLimiter.Permit feed = limiter.acquire("GET feed");
+            Thread.sleep(400);
+            feed.onResponse(200);
+        }
+        assertTrue(limiter.getOverloadCount() > 0);
+        assertTrue("limit: " + limiter.getLimit(), limiter.getLimit() < 10);
+    }
+
+    @Test
+    public void shouldBackOffTheTransportsLimitWhenThrottled() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/accounts", exchange -> {
+            byte[] body = "{\"error\":\"slow down\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(429, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        try {
+            ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(8, 1, 8, 0.5, Double.MAX_VALUE);
+            HttpTransportConfig config = new HttpTransportConfig(Duration.ofSeconds(2), Duration.ofSeconds(5), HttpClient.Version.HTTP_1_1);
+            BankHttpTransport transport = new BankHttpTransport(config, RetryPolicy.none(), RateLimiter.unlimited(), concurrencyLimiter);
+            BankHttpTransportTest.TestableApiService service = new BankHttpTransportTest.TestableApiService(
+                    "token-1", transport, "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+            try {
+                service.get("accounts");
+                fail("expected BankApiException");
+            } catch (BankApiException e) {
+                assertTrue(e.getMessage().startsWith("API Error: 429"));
+            }
+            try {
+                service.getAsync("accounts");
+                fail("expected BankApiException");
+            } catch (Exception e) {
+                assertTrue(e.getCause() instanceof BankApiException);
+            }
+
+            assertEquals(2, concurrencyLimiter.getOverloadCount());
+            assertTrue("limit: " + concurrencyLimiter.getLimit(), concurrencyLimiter.getLimit() <= 4);
+            assertEquals(0, concurrencyLimiter.getInFlight());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bank.roundup;
+
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.http.ConcurrencyLimiter;
+import com.bank.roundup.http.HttpTransportConfig;
+import com.bank.roundup.http.RateLimiter;
+import com.bank.roundup.http.RetryPolicy;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.service.TransactionFeedReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResponseStreamingTest {
+
+    private static final int FEED_ITEMS = 5_000;
+
+    private HttpServer server;
+    private FeedApiService service;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final Set<String> acceptEncodings = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger brokenRequests = new AtomicInteger();
+
+    /**
+     * Test service reading feeds through the streaming path
+     */
+    static class FeedApiService extends BankHttpTransportTest.TestableApiService {
+
+        private final TransactionFeedReader feedReader = new TransactionFeedReader();
+
+        FeedApiService(String authToken, BankHttpTransport transport, String baseUrl) {
+            super(authToken, transport, baseUrl);
+        }
+
+        List<Transaction> getFeed(String urlPath) throws Exception {
+            return sendGetRequest(urlPath, body -> feedReader.readFeedItems(body, transaction -> transaction.getDirection() == TransactionDirection.OUT));
+        }
+
+        Object getFeedRejectedByReader(String urlPath) throws Exception {
+            return sendGetRequest(urlPath, body -> {
+                throw new IllegalStateException("Too many distinct currencies");
+            });
+        }
+
+        List<Transaction> getFeedAsync(String urlPath) {
+            return sendGetRequestAsync(urlPath, body -> feedReader.readFeedItems(body, transaction -> true)).join();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/feed", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            acceptEncodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            respondGzipped(exchange, 200, feed(FEED_ITEMS));
+        });
+        server.createContext("/plain", exchange -> {
+            byte[] body = "{\"name\":\"caf\u00e9\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/broken", exchange -> {
+            brokenRequests.incrementAndGet();
+            respondGzipped(exchange, 200, "{\"feedItems\":[{\"amount\":");
+        });
+        server.createContext("/unavailable", exchange -> respondGzipped(exchange, 503, "{\"error\":\"try later\"}"));
+        server.start();
+
+        HttpTransportConfig config = new HttpTransportConfig(Duration.ofSeconds(2), Duration.ofSeconds(5), HttpClient.Version.HTTP_1_1);
+        BankHttpTransport transport = new BankHttpTransport(config, new RetryPolicy(3, Duration.ZERO, Duration.ZERO, 1.0, 10),
+                RateLimiter.unlimited(), ConcurrencyLimiter.unlimited());
+        service = new FeedApiService("token-1", transport, "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldStreamGzippedFeedsIntoTheReaderAndReuseTheConnection() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FEED_ITEMS / 2, service.getFeed("feed").size());
+        }
+        List<Transaction> all = service.getFeedAsync("feed");
+        assertEquals(FEED_ITEMS, all.size());
+        assertEquals(FEED_ITEMS - 1, (int) all.get(FEED_ITEMS - 1).getAmount().getMinorUnits());
+
+        assertEquals(Set.of("gzip"), acceptEncodings);
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void shouldDecodeUncompressedBodiesAsUtf8() throws Exception {
+        assertEquals("{\"name\":\"caf\u00e9\"}", service.get("plain"));
+        assertEquals("{\"name\":\"caf\u00e9\"}", service.getAsync("plain"));
+    }
+
+    @Test
+    public void shouldFailUnparseableBodiesWithoutRetrying() {
+        try {
+            service.getFeed("broken");
+            fail("expected JsonProcessingException");
+        } catch (Exception e) {
+            assertTrue(e.toString(), e instanceof JsonProcessingException);
+        }
+        assertEquals(1, brokenRequests.get());
+
+        // an error body is still decompressed for the exception
+        try {
+            service.get("unavailable");
+            fail("expected BankApiException");
+        } catch (Exception e) {
+            assertEquals("API Error: 503 - {\"error\":\"try later\"}", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void shouldReleaseTheConcurrencyPermitWhenTheReaderThrows() throws Exception {
+        HttpTransportConfig config = new HttpTransportConfig(Duration.ofSeconds(2), Duration.ofSeconds(5), HttpClient.Version.HTTP_1_1);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0.5, Double.MAX_VALUE);
+        BankHttpTransport transport = new BankHttpTransport(config, new RetryPolicy(3, Duration.ZERO, Duration.ZERO, 1.0, 10),
+                RateLimiter.unlimited(), limiter);
+        FeedApiService limited = new FeedApiService("token-1", transport, "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                limited.getFeedRejectedByReader("feed");
+                fail("expected IllegalStateException");
+            } catch (IllegalStateException e) {
+                assertEquals("Too many distinct currencies", e.getMessage());
+            }
+        }
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(FEED_ITEMS / 2, limited.getFeed("feed").size());
+    }
+
+    private static String feed(int items) {
+        StringBuilder feed = new StringBuilder("{\"feedItems\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                feed.append(',');
+            }
+            feed.append("{\"feedItemUid\":\"e98f805c-98da-450e-98e0-edb24ee77063\",")
+                    .append("\"amount\":{\"currency\":\"GBP\",\"minorUnits\":").append(i).append("},")
+                    .append("\"direction\":\"").append(i % 2 == 0 ? "OUT" : "IN").append("\",")
+                    .append("\"transactionTime\":\"2025-04-24T22:39:09.687Z\"}");
+        }
+        return feed.append("],\"next\":null}").toString();
+    }
+
+    private static void respondGzipped(HttpExchange exchange, int status, String body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(status, 0);
+        try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.bank.roundup;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.exception.BankApiStatusException;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.http.HttpTransportConfig;
+import com.bank.roundup.http.RetryPolicy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryPolicyTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    // responses for the next requests, the last one repeating
+    private volatile int[] statuses = {200};
+    private volatile String retryAfter;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/accounts", exchange -> {
+            int request = requests.getAndIncrement();
+            int status = statuses[Math.min(request, statuses.length - 1)];
+            if (status != 200 && retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            }
+            respond(exchange, status, status == 200 ? "{\"accounts\":[]}" : "{\"error\":\"busy\"}");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldRetryServerErrorsUntilSuccess() throws BankApiException {
+        statuses = new int[] {503, 500, 200};
+        RetryPolicy policy = new RetryPolicy(4, Duration.ofMillis(1), Duration.ofMillis(50), 0.1, 10);
+
+        assertEquals("{\"accounts\":[]}", service(policy).get("accounts"));
+        assertEquals(3, requests.get());
+        assertEquals(2, policy.getRetryCount());
+    }
+
+    @Test
+    public void shouldNotRetryClientErrors() {
+        statuses = new int[] {404};
+        RetryPolicy policy = new RetryPolicy(4, Duration.ofMillis(1), Duration.ofMillis(50), 0.1, 10);
+
+        try {
+            service(policy).get("accounts");
+            fail("expected BankApiStatusException");
+        } catch (BankApiException e) {
+            assertEquals(404, ((BankApiStatusException) e).getStatusCode());
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void shouldWaitForRetryAfterOnTheAsyncPath() {
+        statuses = new int[] {429, 200};
+        retryAfter = "1";
+        RetryPolicy policy = new RetryPolicy(4, Duration.ofMillis(1), Duration.ofSeconds(5), 0.1, 10);
+
+        long startNanos = System.nanoTime();
+        assertEquals("{\"accounts\":[]}", service(policy).getAsync("accounts"));
+
+        assertTrue(System.nanoTime() - startNanos >= Duration.ofMillis(950).toNanos());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldStopRetryingOnceTheEndpointBudgetIsSpent() {
+        statuses = new int[] {503};
+        RetryPolicy policy = new RetryPolicy(4, Duration.ZERO, Duration.ofMillis(10), 0, 2);
+        BankHttpTransportTest.TestableApiService service = service(policy);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                service.get("accounts");
+                fail("expected BankApiException");
+            } catch (BankApiException e) {
+                assertTrue(e.getMessage().startsWith("API Error: 503"));
+            }
+        }
+
+        // first call: one attempt plus the two retries in the budget, second call: no retries left
+        assertEquals(4, requests.get());
+        assertEquals(2, policy.getBudgetExhaustedCount());
+    }
+
+    @Test
+    public void shouldOnlyRetryANonIdempotentRequestThatNeverReachedTheServer() {
+        statuses = new int[] {503, 200};
+        RetryPolicy policy = new RetryPolicy(4, Duration.ZERO, Duration.ofMillis(10), 0.1, 10);
+
+        try {
+            service(policy).create("accounts", "{\"name\":\"Holiday\"}");
+            fail("expected BankApiException");
+        } catch (BankApiException e) {
+            assertEquals(503, ((BankApiStatusException) e).getStatusCode());
+        }
+        assertEquals(1, requests.get());
+
+        assertNotNull(policy.nextDelay("PUT accounts", 1, new BankApiException("Error", new ConnectException("refused")), false));
+        assertNull(policy.nextDelay("PUT accounts", 1, new BankApiException("Error", new IOException("reset")), false));
+        assertNotNull(policy.nextDelay("PUT accounts", 1, new BankApiException("Error", new IOException("reset")), true));
+    }
+
+    @Test
+    public void shouldGroupEndpointsAndParseRetryAfter() {
+        assertEquals("GET accounts/{uid}/savings-goals",
+                RetryPolicy.endpointOf("GET", "accounts/0b6e1c7e-59a4-4e2c-9d3a-7c6f9a2b1e44/savings-goals?x=1"));
+        assertEquals(Duration.ofSeconds(120), RetryPolicy.parseRetryAfter("120"));
+        assertEquals(Duration.ZERO, RetryPolicy.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertNull(RetryPolicy.parseRetryAfter("soon"));
+    }
+
+    private BankHttpTransportTest.TestableApiService service(RetryPolicy policy) {
+        HttpTransportConfig config = new HttpTransportConfig(Duration.ofSeconds(2), Duration.ofSeconds(5), HttpClient.Version.HTTP_1_1);
+        return new BankHttpTransportTest.TestableApiService("token-1", new BankHttpTransport(config, policy), baseUrl);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
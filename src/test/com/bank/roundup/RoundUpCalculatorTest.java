@@ -0,0 +1,111 @@
+package com.bank.roundup;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.TransactionService;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Differential tests for the primitive roundup kernel against the original BigDecimal implementation,
+ * which is kept in TransactionService.calculateRoundUpAmount as the reference oracle.
+ *
+ * The randomized sweep defaults to a size that keeps the normal build fast - for a full run across
+ * hundreds of millions of amounts use e.g. mvn test -Droundup.differential.samples=300000000
+ */
+public class RoundUpCalculatorTest {
+
+    private static final long SEED = 0x5EEDL;
+    private static final int EXHAUSTIVE_RANGE = 1_000_000;
+    private static final long SAMPLES = Long.getLong("roundup.differential.samples", 2_000_000L);
+
+    private final TransactionService oracleService = new TransactionService("API token");
+    private final Transaction oracleTransaction = transactionWithMinorUnits(0);
+    private final List<Transaction> oracleList = Collections.singletonList(oracleTransaction);
+
+    @Test
+    public void roundUpPenceMatchesKnownValues() {
+        assertEquals(0, RoundUpCalculator.roundUpPence(0));
+        assertEquals(0, RoundUpCalculator.roundUpPence(500));
+        assertEquals(57, RoundUpCalculator.roundUpPence(543));
+        assertEquals(5, RoundUpCalculator.roundUpPence(295));
+        assertEquals(1, RoundUpCalculator.roundUpPence(1099));
+        assertEquals(99, RoundUpCalculator.roundUpPence(1));
+    }
+
+    @Test
+    public void roundUpPenceAgreesWithOracleExhaustivelyAroundZero() {
+        for (int minorUnits = -EXHAUSTIVE_RANGE; minorUnits <= EXHAUSTIVE_RANGE; minorUnits++) {
+            assertAgreesWithOracle(minorUnits);
+        }
+    }
+
+    @Test
+    public void roundUpPenceAgreesWithOracleAtIntegerBoundaries() {
+        int[] boundaries = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE, Integer.MAX_VALUE - 1,
+                Integer.MAX_VALUE - 47, Integer.MIN_VALUE + 48};
+
+        for (int minorUnits : boundaries) {
+            assertAgreesWithOracle(minorUnits);
+        }
+    }
+
+    @Test
+    public void roundUpPenceAgreesWithOracleForRandomAmounts() {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        for (long i = 0; i < SAMPLES; i++) {
+            assertAgreesWithOracle(random.nextInt());
+        }
+    }
+
+    @Test
+    public void totalRoundUpPenceAgreesWithOracleForRandomLists() {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        for (int run = 0; run < 1_000; run++) {
+            List<Transaction> transactions = new ArrayList<>();
+            int size = random.nextInt(500);
+            for (int i = 0; i < size; i++) {
+                transactions.add(transactionWithMinorUnits(random.nextInt(-1_000_000, 1_000_000)));
+            }
+
+            long expected = oracleService.calculateRoundUpAmount(transactions).movePointRight(2).longValueExact();
+            assertEquals(expected, RoundUpCalculator.totalRoundUpPence(transactions));
+        }
+    }
+
+    @Test
+    public void toTransferPenceAcceptsIntRange() {
+        assertEquals(0, RoundUpCalculator.toTransferPence(0L));
+        assertEquals(Integer.MAX_VALUE, RoundUpCalculator.toTransferPence(Integer.MAX_VALUE));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void toTransferPenceRejectsOverflowInsteadOfTruncating() {
+        RoundUpCalculator.toTransferPence(Integer.MAX_VALUE + 1L);
+    }
+
+    private void assertAgreesWithOracle(int minorUnits) {
+        oracleTransaction.getAmount().setMinorUnits(minorUnits);
+        long expected = oracleService.calculateRoundUpAmount(oracleList).movePointRight(2).longValueExact();
+
+        if (expected != RoundUpCalculator.roundUpPence(minorUnits)) {
+            assertEquals("roundup for " + minorUnits + " minor units", expected, RoundUpCalculator.roundUpPence(minorUnits));
+        }
+    }
+
+    private static Transaction transactionWithMinorUnits(int minorUnits) {
+        Transaction transaction = new Transaction();
+        Transaction.Amount amount = new Transaction.Amount();
+        amount.setMinorUnits(minorUnits);
+        transaction.setAmount(amount);
+        return transaction;
+    }
+}
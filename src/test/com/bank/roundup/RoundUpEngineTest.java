@@ -0,0 +1,195 @@
+package com.bank.roundup;
+
+import com.bank.roundup.engine.RoundUpEngine;
+import com.bank.roundup.engine.RoundUpJob;
+import com.bank.roundup.engine.RoundUpResult;
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.AccountServiceInterface;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.service.TransactionServiceInterface;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RoundUpEngineTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+    private static final LocalDate START = LocalDate.of(2025, 4, 21);
+    private static final LocalDate END = LocalDate.of(2025, 4, 27);
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final Map<String, Integer> transferredByToken = new ConcurrentHashMap<>();
+
+    @Test
+    public void shouldRunJobsConcurrentlyWithinInFlightLimit() throws Exception {
+        List<RoundUpJob> jobs = IntStream.range(0, 200)
+                .mapToObj(i -> job("token-" + i, "Goal"))
+                .collect(Collectors.toList());
+
+        List<RoundUpResult> results;
+        try (RoundUpEngine engine = new RoundUpEngine(this::fakeServices, 8, 4)) {
+            results = engine.runAll(jobs);
+        }
+
+        assertEquals(200, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            RoundUpResult result = results.get(i);
+            assertEquals(RoundUpResult.Status.TRANSFERRED, result.getStatus());
+            assertEquals(jobs.get(i), result.getJob());
+            assertEquals(57 + 5, result.getRoundUpAmountPence());
+        }
+        assertEquals(200, transferredByToken.size());
+        assertTrue("in flight limit exceeded: " + maxRunning.get(), maxRunning.get() <= 4);
+    }
+
+    @Test
+    public void shouldReportFailuresPerJobWithoutFailingTheRun() throws Exception {
+        List<RoundUpJob> jobs = List.of(job("token-ok", "Goal"), job("token-fail", "Goal"), job("token-ok-2", null));
+        ConcurrentLinkedQueue<RoundUpResult> results = new ConcurrentLinkedQueue<>();
+
+        int count;
+        try (RoundUpEngine engine = new RoundUpEngine(this::fakeServices, 2, 2)) {
+            count = engine.runAll(jobs.iterator(), results::add);
+        }
+
+        assertEquals(3, count);
+        Map<String, RoundUpResult> byToken = results.stream()
+                .collect(Collectors.toMap(result -> result.getJob().getAuthToken(), result -> result));
+
+        assertTrue(byToken.get("token-ok").isSuccessful());
+        assertFalse(byToken.get("token-fail").isSuccessful());
+        assertTrue(byToken.get("token-fail").getFailure() instanceof BankApiException);
+        assertEquals(RoundUpResult.Status.NO_GOAL, byToken.get("token-ok-2").getStatus());
+        assertNull(transferredByToken.get("token-ok-2"));
+    }
+
+    @Test
+    public void shouldUseExistingGoalWithoutCreatingOne() {
+        UUID existingGoal = UUID.randomUUID();
+        RoundUpJob job = new RoundUpJob("token-existing", new Account(), START, END, null, existingGoal, GBP);
+
+        RoundUpResult result = new RoundUpEngine(this::fakeServices, Runnable::run, 1).run(job);
+
+        assertEquals(existingGoal, result.getSavingsGoalUid());
+        assertEquals(Integer.valueOf(62), transferredByToken.get("token-existing"));
+    }
+
+    @Test
+    public void shouldReportTheCalculatedRoundUpBeforeTransferring() {
+        List<RoundUpResult> calculated = new ArrayList<>();
+
+        RoundUpResult result = new RoundUpEngine(this::fakeServices, Runnable::run, 1).run(job("token-listened", "Goal"),
+                roundUp -> {
+                    assertNull("transferred before the roundup was reported", transferredByToken.get("token-listened"));
+                    calculated.add(roundUp);
+                });
+
+        assertEquals(1, calculated.size());
+        assertEquals(RoundUpResult.Status.NO_GOAL, calculated.get(0).getStatus());
+        assertEquals(2, calculated.get(0).getTransactionCount());
+        assertEquals(62, calculated.get(0).getRoundUpAmountPence());
+        assertEquals(RoundUpResult.Status.TRANSFERRED, result.getStatus());
+        assertEquals(Integer.valueOf(62), transferredByToken.get("token-listened"));
+    }
+
+    private RoundUpJob job(String token, String goalName) {
+        return new RoundUpJob(token, new Account(), START, END, goalName, null, GBP);
+    }
+
+    private RoundUpServices fakeServices(String authToken) {
+        return new RoundUpServices(fakeAccountService(), new FakeTransactionService(authToken), new FakeSavingsGoalService(authToken));
+    }
+
+    private AccountServiceInterface fakeAccountService() {
+        return () -> Collections.singletonList(new Account());
+    }
+
+    private class FakeTransactionService implements TransactionServiceInterface {
+
+        private final String authToken;
+
+        FakeTransactionService(String authToken) {
+            this.authToken = authToken;
+        }
+
+        @Override
+        public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) throws BankApiException {
+            int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(1);
+                if (authToken.equals("token-fail")) {
+                    throw new BankApiException("API Error: 503");
+                }
+                List<Transaction> transactions = new ArrayList<>();
+                transactions.add(transaction(543));
+                transactions.add(transaction(295));
+                return transactions;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BankApiException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long calculateRoundUpPence(List<Transaction> transactions) {
+            return RoundUpCalculator.totalRoundUpPence(transactions);
+        }
+    }
+
+    private class FakeSavingsGoalService implements SavingsGoalServiceInterface {
+
+        private final String authToken;
+
+        FakeSavingsGoalService(String authToken) {
+            this.authToken = authToken;
+        }
+
+        @Override
+        public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account) {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) {
+            transferredByToken.put(authToken, roundUpAmountPence);
+        }
+    }
+
+    private static Transaction transaction(int minorUnits) {
+        Transaction transaction = new Transaction();
+        Transaction.Amount amount = new Transaction.Amount();
+        amount.setMinorUnits(minorUnits);
+        transaction.setAmount(amount);
+        return transaction;
+    }
+}
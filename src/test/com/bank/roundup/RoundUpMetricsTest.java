@@ -0,0 +1,138 @@
+package com.bank.roundup;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.http.BankHttpTransport;
+import com.bank.roundup.http.ConcurrencyLimiter;
+import com.bank.roundup.http.HttpTransportConfig;
+import com.bank.roundup.http.RateLimiter;
+import com.bank.roundup.http.RetryPolicy;
+import com.bank.roundup.metrics.PrometheusExporter;
+import com.bank.roundup.metrics.RoundUpMetrics;
+import com.bank.roundup.metrics.RoundUpMetricsInterface;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RoundUpMetricsTest {
+
+    @Test
+    public void shouldTimeStagesAndExportThemAsPrometheusText() throws Exception {
+        RoundUpMetrics metrics = new RoundUpMetrics();
+
+        assertEquals("ok", metrics.time(RoundUpMetrics.Stage.FEED_FETCH, () -> "ok"));
+        try {
+            metrics.time(RoundUpMetrics.Stage.FEED_FETCH, () -> {
+                throw new BankApiException("down");
+            });
+            fail("expected BankApiException");
+        } catch (BankApiException e) {
+            assertEquals("down", e.getMessage());
+        }
+        CompletableFuture<String> failed = metrics.timeAsync(RoundUpMetrics.Stage.TRANSFER,
+                () -> CompletableFuture.failedFuture(new BankApiException("refused")));
+        assertTrue(failed.isCompletedExceptionally());
+        metrics.record(RoundUpMetrics.Stage.JSON_PARSE, 1_500_000L);
+        metrics.recordResponse("GET accounts", 200);
+        metrics.recordResponse("GET accounts", 200);
+        metrics.recordNoResponse("PUT \"quoted\"");
+        metrics.registerGauge("concurrency_limit", "Current limit", () -> 7L);
+
+        assertEquals(2, metrics.getLatency(RoundUpMetrics.Stage.FEED_FETCH).getCount());
+        assertEquals(1, metrics.getFailureCount(RoundUpMetrics.Stage.FEED_FETCH));
+        assertEquals(1, metrics.getFailureCount(RoundUpMetrics.Stage.TRANSFER));
+
+        String text = PrometheusExporter.format(metrics);
+        assertTrue(text, text.contains("# TYPE roundup_stage_latency_seconds summary\n"));
+        assertTrue(text, text.contains("roundup_stage_latency_seconds_count{stage=\"json_parse\"} 1\n"));
+        assertTrue(text, text.contains("roundup_stage_latency_seconds_sum{stage=\"json_parse\"} 0.0015\n"));
+        assertTrue(text, text.contains("roundup_stage_failures_total{stage=\"feed_fetch\"} 1\n"));
+        assertTrue(text, text.contains("roundup_http_responses_total{endpoint=\"GET accounts\",code=\"200\"} 2\n"));
+        assertTrue(text, text.contains("roundup_http_responses_total{endpoint=\"PUT \\\"quoted\\\"\",code=\"0\"} 1\n"));
+        assertTrue(text, text.contains("# TYPE roundup_concurrency_limit gauge\nroundup_concurrency_limit 7\n"));
+    }
+
+    @Test
+    public void shouldExposeMetricsAsAnMXBean() throws Exception {
+        RoundUpMetrics metrics = new RoundUpMetrics();
+        metrics.recordResponse("GET accounts", 503);
+        metrics.recordFailure(RoundUpMetrics.Stage.GOAL_CREATION);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.bank.roundup:type=RoundUpMetrics,name=test");
+        metrics.registerMBean(server, name);
+        try {
+            RoundUpMetricsInterface proxy = JMX.newMXBeanProxy(server, name, RoundUpMetricsInterface.class);
+
+            assertEquals(Long.valueOf(1), proxy.getResponseCounts().get("GET accounts 503"));
+            assertEquals(Long.valueOf(1), proxy.getStageFailures().get("goal_creation"));
+            assertTrue(proxy.getStageSummaries().get("transfer").startsWith("count=0"));
+            assertTrue(proxy.getPrometheusText().contains("roundup_stage_failures_total{stage=\"goal_creation\"} 1"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    public void shouldCountEachAttemptsStatusPerEndpoint() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/accounts", exchange -> {
+            byte[] body = "{\"accounts\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+
+        RoundUpMetrics metrics = RoundUpMetrics.getDefaultInstance();
+        long okBefore = metrics.getResponseCount("GET accounts", 200);
+        long missingBefore = metrics.getResponseCount("GET missing", 404);
+
+        try {
+            HttpTransportConfig config = new HttpTransportConfig(Duration.ofSeconds(2), Duration.ofSeconds(5), HttpClient.Version.HTTP_1_1);
+            BankHttpTransport transport = new BankHttpTransport(config, RetryPolicy.none(), RateLimiter.unlimited(), ConcurrencyLimiter.unlimited());
+            BankHttpTransportTest.TestableApiService service = new BankHttpTransportTest.TestableApiService(
+                    "token-1", transport, "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+
+            service.get("accounts");
+            service.getAsync("accounts");
+            try {
+                service.get("missing");
+                fail("expected BankApiException");
+            } catch (BankApiException e) {
+                assertTrue(e.getMessage().startsWith("API Error: 404"));
+            }
+            try {
+                service.getAsync("missing");
+                fail("expected BankApiException");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof BankApiException);
+            }
+
+            assertEquals(2, metrics.getResponseCount("GET accounts", 200) - okBefore);
+            assertEquals(2, metrics.getResponseCount("GET missing", 404) - missingBefore);
+            assertTrue(metrics.getPrometheusText().contains("# TYPE roundup_concurrency_limit gauge"));
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.bank.roundup;
+
+import com.bank.roundup.engine.RoundUpEngine;
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.schedule.RoundUpCadence;
+import com.bank.roundup.schedule.RoundUpScheduler;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.service.TransactionServiceInterface;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RoundUpSchedulerTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+    private static final RoundUpCadence MONDAYS = RoundUpCadence.weekly(DayOfWeek.MONDAY, LocalTime.of(2, 0), ZoneOffset.UTC);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // "accountUid start end" for every window fetched
+    private final ConcurrentLinkedQueue<String> windows = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    // Sunday 5th January 2025, midday
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-05T12:00:00Z"));
+
+    @Test
+    public void shouldParseCadenceExpressions() {
+        RoundUpCadence cadence = RoundUpCadence.parse("mon,THURSDAY 06:30", ZoneOffset.UTC);
+
+        assertEquals(Instant.parse("2025-01-06T06:30:00Z"), cadence.nextFireAfter(Instant.parse("2025-01-05T12:00:00Z")));
+        assertEquals(Instant.parse("2025-01-09T06:30:00Z"), cadence.nextFireAfter(Instant.parse("2025-01-06T06:30:00Z")));
+        assertEquals(Instant.parse("2025-01-06T03:00:00Z"),
+                RoundUpCadence.parse("* 03:00", ZoneOffset.UTC).nextFireAfter(Instant.parse("2025-01-05T03:00:00Z")));
+    }
+
+    @Test
+    public void shouldSpreadRunsAcrossTheWindowAndRunEachAccountOnce() throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("schedule.json");
+        List<Account> accounts = new ArrayList<>();
+
+        try (RoundUpEngine engine = engine();
+             RoundUpScheduler scheduler = new RoundUpScheduler(engine, MONDAYS, Duration.ofHours(6), Duration.ofHours(1), stateFile, clock)) {
+            for (int i = 0; i < 60; i++) {
+                Account account = account();
+                accounts.add(account);
+                scheduler.enroll("token", account, UUID.randomUUID(), null, GBP, LocalDate.of(2024, 12, 30));
+            }
+
+            clock.set(Instant.parse("2025-01-06T01:59:00Z"));
+            scheduler.runDue().join();
+            assertEquals(0, windows.size());
+
+            clock.set(Instant.parse("2025-01-06T05:00:00Z"));
+            scheduler.runDue().join();
+            int firstHalf = windows.size();
+            assertTrue("runs in the first half of the window: " + firstHalf, firstHalf > 10 && firstHalf < 50);
+
+            clock.set(Instant.parse("2025-01-06T08:00:00Z"));
+            scheduler.runDue().join();
+            scheduler.runDue().join();
+        }
+
+        assertEquals(60, windows.size());
+        for (Account account : accounts) {
+            assertTrue(windows.contains(account.getAccountUid() + " 2024-12-30 2025-01-05"));
+        }
+    }
+
+    @Test
+    public void shouldResumeFromSavedStateWithoutRerunningOrSkipping() throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("schedule.json");
+        Account account = account();
+
+        try (RoundUpEngine engine = engine();
+             RoundUpScheduler scheduler = new RoundUpScheduler(engine, MONDAYS, Duration.ZERO, Duration.ofHours(1), stateFile, clock)) {
+            scheduler.enroll("token", account, UUID.randomUUID(), null, GBP, LocalDate.of(2024, 12, 30));
+
+            // the first attempt fails and is retried an hour later with the same window
+            failing.set(true);
+            clock.set(Instant.parse("2025-01-06T02:00:00Z"));
+            scheduler.runDue().join();
+            failing.set(false);
+            clock.set(Instant.parse("2025-01-06T02:30:00Z"));
+            scheduler.runDue().join();
+            clock.set(Instant.parse("2025-01-06T03:00:00Z"));
+            scheduler.runDue().join();
+        }
+
+        // a restart the same day runs nothing, and three weeks of downtime are caught up in one run
+        try (RoundUpEngine engine = engine();
+             RoundUpScheduler scheduler = new RoundUpScheduler(engine, MONDAYS, Duration.ZERO, Duration.ofHours(1), stateFile, clock)) {
+            scheduler.runDue().join();
+            assertEquals(1, scheduler.getEnrollments().size());
+
+            clock.set(Instant.parse("2025-01-27T09:00:00Z"));
+            scheduler.runDue().join();
+            scheduler.runDue().join();
+        }
+
+        String uid = account.getAccountUid().toString();
+        assertEquals(List.of(uid + " 2024-12-30 2025-01-05", uid + " 2024-12-30 2025-01-05", uid + " 2025-01-06 2025-01-26"),
+                new ArrayList<>(windows));
+    }
+
+    @Test
+    public void shouldRetryTheSameWindowAfterTheNextFireTimeAndSaveTheStateOwnerOnly() throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("schedule.json");
+        Account account = account();
+
+        try (RoundUpEngine engine = engine();
+             RoundUpScheduler scheduler = new RoundUpScheduler(engine, MONDAYS, Duration.ZERO, Duration.ofHours(1), stateFile, clock)) {
+            scheduler.enroll("token", account, UUID.randomUUID(), null, GBP, LocalDate.of(2024, 12, 30));
+
+            failing.set(true);
+            clock.set(Instant.parse("2025-01-06T02:00:00Z"));
+            scheduler.runDue().join();
+            scheduler.save();
+        }
+
+        if (stateFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(stateFile));
+        }
+
+        // the retry only runs after another fire time has passed, and still covers just the failed window
+        failing.set(false);
+        clock.set(Instant.parse("2025-01-13T09:00:00Z"));
+        try (RoundUpEngine engine = engine();
+             RoundUpScheduler scheduler = new RoundUpScheduler(engine, MONDAYS, Duration.ZERO, Duration.ofHours(1), stateFile, clock)) {
+            scheduler.runDue().join();
+            scheduler.runDue().join();
+        }
+
+        String uid = account.getAccountUid().toString();
+        assertEquals(List.of(uid + " 2024-12-30 2025-01-05", uid + " 2024-12-30 2025-01-05", uid + " 2025-01-06 2025-01-12"),
+                new ArrayList<>(windows));
+    }
+
+    @Test
+    public void shouldKeepEveryEnrollmentWhenSavesRace() throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("schedule.json");
+        int accounts = 32;
+
+        try (RoundUpEngine engine = engine();
+             RoundUpScheduler scheduler = new RoundUpScheduler(engine, MONDAYS, Duration.ZERO, Duration.ofHours(1), stateFile, clock)) {
+            ExecutorService enrollers = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> enrolled = new ArrayList<>();
+                for (int i = 0; i < accounts; i++) {
+                    enrolled.add(enrollers.submit(() -> {
+                        scheduler.enroll("token", account(), UUID.randomUUID(), null, GBP, LocalDate.of(2024, 12, 30));
+                        return null;
+                    }));
+                }
+                for (Future<?> future : enrolled) {
+                    future.get();
+                }
+            } finally {
+                enrollers.shutdown();
+            }
+        }
+
+        try (RoundUpEngine engine = engine();
+             RoundUpScheduler scheduler = new RoundUpScheduler(engine, MONDAYS, Duration.ZERO, Duration.ofHours(1), stateFile, clock)) {
+            assertEquals(accounts, scheduler.getEnrollments().size());
+        }
+    }
+
+    @Test
+    public void shouldRejectSavedStateWithoutANextRunTime() throws Exception {
+        Path stateFile = folder.getRoot().toPath().resolve("schedule.json");
+        Files.write(stateFile, ("[{\"account\":{\"accountUid\":\"" + UUID.randomUUID() + "\"},"
+                + "\"nextWindowStart\":\"2024-12-30\",\"nextFireAt\":\"2025-01-06T02:00:00Z\"}]").getBytes(StandardCharsets.UTF_8));
+
+        try (RoundUpEngine engine = engine()) {
+            new RoundUpScheduler(engine, MONDAYS, Duration.ZERO, Duration.ofHours(1), stateFile, clock);
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("nextRunAt"));
+        }
+    }
+
+    private RoundUpEngine engine() {
+        return new RoundUpEngine(authToken -> new RoundUpServices(null, new RecordingTransactions(), new NoOpGoals()), Runnable::run, 8);
+    }
+
+    private static Account account() {
+        Account account = new Account();
+        account.setAccountUid(UUID.randomUUID());
+        account.setCurrency(GBP);
+        return account;
+    }
+
+    private class RecordingTransactions implements TransactionServiceInterface {
+
+        @Override
+        public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account)
+                throws BankApiException {
+            windows.add(account.getAccountUid() + " " + startDate + " " + endDate);
+            if (failing.get()) {
+                throw new BankApiException("API Error: 503");
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
+            return BigDecimal.ZERO;
+        }
+
+        @Override
+        public long calculateRoundUpPence(List<Transaction> transactions) {
+            return RoundUpCalculator.totalRoundUpPence(transactions);
+        }
+    }
+
+    private static class NoOpGoals implements SavingsGoalServiceInterface {
+
+        @Override
+        public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account) {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) {
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.bank.roundup;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -13,7 +14,6 @@ import com.bank.roundup.model.UserSelections;
 import com.bank.roundup.model.Account;
 import com.bank.roundup.model.Transaction;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Currency;
@@ -30,6 +30,8 @@ import static org.mockito.Mockito.never;
 @RunWith(MockitoJUnitRunner.class)
 public class RoundUpTest {
 
+    private static final String AUTH_TOKEN = "test-auth-token";
+
     @Mock
     private CLI mockCli;
     
@@ -39,7 +41,8 @@ public class RoundUpTest {
     @Mock
     private TransactionServiceInterface mockTransactionService;
     
-    @Mock
+    // runs the interface defaults, like an implementation that only provides the original methods
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private SavingsGoalServiceInterface mockSavingsGoalService;
 
     @Test
@@ -67,12 +70,12 @@ public class RoundUpTest {
         when(mockCli.askForAccountSelection(accounts)).thenReturn(mockAccount);
         when(mockTransactionService.getTransactionsForTimePeriod(any(), any(), eq(mockAccount)))
             .thenReturn(transactions);
-        when(mockTransactionService.calculateRoundUpAmount(transactions))
-            .thenReturn(new BigDecimal("0.65")); // 65p roundup
+        when(mockTransactionService.calculateRoundUpPence(transactions))
+            .thenReturn(65L); // 65p roundup
         when(mockSavingsGoalService.createSavingsGoal(eq("Test Goal"), any(), eq(mockAccount)))
             .thenReturn(mockSavingsGoalUid);
 
-        RoundUp roundUp = new RoundUp(mockCli, mockAccountService, mockTransactionService, mockSavingsGoalService);
+        RoundUp roundUp = new RoundUp(mockCli, AUTH_TOKEN, mockAccountService, mockTransactionService, mockSavingsGoalService);
         
         // Then
         roundUp.startRoundUp();
@@ -80,7 +83,7 @@ public class RoundUpTest {
         // Verify interactions
         verify(mockAccountService).getAccountsForUser();
         verify(mockTransactionService).getTransactionsForTimePeriod(any(), any(), eq(mockAccount));
-        verify(mockTransactionService).calculateRoundUpAmount(transactions);
+        verify(mockTransactionService).calculateRoundUpPence(transactions);
         verify(mockSavingsGoalService).createSavingsGoal("Test Goal", Currency.getInstance("GBP"), mockAccount);
         verify(mockSavingsGoalService).addSavedMoneyToSavingsGoal(65, Currency.getInstance("GBP"), mockSavingsGoalUid, mockAccount);
     }
@@ -107,10 +110,10 @@ public class RoundUpTest {
         when(mockCli.askForAccountSelection(accounts)).thenReturn(mockAccount);
         when(mockTransactionService.getTransactionsForTimePeriod(any(), any(), eq(mockAccount)))
             .thenReturn(transactions);
-        when(mockTransactionService.calculateRoundUpAmount(transactions))
-            .thenReturn(new BigDecimal("0.65")); // 65p roundup
+        when(mockTransactionService.calculateRoundUpPence(transactions))
+            .thenReturn(65L); // 65p roundup
 
-        RoundUp roundUp = new RoundUp(mockCli, mockAccountService, mockTransactionService, mockSavingsGoalService);
+        RoundUp roundUp = new RoundUp(mockCli, AUTH_TOKEN, mockAccountService, mockTransactionService, mockSavingsGoalService);
 
         // When
         roundUp.startRoundUp();
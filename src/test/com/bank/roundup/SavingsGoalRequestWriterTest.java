@@ -0,0 +1,53 @@
+package com.bank.roundup;
+
+import com.bank.roundup.model.CurrencyAndAmount;
+import com.bank.roundup.model.SavingsGoalRequestV2;
+import com.bank.roundup.model.TopUpRequestV2;
+import com.bank.roundup.service.SavingsGoalRequestWriter;
+import com.bank.roundup.util.JsonMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.Currency;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SavingsGoalRequestWriterTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.getObjectMapperInstance();
+
+    @Test
+    public void shouldWriteTopUpBodiesIdenticalToTheObjectMapper() throws Exception {
+        int[] amounts = {0, 1, 9, 10, 99, 638, 2162, 100_000, -1, -250, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (String currencyCode : new String[]{"GBP", "EUR", "JPY"}) {
+            Currency currency = Currency.getInstance(currencyCode);
+            for (int amount : amounts) {
+                CurrencyAndAmount currencyAndAmount = new CurrencyAndAmount();
+                currencyAndAmount.setCurrency(currencyCode);
+                currencyAndAmount.setMinorUnits(amount);
+                TopUpRequestV2 request = new TopUpRequestV2();
+                request.setAmount(currencyAndAmount);
+
+                assertArrayEquals(currencyCode + " " + amount, objectMapper.writeValueAsBytes(request),
+                        SavingsGoalRequestWriter.writeTopUpRequest(amount, currency));
+            }
+        }
+
+        assertEquals("{\"amount\":{\"currency\":\"GBP\",\"minorUnits\":638}}",
+                new String(SavingsGoalRequestWriter.writeTopUpRequest(638, Currency.getInstance("GBP")), "UTF-8"));
+    }
+
+    @Test
+    public void shouldWriteSavingsGoalBodiesIdenticalToTheObjectMapper() throws Exception {
+        String[] names = {"Holiday Fund", "Holiday \"fund\"", "back\\slash", "caf\u00e9 \u20ac \ud83d\ude00", "tab\tnew\nline\u0001", "lone \ud800 surrogate", "", null};
+        for (String name : names) {
+            SavingsGoalRequestV2 request = new SavingsGoalRequestV2();
+            request.setName(name);
+            request.setCurrency("GBP");
+
+            assertArrayEquals(String.valueOf(name), objectMapper.writeValueAsBytes(request),
+                    SavingsGoalRequestWriter.writeSavingsGoalRequest(name, Currency.getInstance("GBP")));
+        }
+    }
+}
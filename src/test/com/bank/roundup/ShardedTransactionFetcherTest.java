@@ -0,0 +1,185 @@
+package com.bank.roundup;
+
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.service.ShardedTransactionFetcher;
+import com.bank.roundup.service.TransactionServiceInterface;
+import com.bank.roundup.util.AsyncSupport;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ShardedTransactionFetcherTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 4, 21);
+    private static final LocalDate END = LocalDate.of(2025, 4, 27);
+
+    private final Account account = new Account();
+
+    @Test
+    public void shouldSplitWindowIntoShardsOfConfiguredSize() throws BankApiException {
+        ConcurrentLinkedQueue<Instant[]> requested = new ConcurrentLinkedQueue<>();
+        FakeTransactionService service = new FakeTransactionService((range) -> {
+            requested.add(range);
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        });
+
+        new ShardedTransactionFetcher(service, Duration.ofHours(1), 3).getTransactionsForTimePeriod(START, END, account);
+
+        assertEquals(7 * 24, requested.size());
+        for (Instant[] range : requested) {
+            assertEquals(Duration.ofHours(1), Duration.between(range[0], range[1]));
+        }
+    }
+
+    @Test
+    public void shouldMergeShardsInTimeOrderAndDropDuplicateFeedItems() throws BankApiException {
+        // every shard also returns the first item of the next shard, as the inclusive upper bound would
+        FakeTransactionService service = new FakeTransactionService((range) -> {
+            List<Transaction> transactions = new ArrayList<>();
+            transactions.add(transaction(range[0].plusSeconds(60), 250));
+            transactions.add(transaction(range[0].plusSeconds(30), 199));
+            transactions.add(transaction(range[1].plusSeconds(30), 199));
+            return CompletableFuture.completedFuture(transactions);
+        });
+
+        List<Transaction> transactions = new ShardedTransactionFetcher(service, Duration.ofDays(1), 4)
+                .getTransactionsForTimePeriod(START, END, account);
+
+        // 2 per day plus the spill over past the last day
+        assertEquals(7 * 2 + 1, transactions.size());
+        for (int i = 1; i < transactions.size(); i++) {
+            assertTrue(transactions.get(i - 1).getTransactionEpochMilli() < transactions.get(i).getTransactionEpochMilli());
+        }
+    }
+
+    @Test
+    public void shouldNotExceedMaxParallelism() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        FakeTransactionService service = new FakeTransactionService((range) -> CompletableFuture.supplyAsync(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleepQuietly(2);
+            inFlight.decrementAndGet();
+            List<Transaction> transactions = new ArrayList<>();
+            transactions.add(transaction(range[0], 101));
+            return transactions;
+        }, executor));
+
+        List<Transaction> transactions;
+        try {
+            transactions = new ShardedTransactionFetcher(service, Duration.ofHours(4), 3).getTransactionsForTimePeriod(START, END, account);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(7 * 6, transactions.size());
+        assertEquals(7 * 6 * 99L, RoundUpCalculator.totalRoundUpPence(transactions));
+        assertTrue("parallelism limit exceeded: " + maxInFlight.get(), maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void shouldFailWithBankApiExceptionWhenAnyShardFails() {
+        FakeTransactionService service = new FakeTransactionService((range) -> {
+            if (range[0].equals(Instant.parse("2025-04-23T00:00:00Z"))) {
+                return AsyncSupport.failedFuture(new BankApiException("API Error: 503 - unavailable"));
+            }
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        });
+
+        try {
+            new ShardedTransactionFetcher(service, Duration.ofDays(1), 2).getTransactionsForTimePeriodAsync(START, END, account).join();
+            fail("expected CompletionException");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof BankApiException);
+            assertEquals("API Error: 503 - unavailable", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void shouldHandleManySynchronouslyCompletingShards() throws BankApiException {
+        FakeTransactionService service = new FakeTransactionService((range) -> CompletableFuture.completedFuture(new ArrayList<>()));
+
+        List<Transaction> transactions = new ShardedTransactionFetcher(service, Duration.ofMinutes(1), 1)
+                .getTransactionsForTimePeriod(START.minusDays(60), END, account);
+
+        assertTrue(transactions.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectZeroShardSize() {
+        new ShardedTransactionFetcher(new FakeTransactionService(range -> null), Duration.ZERO, 1);
+    }
+
+    private static Transaction transaction(Instant time, int minorUnits) {
+        Transaction transaction = new Transaction();
+        transaction.setFeedItemUid(UUID.nameUUIDFromBytes(time.toString().getBytes()).toString());
+        transaction.setDirection(TransactionDirection.OUT);
+        transaction.setTransactionTime(time.toString());
+        Transaction.Amount amount = new Transaction.Amount();
+        amount.setCurrency("GBP");
+        amount.setMinorUnits(minorUnits);
+        transaction.setAmount(amount);
+        return transaction;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class FakeTransactionService implements TransactionServiceInterface {
+
+        private final Function<Instant[], CompletableFuture<List<Transaction>>> shardFetch;
+
+        FakeTransactionService(Function<Instant[], CompletableFuture<List<Transaction>>> shardFetch) {
+            this.shardFetch = shardFetch;
+        }
+
+        @Override
+        public CompletableFuture<List<Transaction>> getTransactionsBetweenAsync(Instant from, Instant to, Account account) {
+            return shardFetch.apply(new Instant[] {from, to});
+        }
+
+        @Override
+        public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) {
+            throw new UnsupportedOperationException("whole window fetch should not be used");
+        }
+
+        @Override
+        public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
+            return BigDecimal.ZERO;
+        }
+
+        @Override
+        public long calculateRoundUpPence(List<Transaction> transactions) {
+            return RoundUpCalculator.totalRoundUpPence(transactions);
+        }
+    }
+}
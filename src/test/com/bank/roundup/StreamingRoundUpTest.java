@@ -0,0 +1,245 @@
+package com.bank.roundup;
+
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.streaming.FeedIngestServer;
+import com.bank.roundup.streaming.StreamingRoundUp;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StreamingRoundUpTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private final ConcurrentLinkedQueue<Integer> sentAmounts = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<UUID> sentTransferUids = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final Account account = account();
+    private final UUID goalUid = UUID.randomUUID();
+
+    @Test
+    public void shouldNotLoseRoundUpsAcceptedConcurrently() throws Exception {
+        StreamingRoundUp streaming = new StreamingRoundUp(this::services, 5_000, Duration.ofMillis(20), 2);
+        streaming.register("token", account, goalUid);
+
+        int threads = 4;
+        int eventsPerThread = 50_000;
+        ExecutorService senders = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            senders.execute(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    // 235 rounds up by 65p, incoming items are ignored
+                    streaming.accept(account.getAccountUid(), feedItem(i % 10 == 0 ? TransactionDirection.IN : TransactionDirection.OUT, 235));
+                }
+            });
+        }
+        senders.shutdown();
+        assertTrue(senders.awaitTermination(1, TimeUnit.MINUTES));
+        streaming.close();
+
+        long expected = threads * (eventsPerThread - eventsPerThread / 10) * 65L;
+        assertEquals(threads * eventsPerThread, streaming.getAcceptedEvents());
+        assertEquals(expected, streaming.getTransferredPence());
+        assertEquals(expected, sentAmounts.stream().mapToLong(Integer::longValue).sum());
+        assertEquals(0, streaming.getPendingPence(account.getAccountUid()));
+        assertTrue("transfers: " + sentAmounts.size(), sentAmounts.size() > 1);
+    }
+
+    @Test
+    public void shouldRejectEventsAcceptedAfterClose() throws Exception {
+        StreamingRoundUp streaming = new StreamingRoundUp(this::services, 1_000_000, Duration.ofMinutes(10), 1);
+        streaming.register("token", account, goalUid);
+        streaming.accept(account.getAccountUid(), feedItem(TransactionDirection.OUT, 150));
+        streaming.close();
+
+        try {
+            streaming.accept(account.getAccountUid(), feedItem(TransactionDirection.OUT, 150));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("Streaming roundup is closed", e.getMessage());
+        }
+        assertEquals(1, streaming.getAcceptedEvents());
+        assertEquals(List.of(50), new ArrayList<>(sentAmounts));
+    }
+
+    @Test
+    public void shouldResendAFailedFlushUnderTheSameTransferUid() throws Exception {
+        StreamingRoundUp streaming = new StreamingRoundUp(this::services, 1_000_000, Duration.ofMinutes(10), 1);
+        streaming.register("token", account, goalUid);
+
+        failing.set(true);
+        streaming.accept(account.getAccountUid(), feedItem(TransactionDirection.OUT, 150));
+        streaming.flushAll();
+        assertEquals(1, streaming.getFailedFlushes());
+        assertEquals(50, streaming.getPendingPence(account.getAccountUid()));
+
+        failing.set(false);
+        streaming.accept(account.getAccountUid(), feedItem(TransactionDirection.OUT, 190));
+        streaming.flushAll();
+        streaming.flushAll();
+        streaming.close();
+
+        List<UUID> transferUids = new ArrayList<>(sentTransferUids);
+        assertEquals(List.of(50, 50, 10), new ArrayList<>(sentAmounts));
+        assertEquals(transferUids.get(0), transferUids.get(1));
+        assertFalse(transferUids.get(1).equals(transferUids.get(2)));
+        assertEquals(60, streaming.getTransferredPence());
+    }
+
+    @Test
+    public void shouldKeepPendingRoundUpsOnReRegistrationAndNotReuseUidsAfterARestart() throws Exception {
+        StreamingRoundUp first = new StreamingRoundUp(this::services, 1_000_000, Duration.ofMinutes(10), 1);
+        first.register("token", account, goalUid);
+        first.accept(account.getAccountUid(), feedItem(TransactionDirection.OUT, 150));
+        first.register("token-2", account, goalUid);
+        assertEquals(50, first.getPendingPence(account.getAccountUid()));
+        first.close();
+
+        // a restarted process starts counting flushes again from 0
+        StreamingRoundUp restarted = new StreamingRoundUp(this::services, 1_000_000, Duration.ofMinutes(10), 1);
+        restarted.register("token", account, goalUid);
+        restarted.accept(account.getAccountUid(), feedItem(TransactionDirection.OUT, 150));
+        restarted.close();
+
+        List<UUID> transferUids = new ArrayList<>(sentTransferUids);
+        assertEquals(List.of(50, 50), new ArrayList<>(sentAmounts));
+        assertFalse(transferUids.get(0).equals(transferUids.get(1)));
+    }
+
+    @Test
+    public void shouldIngestEventsFromTheWebhookAndSocketFeed() throws Exception {
+        StreamingRoundUp streaming = new StreamingRoundUp(this::services, 1_000_000, Duration.ofMinutes(10), 1);
+        streaming.register("token", account, goalUid);
+        String unknownAccount = event(UUID.randomUUID(), UUID.randomUUID());
+
+        try (FeedIngestServer server = new FeedIngestServer(streaming, 0, 0, 2)) {
+            assertEquals("202 {\"accepted\":2}", post(server, "[" + event(account.getAccountUid(), UUID.randomUUID()) + ","
+                    + event(account.getAccountUid(), UUID.randomUUID()) + "]"));
+
+            try (Socket socket = new Socket("127.0.0.1", server.getSocketPort())) {
+                socket.getOutputStream().write((event(account.getAccountUid(), UUID.randomUUID()) + "\n" + unknownAccount + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (streaming.getUnknownAccountEvents() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        streaming.close();
+
+        assertEquals(3, streaming.getAcceptedEvents());
+        assertEquals(1, streaming.getUnknownAccountEvents());
+        assertEquals(List.of(3 * 80), new ArrayList<>(sentAmounts));
+    }
+
+    @Test
+    public void shouldNotRoundUpARetriedWebhookBodyTwice() throws Exception {
+        StreamingRoundUp streaming = new StreamingRoundUp(this::services, 1_000_000, Duration.ofMinutes(10), 1);
+        streaming.register("token", account, goalUid);
+        String first = event(account.getAccountUid(), UUID.randomUUID());
+        String second = event(account.getAccountUid(), UUID.randomUUID());
+
+        try (FeedIngestServer server = new FeedIngestServer(streaming, 0, -1, 2)) {
+            // the first event is accepted before the body breaks, then the sender retries all of it
+            assertEquals("400 {\"error\":\"invalid feed item event\"}", post(server, "[" + first + ",{\"accountUid\":"));
+            assertEquals("202 {\"accepted\":2}", post(server, "[" + first + "," + second + "]"));
+        }
+        streaming.close();
+
+        assertEquals(2, streaming.getAcceptedEvents());
+        assertEquals(1, streaming.getDuplicateEvents());
+        assertEquals(List.of(2 * 80), new ArrayList<>(sentAmounts));
+    }
+
+    /**
+     * Posts the body to the webhook, returning the status code and response body
+     */
+    private static String post(FeedIngestServer server, String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(server.getWebhookUrl()).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        int status = connection.getResponseCode();
+        try (InputStream response = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return status + " " + new String(response.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String event(UUID accountUid, UUID feedItemUid) {
+        return "{\"accountUid\":\"" + accountUid + "\",\"source\":\"test\","
+                + "\"feedItem\":{\"feedItemUid\":\"" + feedItemUid + "\",\"direction\":\"OUT\","
+                + "\"amount\":{\"currency\":\"GBP\",\"minorUnits\":420},\"spendingCategory\":\"GROCERIES\"}}";
+    }
+
+    private RoundUpServices services(String authToken) {
+        return new RoundUpServices(null, null, new RecordingGoals());
+    }
+
+    private static Transaction feedItem(TransactionDirection direction, int minorUnits) {
+        Transaction transaction = new Transaction();
+        Transaction.Amount amount = new Transaction.Amount();
+        amount.setMinorUnits(minorUnits);
+        amount.setCurrency("GBP");
+        transaction.setAmount(amount);
+        transaction.setDirection(direction);
+        return transaction;
+    }
+
+    private static Account account() {
+        Account account = new Account();
+        account.setAccountUid(UUID.randomUUID());
+        account.setCurrency(GBP);
+        return account;
+    }
+
+    private class RecordingGoals implements SavingsGoalServiceInterface {
+
+        @Override
+        public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account) {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account)
+                throws BankApiException {
+            addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account, UUID.randomUUID());
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account,
+                                               UUID transferUid) throws BankApiException {
+            sentAmounts.add(roundUpAmountPence);
+            sentTransferUids.add(transferUid);
+            if (failing.get()) {
+                throw new BankApiException("API Error: 503");
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.bank.roundup;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionBatch;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.service.MockDataService;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TransactionBatchTest {
+
+    @Test
+    public void shouldRoundTripThroughListAdapters() {
+        Transaction transaction = transaction("e98f805c-98da-450e-98e0-edb24ee77063", TransactionDirection.OUT,
+                "2025-04-24T22:39:09.687Z", "GBP", 638);
+
+        List<Transaction> roundTripped = TransactionBatch.fromTransactions(Arrays.asList(transaction)).toTransactions();
+
+        assertEquals(1, roundTripped.size());
+        Transaction result = roundTripped.get(0);
+        assertEquals(transaction.getFeedItemUid(), result.getFeedItemUid());
+        assertEquals(TransactionDirection.OUT, result.getDirection());
+        assertEquals(transaction.getTransactionTime(), result.getTransactionTime());
+        assertEquals("GBP", result.getAmount().getCurrency());
+        assertEquals(Integer.valueOf(638), result.getAmount().getMinorUnits());
+    }
+
+    @Test
+    public void shouldMapMissingValuesBackToNull() {
+        Transaction transaction = new Transaction();
+
+        Transaction result = TransactionBatch.fromTransactions(Arrays.asList(transaction)).getTransaction(0);
+
+        assertNull(result.getFeedItemUid());
+        assertNull(result.getDirection());
+        assertNull(result.getTransactionTime());
+        assertNull(result.getAmount().getCurrency());
+        // a null amount is indistinguishable from zero once stored
+        assertEquals(Integer.valueOf(0), result.getAmount().getMinorUnits());
+    }
+
+    @Test
+    public void shouldNeverMatchRowsWithoutATime() {
+        TransactionBatch batch = TransactionBatch.fromTransactions(Arrays.asList(
+                transaction(null, TransactionDirection.OUT, null, "GBP", 543),
+                transaction(null, TransactionDirection.OUT, "2025-04-24T00:00:00.000Z", "GBP", 1099)));
+
+        TransactionBatch filtered = batch.filter(TransactionBatch.DIRECTION_OUT, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertEquals(1, filtered.size());
+        assertEquals(1099, filtered.getMinorUnits(0));
+        assertEquals(1, batch.count(TransactionBatch.DIRECTION_OUT, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldMatchListRoundUpForGeneratedData() {
+        List<Transaction> transactions = MockDataService.generateMockTransactions(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31), null);
+
+        TransactionBatch batch = TransactionBatch.fromTransactions(transactions);
+
+        assertEquals(transactions.size(), batch.size());
+        assertEquals(RoundUpCalculator.totalRoundUpPence(transactions), batch.totalRoundUpPence());
+    }
+
+    @Test
+    public void shouldFilterByDirectionAndHalfOpenTimeRange() {
+        TransactionBatch batch = TransactionBatch.fromTransactions(Arrays.asList(
+                transaction(null, TransactionDirection.OUT, "2025-04-24T00:00:00.000Z", "GBP", 543),
+                transaction(null, TransactionDirection.IN, "2025-04-24T12:00:00.000Z", "GBP", 10000),
+                transaction(null, TransactionDirection.OUT, "2025-04-24T23:59:59.999Z", "EUR", 295),
+                transaction(null, TransactionDirection.OUT, "2025-04-25T00:00:00.000Z", "GBP", 1099)));
+
+        long from = Instant.parse("2025-04-24T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2025-04-25T00:00:00Z").toEpochMilli();
+        TransactionBatch filtered = batch.filter(TransactionBatch.DIRECTION_OUT, from, to);
+
+        assertEquals(2, filtered.size());
+        assertEquals(543, filtered.getMinorUnits(0));
+        assertEquals("EUR", filtered.getCurrency(1));
+        assertEquals(57 + 5, filtered.totalRoundUpPence());
+        assertEquals(2, batch.count(TransactionBatch.DIRECTION_OUT, from, to));
+    }
+
+    @Test
+    public void shouldAggregatePerDictionaryCurrency() {
+        TransactionBatch batch = new TransactionBatch(1);
+        batch.add(0L, 100, TransactionBatch.DIRECTION_OUT, 1L, 1L, "GBP");
+        batch.add(0L, 250, TransactionBatch.DIRECTION_OUT, 1L, 2L, "EUR");
+        batch.add(0L, 300, TransactionBatch.DIRECTION_OUT, 1L, 3L, "GBP");
+
+        assertEquals(Arrays.asList("GBP", "EUR"), batch.getCurrencyDictionary());
+        assertArrayEquals(new long[]{400L, 250L}, batch.totalMinorUnitsByCurrency());
+        assertEquals(650L, batch.totalMinorUnits());
+        assertTrue(batch.estimatedSizeBytes() >= 3L * 30);
+    }
+
+    private static Transaction transaction(String feedItemUid, TransactionDirection direction, String time, String currency, int minorUnits) {
+        Transaction transaction = new Transaction();
+        transaction.setFeedItemUid(feedItemUid);
+        transaction.setDirection(direction);
+        transaction.setTransactionTime(time);
+        Transaction.Amount amount = new Transaction.Amount();
+        amount.setCurrency(currency);
+        amount.setMinorUnits(minorUnits);
+        transaction.setAmount(amount);
+        return transaction;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bank.roundup;
+
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.model.TransactionDirection;
+import com.bank.roundup.service.TransactionFeedReader;
+import com.bank.roundup.service.TransactionService;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TransactionFeedReaderTest {
+
+    private static final String FEED_RESPONSE =
+        "{\"feedItems\":[" +
+        "{\"feedItemUid\":\"e98f805c-98da-450e-98e0-edb24ee77063\"," +
+        "\"categoryUid\":\"e6afee0c-f07e-4aee-82f6-575cc6372084\"," +
+        "\"amount\":{\"currency\":\"GBP\",\"minorUnits\":638}," +
+        "\"sourceAmount\":{\"currency\":\"GBP\",\"minorUnits\":638}," +
+        "\"direction\":\"OUT\"," +
+        "\"transactionTime\":\"2025-04-24T22:39:09.687Z\"," +
+        "\"counterPartyName\":\"Coffee Shop\"}," +
+        "{\"feedItemUid\":\"e6fc475f-dee4-4970-b142-6e4f686383d0\"," +
+        "\"amount\":{\"currency\":\"GBP\",\"minorUnits\":2162}," +
+        "\"direction\":\"IN\"," +
+        "\"transactionTime\":\"2025-04-24T11:40:47.569Z\"}," +
+        "{\"feedItemUid\":\"0a0f9b55-2f1c-4c4e-9a61-1d8a4dc2b7a1\"," +
+        "\"amount\":{\"currency\":\"GBP\",\"minorUnits\":1099}," +
+        "\"direction\":\"OUT\"," +
+        "\"transactionTime\":\"2025-04-27T09:00:00.000Z\"}" +
+        "]}";
+
+    private final TransactionFeedReader reader = new TransactionFeedReader();
+
+    @Test
+    public void shouldReadAllFeedItemsAndIgnoreUnknownFields() throws IOException {
+        List<Transaction> transactions = reader.readFeedItems(FEED_RESPONSE, transaction -> true);
+
+        assertEquals(3, transactions.size());
+        assertEquals("e98f805c-98da-450e-98e0-edb24ee77063", transactions.get(0).getFeedItemUid());
+        assertEquals(Integer.valueOf(638), transactions.get(0).getAmount().getMinorUnits());
+        assertEquals(TransactionDirection.IN, transactions.get(1).getDirection());
+    }
+
+    @Test
+    public void shouldApplyDateAndDirectionFilterWhileReading() throws IOException {
+        LocalDate day = LocalDate.of(2025, 4, 24);
+
+        List<Transaction> transactions = reader.readFeedItems(FEED_RESPONSE, TransactionService.isOutgoingBetween(day, day));
+
+        assertEquals(1, transactions.size());
+        assertEquals(Integer.valueOf(638), transactions.get(0).getAmount().getMinorUnits());
+    }
+
+    @Test
+    public void shouldIncludeBothEndsOfTheDateRange() throws IOException {
+        List<Transaction> transactions = reader.readFeedItems(FEED_RESPONSE,
+                TransactionService.isOutgoingBetween(LocalDate.of(2025, 4, 24), LocalDate.of(2025, 4, 27)));
+
+        assertEquals(2, transactions.size());
+    }
+
+    @Test
+    public void shouldHandItemsToCallbackWithoutBuildingList() throws IOException {
+        List<Integer> seen = new ArrayList<>();
+
+        int accepted = reader.readFeedItems(stream(FEED_RESPONSE),
+                transaction -> transaction.getDirection() == TransactionDirection.OUT,
+                transaction -> seen.add(transaction.getAmount().getMinorUnits()));
+
+        assertEquals(2, accepted);
+        assertEquals(List.of(638, 1099), seen);
+    }
+
+    @Test
+    public void shouldIterateLazily() throws IOException {
+        try (TransactionFeedReader.FeedItemIterator iterator = reader.iterateFeedItems(stream(FEED_RESPONSE), transaction -> true)) {
+            assertTrue(iterator.hasNext());
+            assertEquals(Integer.valueOf(638), iterator.next().getAmount().getMinorUnits());
+            assertEquals(Integer.valueOf(2162), iterator.next().getAmount().getMinorUnits());
+            assertEquals(Integer.valueOf(1099), iterator.next().getAmount().getMinorUnits());
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    public void shouldSkipOtherTopLevelFieldsAndReturnEmptyWithoutFeedItems() throws IOException {
+        String response = "{\"meta\":{\"page\":[1,2,{\"feedItems\":[]}]},\"feedItems\":[]}";
+
+        assertTrue(reader.readFeedItems(response, transaction -> true).isEmpty());
+        assertTrue(reader.readFeedItems("{\"other\":1}", transaction -> true).isEmpty());
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
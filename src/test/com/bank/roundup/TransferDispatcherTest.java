@@ -0,0 +1,187 @@
+package com.bank.roundup;
+
+import com.bank.roundup.engine.RoundUpEngine;
+import com.bank.roundup.engine.RoundUpJob;
+import com.bank.roundup.engine.RoundUpResult;
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.engine.TransferDispatcher;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.service.TransactionServiceInterface;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransferDispatcherTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private final ConcurrentLinkedQueue<Integer> sentAmounts = new ConcurrentLinkedQueue<>();
+    private final Account account = account();
+    private final UUID goalUid = UUID.randomUUID();
+
+    @Test
+    public void shouldCombineConcurrentRoundUpsForTheSameGoal() throws Exception {
+        List<RoundUpJob> jobs = IntStream.range(0, 40)
+                .mapToObj(i -> new RoundUpJob("token", account, LocalDate.of(2025, 1, 1).plusDays(i * 7L),
+                        LocalDate.of(2025, 1, 7).plusDays(i * 7L), null, goalUid, GBP))
+                .collect(Collectors.toList());
+
+        List<RoundUpResult> results;
+        try (TransferDispatcher dispatcher = new TransferDispatcher(1000, Duration.ofMillis(200));
+             RoundUpEngine engine = new RoundUpEngine(RoundUpServices.coalescing(this::services, dispatcher), 40, 40)) {
+            results = engine.runAll(jobs);
+            assertEquals(40, dispatcher.getTransferCount());
+            assertTrue("batches: " + dispatcher.getBatchCount(), dispatcher.getBatchCount() < 10);
+        }
+
+        for (RoundUpResult result : results) {
+            assertEquals(RoundUpResult.Status.TRANSFERRED, result.getStatus());
+        }
+        assertEquals(40 * 65, sentAmounts.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    public void shouldSendFullBatchesAndFlushTheRestOnDemand() {
+        try (TransferDispatcher dispatcher = new TransferDispatcher(3, Duration.ofMinutes(10))) {
+            SavingsGoalServiceInterface goals = dispatcher.forToken("token", new RecordingGoals(false));
+            List<CompletableFuture<Void>> transfers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                transfers.add(goals.addSavedMoneyToSavingsGoalAsync(10, GBP, goalUid, account, UUID.randomUUID()));
+            }
+
+            CompletableFuture.allOf(transfers.subList(0, 6).toArray(new CompletableFuture<?>[0])).join();
+            assertFalse(transfers.get(6).isDone());
+            assertEquals(List.of(30, 30), new ArrayList<>(sentAmounts));
+
+            dispatcher.flush().join();
+            assertTrue(transfers.get(6).isDone());
+            assertEquals(List.of(30, 30, 10), new ArrayList<>(sentAmounts));
+        }
+    }
+
+    @Test
+    public void shouldFailEveryTransferInAFailedBatchOnly() {
+        try (TransferDispatcher dispatcher = new TransferDispatcher(100, Duration.ofMinutes(10))) {
+            SavingsGoalServiceInterface failing = dispatcher.forToken("token-a", new RecordingGoals(true));
+            SavingsGoalServiceInterface working = dispatcher.forToken("token-b", new RecordingGoals(false));
+
+            CompletableFuture<Void> first = failing.addSavedMoneyToSavingsGoalAsync(10, GBP, goalUid, account);
+            CompletableFuture<Void> second = failing.addSavedMoneyToSavingsGoalAsync(20, GBP, goalUid, account);
+            CompletableFuture<Void> other = working.addSavedMoneyToSavingsGoalAsync(30, GBP, goalUid, account);
+            dispatcher.flush().join();
+
+            for (CompletableFuture<Void> transfer : List.of(first, second)) {
+                try {
+                    transfer.join();
+                    fail("expected the batch failure");
+                } catch (CompletionException e) {
+                    assertTrue(e.getCause() instanceof BankApiException);
+                }
+            }
+            other.join();
+            assertEquals(Collections.singletonList(30), new ArrayList<>(sentAmounts));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldRejectTransfersAddedAfterClose() throws Exception {
+        TransferDispatcher dispatcher = new TransferDispatcher(100, Duration.ofMinutes(10));
+        SavingsGoalServiceInterface goals = dispatcher.forToken("token", new RecordingGoals(false));
+        dispatcher.close();
+
+        try {
+            goals.addSavedMoneyToSavingsGoal(10, GBP, goalUid, account);
+            fail("expected the dispatcher to be closed");
+        } catch (BankApiException expected) {
+            // the caller is told at once rather than left waiting for a batch that is never sent
+        }
+        assertTrue(sentAmounts.isEmpty());
+    }
+
+    private RoundUpServices services(String authToken) {
+        return new RoundUpServices(null, new FixedTransactions(), new RecordingGoals(false));
+    }
+
+    private static Account account() {
+        Account account = new Account();
+        account.setAccountUid(UUID.randomUUID());
+        return account;
+    }
+
+    private class RecordingGoals implements SavingsGoalServiceInterface {
+
+        private final boolean failing;
+
+        RecordingGoals(boolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account) {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account)
+                throws BankApiException {
+            if (failing) {
+                throw new BankApiException("API Error: 500");
+            }
+            sentAmounts.add(roundUpAmountPence);
+        }
+
+        @Override
+        public CompletableFuture<Void> addSavedMoneyToSavingsGoalAsync(int roundUpAmountPence, Currency currency, UUID savingsGoalUid,
+                                                                      Account account, UUID transferUid) {
+            try {
+                addSavedMoneyToSavingsGoal(roundUpAmountPence, currency, savingsGoalUid, account);
+                return CompletableFuture.completedFuture(null);
+            } catch (BankApiException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    private static class FixedTransactions implements TransactionServiceInterface {
+
+        @Override
+        public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) {
+            Transaction transaction = new Transaction();
+            Transaction.Amount amount = new Transaction.Amount();
+            amount.setMinorUnits(235);
+            transaction.setAmount(amount);
+            return Collections.singletonList(transaction);
+        }
+
+        @Override
+        public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
+            return BigDecimal.ZERO;
+        }
+
+        @Override
+        public long calculateRoundUpPence(List<Transaction> transactions) {
+            return RoundUpCalculator.totalRoundUpPence(transactions);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.bank.roundup;
+
+import com.bank.roundup.engine.RoundUpEngine;
+import com.bank.roundup.engine.RoundUpJob;
+import com.bank.roundup.engine.RoundUpResult;
+import com.bank.roundup.engine.RoundUpServices;
+import com.bank.roundup.exception.BankApiException;
+import com.bank.roundup.journal.TransferJournal;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.model.Transaction;
+import com.bank.roundup.service.JournalingSavingsGoalService;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import com.bank.roundup.service.TransactionServiceInterface;
+import com.bank.roundup.util.RoundUpCalculator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransferJournalTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReplayCompletedAndInDoubtTransfersAcrossSegments() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        List<UUID> completed = new ArrayList<>();
+        UUID inDoubt = UUID.randomUUID();
+
+        // 10 records per segment, so 25 completed transfers span several files
+        try (TransferJournal journal = new TransferJournal(directory, 400)) {
+            for (int i = 0; i < 25; i++) {
+                UUID transferUid = UUID.randomUUID();
+                journal.recordIntended(transferUid, i);
+                journal.recordCompleted(transferUid, i);
+                completed.add(transferUid);
+            }
+            journal.recordIntended(inDoubt, 99);
+        }
+
+        try (TransferJournal reopened = new TransferJournal(directory, 400)) {
+            assertEquals(51, reopened.getRecordCount());
+            for (UUID transferUid : completed) {
+                assertTrue(reopened.isCompleted(transferUid));
+            }
+            assertFalse(reopened.isCompleted(inDoubt));
+            assertEquals(Collections.singleton(inDoubt), reopened.getInDoubtTransfers());
+
+            // appends continue after the last replayed record
+            UUID next = UUID.randomUUID();
+            reopened.recordCompleted(next, 1);
+            assertTrue(reopened.isCompleted(next));
+        }
+        try (Stream<Path> segments = Files.list(directory)) {
+            assertEquals(6, segments.count());
+        }
+    }
+
+    @Test
+    public void shouldReplaySegmentsAtTheirSizeOnDiskAfterTheSegmentSizeChanges() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        Path firstSegment = directory.resolve("transfers-00000001.journal");
+        List<UUID> completed = new ArrayList<>();
+        try (TransferJournal journal = new TransferJournal(directory, 400)) {
+            for (int i = 0; i < 5; i++) {
+                UUID transferUid = UUID.randomUUID();
+                journal.recordCompleted(transferUid, i);
+                completed.add(transferUid);
+            }
+        }
+
+        // a larger segment size leaves the old file as it was, and its free slots are still used first
+        try (TransferJournal reopened = new TransferJournal(directory, 4000)) {
+            assertEquals(400, Files.size(firstSegment));
+            for (int i = 0; i < 5; i++) {
+                reopened.recordCompleted(UUID.randomUUID(), i);
+            }
+            reopened.recordCompleted(UUID.randomUUID(), 5);
+        }
+        assertEquals(400, Files.size(firstSegment));
+        assertEquals(4000, Files.size(directory.resolve("transfers-00000002.journal")));
+
+        // a smaller one does not cut records off the end of the old files
+        try (TransferJournal reopened = new TransferJournal(directory, 80)) {
+            assertEquals(11, reopened.getRecordCount());
+            for (UUID transferUid : completed) {
+                assertTrue(reopened.isCompleted(transferUid));
+            }
+        }
+        assertEquals(4000, Files.size(directory.resolve("transfers-00000002.journal")));
+    }
+
+    @Test
+    public void shouldIgnoreATornRecordAtTheEnd() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        UUID transferUid = UUID.randomUUID();
+        try (TransferJournal journal = new TransferJournal(directory, 4000)) {
+            journal.recordCompleted(transferUid, 10);
+        }
+
+        // half written second record - type set, content missing
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("transfers-00000001.journal").toFile(), "rw")) {
+            file.seek(40);
+            file.write(new byte[] {2, 0, 0, 0, 1, 2, 3, 4, 5, 6, 7, 8});
+        }
+
+        try (TransferJournal reopened = new TransferJournal(directory, 4000)) {
+            assertEquals(1, reopened.getRecordCount());
+            assertTrue(reopened.isCompleted(transferUid));
+            UUID next = UUID.randomUUID();
+            reopened.recordCompleted(next, 20);
+        }
+        try (TransferJournal reopened = new TransferJournal(directory, 4000)) {
+            assertEquals(2, reopened.getRecordCount());
+        }
+    }
+
+    @Test
+    public void shouldShareFlushesBetweenConcurrentTransfers() throws Exception {
+        try (TransferJournal journal = new TransferJournal(folder.getRoot().toPath(), 1 << 20)) {
+            List<CompletableFuture<Void>> futures = IntStream.range(0, 2000)
+                    .mapToObj(i -> journal.recordCompletedAsync(UUID.randomUUID(), i))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+            assertEquals(2000, journal.getRecordCount());
+            assertTrue("one flush per record: " + journal.getFlushCount(), journal.getFlushCount() < 2000);
+        }
+    }
+
+    @Test
+    public void shouldNotTransferTwiceWhenAJobIsRunAgain() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        Account account = new Account();
+        account.setAccountUid(UUID.randomUUID());
+        RoundUpJob job = new RoundUpJob("token", account, LocalDate.of(2025, 4, 21), LocalDate.of(2025, 4, 27),
+                null, UUID.randomUUID(), GBP);
+        List<UUID> sent = Collections.synchronizedList(new ArrayList<>());
+
+        for (int run = 0; run < 2; run++) {
+            try (TransferJournal journal = new TransferJournal(directory, 4000)) {
+                RoundUpServices.Factory factory = RoundUpServices.journaling(
+                        authToken -> new RoundUpServices(null, new FixedTransactions(), new RecordingSavingsGoals(sent)), journal);
+                RoundUpResult result = new RoundUpEngine(factory, Runnable::run, 1).run(job);
+                assertEquals(RoundUpResult.Status.TRANSFERRED, result.getStatus());
+            }
+        }
+
+        assertEquals(Collections.singletonList(job.getTransferUid()), sent);
+    }
+
+    @Test
+    public void shouldFailAsyncTransfersWithABankApiExceptionWhenTheJournalCannotBeWritten() throws Exception {
+        List<UUID> sent = Collections.synchronizedList(new ArrayList<>());
+        TransferJournal journal = new TransferJournal(folder.getRoot().toPath(), 4000);
+        journal.close();
+        JournalingSavingsGoalService goals = new JournalingSavingsGoalService(new RecordingSavingsGoals(sent), journal);
+
+        try {
+            goals.addSavedMoneyToSavingsGoalAsync(10, GBP, UUID.randomUUID(), new Account(), UUID.randomUUID()).join();
+            fail("expected the journal write to fail");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof BankApiException);
+            assertTrue(e.getCause().getCause() instanceof IOException);
+        }
+        assertTrue(sent.isEmpty());
+    }
+
+    private static class FixedTransactions implements TransactionServiceInterface {
+
+        @Override
+        public List<Transaction> getTransactionsForTimePeriod(LocalDate startDate, LocalDate endDate, Account account) {
+            Transaction transaction = new Transaction();
+            Transaction.Amount amount = new Transaction.Amount();
+            amount.setMinorUnits(235);
+            transaction.setAmount(amount);
+            return Collections.singletonList(transaction);
+        }
+
+        @Override
+        public BigDecimal calculateRoundUpAmount(List<Transaction> transactions) {
+            return BigDecimal.ZERO;
+        }
+
+        @Override
+        public long calculateRoundUpPence(List<Transaction> transactions) {
+            return RoundUpCalculator.totalRoundUpPence(transactions);
+        }
+    }
+
+    private static class RecordingSavingsGoals implements SavingsGoalServiceInterface {
+
+        private final List<UUID> sent;
+
+        RecordingSavingsGoals(List<UUID> sent) {
+            this.sent = sent;
+        }
+
+        @Override
+        public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account account) {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account) {
+            throw new UnsupportedOperationException("transfers should carry a transfer uid");
+        }
+
+        @Override
+        public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account account,
+                                               UUID transferUid) {
+            sent.add(transferUid);
+        }
+    }
+}
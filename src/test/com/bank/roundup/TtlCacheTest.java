@@ -0,0 +1,202 @@
+package com.bank.roundup;
+
+import com.bank.roundup.cache.CacheStats;
+import com.bank.roundup.cache.TtlCache;
+import com.bank.roundup.model.Account;
+import com.bank.roundup.service.AccountServiceInterface;
+import com.bank.roundup.service.CachingAccountService;
+import com.bank.roundup.service.CachingSavingsGoalService;
+import com.bank.roundup.service.SavingsGoalServiceInterface;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TtlCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void shouldExpireEntriesAfterTheirTtl() {
+        TtlCache<String, String> cache = new TtlCache<>(10, Duration.ofSeconds(30), clock::get);
+        cache.put("token", "accounts");
+
+        clock.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertEquals("accounts", cache.get("token"));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get("token"));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldKeepFrequentlyUsedEntriesWhenFull() {
+        TtlCache<String, String> cache = new TtlCache<>(2, Duration.ofHours(1), clock::get);
+        cache.put("hot", "1");
+        cache.put("warm", "2");
+        for (int i = 0; i < 5; i++) {
+            cache.get("hot");
+            cache.get("warm");
+        }
+
+        // a burst of one-off keys is not admitted over the popular entries
+        for (int i = 0; i < 20; i++) {
+            cache.put("one-off-" + i, "x");
+        }
+        assertEquals("1", cache.get("hot"));
+        assertEquals("2", cache.get("warm"));
+
+        // a key asked for more often than the least recently used entry replaces it
+        for (int i = 0; i < 10; i++) {
+            cache.get("rising");
+        }
+        cache.put("rising", "3");
+        assertEquals("3", cache.get("rising"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(20, cache.getStats().getRejections());
+    }
+
+    @Test
+    public void shouldMakeRoomByDroppingExpiredEntriesFromTheLeastRecentlyUsedEnd() {
+        TtlCache<String, String> cache = new TtlCache<>(3, Duration.ofSeconds(30), clock::get);
+        cache.put("old", "1");
+        cache.put("older", "2");
+        clock.addAndGet(Duration.ofSeconds(20).toNanos());
+        cache.put("live", "3");
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // both expired entries are at the eldest end, so the newcomer takes a free slot without evicting anything
+        cache.put("new", "4");
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getStats().getExpirations());
+        assertEquals(0, cache.getStats().getEvictions());
+        assertEquals("3", cache.get("live"));
+    }
+
+    @Test
+    public void shouldInvalidateEntries() {
+        TtlCache<String, String> cache = new TtlCache<>(10, Duration.ofHours(1), clock::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldServeRepeatLookupsFromTheCache() throws Exception {
+        AtomicInteger accountCalls = new AtomicInteger();
+        AtomicInteger goalCalls = new AtomicInteger();
+        AtomicInteger createCalls = new AtomicInteger();
+        Account account = new Account();
+        account.setAccountUid(UUID.randomUUID());
+        AccountServiceInterface accounts = () -> {
+            accountCalls.incrementAndGet();
+            return List.of(account);
+        };
+        UUID holidayUid = UUID.randomUUID();
+        SavingsGoalServiceInterface goals = new SavingsGoalServiceInterface() {
+            @Override
+            public UUID findSavingsGoal(String savingsGoalName, Account goalAccount) {
+                goalCalls.incrementAndGet();
+                return "Holiday".equals(savingsGoalName) ? holidayUid : null;
+            }
+
+            @Override
+            public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account goalAccount) {
+                createCalls.incrementAndGet();
+                return UUID.randomUUID();
+            }
+
+            @Override
+            public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account goalAccount) {
+            }
+        };
+
+        TtlCache<String, List<Account>> accountCache = new TtlCache<>(10, Duration.ofHours(1), clock::get);
+        CachingAccountService cachingAccounts = new CachingAccountService("token", accounts, accountCache);
+        List<Account> first = cachingAccounts.getAccountsForUser();
+        assertSame(first, cachingAccounts.getAccountsForUserAsync().get());
+        cachingAccounts.invalidate();
+        cachingAccounts.getAccountsForUser();
+        assertEquals(2, accountCalls.get());
+
+        CachingSavingsGoalService cachingGoals =
+                new CachingSavingsGoalService(goals, new TtlCache<>(10, Duration.ofHours(1), clock::get));
+        assertEquals(holidayUid, cachingGoals.findSavingsGoal("Holiday", account));
+        assertEquals(holidayUid, cachingGoals.findSavingsGoalAsync("Holiday", account).get());
+        assertEquals(1, goalCalls.get());
+
+        // a goal not found may be created at any time, so misses are looked up again
+        assertNull(cachingGoals.findSavingsGoal("Car", account));
+        assertNull(cachingGoals.findSavingsGoal("Car", account));
+        assertEquals(3, goalCalls.get());
+
+        // creating is not idempotent, so it always reaches the delegate
+        Currency gbp = Currency.getInstance("GBP");
+        assertNotEquals(holidayUid, cachingGoals.createSavingsGoal("Holiday", gbp, account));
+        cachingGoals.createSavingsGoalAsync("Holiday", gbp, account).get();
+        assertEquals(2, createCalls.get());
+    }
+
+    @Test
+    public void shouldShareOneGoalLookupBetweenConcurrentMisses() throws Exception {
+        AtomicInteger goalCalls = new AtomicInteger();
+        CompletableFuture<UUID> lookup = new CompletableFuture<>();
+        Account account = new Account();
+        account.setAccountUid(UUID.randomUUID());
+        SavingsGoalServiceInterface goals = new SavingsGoalServiceInterface() {
+            @Override
+            public UUID findSavingsGoal(String savingsGoalName, Account goalAccount) {
+                throw new UnsupportedOperationException("lookups should be async");
+            }
+
+            @Override
+            public CompletableFuture<UUID> findSavingsGoalAsync(String savingsGoalName, Account goalAccount) {
+                goalCalls.incrementAndGet();
+                return lookup;
+            }
+
+            @Override
+            public UUID createSavingsGoal(String savingsGoalName, Currency currency, Account goalAccount) {
+                return UUID.randomUUID();
+            }
+
+            @Override
+            public void addSavedMoneyToSavingsGoal(int roundUpAmountPence, Currency currency, UUID savingsGoalUid, Account goalAccount) {
+            }
+        };
+
+        CachingSavingsGoalService cachingGoals =
+                new CachingSavingsGoalService(goals, new TtlCache<>(10, Duration.ofHours(1), clock::get));
+        CompletableFuture<UUID> first = cachingGoals.findSavingsGoalAsync("Holiday", account);
+        CompletableFuture<UUID> second = cachingGoals.findSavingsGoalAsync("Holiday", account);
+        UUID goalUid = UUID.randomUUID();
+        lookup.complete(goalUid);
+
+        assertEquals(goalUid, first.get());
+        assertEquals(goalUid, second.get());
+        assertEquals(goalUid, cachingGoals.findSavingsGoalAsync("Holiday", account).get());
+        assertEquals(1, goalCalls.get());
+    }
+}